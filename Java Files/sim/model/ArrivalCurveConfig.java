@@ -45,6 +45,20 @@ public class ArrivalCurveConfig implements Serializable {
         return c;
     }
 
+    /** Independent copy with the same values (not re-validated). */
+    public ArrivalCurveConfig copy() {
+        ArrivalCurveConfig c = new ArrivalCurveConfig();
+        c.legacyMode = legacyMode;
+        c.peakMinutesBeforeDeparture = peakMinutesBeforeDeparture;
+        c.leftSigmaMinutes = leftSigmaMinutes;
+        c.rightSigmaMinutes = rightSigmaMinutes;
+        c.lateClampEnabled = lateClampEnabled;
+        c.lateClampMinutesBeforeDeparture = lateClampMinutesBeforeDeparture;
+        c.windowStartMinutesBeforeDeparture = windowStartMinutesBeforeDeparture;
+        c.boardingCloseMinutesBeforeDeparture = boardingCloseMinutesBeforeDeparture;
+        return c;
+    }
+
     public void markEdited() {
         this.legacyMode = false;
     }
@@ -2,6 +2,8 @@ package sim.model;
 
 // Flight.java
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 public class Flight {
@@ -10,6 +12,7 @@ public class Flight {
     private int seats;
     private double fillPercent;
     private ShapeType shape;
+    private LocalDate departureDate;   // null = the simulated day (single-day schedules)
 
     public enum ShapeType { CIRCLE, TRIANGLE, SQUARE, DIAMOND, STAR, HEXAGON }
 
@@ -31,4 +34,11 @@ public class Flight {
     public void setFillPercent(double fillPercent) { this.fillPercent = fillPercent; }
     public ShapeType getShape() { return shape; }
     public void setShape(ShapeType shape) { this.shape = shape; }
+    public LocalDate getDepartureDate() { return departureDate; }
+    public void setDepartureDate(LocalDate departureDate) { this.departureDate = departureDate; }
+
+    /** Departure on the calendar; undated flights depart on {@code defaultDate}. */
+    public LocalDateTime getDepartureDateTime(LocalDate defaultDate) {
+        return LocalDateTime.of(departureDate != null ? departureDate : defaultDate, departureTime);
+    }
 }
@@ -3,13 +3,13 @@ package sim.service;
 
 
 import sim.model.Flight;
-import java.util.*;
+import sim.service.arrivals.ArrivalCurveCache;
 
 
 public class ArrivalGenerator {
     private final int totalMinutes;       // total minutes from arrival start to cutoff
     private final int intervalMinutes;
-    private final double[] minuteProbabilities;
+    private final ArrivalCurveCache.Shape curveShape;
 
 
     public ArrivalGenerator(int arrivalSpanMinutes, int intervalMinutes) {
@@ -18,20 +18,8 @@ public class ArrivalGenerator {
         this.intervalMinutes = intervalMinutes;
 
 
-        // build a minute-by-minute probability distribution (normalized PDF)
-        minuteProbabilities = new double[totalMinutes];
-        double mean = totalMinutes / 2.0;
-        double sigma = totalMinutes / 6.0;
-        double sum = 0;
-        for (int m = 0; m < totalMinutes; m++) {
-            double x = (m + 0.5 - mean) / sigma;
-            double pdf = Math.exp(-0.5 * x * x);
-            minuteProbabilities[m] = pdf;
-            sum += pdf;
-        }
-        for (int m = 0; m < totalMinutes; m++) {
-            minuteProbabilities[m] /= sum;
-        }
+        // minute-by-minute distribution and per-total counts live in the shared curve cache
+        this.curveShape = ArrivalCurveCache.Shape.legacy(arrivalSpanMinutes);
     }
 
 
@@ -41,22 +29,7 @@ public class ArrivalGenerator {
      */
     public int[] generatePerMinuteArrivals(Flight flight) {
         int totalPassengers = (int) Math.round(flight.getSeats() * flight.getFillPercent());
-        int[] arrivals = new int[totalMinutes];
-        double[] raw = new double[totalMinutes];
-        int floorSum = 0;
-        for (int m = 0; m < totalMinutes; m++) {
-            raw[m] = minuteProbabilities[m] * totalPassengers;
-            arrivals[m] = (int) Math.floor(raw[m]);
-            floorSum += arrivals[m];
-        }
-        int remainder = totalPassengers - floorSum;
-        List<Integer> idx = new ArrayList<>();
-        for (int m = 0; m < totalMinutes; m++) idx.add(m);
-        idx.sort((a, b) -> Double.compare(raw[b] - arrivals[b], raw[a] - arrivals[a]));
-        for (int k = 0; k < remainder; k++) {
-            arrivals[idx.get(k)]++;
-        }
-        return arrivals;
+        return ArrivalCurveCache.shared().counts(curveShape, totalPassengers).clone();
     }
 
 
@@ -0,0 +1,157 @@
+package sim.service;
+
+import sim.model.Flight;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Global per-minute arrivals with prefix sums, built once per arrivals rebuild.
+ *
+ * Minutes are counted from the engine's global start (minute m is rendered as interval m + 1).
+ * Each flight keeps its per-minute array (shared, read-only) plus the minute its array starts at,
+ * so the Duration arithmetic is done once here instead of on every lookup.
+ *
+ * All queries are O(1); flight-set queries are O(|set|). Ranges are [from, to) and are clipped
+ * to [0, horizon), so out-of-range minutes simply contribute nothing.
+ * Immutable once built; safe to share with the UI thread.
+ */
+public final class ArrivalsIndex {
+    private final int horizon;
+    private final int[] total;          // [horizon] arrivals per minute, all flights
+    private final long[] prefix;        // [horizon + 1] prefix[m] = arrivals in [0, m)
+    private final int[] runningMax;     // [horizon] max total in [0, m]
+
+    private final Flight[] flights;
+    private final int[] offsets;        // first minute of each flight's array
+    private final int[][] perFlight;    // shared arrays, read-only
+    private final long[][] flightPrefix;
+    private final Map<Flight, Integer> indexOf = new IdentityHashMap<>();
+
+    ArrivalsIndex(List<Flight> flightList, Map<Flight, int[]> perMinute, int[] flightOffsets) {
+        int n = flightList.size();
+        this.flights = flightList.toArray(new Flight[0]);
+        this.offsets = flightOffsets.clone();
+        this.perFlight = new int[n][];
+        this.flightPrefix = new long[n][];
+
+        int end = 0;
+        for (int i = 0; i < n; i++) {
+            int[] arr = perMinute.get(flights[i]);
+            perFlight[i] = (arr == null) ? new int[0] : arr;
+            end = Math.max(end, offsets[i] + perFlight[i].length);
+            indexOf.put(flights[i], i);
+
+            long[] p = new long[perFlight[i].length + 1];
+            for (int k = 0; k < perFlight[i].length; k++) p[k + 1] = p[k] + perFlight[i][k];
+            flightPrefix[i] = p;
+        }
+
+        this.horizon = Math.max(0, end);
+        this.total = new int[horizon];
+        for (int i = 0; i < n; i++) {
+            int[] arr = perFlight[i];
+            for (int k = 0; k < arr.length; k++) {
+                int m = offsets[i] + k;
+                if (m >= 0) total[m] += arr[k];
+            }
+        }
+
+        this.prefix = new long[horizon + 1];
+        this.runningMax = new int[horizon];
+        int max = 0;
+        for (int m = 0; m < horizon; m++) {
+            prefix[m + 1] = prefix[m] + total[m];
+            max = Math.max(max, total[m]);
+            runningMax[m] = max;
+        }
+    }
+
+    /** Minutes covered: arrivals only happen in [0, horizon). */
+    public int getHorizonMinutes() { return horizon; }
+
+    // ============================
+    // All flights
+    // ============================
+
+    public int totalAtMinute(int minute) {
+        return (minute >= 0 && minute < horizon) ? total[minute] : 0;
+    }
+
+    /** Interval 0 is the initial state (no arrivals); interval i shows minute i - 1. */
+    public int totalAtInterval(int interval) {
+        return interval <= 0 ? 0 : totalAtMinute(interval - 1);
+    }
+
+    /** Arrivals in minutes [from, to). */
+    public long totalBetween(int fromMinute, int toMinute) {
+        int a = clip(fromMinute), b = clip(toMinute);
+        return b > a ? prefix[b] - prefix[a] : 0;
+    }
+
+    /** Largest per-minute total in minutes [0, minute]; 0 before the first arrival. */
+    public int maxTotalThroughMinute(int minute) {
+        if (minute < 0 || horizon == 0) return 0;
+        return runningMax[Math.min(minute, horizon - 1)];
+    }
+
+    /** Largest per-interval total over intervals [0, interval]. */
+    public int maxTotalThroughInterval(int interval) {
+        return maxTotalThroughMinute(interval - 1);
+    }
+
+    // ============================
+    // Per flight
+    // ============================
+
+    public int getFlightCount() { return flights.length; }
+    public Flight getFlight(int i) { return flights[i]; }
+
+    /** Position of {@code f} (identity) in this index, or -1. */
+    public int indexOf(Flight f) {
+        Integer i = indexOf.get(f);
+        return i == null ? -1 : i;
+    }
+
+    /** Minute (from global start) at which flight {@code i}'s array starts. */
+    public int getOffset(int i) { return offsets[i]; }
+
+    /** Per-minute arrivals of flight {@code i} (shared array; do not modify). */
+    public int[] getPerMinute(int i) { return perFlight[i]; }
+
+    public int flightAtMinute(int i, int minute) {
+        int k = minute - offsets[i];
+        int[] arr = perFlight[i];
+        return (k >= 0 && k < arr.length) ? arr[k] : 0;
+    }
+
+    public int flightAtMinute(Flight f, int minute) {
+        int i = indexOf(f);
+        return i < 0 ? 0 : flightAtMinute(i, minute);
+    }
+
+    /** Arrivals of flight {@code i} in minutes [from, to). */
+    public long flightBetween(int i, int fromMinute, int toMinute) {
+        long[] p = flightPrefix[i];
+        int len = p.length - 1;
+        int a = Math.max(0, Math.min(len, fromMinute - offsets[i]));
+        int b = Math.max(0, Math.min(len, toMinute - offsets[i]));
+        return b > a ? p[b] - p[a] : 0;
+    }
+
+    /** Arrivals of the given flights in minutes [from, to); unknown flights count 0. */
+    public long between(Collection<Flight> flightSet, int fromMinute, int toMinute) {
+        long sum = 0;
+        for (Flight f : flightSet) {
+            int i = indexOf(f);
+            if (i >= 0) sum += flightBetween(i, fromMinute, toMinute);
+        }
+        return sum;
+    }
+
+    private int clip(int minute) {
+        return Math.max(0, Math.min(horizon, minute));
+    }
+}
@@ -0,0 +1,186 @@
+package sim.service;
+
+import sim.model.Flight;
+import sim.model.Passenger;
+import sim.ui.HoldRoomConfig;
+import sim.ui.TicketCounterConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, read-only view of the engine state at one interval.
+ *
+ * Built by {@link SimulationEngine#viewAt(int)} from the per-step history lists, which the engine
+ * never mutates once recorded. A view can therefore be read from any thread (EDT, snapshot windows,
+ * background workers) while the engine keeps advancing, and several views at different intervals
+ * can be alive at the same time without touching engine.currentInterval.
+ *
+ * Interval semantics match the panels: interval N shows history step N - 1.
+ * Interval 0 (nothing simulated yet) is an empty view.
+ */
+public final class EngineView {
+    private final int interval;
+    private final int step;
+    private final boolean empty;
+    private final int transitDelayMinutes;
+
+    private final List<TicketCounterConfig> counterConfigs;
+    private final List<HoldRoomConfig> holdRoomConfigs;
+
+    private final List<List<Passenger>> queuedTicket;
+    private final List<List<Passenger>> servedTicket;
+    private final List<List<Passenger>> queuedCheckpoint;
+    private final List<List<Passenger>> servedCheckpoint;
+    private final List<List<Passenger>> holdRooms;
+
+    EngineView(int interval,
+               int transitDelayMinutes,
+               List<TicketCounterConfig> counterConfigs,
+               List<HoldRoomConfig> holdRoomConfigs,
+               List<List<Passenger>> queuedTicket,
+               List<List<Passenger>> servedTicket,
+               List<List<Passenger>> queuedCheckpoint,
+               List<List<Passenger>> servedCheckpoint,
+               List<List<Passenger>> holdRooms) {
+        this(interval, false, transitDelayMinutes, counterConfigs, holdRoomConfigs,
+                queuedTicket, servedTicket, queuedCheckpoint, servedCheckpoint, holdRooms);
+    }
+
+    private EngineView(int interval,
+                       boolean empty,
+                       int transitDelayMinutes,
+                       List<TicketCounterConfig> counterConfigs,
+                       List<HoldRoomConfig> holdRoomConfigs,
+                       List<List<Passenger>> queuedTicket,
+                       List<List<Passenger>> servedTicket,
+                       List<List<Passenger>> queuedCheckpoint,
+                       List<List<Passenger>> servedCheckpoint,
+                       List<List<Passenger>> holdRooms) {
+        this.interval = interval;
+        this.step = interval - 1;
+        this.empty = empty || interval <= 0;
+        this.transitDelayMinutes = transitDelayMinutes;
+        this.counterConfigs = counterConfigs;
+        this.holdRoomConfigs = holdRoomConfigs;
+        this.queuedTicket = readOnly(queuedTicket);
+        this.servedTicket = readOnly(servedTicket);
+        this.queuedCheckpoint = readOnly(queuedCheckpoint);
+        this.servedCheckpoint = readOnly(servedCheckpoint);
+        this.holdRooms = readOnly(holdRooms);
+    }
+
+    /** View for an interval that has not been computed (or interval 0). */
+    static EngineView empty(int interval,
+                            int transitDelayMinutes,
+                            int ticketLines,
+                            int checkpointLines,
+                            int holdRoomCount,
+                            List<TicketCounterConfig> counterConfigs,
+                            List<HoldRoomConfig> holdRoomConfigs) {
+        return new EngineView(interval, true, transitDelayMinutes, counterConfigs, holdRoomConfigs,
+                emptyLines(ticketLines), emptyLines(ticketLines),
+                emptyLines(checkpointLines), emptyLines(checkpointLines),
+                emptyLines(holdRoomCount));
+    }
+
+    private static List<List<Passenger>> emptyLines(int n) {
+        List<List<Passenger>> out = new ArrayList<>(Math.max(0, n));
+        for (int i = 0; i < n; i++) out.add(Collections.emptyList());
+        return out;
+    }
+
+    private static List<List<Passenger>> readOnly(List<List<Passenger>> lines) {
+        if (lines == null) return Collections.emptyList();
+        List<List<Passenger>> out = new ArrayList<>(lines.size());
+        for (List<Passenger> line : lines) {
+            out.add(line == null ? Collections.emptyList() : Collections.unmodifiableList(line));
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    // ============================
+    // Position
+    // ============================
+
+    public int getInterval() { return interval; }
+
+    /** History step rendered by this view (interval - 1). */
+    public int getStep() { return step; }
+
+    /** True when the view has no computed state behind it (interval 0 / not yet simulated). */
+    public boolean isEmpty() { return empty; }
+
+    public int getTransitDelayMinutes() { return transitDelayMinutes; }
+
+    // ============================
+    // Static configuration (unmodifiable)
+    // ============================
+
+    public List<TicketCounterConfig> getCounterConfigs() { return counterConfigs; }
+    public List<HoldRoomConfig> getHoldRoomConfigs() { return holdRoomConfigs; }
+
+    // ============================
+    // Lines at this interval
+    // ============================
+
+    public int getTicketLineCount() { return queuedTicket.size(); }
+    public int getCheckpointLineCount() { return queuedCheckpoint.size(); }
+    public int getHoldRoomCount() { return holdRooms.size(); }
+
+    public List<Passenger> getQueuedTicketLine(int idx) { return line(queuedTicket, idx); }
+    public List<Passenger> getServedTicketLine(int idx) { return line(servedTicket, idx); }
+    public List<Passenger> getQueuedCheckpointLine(int idx) { return line(queuedCheckpoint, idx); }
+    public List<Passenger> getServedCheckpointLine(int idx) { return line(servedCheckpoint, idx); }
+    public List<Passenger> getHoldRoom(int idx) { return line(holdRooms, idx); }
+
+    public List<List<Passenger>> getHoldRooms() { return holdRooms; }
+
+    /**
+     * Ticketed passengers still walking to the checkpoint at this interval
+     * (ticket completion + transit delay has not elapsed yet).
+     */
+    public List<Passenger> getVisibleServedTicketLine(int idx) {
+        return getVisibleServedTicketLine(idx, null);
+    }
+
+    /** Same as {@link #getVisibleServedTicketLine(int)}, optionally limited to one flight. */
+    public List<Passenger> getVisibleServedTicketLine(int idx, Flight filterFlight) {
+        List<Passenger> visible = new ArrayList<>();
+        for (Passenger p : line(servedTicket, idx)) {
+            if (filterFlight != null && p.getFlight() != filterFlight) continue;
+            if (p.getTicketCompletionMinute() + transitDelayMinutes > step) visible.add(p);
+        }
+        return visible;
+    }
+
+    /** Filter helper shared by the renderers and scroll handlers. */
+    public static List<Passenger> filter(List<Passenger> line, Flight filterFlight) {
+        if (filterFlight == null) return line;
+        List<Passenger> out = new ArrayList<>();
+        for (Passenger p : line) {
+            if (p.getFlight() == filterFlight) out.add(p);
+        }
+        return out;
+    }
+
+    // ============================
+    // Totals at this interval
+    // ============================
+
+    public int getTicketQueuedTotal() { return total(queuedTicket); }
+    public int getCheckpointQueuedTotal() { return total(queuedCheckpoint); }
+    public int getHoldRoomTotal() { return total(holdRooms); }
+
+    private static List<Passenger> line(List<List<Passenger>> lines, int idx) {
+        if (idx < 0 || idx >= lines.size()) return Collections.emptyList();
+        return lines.get(idx);
+    }
+
+    private static int total(List<List<Passenger>> lines) {
+        int sum = 0;
+        for (List<Passenger> l : lines) sum += l.size();
+        return sum;
+    }
+}
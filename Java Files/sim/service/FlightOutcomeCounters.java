@@ -0,0 +1,156 @@
+package sim.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Per-flight passenger counters that {@link SimulationEngine} keeps up to date as passengers
+ * move, so "how many made it" never needs a scan over rooms and passengers.
+ *
+ * After each interval the engine stores one row per active flight; a flight is active from its
+ * first arrival until the interval after its departure, and reads outside that span return zeros
+ * (before) or its final row (after). Every query is O(1). Memory is about
+ * {@code 8 ints x active minutes} per flight.
+ *
+ * Interval k is the state after k simulated minutes, like the engine's queue-total series, so the
+ * hold-room history step h matches interval h + 1.
+ */
+public final class FlightOutcomeCounters {
+
+    public enum Counter {
+        /** Passengers who have arrived at the airport. */
+        ARRIVED,
+        /** In-person passengers served at a ticket counter. */
+        TICKETED,
+        /** Passengers served at a checkpoint. */
+        CLEARED_CHECKPOINT,
+        /** Passengers currently in the flight's hold room. */
+        IN_HOLD_ROOM,
+        /** Passengers marked missed (still queued or walking when boarding closed). */
+        MISSED,
+        /** Passengers who left the hold room on the flight at departure. */
+        BOARDED,
+        /** Passengers who cleared security here but depart from another terminal. */
+        TRANSFERRED_OUT,
+        /** Passengers handed over from another terminal's security. */
+        TRANSFERRED_IN
+    }
+
+    private static final int WIDTH = Counter.values().length;
+
+    private final int[][] live;        // [flight][counter], the current state
+    private final int[] start;         // first stored interval per flight, -1 until active
+    private final int[] end;           // last interval worth storing (departure + 1)
+    private final int[] rowCount;
+    private final int[][] rows;        // [flight][(interval - start) * WIDTH + counter]
+    private final int[] byEnd;         // flight indices ordered by end, for retireBefore
+    private int retireCursor;
+
+    FlightOutcomeCounters(int[] departureMinute) {
+        int n = departureMinute.length;
+        this.live = new int[n][WIDTH];
+        this.start = new int[n];
+        this.end = new int[n];
+        this.rowCount = new int[n];
+        this.rows = new int[n][];
+        for (int fi = 0; fi < n; fi++) end[fi] = Math.max(0, departureMinute[fi] + 1);
+        this.byEnd = IntStream.range(0, n).boxed()
+                .sorted(Comparator.comparingInt(fi -> end[fi]))
+                .mapToInt(Integer::intValue).toArray();
+        reset();
+    }
+
+    // ============================
+    // Engine updates
+    // ============================
+
+    void add(int flightIdx, Counter counter, int delta) {
+        if (flightIdx < 0 || flightIdx >= live.length) return;
+        live[flightIdx][counter.ordinal()] += delta;
+    }
+
+    /** Stores every active flight's counters as the state at {@code interval}. */
+    void markInterval(int interval) {
+        for (int fi = 0; fi < live.length; fi++) {
+            if (start[fi] < 0) {
+                if (!active(live[fi])) continue;
+                start[fi] = interval;
+                rows[fi] = new int[WIDTH * Math.max(1, end[fi] - interval + 1)];
+            }
+            int r = interval - start[fi];
+            if (r < 0 || interval > end[fi]) continue;
+            if (r >= rowCount[fi]) {
+                if (r != rowCount[fi]) continue;         // intervals are stored in order
+                if ((r + 1) * WIDTH > rows[fi].length) rows[fi] = Arrays.copyOf(rows[fi], (r + 1) * WIDTH * 2);
+                rowCount[fi] = r + 1;
+            }
+            System.arraycopy(live[fi], 0, rows[fi], r * WIDTH, WIDTH);
+        }
+    }
+
+    /** Sets the live counters back to the stored state at {@code interval} (engine rewind). */
+    void restore(int interval) {
+        for (int fi = 0; fi < live.length; fi++) {
+            int r = rowIndex(fi, interval);
+            if (r < 0) Arrays.fill(live[fi], 0);
+            else System.arraycopy(rows[fi], r * WIDTH, live[fi], 0, WIDTH);
+        }
+    }
+
+    /**
+     * Keeps only the final row of flights whose span ended before {@code interval} (engine
+     * retention window); their earlier intervals then read as zeros.
+     */
+    void retireBefore(int interval) {
+        for (; retireCursor < byEnd.length && end[byEnd[retireCursor]] < interval; retireCursor++) {
+            int fi = byEnd[retireCursor];
+            if (start[fi] < 0 || rowCount[fi] <= 1) continue;
+            int last = rowCount[fi] - 1;
+            rows[fi] = Arrays.copyOfRange(rows[fi], last * WIDTH, (last + 1) * WIDTH);
+            start[fi] += last;
+            rowCount[fi] = 1;
+        }
+    }
+
+    void reset() {
+        for (int fi = 0; fi < live.length; fi++) {
+            Arrays.fill(live[fi], 0);
+            start[fi] = -1;
+            rowCount[fi] = 0;
+            rows[fi] = null;
+        }
+        retireCursor = 0;
+    }
+
+    private static boolean active(int[] counters) {
+        for (int v : counters) if (v != 0) return true;
+        return false;
+    }
+
+    /** Stored row for {@code interval}, or -1 when the flight had nothing yet. */
+    private int rowIndex(int fi, int interval) {
+        if (start[fi] < 0 || interval < start[fi]) return -1;
+        return Math.min(interval - start[fi], rowCount[fi] - 1);
+    }
+
+    // ============================
+    // Queries
+    // ============================
+
+    public int getFlightCount() { return live.length; }
+
+    /**
+     * Counter of flight {@code flightIdx} (engine flight order) at {@code interval}. Intervals past
+     * the last computed one read the latest state.
+     */
+    public int get(int flightIdx, int interval, Counter counter) {
+        int r = rowIndex(flightIdx, interval);
+        return r < 0 ? 0 : rows[flightIdx][r * WIDTH + counter.ordinal()];
+    }
+
+    /** Counter as of the engine's current position. */
+    public int getCurrent(int flightIdx, Counter counter) {
+        return live[flightIdx][counter.ordinal()];
+    }
+}
@@ -0,0 +1,302 @@
+package sim.service;
+
+import sim.ui.HoldRoomConfig;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Flight -> hold room assignment that looks at predicted room occupancy, not only walk time.
+ *
+ * Occupancy is predicted from each flight's per-minute arrivals: a passenger reaches the room
+ * transit delay + walk after arriving (queues are ignored) and stays until departure; arrivals
+ * that would get there after boarding close never do. Flights are placed largest first, each
+ * in the eligible room where it adds the least to
+ * <ol>
+ *   <li>that room's peak overcrowding (passengers above capacity),</li>
+ *   <li>overcrowding overall (passenger-minutes above capacity),</li>
+ *   <li>walk time,</li>
+ *   <li>the room's resulting peak occupancy (spreads ties).</li>
+ * </ol>
+ * A short repair pass then re-places flights that sit in overcrowded rooms.
+ *
+ * Multi-terminal runs can skip flights whose passengers leave for another terminal (they never
+ * reach a room here) and add a flight's expected inbound transfers, given as pseudo-arrivals that
+ * reach the room on the same lag as the flight's own.
+ *
+ * Rooms without a capacity never overcrowd, so with no capacities at all this is "shortest walk,
+ * ties to the emptiest room" (deterministic, where a random pick used to decide).
+ *
+ * Work is O(flights x eligible rooms x window minutes): about 0.1 s for a thousand flights over
+ * fifty rooms, once per arrivals build.
+ */
+public final class HoldRoomAssignmentSolver {
+
+    /** Repair sweeps after the greedy placement (each stops early when nothing moves). */
+    static final int REPAIR_SWEEPS = 3;
+
+    private HoldRoomAssignmentSolver() {}
+
+    /**
+     * Room index (into {@code rooms}) for every flight of {@code arrivals}, in index order.
+     * {@code closeMinute} / {@code departureMinute} are per flight, from the global start.
+     * A flight no room accepts goes to the first accept-all room, else room 0.
+     */
+    public static int[] solve(ArrivalsIndex arrivals, List<HoldRoomConfig> rooms,
+                              int[] closeMinute, int[] departureMinute, int transitDelayMinutes) {
+        return solve(arrivals, rooms, closeMinute, departureMinute, transitDelayMinutes, null, null, null);
+    }
+
+    /**
+     * Same as above, for a terminal that shares flights with others. Flights with {@code skip[i]}
+     * set add no occupancy and get their first eligible room. {@code inbound[i]} (may be null, as
+     * may either array) holds flight i's expected transfers per minute, starting at
+     * {@code inboundOffset[i]}, on the same clock as the flight's own arrivals.
+     */
+    public static int[] solve(ArrivalsIndex arrivals, List<HoldRoomConfig> rooms,
+                              int[] closeMinute, int[] departureMinute, int transitDelayMinutes,
+                              boolean[] skip, int[][] inbound, int[] inboundOffset) {
+        if (arrivals == null) throw new IllegalArgumentException("arrivals is null");
+        if (rooms == null || rooms.isEmpty()) throw new IllegalArgumentException("at least one hold room required");
+        int n = arrivals.getFlightCount();
+        if (closeMinute == null || closeMinute.length != n || departureMinute == null || departureMinute.length != n) {
+            throw new IllegalArgumentException("close/departure minutes must have one entry per flight");
+        }
+        if ((skip != null && skip.length != n) || (inbound != null
+                && (inbound.length != n || inboundOffset == null || inboundOffset.length != n))) {
+            throw new IllegalArgumentException("skip/inbound must have one entry per flight");
+        }
+
+        int roomCount = rooms.size();
+        int horizon = 1;
+        for (int d : departureMinute) horizon = Math.max(horizon, d + 1);
+
+        int[] lag = new int[roomCount];
+        int[] capacity = new int[roomCount];
+        for (int r = 0; r < roomCount; r++) {
+            HoldRoomConfig cfg = rooms.get(r);
+            int walkSeconds = (cfg == null) ? 0 : cfg.getWalkSecondsFromCheckpoint();
+            lag[r] = Math.max(0, transitDelayMinutes) + (walkSeconds + 59) / 60;
+            capacity[r] = (cfg == null) ? 0 : cfg.getCapacity();
+        }
+
+        Solver s = new Solver(arrivals, rooms, closeMinute, departureMinute, lag, capacity, horizon,
+                inbound, inboundOffset);
+
+        // largest flights first: they are the hardest to fit
+        Integer[] order = new Integer[n];
+        int placed = 0;
+        for (int i = 0; i < n; i++) {
+            if (skip != null && skip[i]) s.room[i] = s.eligible[i][0];
+            else order[placed++] = i;
+        }
+        order = Arrays.copyOf(order, placed);
+        Arrays.sort(order, (a, b) -> {
+            int c = Integer.compare(s.total(b), s.total(a));
+            if (c != 0) return c;
+            c = Integer.compare(departureMinute[a], departureMinute[b]);
+            return c != 0 ? c : Integer.compare(a, b);
+        });
+
+        for (int fi : order) s.place(fi);
+
+        for (int sweep = 0; sweep < REPAIR_SWEEPS && s.anyOvercrowded(); sweep++) {
+            boolean moved = false;
+            for (int fi : order) {
+                int r = s.room[fi];
+                if (r < 0 || s.peakOver[r] == 0) continue;
+                s.remove(fi);
+                s.place(fi);
+                if (s.room[fi] != r) moved = true;
+            }
+            if (!moved) break;
+        }
+
+        return s.room.clone();
+    }
+
+    // ============================
+    // State
+    // ============================
+
+    private static final class Solver {
+        final ArrivalsIndex arrivals;
+        final List<HoldRoomConfig> rooms;
+        final int[] close, departure, lag, capacity;
+        final int horizon;
+
+        final int[][] occupancy;     // [room][minute] predicted passengers
+        final int[] peakOver;        // per room: max(0, occupancy - capacity) over the day
+        final int[] room;            // per flight, -1 while unplaced
+        final int[][] cumulative;    // per flight: arrivals through each minute of its array
+        final int[][] inCumulative;  // per flight: same for inbound transfers (null = none)
+        final int[] inOffset;
+        final int[][] eligible;      // per flight: room indices it may use
+
+        Solver(ArrivalsIndex arrivals, List<HoldRoomConfig> rooms, int[] close, int[] departure,
+               int[] lag, int[] capacity, int horizon, int[][] inbound, int[] inboundOffset) {
+            this.arrivals = arrivals;
+            this.rooms = rooms;
+            this.close = close;
+            this.departure = departure;
+            this.lag = lag;
+            this.capacity = capacity;
+            this.horizon = horizon;
+
+            int n = arrivals.getFlightCount();
+            this.occupancy = new int[rooms.size()][horizon];
+            this.peakOver = new int[rooms.size()];
+            this.room = new int[n];
+            Arrays.fill(room, -1);
+
+            this.cumulative = new int[n][];
+            this.inCumulative = new int[n][];
+            this.inOffset = new int[n];
+            this.eligible = new int[n][];
+            for (int fi = 0; fi < n; fi++) {
+                cumulative[fi] = cumulate(arrivals.getPerMinute(fi));
+                if (inbound != null && inbound[fi] != null) {
+                    inCumulative[fi] = cumulate(inbound[fi]);
+                    inOffset[fi] = inboundOffset[fi];
+                }
+                eligible[fi] = eligibleRooms(fi);
+            }
+        }
+
+        private static int[] cumulate(int[] perMin) {
+            int[] cum = new int[perMin.length];
+            int sum = 0;
+            for (int i = 0; i < perMin.length; i++) cum[i] = (sum += perMin[i]);
+            return cum;
+        }
+
+        int total(int fi) {
+            return last(cumulative[fi]) + last(inCumulative[fi]);
+        }
+
+        private static int last(int[] cum) {
+            return (cum == null || cum.length == 0) ? 0 : cum[cum.length - 1];
+        }
+
+        private int[] eligibleRooms(int fi) {
+            int[] out = new int[rooms.size()];
+            int k = 0;
+            for (int r = 0; r < rooms.size(); r++) {
+                HoldRoomConfig cfg = rooms.get(r);
+                if (cfg != null && cfg.accepts(arrivals.getFlight(fi))) out[k++] = r;
+            }
+            if (k > 0) return Arrays.copyOf(out, k);
+
+            for (int r = 0; r < rooms.size(); r++) {
+                HoldRoomConfig cfg = rooms.get(r);
+                if (cfg != null && cfg.getAllowedFlightNumbers().isEmpty()) return new int[] { r };
+            }
+            return new int[] { 0 };
+        }
+
+        /** First minute the flight occupies room {@code r} (may be >= its window end). */
+        private int windowStart(int fi, int r) {
+            int first = arrivals.getOffset(fi);
+            if (inCumulative[fi] != null) first = Math.min(first, inOffset[fi]);
+            return Math.max(0, first + lag[r]);
+        }
+
+        private int windowEnd(int fi) {
+            return Math.min(horizon, Math.max(0, departure[fi]));
+        }
+
+        /** Predicted passengers of flight {@code fi} in room {@code r} at minute {@code t}. */
+        private int occupancyOf(int fi, int r, int t) {
+            int reached = Math.min(t, close[fi] - 1) - lag[r];
+            return through(cumulative[fi], reached - arrivals.getOffset(fi))
+                    + through(inCumulative[fi], reached - inOffset[fi]);
+        }
+
+        private static int through(int[] cum, int idx) {
+            if (cum == null || cum.length == 0 || idx < 0) return 0;
+            return cum[Math.min(idx, cum.length - 1)];
+        }
+
+        void place(int fi) {
+            int[] options = eligible[fi];
+            int best = options[0];
+            if (options.length > 1) {
+                long[] bestKey = null;
+                for (int r : options) {
+                    long[] key = score(fi, r);
+                    if (bestKey == null || less(key, bestKey)) {
+                        bestKey = key;
+                        best = r;
+                    }
+                }
+            }
+            add(fi, best, +1);
+            room[fi] = best;
+        }
+
+        void remove(int fi) {
+            int r = room[fi];
+            if (r < 0) return;
+            add(fi, r, -1);
+            room[fi] = -1;
+
+            // the room's peak may have come from this flight: rescan it
+            int cap = capacity[r];
+            int peak = 0;
+            if (cap > 0) {
+                for (int v : occupancy[r]) peak = Math.max(peak, v - cap);
+            }
+            peakOver[r] = peak;
+        }
+
+        private void add(int fi, int r, int sign) {
+            int cap = capacity[r];
+            int[] occ = occupancy[r];
+            int end = windowEnd(fi);
+            for (int t = windowStart(fi, r); t < end; t++) {
+                occ[t] += sign * occupancyOf(fi, r, t);
+                if (sign > 0 && cap > 0 && occ[t] - cap > peakOver[r]) peakOver[r] = occ[t] - cap;
+            }
+        }
+
+        /** { added peak overcrowding, added overcrowded passenger-minutes, walk seconds, resulting peak }. */
+        private long[] score(int fi, int r) {
+            int cap = capacity[r];
+            int[] occ = occupancy[r];
+            int end = windowEnd(fi);
+
+            long addedArea = 0;
+            int newPeakOver = peakOver[r];
+            int resultingPeak = 0;
+            for (int t = windowStart(fi, r); t < end; t++) {
+                int before = occ[t];
+                int after = before + occupancyOf(fi, r, t);
+                if (after > resultingPeak) resultingPeak = after;
+                if (cap > 0 && after > cap) {
+                    addedArea += (after - cap) - Math.max(0, before - cap);
+                    if (after - cap > newPeakOver) newPeakOver = after - cap;
+                }
+            }
+
+            HoldRoomConfig cfg = rooms.get(r);
+            return new long[] {
+                    newPeakOver - peakOver[r],
+                    addedArea,
+                    cfg == null ? 0 : cfg.getWalkSecondsFromCheckpoint(),
+                    resultingPeak
+            };
+        }
+
+        boolean anyOvercrowded() {
+            for (int v : peakOver) if (v > 0) return true;
+            return false;
+        }
+
+        private static boolean less(long[] a, long[] b) {
+            for (int i = 0; i < a.length; i++) {
+                if (a[i] != b[i]) return a[i] < b[i];
+            }
+            return false;
+        }
+    }
+}
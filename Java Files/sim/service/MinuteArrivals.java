@@ -0,0 +1,67 @@
+package sim.service;
+
+import sim.model.ArrivalCurveConfig;
+import sim.model.Flight;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Per-minute arrivals for a set of flights, built once and shared read-only by many engines.
+ *
+ * The arrays only depend on the flights (seats * fill), the arrival span and the arrival curve.
+ * Staffing knobs (counters, checkpoint rates, percent in person, transit delay) do not change
+ * them, so a sweep over those knobs can compute the arrivals once and hand the same instance
+ * to every engine via {@link SimulationEngine#setArrivalCurveConfig(ArrivalCurveConfig, MinuteArrivals)}.
+ *
+ * Arrays are shared, never copied: engines and callers must treat them as read-only.
+ * Flights are matched by identity, the same way the engine's own map works.
+ */
+public final class MinuteArrivals {
+    private final int arrivalSpanMinutes;
+    private final ArrivalCurveConfig curveConfig;
+    private final Map<Flight, int[]> perFlight;
+
+    MinuteArrivals(int arrivalSpanMinutes, ArrivalCurveConfig curveConfig, Map<Flight, int[]> perFlight) {
+        this.arrivalSpanMinutes = arrivalSpanMinutes;
+        this.curveConfig = curveConfig;
+        this.perFlight = Collections.unmodifiableMap(new IdentityHashMap<>(perFlight));
+    }
+
+    public int getArrivalSpanMinutes() { return arrivalSpanMinutes; }
+
+    /** Per-minute arrivals for {@code f} (shared array; do not modify), or null if unknown. */
+    public int[] get(Flight f) { return perFlight.get(f); }
+
+    public Map<Flight, int[]> asMap() { return perFlight; }
+
+    /**
+     * True if these arrivals were built for exactly this span and curve and cover every flight.
+     * Used by the engine before it accepts a shared instance instead of rebuilding.
+     */
+    public boolean matches(Collection<Flight> flights, int arrivalSpanMinutes, ArrivalCurveConfig cfg) {
+        if (this.arrivalSpanMinutes != arrivalSpanMinutes) return false;
+        if (!sameCurve(this.curveConfig, cfg)) return false;
+        for (Flight f : flights) {
+            if (!perFlight.containsKey(f)) return false;
+        }
+        return true;
+    }
+
+    /** Field-by-field comparison of the values that affect the generated arrivals. */
+    static boolean sameCurve(ArrivalCurveConfig a, ArrivalCurveConfig b) {
+        if (a == b) return true;
+        if (a == null || b == null) return false;
+        if (a.isLegacyMode() != b.isLegacyMode()) return false;
+        if (a.isLegacyMode()) return true; // legacy generator ignores the curve fields
+        return a.getPeakMinutesBeforeDeparture() == b.getPeakMinutesBeforeDeparture()
+                && a.getLeftSigmaMinutes() == b.getLeftSigmaMinutes()
+                && a.getRightSigmaMinutes() == b.getRightSigmaMinutes()
+                && a.isLateClampEnabled() == b.isLateClampEnabled()
+                && a.getLateClampMinutesBeforeDeparture() == b.getLateClampMinutesBeforeDeparture()
+                && a.getWindowStartMinutesBeforeDeparture() == b.getWindowStartMinutesBeforeDeparture()
+                && a.getBoardingCloseMinutesBeforeDeparture() == b.getBoardingCloseMinutesBeforeDeparture();
+    }
+}
@@ -0,0 +1,153 @@
+package sim.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * Shape of a lane's per-passenger service time, normalised to mean 1.
+ *
+ * The lane's configured rate still sets the mean (a counter at 2 / minute averages 0.5 minutes a
+ * passenger), so rates stay comparable with deterministic mode and rate sweeps keep working;
+ * the distribution only adds the variability:
+ * <ul>
+ *   <li>{@code exponential} - memoryless, cv = 1,</li>
+ *   <li>{@code lognormal:cv} - right-skewed with the given coefficient of variation,</li>
+ *   <li>{@code empirical:t1,t2,...} - resampled from observed times (any unit; they are rescaled
+ *       to mean 1).</li>
+ * </ul>
+ *
+ * Immutable. Engines never sample from it per passenger: {@link ServiceTimePool} fills blocks
+ * through {@link #fill} off the simulation thread.
+ */
+public final class ServiceTimeDistribution {
+
+    public enum Kind { EXPONENTIAL, LOGNORMAL, EMPIRICAL }
+
+    private final Kind kind;
+    private final double cv;
+    private final double[] samples;     // empirical only, mean 1
+
+    // lognormal parameters for mean 1
+    private final double mu;
+    private final double sigma;
+
+    private ServiceTimeDistribution(Kind kind, double cv, double[] samples) {
+        this.kind = kind;
+        this.cv = cv;
+        this.samples = samples;
+        double s2 = Math.log(1.0 + cv * cv);
+        this.sigma = Math.sqrt(s2);
+        this.mu = -s2 / 2.0;
+    }
+
+    public static ServiceTimeDistribution exponential() {
+        return new ServiceTimeDistribution(Kind.EXPONENTIAL, 1.0, null);
+    }
+
+    public static ServiceTimeDistribution lognormal(double cv) {
+        if (!(cv > 0) || Double.isInfinite(cv)) throw new IllegalArgumentException("lognormal cv must be > 0");
+        return new ServiceTimeDistribution(Kind.LOGNORMAL, cv, null);
+    }
+
+    /** Resamples {@code observed} (non-negative, at least one positive), rescaled to mean 1. */
+    public static ServiceTimeDistribution empirical(double... observed) {
+        if (observed == null || observed.length == 0) throw new IllegalArgumentException("empirical needs samples");
+        double sum = 0;
+        for (double v : observed) {
+            if (!(v >= 0) || Double.isInfinite(v)) throw new IllegalArgumentException("bad service time " + v);
+            sum += v;
+        }
+        if (sum <= 0) throw new IllegalArgumentException("empirical service times are all zero");
+        double mean = sum / observed.length;
+        double[] norm = new double[observed.length];
+        double sq = 0;
+        for (int i = 0; i < norm.length; i++) {
+            norm[i] = observed[i] / mean;
+            sq += (norm[i] - 1.0) * (norm[i] - 1.0);
+        }
+        return new ServiceTimeDistribution(Kind.EMPIRICAL, Math.sqrt(sq / norm.length), norm);
+    }
+
+    /**
+     * Parses {@code exponential}, {@code lognormal:0.6} or {@code empirical:1.5,0.8,2.2}
+     * (the form {@link #toString()} writes).
+     */
+    public static ServiceTimeDistribution parse(String spec) {
+        if (spec == null || spec.isBlank()) throw new IllegalArgumentException("empty service time spec");
+        String s = spec.trim();
+        int colon = s.indexOf(':');
+        String kind = (colon < 0 ? s : s.substring(0, colon)).trim().toLowerCase(Locale.ROOT);
+        String arg = colon < 0 ? "" : s.substring(colon + 1).trim();
+        try {
+            switch (kind) {
+                case "exponential":
+                case "exp":
+                    return exponential();
+                case "lognormal":
+                    return lognormal(arg.isEmpty() ? 1.0 : Double.parseDouble(arg));
+                case "empirical":
+                    String[] parts = arg.split(",");
+                    double[] v = new double[parts.length];
+                    for (int i = 0; i < parts.length; i++) v[i] = Double.parseDouble(parts[i].trim());
+                    return empirical(v);
+                default:
+                    throw new IllegalArgumentException("unknown service time distribution '" + kind + "'");
+            }
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException("bad service time spec '" + spec + "'");
+        }
+    }
+
+    public Kind getKind() { return kind; }
+
+    /** Coefficient of variation (sd / mean). */
+    public double getCv() { return cv; }
+
+    /** Fills {@code out} with independent draws (mean 1). */
+    public void fill(RandomGenerator r, double[] out) {
+        switch (kind) {
+            case EXPONENTIAL:
+                for (int i = 0; i < out.length; i++) out[i] = -Math.log(1.0 - r.nextDouble());
+                break;
+            case LOGNORMAL:
+                for (int i = 0; i < out.length; i++) out[i] = Math.exp(mu + sigma * r.nextGaussian());
+                break;
+            case EMPIRICAL:
+                for (int i = 0; i < out.length; i++) out[i] = samples[r.nextInt(samples.length)];
+                break;
+            default:
+                throw new IllegalStateException(kind.name());
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ServiceTimeDistribution)) return false;
+        ServiceTimeDistribution d = (ServiceTimeDistribution) o;
+        return kind == d.kind && Double.compare(cv, d.cv) == 0 && Arrays.equals(samples, d.samples);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * kind.hashCode() + Double.hashCode(cv)) + Arrays.hashCode(samples);
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case EXPONENTIAL:
+                return "exponential";
+            case LOGNORMAL:
+                return "lognormal:" + cv;
+            default:
+                StringBuilder sb = new StringBuilder("empirical:");
+                for (int i = 0; i < samples.length; i++) {
+                    if (i > 0) sb.append(',');
+                    sb.append(samples[i]);
+                }
+                return sb.toString();
+        }
+    }
+}
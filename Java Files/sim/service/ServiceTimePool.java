@@ -0,0 +1,69 @@
+package sim.service;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pre-generated service-time samples (mean 1) for one lane, double-buffered.
+ *
+ * The engine reads the active block with {@link #next()}; while it does, the spare block is
+ * refilled in bulk on a shared daemon pool and the two swap when the active one runs out.
+ * One generator per pool, one refill in flight at a time, so the sample sequence depends only
+ * on the seed, never on thread timing. Not thread-safe (one engine thread reads it).
+ */
+final class ServiceTimePool {
+
+    static final int BLOCK = 4096;
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+    private static final ExecutorService REFILL = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())), r -> {
+                Thread t = new Thread(r, "service-times-" + THREADS.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+
+    private final ServiceTimeDistribution distribution;
+    private final SplittableRandom random;
+
+    private double[] active = new double[BLOCK];
+    private double[] spare = new double[BLOCK];
+    private CompletableFuture<Void> refill;
+    private int pos;
+
+    ServiceTimePool(ServiceTimeDistribution distribution, long seed) {
+        this.distribution = distribution;
+        this.random = new SplittableRandom(seed);
+        distribution.fill(random, active);
+        refillSpare();
+    }
+
+    /** Next sample; the hot path is an array read. */
+    double next() {
+        if (pos == active.length) swap();
+        return active[pos++];
+    }
+
+    private void swap() {
+        refill.join();
+        double[] t = active;
+        active = spare;
+        spare = t;
+        pos = 0;
+        refillSpare();
+    }
+
+    private void refillSpare() {
+        double[] target = spare;
+        try {
+            refill = CompletableFuture.runAsync(() -> distribution.fill(random, target), REFILL);
+        } catch (RejectedExecutionException busy) {
+            distribution.fill(random, target);
+            refill = CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package sim.service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Which lanes use stochastic service times: a default for every ticket counter / checkpoint lane,
+ * plus per-lane overrides (0-based, engine order). A null distribution means the lane keeps the
+ * deterministic fractional rate. Immutable; build with the {@code with...} methods.
+ */
+public final class ServiceTimes {
+
+    public static final ServiceTimes DETERMINISTIC =
+            new ServiceTimes(null, null, Collections.emptyMap(), Collections.emptyMap());
+
+    private final ServiceTimeDistribution counterDefault;
+    private final ServiceTimeDistribution checkpointDefault;
+    private final Map<Integer, ServiceTimeDistribution> counters;
+    private final Map<Integer, ServiceTimeDistribution> checkpoints;
+
+    private ServiceTimes(ServiceTimeDistribution counterDefault,
+                         ServiceTimeDistribution checkpointDefault,
+                         Map<Integer, ServiceTimeDistribution> counters,
+                         Map<Integer, ServiceTimeDistribution> checkpoints) {
+        this.counterDefault = counterDefault;
+        this.checkpointDefault = checkpointDefault;
+        this.counters = Collections.unmodifiableMap(new TreeMap<>(counters));
+        this.checkpoints = Collections.unmodifiableMap(new TreeMap<>(checkpoints));
+    }
+
+    /** Same distribution for every counter and checkpoint lane. */
+    public static ServiceTimes of(ServiceTimeDistribution all) {
+        return DETERMINISTIC.withCounterDefault(all).withCheckpointDefault(all);
+    }
+
+    public ServiceTimes withCounterDefault(ServiceTimeDistribution d) {
+        return new ServiceTimes(d, checkpointDefault, counters, checkpoints);
+    }
+
+    public ServiceTimes withCheckpointDefault(ServiceTimeDistribution d) {
+        return new ServiceTimes(counterDefault, d, counters, checkpoints);
+    }
+
+    public ServiceTimes withCounter(int counterIdx, ServiceTimeDistribution d) {
+        if (counterIdx < 0) throw new IllegalArgumentException("counter index must be >= 0");
+        Map<Integer, ServiceTimeDistribution> m = new TreeMap<>(counters);
+        m.put(counterIdx, d);
+        return new ServiceTimes(counterDefault, checkpointDefault, m, checkpoints);
+    }
+
+    public ServiceTimes withCheckpoint(int laneIdx, ServiceTimeDistribution d) {
+        if (laneIdx < 0) throw new IllegalArgumentException("checkpoint index must be >= 0");
+        Map<Integer, ServiceTimeDistribution> m = new TreeMap<>(checkpoints);
+        m.put(laneIdx, d);
+        return new ServiceTimes(counterDefault, checkpointDefault, counters, m);
+    }
+
+    public ServiceTimeDistribution getCounterDefault() { return counterDefault; }
+    public ServiceTimeDistribution getCheckpointDefault() { return checkpointDefault; }
+
+    /** Per-counter overrides (may map to null = deterministic). */
+    public Map<Integer, ServiceTimeDistribution> getCounterOverrides() { return counters; }
+    public Map<Integer, ServiceTimeDistribution> getCheckpointOverrides() { return checkpoints; }
+
+    public ServiceTimeDistribution forCounter(int counterIdx) {
+        return counters.containsKey(counterIdx) ? counters.get(counterIdx) : counterDefault;
+    }
+
+    public ServiceTimeDistribution forCheckpoint(int laneIdx) {
+        return checkpoints.containsKey(laneIdx) ? checkpoints.get(laneIdx) : checkpointDefault;
+    }
+
+    /** True when no lane can be stochastic. */
+    public boolean isDeterministic() {
+        return counterDefault == null && checkpointDefault == null
+                && !counters.values().stream().anyMatch(Objects::nonNull)
+                && !checkpoints.values().stream().anyMatch(Objects::nonNull);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ServiceTimes)) return false;
+        ServiceTimes t = (ServiceTimes) o;
+        return Objects.equals(counterDefault, t.counterDefault)
+                && Objects.equals(checkpointDefault, t.checkpointDefault)
+                && counters.equals(t.counters) && checkpoints.equals(t.checkpoints);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(counterDefault, checkpointDefault, counters, checkpoints);
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceTimes{counters=" + counterDefault + " " + counters
+                + ", checkpoints=" + checkpointDefault + " " + checkpoints + '}';
+    }
+}
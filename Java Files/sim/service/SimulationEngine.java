@@ -3,18 +3,32 @@ package sim.service;
 import sim.model.ArrivalCurveConfig;
 import sim.model.Flight;
 import sim.model.Passenger;
+import sim.service.arrivals.ArrivalCurveCache;
 import sim.service.arrivals.ArrivalCurveGenerator;
-import sim.service.arrivals.EditedSplitGaussianArrivalGenerator;
+import sim.service.arrivals.ArrivalCurveProfiles;
+import sim.service.arrivals.SplitGaussianBatch;
 import sim.ui.CheckpointConfig;
 import sim.ui.GridRenderer;
 import sim.ui.TicketCounterConfig;
 import sim.ui.HoldRoomConfig;
 
 import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.function.ObjIntConsumer;
+import java.util.random.RandomGenerator;
 
 public class SimulationEngine {
+
+    /**
+     * Version of the simulation semantics. Bump it whenever the same scenario can produce
+     * different results (service model, close rules, counters...), so cached and spilled
+     * results from older engines stop matching.
+     */
+    public static final int MODEL_VERSION = 4;
+
     private final List<Flight> flights;
 
     // ============================
@@ -33,20 +47,36 @@ public class SimulationEngine {
     private final Map<Integer, Integer> checkpointQueuedByInterval = new LinkedHashMap<>();
     private final Map<Integer, Integer> holdRoomTotalByInterval = new LinkedHashMap<>();
 
+    // Streaming wait histograms (per stage / line / flight), filled as passengers finish service
+    private final WaitTimeStats waitStats;
+    private final Map<Flight, Integer> flightIndex = new HashMap<>();
+
+    // Per-flight arrived / ticketed / cleared / in-room / missed / boarded, kept as passengers move
+    private final FlightOutcomeCounters outcomes;
+
     // ============================
     // ✅ Arrival curve support (Step 6)
     // ============================
     private ArrivalCurveConfig arrivalCurveConfig = ArrivalCurveConfig.legacyDefault();
 
-    // Legacy minute generator = EXACT existing logic (your current ArrivalGenerator)
-    private final ArrivalGenerator legacyMinuteGenerator;
+    // Curve shapes + per-total counts, shared by every engine (legacy and edited generators use it too)
+    private final ArrivalCurveCache curveCache = ArrivalCurveCache.shared();
+
+    // Optional replacement for the deterministic curve (e.g. StochasticArrivalGenerator); null = expected profile
+    private ArrivalCurveGenerator arrivalCurveGenerator;
 
-    // Edited curve generator (split Gaussian)
-    private final ArrivalCurveGenerator editedMinuteGenerator = new EditedSplitGaussianArrivalGenerator();
+    // Optional per-flight / per-prefix / per-airline curves; flights without a match use arrivalCurveConfig
+    private ArrivalCurveProfiles arrivalCurveProfiles;
 
     // Used by DataTableModel/DataTableFrame
     private final Map<Flight, int[]> minuteArrivalsMap = new HashMap<>();
 
+    // Built lazily on first use, so engines that receive shared MinuteArrivals never pay for it
+    private boolean minuteArrivalsDirty = true;
+
+    // Global per-minute totals + prefix sums + per-flight offsets; rebuilt with the map above
+    private volatile ArrivalsIndex arrivalsIndex;
+
     private final Map<Flight, Integer> holdRoomCellSize;
 
     private final int arrivalSpanMinutes;
@@ -55,8 +85,8 @@ public class SimulationEngine {
     private final int holdDelayMinutes;       // legacy global delay (kept for compatibility / defaults)
     private final int totalIntervals;
 
-    // simulation clock (minutes since globalStart)
-    private int currentInterval;
+    // simulation clock (minutes since globalStart); volatile so EngineView readers on other threads see it
+    private volatile int currentInterval;
 
     private final double percentInPerson;
 
@@ -73,6 +103,10 @@ public class SimulationEngine {
     private final double defaultCheckpointRatePerHour;
 
     private final LocalTime globalStart;
+    // Calendar position of interval 0. Undated flights depart on baseDate (the earliest dated
+    // departure's date, or a fixed placeholder), so schedules may cross midnight or span days.
+    private final LocalDate baseDate;
+    private final LocalDateTime globalStartDateTime;
     private final List<Flight> justClosedFlights = new ArrayList<>();
     private final Set<Passenger> ticketCompletedVisible = new HashSet<>();
 
@@ -102,10 +136,24 @@ public class SimulationEngine {
     private final List<List<List<Passenger>>> historyQueuedCheckpoint = new ArrayList<>();
     private final List<List<List<Passenger>>> historyHoldRooms = new ArrayList<>();
 
-    private final Random rand = new Random();
+    // Guards appends/clears of the history lists above so viewAt() can be called from any thread.
+    // The per-step lists themselves are never mutated once recorded.
+    private final Object historyLock = new Object();
+
+    // Base seed of the lane pools, drawn once from the engine's random stream. Hold rooms are solved
+    // rather than tie-broken at random, so only stochastic service times need randomness; every
+    // rebuild of the pools reuses this seed, so rerunning the day replays the same samples.
+    // Replications install their own stream via setRandomStream(...) / setSeed(...).
+    private long poolSeed = new Random().nextLong();
 
+    // Deterministic lanes: fractional service credit carried between intervals.
+    // Stochastic lanes: time (in intervals) the passenger in *Serving[c] still needs.
     private double[] counterProgress;
     private double[] checkpointProgress;
+
+    private ServiceTimes serviceTimes = ServiceTimes.DETERMINISTIC;
+    private ServiceTimePool[] counterPools;        // built on the first interval; null entry = deterministic lane
+    private ServiceTimePool[] checkpointPools;
     private final Map<Integer, List<Passenger>> pendingToCP;
     private final Map<Integer, List<Passenger>> pendingToHold;
     private Passenger[] counterServing;
@@ -118,6 +166,23 @@ public class SimulationEngine {
     private final List<EngineSnapshot> stateSnapshots = new ArrayList<>();
     private int maxComputedInterval = 0;
 
+    // Rolling horizon: 0 keeps every interval; otherwise intervals more than this far behind the
+    // latest computed one are retired as the run advances (see setRetentionIntervals).
+    private int retainIntervals;
+    private int retiredBefore;
+
+    // Multi-terminal: passengers of these flights leave after security for another terminal's engine
+    private Set<Flight> transferFlights = Collections.emptySet();
+    private ObjIntConsumer<Passenger> transferSink;
+    private Map<String, Flight> flightsByTransferKey;
+    // expected inbound transfers per local flight, as pseudo-arrivals {offset, per-minute...}
+    private final Map<Flight, int[]> expectedTransfersIn = new HashMap<>();
+    // hold rooms are re-solved on next use (transfer flights changed after the arrivals build)
+    private boolean holdRoomsDirty;
+
+    // Calendar day of undated flights when no flight carries a date; only labels depend on it.
+    private static final LocalDate UNDATED_BASE_DATE = LocalDate.of(2000, 1, 1);
+
     private static final class EngineSnapshot {
         final int currentInterval;
 
@@ -274,25 +339,28 @@ public class SimulationEngine {
             this.holdRoomConfigs.add(cfg);
         }
 
-        // compute global start time based on earliest departure
-        LocalTime firstDep = this.flights.stream()
-                .map(Flight::getDepartureTime)
-                .min(LocalTime::compareTo)
-                .orElse(LocalTime.MIDNIGHT);
-        this.globalStart = firstDep.minusMinutes(arrivalSpanMinutes);
+        // compute global start time based on earliest departure (on the calendar, so a schedule
+        // may cross midnight or span several days)
+        this.baseDate = this.flights.stream()
+                .map(Flight::getDepartureDate)
+                .filter(Objects::nonNull)
+                .min(LocalDate::compareTo)
+                .orElse(UNDATED_BASE_DATE);
+        LocalDateTime firstDep = this.flights.stream()
+                .map(f -> f.getDepartureDateTime(baseDate))
+                .min(LocalDateTime::compareTo)
+                .orElse(baseDate.atStartOfDay());
+        this.globalStartDateTime = firstDep.minusMinutes(arrivalSpanMinutes);
+        this.globalStart = globalStartDateTime.toLocalTime();
 
         long maxDeparture = this.flights.stream()
-                .mapToLong(f -> Duration.between(globalStart, f.getDepartureTime()).toMinutes())
+                .mapToLong(this::getDepartureIdx)
                 .max().orElse(0);
         this.totalIntervals = (int) maxDeparture + 1;
 
-        // ✅ Step 6: legacy generator is your existing ArrivalGenerator
-        this.legacyMinuteGenerator = new ArrivalGenerator(arrivalSpanMinutes, 1);
-
         // ✅ Step 6: build arrivals map using legacy defaults (behavior unchanged)
         setArrivalCurveConfig(ArrivalCurveConfig.legacyDefault());
-
-        computeChosenHoldRooms();
+        // hold rooms are assigned from the arrivals, whenever those are (re)built
 
         holdRoomCellSize = new HashMap<>();
         for (Flight f : this.flights) {
@@ -339,6 +407,13 @@ public class SimulationEngine {
         counterServing = new Passenger[this.counterConfigs.size()];
         checkpointServing = new Passenger[this.numCheckpoints];
 
+        for (int i = 0; i < this.flights.size(); i++) flightIndex.putIfAbsent(this.flights.get(i), i);
+        waitStats = new WaitTimeStats(this.counterConfigs.size(), this.numCheckpoints,
+                this.flights.size(), Math.max(1, totalIntervals));
+        int[] departures = new int[this.flights.size()];
+        for (int i = 0; i < departures.length; i++) departures[i] = getDepartureIdx(this.flights.get(i));
+        outcomes = new FlightOutcomeCounters(departures);
+
         captureSnapshot0();
     }
 
@@ -347,7 +422,7 @@ public class SimulationEngine {
     // ==========================================================
 
     /**
-     * Apply curve config and rebuild per-minute arrivals.
+     * Apply curve config; per-minute arrivals are rebuilt on next use.
      *
      * IMPORTANT:
      * - This is intended to be called BEFORE the simulation runs (currentInterval=0).
@@ -362,7 +437,237 @@ public class SimulationEngine {
         copy.validateAndClamp();
         this.arrivalCurveConfig = copy;
 
-        rebuildMinuteArrivalsMap();
+        minuteArrivalsDirty = true;
+    }
+
+    /**
+     * Same as {@link #setArrivalCurveConfig(ArrivalCurveConfig)}, but reuses {@code shared}
+     * arrivals when they were built for this engine's flights, span and curve
+     * (e.g. one instance shared by every point of a parameter sweep).
+     * Falls back to building its own arrivals when they don't match.
+     */
+    public void setArrivalCurveConfig(ArrivalCurveConfig cfg, MinuteArrivals shared) {
+        setArrivalCurveConfig(cfg);
+
+        if (shared != null && arrivalCurveGenerator == null && !hasCurveProfiles()
+                && shared.matches(flights, arrivalSpanMinutes, arrivalCurveConfig)) {
+            minuteArrivalsMap.clear();
+            for (Flight f : flights) minuteArrivalsMap.put(f, shared.get(f));
+            arrivalsIndex = buildArrivalsIndex();
+            computeChosenHoldRooms();
+            minuteArrivalsDirty = false;
+        }
+    }
+
+    /**
+     * Replaces the deterministic expected-profile arrivals with {@code generator}
+     * (null restores them). Like setArrivalCurveConfig, call this BEFORE running.
+     * Shared MinuteArrivals are ignored while a generator is installed.
+     */
+    public void setArrivalCurveGenerator(ArrivalCurveGenerator generator) {
+        this.arrivalCurveGenerator = generator;
+        minuteArrivalsDirty = true;
+    }
+
+    public ArrivalCurveGenerator getArrivalCurveGenerator() {
+        return arrivalCurveGenerator;
+    }
+
+    /**
+     * Per-flight curve overrides (null or empty = every flight uses the curve config).
+     * Like setArrivalCurveConfig, call this BEFORE running.
+     */
+    public void setArrivalCurveProfiles(ArrivalCurveProfiles profiles) {
+        this.arrivalCurveProfiles = profiles;
+        minuteArrivalsDirty = true;
+    }
+
+    public ArrivalCurveProfiles getArrivalCurveProfiles() {
+        return arrivalCurveProfiles;
+    }
+
+    /**
+     * Per-lane service-time distributions (null or DETERMINISTIC = fractional rates as before).
+     * Samples come from per-lane pools seeded off the engine's random stream (so setSeed gives a
+     * reproducible day, also when it is run again); like setArrivalCurveConfig, call this BEFORE running.
+     */
+    public void setServiceTimes(ServiceTimes times) {
+        this.serviceTimes = (times == null) ? ServiceTimes.DETERMINISTIC : times;
+        counterPools = null;
+        checkpointPools = null;
+    }
+
+    public ServiceTimes getServiceTimes() {
+        return serviceTimes;
+    }
+
+    /**
+     * Bounds memory on long (multi-day) horizons: intervals more than {@code intervals} behind the
+     * latest computed one are retired as the run advances, so snapshots, passenger history and
+     * per-interval series stay within the window however long the schedule is. Retired intervals
+     * can no longer be viewed or rewound to, and the queue-total maps only hold the window (read
+     * them as the run goes; see RollingHorizonRunner). Within the window, rewinding keeps the
+     * series as computed so far instead of truncating them.
+     * 0 (default) keeps everything. Like setArrivalCurveConfig, call this BEFORE running.
+     */
+    public void setRetentionIntervals(int intervals) {
+        if (intervals < 0) throw new IllegalArgumentException("retention must be >= 0");
+        this.retainIntervals = intervals;
+    }
+
+    public int getRetentionIntervals() { return retainIntervals; }
+
+    /** Earliest interval that can still be viewed or restored (0 unless retention is on). */
+    public int getEarliestRetainedInterval() { return retiredBefore; }
+
+    // ============================
+    // Inter-terminal transfers
+    // ============================
+
+    /**
+     * Passengers of {@code flights} (which depart from another terminal) leave this engine once
+     * they clear security: {@code sink} receives each with the minute it cleared, on the thread
+     * running this engine. They count as TRANSFERRED_OUT here instead of reaching a hold room,
+     * and the hold-room assignment no longer reserves space for them.
+     * Call BEFORE running.
+     */
+    public void setTransferOut(Set<Flight> flights, ObjIntConsumer<Passenger> sink) {
+        this.transferFlights = (flights == null) ? Collections.emptySet() : new HashSet<>(flights);
+        this.transferSink = sink;
+        holdRoomsDirty = true;
+    }
+
+    /**
+     * Adds expected passengers of {@code remote}'s local instance that arrive from another
+     * terminal, so the hold-room assignment counts them: {@code perMinute[i]} passengers reach the
+     * hold-room corridor as if they had arrived here at interval {@code offset + i} (i.e. one
+     * transit delay earlier). Several sources add up. Call BEFORE running.
+     *
+     * @throws IllegalArgumentException if this engine has no flight with the same number and departure
+     */
+    public void addExpectedTransfersIn(Flight remote, int[] perMinute, int offset) {
+        if (perMinute == null || perMinute.length == 0) return;
+        Flight f = localFlight(remote);
+        int[] old = expectedTransfersIn.get(f);
+        if (old == null) {
+            int[] cur = new int[perMinute.length + 1];
+            cur[0] = offset;
+            System.arraycopy(perMinute, 0, cur, 1, perMinute.length);
+            expectedTransfersIn.put(f, cur);
+        } else {
+            int from = Math.min(old[0], offset);
+            int to = Math.max(old[0] + old.length - 1, offset + perMinute.length);
+            int[] cur = new int[to - from + 1];
+            cur[0] = from;
+            for (int i = 1; i < old.length; i++) cur[old[0] - from + i] += old[i];
+            for (int i = 0; i < perMinute.length; i++) cur[offset - from + 1 + i] += perMinute[i];
+            expectedTransfersIn.put(f, cur);
+        }
+        holdRoomsDirty = true;
+    }
+
+    /**
+     * Takes over a passenger that cleared security in another terminal's engine: they reach the
+     * local instance of their flight's hold room at {@code arriveInterval} plus the room's walk
+     * time, or are marked missed if that is too late for boarding. {@code minuteShift} converts
+     * the other engine's minutes to this one's (difference of the global starts).
+     *
+     * @throws IllegalArgumentException if this engine has no flight with the same number and departure
+     */
+    public void acceptTransfer(Passenger from, int arriveInterval, int minuteShift) {
+        ensureMinuteArrivals();     // rooms may not be solved yet when the terminal opens late
+        Flight f = localFlight(from.getFlight());
+        Passenger p = new Passenger(f, from.getArrivalMinute() + minuteShift, from.isInPerson());
+        if (from.getTicketCompletionMinute() >= 0) p.setTicketCompletionMinute(from.getTicketCompletionMinute() + minuteShift);
+        p.setCheckpointEntryMinute(from.getCheckpointEntryMinute() + minuteShift);
+        p.setCheckpointCompletionMinute(from.getCheckpointCompletionMinute() + minuteShift);
+
+        int fi = flightIndex.getOrDefault(f, -1);
+        outcomes.add(fi, FlightOutcomeCounters.Counter.TRANSFERRED_IN, 1);
+
+        int room = clamp(chosenHoldRoomIndexByFlight.getOrDefault(f, 0), 0, holdRoomConfigs.size() - 1);
+        p.setAssignedHoldRoomIndex(room);
+        int at = Math.max(arriveInterval, currentInterval)
+                + ceilMinutesFromSeconds(safeWalkSeconds(holdRoomConfigs.get(room)));
+        if (at >= getBoardingCloseIdx(f) || at >= totalIntervals) {
+            markMissed(p);
+            return;
+        }
+        pendingToHold.computeIfAbsent(at, x -> new ArrayList<>()).add(p);
+    }
+
+    /** Number, date and time identify a flight across terminals' engines. */
+    public static String transferKey(Flight f) {
+        return f.getFlightNumber() + '@' + (f.getDepartureDate() == null ? "" : f.getDepartureDate() + "T")
+                + f.getDepartureTime();
+    }
+
+    private Flight localFlight(Flight remote) {
+        if (flightsByTransferKey == null) {
+            Map<String, Flight> m = new HashMap<>();
+            for (Flight f : flights) m.putIfAbsent(transferKey(f), f);
+            flightsByTransferKey = m;
+        }
+        Flight f = flightsByTransferKey.get(transferKey(remote));
+        if (f == null) throw new IllegalArgumentException("no local flight " + transferKey(remote));
+        return f;
+    }
+
+    private void ensureServicePools() {
+        if (counterPools != null) return;
+        counterPools = new ServiceTimePool[counterConfigs.size()];
+        checkpointPools = new ServiceTimePool[numCheckpoints];
+        if (serviceTimes.isDeterministic()) return;
+
+        // lane seeds depend on (stage, lane) only, so adding a lane leaves the others' samples alone
+        long base = poolSeed;
+        for (int c = 0; c < counterPools.length; c++) {
+            ServiceTimeDistribution d = serviceTimes.forCounter(c);
+            if (d != null) counterPools[c] = new ServiceTimePool(d, laneSeed(base, 0, c));
+        }
+        for (int c = 0; c < checkpointPools.length; c++) {
+            ServiceTimeDistribution d = serviceTimes.forCheckpoint(c);
+            if (d != null) checkpointPools[c] = new ServiceTimePool(d, laneSeed(base, 1, c));
+        }
+    }
+
+    private static long laneSeed(long base, int stage, int lane) {
+        return new SplittableRandom(base ^ (0x9E3779B97F4A7C15L * (((long) stage << 32) + lane + 1))).nextLong();
+    }
+
+    private boolean hasCurveProfiles() {
+        return arrivalCurveProfiles != null && !arrivalCurveProfiles.isEmpty();
+    }
+
+    /** Current per-minute arrivals as a shareable, read-only instance (arrays are not copied). */
+    public MinuteArrivals getMinuteArrivals() {
+        ensureMinuteArrivals();
+        return new MinuteArrivals(arrivalSpanMinutes, copyCfg(arrivalCurveConfig), minuteArrivalsMap);
+    }
+
+    private void ensureMinuteArrivals() {
+        if (minuteArrivalsDirty) {
+            rebuildMinuteArrivalsMap();
+            minuteArrivalsDirty = false;
+        } else if (holdRoomsDirty) {
+            computeChosenHoldRooms();
+        }
+    }
+
+    /**
+     * Installs the random stream used by the engine (e.g. one SplittableRandom split per replication);
+     * the lane pools' base seed is drawn from it here. Like setArrivalCurveConfig, call this BEFORE running.
+     */
+    public void setRandomStream(RandomGenerator stream) {
+        if (stream == null) throw new IllegalArgumentException("stream is null");
+        this.poolSeed = stream.nextLong();
+        counterPools = null;
+        checkpointPools = null;
+    }
+
+    /** Reproducible run: same seed + same inputs => identical results. */
+    public void setSeed(long seed) {
+        setRandomStream(new SplittableRandom(seed));
     }
 
     public ArrivalCurveConfig getArrivalCurveConfigCopy() {
@@ -392,25 +697,56 @@ public class SimulationEngine {
     private void rebuildMinuteArrivalsMap() {
         minuteArrivalsMap.clear();
 
-        for (Flight f : flights) {
-            int totalPassengers = (int) Math.round(f.getSeats() * f.getFillPercent());
-
-            int[] perMin;
-            if (arrivalCurveConfig == null || arrivalCurveConfig.isLegacyMode()) {
-                // ✅ EXACT existing behavior (your current ArrivalGenerator logic)
-                perMin = legacyMinuteGenerator.generateArrivals(f); // interval=1 => per-minute
-            } else {
-                // ✅ Edited behavior (split Gaussian + windowStart + clamp)
-                perMin = editedMinuteGenerator.buildArrivalsPerMinute(
-                        f,
-                        totalPassengers,
-                        arrivalCurveConfig,
-                        arrivalSpanMinutes
-                );
+        // ✅ legacy = EXACT ArrivalGenerator counts, edited = split Gaussian + windowStart + clamp.
+        // The shape doesn't depend on the flight, so flights with the same profile and passenger
+        // total share one cached (read-only) array: curve work scales with distinct profiles.
+        ArrivalCurveCache.Shape defaultShape = (arrivalCurveConfig == null || arrivalCurveConfig.isLegacyMode())
+                ? ArrivalCurveCache.Shape.legacy(arrivalSpanMinutes)
+                : ArrivalCurveCache.Shape.edited(arrivalCurveConfig, arrivalSpanMinutes);
+        boolean profiles = hasCurveProfiles();
+
+        int n = flights.size();
+        ArrivalCurveCache.Shape[] shapes = new ArrivalCurveCache.Shape[n];
+        ArrivalCurveConfig[] cfgs = new ArrivalCurveConfig[n];
+        int[] totals = new int[n];
+        for (int i = 0; i < n; i++) {
+            Flight f = flights.get(i);
+            totals[i] = (int) Math.round(f.getSeats() * f.getFillPercent());
+            shapes[i] = defaultShape;
+            cfgs[i] = arrivalCurveConfig;
+            if (profiles) {
+                ArrivalCurveConfig own = arrivalCurveProfiles.configFor(f);
+                if (own != null) {
+                    cfgs[i] = own;
+                    shapes[i] = arrivalCurveProfiles.shapeFor(f, arrivalSpanMinutes);
+                }
             }
+        }
+
+        // built-in curves: whole schedule in one batch (parallel for large schedules)
+        int[][] counts = (arrivalCurveGenerator == null)
+                ? SplitGaussianBatch.counts(shapes, totals, curveCache)
+                : null;
 
+        for (int i = 0; i < n; i++) {
+            Flight f = flights.get(i);
+            int[] perMin = (counts != null)
+                    ? counts[i]
+                    : arrivalCurveGenerator.buildArrivalsPerMinute(
+                            f, totals[i], copyCfg(cfgs[i]), arrivalSpanMinutes);
             minuteArrivalsMap.put(f, (perMin == null) ? new int[0] : perMin);
         }
+
+        arrivalsIndex = buildArrivalsIndex();
+        computeChosenHoldRooms();
+    }
+
+    private ArrivalsIndex buildArrivalsIndex() {
+        int[] offsets = new int[flights.size()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = getDepartureIdx(flights.get(i)) - arrivalSpanMinutes;
+        }
+        return new ArrivalsIndex(flights, minuteArrivalsMap, offsets);
     }
 
     private static List<CheckpointConfig> buildDefaultCheckpointConfigs(int numCheckpoints, double checkpointRatePerHour) {
@@ -474,48 +810,40 @@ public class SimulationEngine {
         return list;
     }
 
+    /**
+     * Flight -> hold room from the predicted occupancy of the current arrivals, so flights that
+     * overlap don't pile into one room past its capacity (see {@link HoldRoomAssignmentSolver}).
+     * Flights that transfer out take no room space; expected inbound transfers do.
+     */
     private void computeChosenHoldRooms() {
         chosenHoldRoomIndexByFlight.clear();
+        holdRoomsDirty = false;
 
         int roomCount = holdRoomConfigs.size();
-        if (roomCount <= 0) return;
-
-        for (Flight f : flights) {
-            List<Integer> candidates = new ArrayList<>();
-            int bestSeconds = Integer.MAX_VALUE;
-
-            for (int r = 0; r < roomCount; r++) {
-                HoldRoomConfig cfg = holdRoomConfigs.get(r);
-                if (cfg == null) continue;
-
-                if (!cfg.accepts(f)) continue;
-
-                int ws = safeWalkSeconds(cfg);
-                if (ws < bestSeconds) {
-                    bestSeconds = ws;
-                    candidates.clear();
-                    candidates.add(r);
-                } else if (ws == bestSeconds) {
-                    candidates.add(r);
-                }
-            }
-
-            int chosen;
-            if (!candidates.isEmpty()) {
-                chosen = candidates.get(rand.nextInt(candidates.size()));
-            } else {
-                int acceptAll = -1;
-                for (int r = 0; r < roomCount; r++) {
-                    HoldRoomConfig cfg = holdRoomConfigs.get(r);
-                    if (cfg != null && cfg.getAllowedFlightNumbers().isEmpty()) {
-                        acceptAll = r;
-                        break;
-                    }
-                }
-                chosen = (acceptAll >= 0) ? acceptAll : 0;
+        if (roomCount <= 0 || arrivalsIndex == null) return;
+
+        int n = flights.size();
+        int[] close = new int[n];
+        int[] departure = new int[n];
+        boolean[] skip = new boolean[n];
+        int[][] inbound = new int[n][];
+        int[] inboundOffset = new int[n];
+        for (int i = 0; i < n; i++) {
+            Flight f = flights.get(i);
+            close[i] = getBoardingCloseIdx(f);
+            departure[i] = getDepartureIdx(f);
+            skip[i] = transferFlights.contains(f);
+            int[] in = expectedTransfersIn.get(f);
+            if (in != null) {
+                inboundOffset[i] = in[0];
+                inbound[i] = Arrays.copyOfRange(in, 1, in.length);
             }
+        }
 
-            chosenHoldRoomIndexByFlight.put(f, clamp(chosen, 0, roomCount - 1));
+        int[] chosen = HoldRoomAssignmentSolver.solve(arrivalsIndex, holdRoomConfigs, close, departure,
+                transitDelayMinutes, skip, inbound, inboundOffset);
+        for (int i = 0; i < n; i++) {
+            chosenHoldRoomIndexByFlight.put(flights.get(i), clamp(chosen[i], 0, roomCount - 1));
         }
     }
 
@@ -526,19 +854,22 @@ public class SimulationEngine {
 
     // NOTE: still uses 20 minutes (this matches your existing program rules)
     private int getBoardingCloseIdx(Flight f) {
-        return (int) Duration.between(
-                globalStart,
-                f.getDepartureTime().minusMinutes(ArrivalCurveConfig.DEFAULT_BOARDING_CLOSE)
-        ).toMinutes();
+        return getDepartureIdx(f) - ArrivalCurveConfig.DEFAULT_BOARDING_CLOSE;
     }
 
     private int getDepartureIdx(Flight f) {
         return (int) Duration.between(
-                globalStart,
-                f.getDepartureTime()
+                globalStartDateTime,
+                f.getDepartureDateTime(baseDate)
         ).toMinutes();
     }
 
+    /** Interval at which {@code f} departs (minutes since the global start). */
+    public int getDepartureInterval(Flight f) { return getDepartureIdx(f); }
+
+    /** Interval at which boarding for {@code f} closes and late passengers are marked missed. */
+    public int getBoardingCloseInterval(Flight f) { return getBoardingCloseIdx(f); }
+
     private int ceilMinutesFromSeconds(int seconds) {
         int s = Math.max(0, seconds);
         return (s / 60) + ((s % 60) > 0 ? 1 : 0);
@@ -550,6 +881,7 @@ public class SimulationEngine {
 
     private void captureSnapshot0() {
         stateSnapshots.clear();
+        retiredBefore = 0;
 
         heldUpsByInterval.clear();
         ticketQueuedByInterval.clear();
@@ -561,6 +893,10 @@ public class SimulationEngine {
 
         recordQueueTotalsForCurrentInterval();
 
+        waitStats.reset();
+        waitStats.markInterval(0);
+        outcomes.reset();
+
         EngineSnapshot s0 = makeSnapshot();
         stateSnapshots.add(s0);
         maxComputedInterval = 0;
@@ -582,10 +918,11 @@ public class SimulationEngine {
                 Arrays.copyOf(checkpointServing, checkpointServing.length),
                 new HashSet<>(ticketCompletedVisible),
                 new ArrayList<>(justClosedFlights),
-                new LinkedHashMap<>(heldUpsByInterval),
-                new LinkedHashMap<>(ticketQueuedByInterval),
-                new LinkedHashMap<>(checkpointQueuedByInterval),
-                new LinkedHashMap<>(holdRoomTotalByInterval)
+                // full copies of the series make snapshots O(n^2); a bounded run keeps the live ones
+                retainIntervals > 0 ? null : new LinkedHashMap<>(heldUpsByInterval),
+                retainIntervals > 0 ? null : new LinkedHashMap<>(ticketQueuedByInterval),
+                retainIntervals > 0 ? null : new LinkedHashMap<>(checkpointQueuedByInterval),
+                retainIntervals > 0 ? null : new LinkedHashMap<>(holdRoomTotalByInterval)
         );
     }
 
@@ -598,6 +935,56 @@ public class SimulationEngine {
             stateSnapshots.add(snap);
         }
         maxComputedInterval = Math.max(maxComputedInterval, currentInterval);
+        if (retainIntervals > 0) retireBefore(maxComputedInterval - retainIntervals);
+    }
+
+    /**
+     * Drops what makes intervals below {@code limit} replayable: their snapshots, the passenger
+     * lists of the UI histories and per-flight history maps, the queue-total series entries, the
+     * stored wait percentiles and the per-interval outcome rows of departed flights. What is left
+     * per retired interval is the two line-size integers.
+     */
+    private void retireBefore(int limit) {
+        limit = Math.min(limit, maxComputedInterval);
+        if (limit <= retiredBefore) return;
+
+        synchronized (historyLock) {
+            for (int i = retiredBefore; i < limit; i++) {
+                if (i < stateSnapshots.size()) stateSnapshots.set(i, null);
+                // history step h is the state after interval h + 1
+                int step = i - 1;
+                if (step < 0) continue;
+                retireStep(historyServedTicket, step);
+                retireStep(historyQueuedTicket, step);
+                retireStep(historyServedCheckpoint, step);
+                retireStep(historyQueuedCheckpoint, step);
+                retireStep(historyHoldRooms, step);
+                retireStep(historyOnlineArrivals, step);
+                retireStep(historyFromTicketArrivals, step);
+                retireCounts(historyArrivals, step);
+                retireCounts(historyEnqueuedTicket, step);
+                retireCounts(historyTicketed, step);
+                retireCounts(historyArrivedToCheckpoint, step);
+                retireCounts(historyPassedCheckpoint, step);
+            }
+        }
+        for (int i = retiredBefore; i < limit; i++) {
+            heldUpsByInterval.remove(i);
+            ticketQueuedByInterval.remove(i);
+            checkpointQueuedByInterval.remove(i);
+            holdRoomTotalByInterval.remove(i);
+        }
+        waitStats.retireBefore(limit);
+        outcomes.retireBefore(limit);
+        retiredBefore = limit;
+    }
+
+    private static <T> void retireStep(List<List<T>> history, int step) {
+        if (step < history.size()) history.set(step, Collections.emptyList());
+    }
+
+    private static void retireCounts(List<Map<Flight, Integer>> history, int step) {
+        if (step < history.size()) history.set(step, Collections.emptyMap());
     }
 
     // ============================
@@ -605,10 +992,11 @@ public class SimulationEngine {
     // ============================
 
     private void restoreSnapshot(int targetInterval) {
-        int t = clamp(targetInterval, 0, maxComputedInterval);
+        int t = clamp(targetInterval, retiredBefore, maxComputedInterval);
         EngineSnapshot s = stateSnapshots.get(t);
 
         this.currentInterval = s.currentInterval;
+        outcomes.restore(s.currentInterval);
 
         restoreLinkedListsInPlace(ticketLines, s.ticketLines);
         restoreLinkedListsInPlace(completedTicketLines, s.completedTicketLines);
@@ -652,6 +1040,8 @@ public class SimulationEngine {
         this.justClosedFlights.clear();
         this.justClosedFlights.addAll(s.justClosedFlights);
 
+        if (s.heldUpsByInterval == null) return;        // bounded run: series are not snapshotted
+
         this.heldUpsByInterval.clear();
         this.heldUpsByInterval.putAll(s.heldUpsByInterval);
 
@@ -673,7 +1063,7 @@ public class SimulationEngine {
     // Rewind API
     // ============================
 
-    public boolean canRewind() { return currentInterval > 0; }
+    public boolean canRewind() { return currentInterval > retiredBefore; }
     public boolean canFastForward() { return currentInterval < maxComputedInterval; }
     public int getMaxComputedInterval() { return maxComputedInterval; }
 
@@ -726,6 +1116,8 @@ public class SimulationEngine {
         pendingToHold.clear();
         Arrays.fill(counterServing, null);
         Arrays.fill(checkpointServing, null);
+        counterPools = null;
+        checkpointPools = null;
 
         captureSnapshot0();
 
@@ -759,18 +1151,25 @@ public class SimulationEngine {
 
         for (int i = 0; i < counterServing.length; i++) {
             Passenger p = counterServing[i];
-            if (p != null && p.getFlight() == f && !inChosen.contains(p)) p.setMissed(true);
+            if (p != null && p.getFlight() == f && !inChosen.contains(p)) markMissed(p);
         }
         for (int i = 0; i < checkpointServing.length; i++) {
             Passenger p = checkpointServing[i];
-            if (p != null && p.getFlight() == f && !inChosen.contains(p)) p.setMissed(true);
+            if (p != null && p.getFlight() == f && !inChosen.contains(p)) markMissed(p);
         }
     }
 
+    /** Marks {@code p} missed and counts it once (a passenger can sit in several lists). */
+    private void markMissed(Passenger p) {
+        if (p.isMissed()) return;
+        p.setMissed(true);
+        outcomes.add(flightIndex.getOrDefault(p.getFlight(), -1), FlightOutcomeCounters.Counter.MISSED, 1);
+    }
+
     private void markMissedNotInChosen(List<LinkedList<Passenger>> lists, Flight f, Set<Passenger> inChosen) {
         for (LinkedList<Passenger> line : lists) {
             for (Passenger p : line) {
-                if (p != null && p.getFlight() == f && !inChosen.contains(p)) p.setMissed(true);
+                if (p != null && p.getFlight() == f && !inChosen.contains(p)) markMissed(p);
             }
         }
     }
@@ -784,7 +1183,7 @@ public class SimulationEngine {
 
             list.removeIf(p -> {
                 if (p != null && p.getFlight() == f && !inChosen.contains(p)) {
-                    p.setMissed(true);
+                    markMissed(p);
                     return true;
                 }
                 return false;
@@ -836,9 +1235,20 @@ public class SimulationEngine {
     // ============================
 
     private void clearFlightFromHoldRooms(Flight f) {
+        int boarded = 0;
         for (LinkedList<Passenger> room : holdRoomLines) {
-            room.removeIf(p -> p != null && p.getFlight() == f);
+            Iterator<Passenger> it = room.iterator();
+            while (it.hasNext()) {
+                Passenger p = it.next();
+                if (p != null && p.getFlight() == f) {
+                    it.remove();
+                    boarded++;
+                }
+            }
         }
+        int fi = flightIndex.getOrDefault(f, -1);
+        outcomes.add(fi, FlightOutcomeCounters.Counter.IN_HOLD_ROOM, -boarded);
+        outcomes.add(fi, FlightOutcomeCounters.Counter.BOARDED, boarded);
     }
 
     // ============================
@@ -858,6 +1268,34 @@ public class SimulationEngine {
         return null;
     }
 
+    /**
+     * Stochastic lane: how many of the first not-missed passengers in {@code line} finish within
+     * this interval. Each takes pool sample / rate intervals; the one still at the desk when the
+     * interval ends is kept in {@code serving[c]} with its remaining time in {@code remaining[c]},
+     * so service carries over (and rewinds with the snapshots). An idle lane banks no time.
+     * The caller then takes that many passengers with takeFirstNotMissed, in the same order.
+     */
+    private static int stochasticCompletions(LinkedList<Passenger> line, Passenger[] serving, double[] remaining,
+                                             int c, ServiceTimePool pool, double ratePerInterval) {
+        if (ratePerInterval <= 0) return 0;
+        double budget = 1.0;
+        int done = 0;
+        for (Passenger p : line) {
+            if (p == null || p.isMissed()) continue;
+            double need = (p == serving[c]) ? remaining[c] : pool.next() / ratePerInterval;
+            if (need > budget) {
+                serving[c] = p;
+                remaining[c] = need - budget;
+                return done;
+            }
+            budget -= need;
+            done++;
+        }
+        serving[c] = null;
+        remaining[c] = 0;
+        return done;
+    }
+
     private void removeFromCompletedCheckpointLines(Passenger p) {
         if (p == null) return;
         for (LinkedList<Passenger> line : completedCheckpointLines) {
@@ -877,25 +1315,30 @@ public class SimulationEngine {
 
     public void simulateInterval() {
         justClosedFlights.clear();
+        ensureMinuteArrivals();
+        ensureServicePools();
 
         int minute = currentInterval;
         List<Flight> flightsDepartingThisMinute = new ArrayList<>();
 
+        // re-simulating an already computed interval repeats the same completions: count them once
+        boolean recordWaits = currentInterval >= maxComputedInterval;
+
         // 1) arrivals + detect boarding-close (mark missed only)
-        for (Flight f : flights) {
+        ArrivalsIndex arrivals = arrivalsIndex;
+        for (int fi = 0; fi < flights.size(); fi++) {
+            Flight f = flights.get(fi);
             if (minute == getDepartureIdx(f)) flightsDepartingThisMinute.add(f);
 
-            int[] perMin = minuteArrivalsMap.get(f);
-            long offset = Duration.between(globalStart,
-                            f.getDepartureTime().minusMinutes(arrivalSpanMinutes))
-                    .toMinutes();
-            int idx = minute - (int) offset;
+            int[] perMin = arrivals.getPerMinute(fi);
+            int idx = minute - arrivals.getOffset(fi);
 
-            if (perMin != null && idx >= 0 && idx < perMin.length) {
+            if (idx >= 0 && idx < perMin.length) {
                 int totalHere = perMin[idx];
 
                 int inPerson = (int) Math.round(totalHere * percentInPerson);
                 int online = totalHere - inPerson;
+                outcomes.add(fi, FlightOutcomeCounters.Counter.ARRIVED, totalHere);
 
                 // Safety: if there are 0 ticket counters, treat everyone as "online"
                 if (counterConfigs.isEmpty()) {
@@ -941,10 +1384,15 @@ public class SimulationEngine {
         // 2) ticket-counter service (TicketCounterConfig rate is passengers/minute)
         for (int c = 0; c < counterConfigs.size(); c++) {
             double ratePerInterval = getTicketCounterRatePerInterval(c);
-            counterProgress[c] += ratePerInterval;
-
-            int toComplete = (int) Math.floor(counterProgress[c]);
-            counterProgress[c] -= toComplete;
+            int toComplete;
+            if (counterPools[c] != null) {
+                toComplete = stochasticCompletions(ticketLines.get(c), counterServing, counterProgress, c,
+                        counterPools[c], ratePerInterval);
+            } else {
+                counterProgress[c] += ratePerInterval;
+                toComplete = (int) Math.floor(counterProgress[c]);
+                counterProgress[c] -= toComplete;
+            }
 
             for (int k = 0; k < toComplete; k++) {
                 Passenger next = takeFirstNotMissed(ticketLines.get(c));
@@ -955,6 +1403,9 @@ public class SimulationEngine {
                 ticketCompletedVisible.add(next);
 
                 if (!next.isMissed()) {
+                    if (recordWaits) waitStats.recordTicket(c, minute - next.getArrivalMinute());
+                    outcomes.add(flightIndex.getOrDefault(next.getFlight(), -1),
+                            FlightOutcomeCounters.Counter.TICKETED, 1);
                     pendingToCP.computeIfAbsent(minute + transitDelayMinutes, x -> new ArrayList<>())
                             .add(next);
                 }
@@ -980,10 +1431,15 @@ public class SimulationEngine {
         // 4) checkpoint service (per-checkpoint passengers/hour -> per interval)
         for (int c = 0; c < numCheckpoints; c++) {
             double ratePerInterval = getCheckpointRatePerInterval(c);
-            checkpointProgress[c] += ratePerInterval;
-
-            int toComplete = (int) Math.floor(checkpointProgress[c]);
-            checkpointProgress[c] -= toComplete;
+            int toComplete;
+            if (checkpointPools[c] != null) {
+                toComplete = stochasticCompletions(checkpointLines.get(c), checkpointServing, checkpointProgress, c,
+                        checkpointPools[c], ratePerInterval);
+            } else {
+                checkpointProgress[c] += ratePerInterval;
+                toComplete = (int) Math.floor(checkpointProgress[c]);
+                checkpointProgress[c] -= toComplete;
+            }
 
             for (int k = 0; k < toComplete; k++) {
                 Passenger next = takeFirstNotMissed(checkpointLines.get(c));
@@ -994,6 +1450,21 @@ public class SimulationEngine {
 
                 if (!next.isMissed()) {
                     Flight f = next.getFlight();
+                    outcomes.add(flightIndex.getOrDefault(f, -1), FlightOutcomeCounters.Counter.CLEARED_CHECKPOINT, 1);
+
+                    if (recordWaits) {
+                        int cpWait = minute - next.getCheckpointEntryMinute();
+                        int ticketWait = next.isInPerson()
+                                ? next.getTicketCompletionMinute() - next.getArrivalMinute() : 0;
+                        waitStats.recordCheckpoint(c, flightIndex.getOrDefault(f, -1), cpWait, cpWait + ticketWait);
+                    }
+                    if (transferSink != null && transferFlights.contains(f)) {
+                        // departs from another terminal: hand over instead of walking to a local room
+                        completedCheckpointLines.get(c).removeLastOccurrence(next);
+                        outcomes.add(flightIndex.getOrDefault(f, -1), FlightOutcomeCounters.Counter.TRANSFERRED_OUT, 1);
+                        transferSink.accept(next, minute);
+                        continue;
+                    }
                     int targetRoom = chosenHoldRoomIndexByFlight.getOrDefault(f, 0);
                     targetRoom = clamp(targetRoom, 0, holdRoomConfigs.size() - 1);
 
@@ -1032,8 +1503,9 @@ public class SimulationEngine {
                     int seq = holdRoomLines.get(roomIdx).size() + 1;
                     p.setHoldRoomSequence(seq);
                     holdRoomLines.get(roomIdx).add(p);
+                    outcomes.add(flightIndex.getOrDefault(f, -1), FlightOutcomeCounters.Counter.IN_HOLD_ROOM, 1);
                 } else {
-                    p.setMissed(true);
+                    markMissed(p);
                 }
             }
         }
@@ -1044,11 +1516,18 @@ public class SimulationEngine {
         }
 
         // 6) record history (snapshot moment)
-        historyServedTicket.add(deepCopyPassengerLists(completedTicketLines));
-        historyQueuedTicket.add(deepCopyPassengerLists(ticketLines));
-        historyServedCheckpoint.add(deepCopyPassengerLists(completedCheckpointLines));
-        historyQueuedCheckpoint.add(deepCopyPassengerLists(checkpointLines));
-        historyHoldRooms.add(deepCopyPassengerLists(holdRoomLines));
+        List<List<Passenger>> servedTicketStep = deepCopyPassengerLists(completedTicketLines);
+        List<List<Passenger>> queuedTicketStep = deepCopyPassengerLists(ticketLines);
+        List<List<Passenger>> servedCheckpointStep = deepCopyPassengerLists(completedCheckpointLines);
+        List<List<Passenger>> queuedCheckpointStep = deepCopyPassengerLists(checkpointLines);
+        List<List<Passenger>> holdRoomsStep = deepCopyPassengerLists(holdRoomLines);
+        synchronized (historyLock) {
+            historyServedTicket.add(servedTicketStep);
+            historyQueuedTicket.add(queuedTicketStep);
+            historyServedCheckpoint.add(servedCheckpointStep);
+            historyQueuedCheckpoint.add(queuedCheckpointStep);
+            historyHoldRooms.add(holdRoomsStep);
+        }
 
         // 6.5) close clear after snapshot
         if (!justClosedFlights.isEmpty()) {
@@ -1066,6 +1545,8 @@ public class SimulationEngine {
         heldUpsByInterval.put(currentInterval, stillInTicketQueue + stillInCheckpointQueue);
 
         recordQueueTotalsForCurrentInterval();
+        if (recordWaits) waitStats.markInterval(currentInterval);
+        outcomes.markInterval(currentInterval);
         appendSnapshotAfterInterval();
     }
 
@@ -1088,6 +1569,14 @@ public class SimulationEngine {
     }
 
     private void clearHistory() {
+        synchronized (historyLock) {
+            historyServedTicket.clear();
+            historyQueuedTicket.clear();
+            historyServedCheckpoint.clear();
+            historyQueuedCheckpoint.clear();
+            historyHoldRooms.clear();
+        }
+
         historyArrivals.clear();
         historyEnqueuedTicket.clear();
         historyTicketed.clear();
@@ -1095,13 +1584,8 @@ public class SimulationEngine {
         historyArrivedToCheckpoint.clear();
         historyCPLineSize.clear();
         historyPassedCheckpoint.clear();
-        historyServedTicket.clear();
-        historyQueuedTicket.clear();
         historyOnlineArrivals.clear();
         historyFromTicketArrivals.clear();
-        historyServedCheckpoint.clear();
-        historyQueuedCheckpoint.clear();
-        historyHoldRooms.clear();
 
         Arrays.fill(counterProgress, 0);
         Arrays.fill(checkpointProgress, 0);
@@ -1150,36 +1634,95 @@ public class SimulationEngine {
 
     /** Used by DataTableModel / DataTableFrame */
     public Map<Flight, int[]> getMinuteArrivalsMap() {
+        ensureMinuteArrivals();
         return Collections.unmodifiableMap(minuteArrivalsMap);
     }
 
+    /**
+     * Global arrivals index (per-minute totals, prefix sums, per-flight offsets) for the current
+     * flights and curve. Immutable; safe to hold on to from the UI thread until the curve changes.
+     */
+    public ArrivalsIndex getArrivalsIndex() {
+        ensureMinuteArrivals();
+        return arrivalsIndex;
+    }
+
     /** Used by ArrivalsGraphPanel */
     public int getTotalArrivalsAtInterval(int intervalIndex) {
         // Interval 0 = initial state (before any simulateInterval ran)
-        if (intervalIndex <= 0) return 0;
         // Your engine advances 1 minute per interval
-        return getTotalArrivalsAtMinute(intervalIndex - 1);
+        return getArrivalsIndex().totalAtInterval(intervalIndex);
     }
 
     /** Helper used by getTotalArrivalsAtInterval */
     public int getTotalArrivalsAtMinute(int minuteSinceGlobalStart) {
-        int sum = 0;
+        return getArrivalsIndex().totalAtMinute(minuteSinceGlobalStart);
+    }
 
-        for (Flight f : flights) {
-            int[] perMin = minuteArrivalsMap.get(f);
-            if (perMin == null) continue;
+    // ============================
+    // READ-ONLY VIEWS
+    // ============================
 
-            long offset = Duration.between(
-                    globalStart,
-                    f.getDepartureTime().minusMinutes(arrivalSpanMinutes)
-            ).toMinutes();
+    /**
+     * Immutable view of the state rendered at {@code interval} (history step interval - 1).
+     * Safe to call from any thread; never changes engine.currentInterval.
+     * Intervals that have not been computed yet return an empty view.
+     */
+    public EngineView viewAt(int interval) {
+        List<TicketCounterConfig> counters = getCounterConfigs();
+        List<HoldRoomConfig> rooms = getHoldRoomConfigs();
+
+        synchronized (historyLock) {
+            int step = interval - 1;
+            if (step < 0 || step >= historyHoldRooms.size()
+                    || step >= historyQueuedTicket.size()
+                    || step >= historyQueuedCheckpoint.size()) {
+                return EngineView.empty(interval, transitDelayMinutes,
+                        ticketLines.size(), checkpointLines.size(), holdRoomLines.size(),
+                        counters, rooms);
+            }
+            return new EngineView(interval, transitDelayMinutes, counters, rooms,
+                    historyQueuedTicket.get(step),
+                    historyServedTicket.get(step),
+                    historyQueuedCheckpoint.get(step),
+                    historyServedCheckpoint.get(step),
+                    historyHoldRooms.get(step));
+        }
+    }
 
-            int idx = minuteSinceGlobalStart - (int) offset;
-            if (idx >= 0 && idx < perMin.length) {
-                sum += perMin[idx];
+    /** View of the interval the engine is currently positioned at. */
+    public EngineView currentView() {
+        return viewAt(currentInterval);
+    }
+
+    /**
+     * Largest size ticket line {@code lineIdx} reached over the recorded history, and the first
+     * history step it did, as {@code {size, step}}. Read under the history lock; retired steps
+     * are skipped.
+     */
+    public int[] getPeakQueuedTicketLine(int lineIdx) {
+        return peakLine(historyQueuedTicket, lineIdx);
+    }
+
+    /** Same as {@link #getPeakQueuedTicketLine} for checkpoint line {@code lineIdx}. */
+    public int[] getPeakQueuedCheckpointLine(int lineIdx) {
+        return peakLine(historyQueuedCheckpoint, lineIdx);
+    }
+
+    private int[] peakLine(List<List<List<Passenger>>> history, int lineIdx) {
+        int max = 0, at = 0;
+        synchronized (historyLock) {
+            for (int step = 0; step < history.size(); step++) {
+                List<List<Passenger>> lines = history.get(step);
+                if (lineIdx < 0 || lineIdx >= lines.size()) continue;
+                int sz = lines.get(lineIdx).size();
+                if (sz > max) {
+                    max = sz;
+                    at = step;
+                }
             }
         }
-        return sum;
+        return new int[] { max, at };
     }
 
     // ============================
@@ -1197,9 +1740,21 @@ public class SimulationEngine {
     // PUBLIC GETTERS
     // ============================
     public List<Flight> getFlights() { return flights; }
+
+    /** Position of {@code f} in {@link #getFlights()} (the outcome/wait counter index), or -1; O(1). */
+    public int getFlightIndex(Flight f) { return flightIndex.getOrDefault(f, -1); }
     public int getArrivalSpan() { return arrivalSpanMinutes; }
     public int getInterval() { return intervalMinutes; }
     public int getTotalIntervals() { return totalIntervals; }
+    public LocalTime getGlobalStart() { return globalStart; }
+
+    /** Date and time of interval 0. */
+    public LocalDateTime getGlobalStartDateTime() { return globalStartDateTime; }
+
+    /** Date and time of {@code interval} (the engine advances one minute per interval). */
+    public LocalDateTime getDateTimeAt(int interval) {
+        return globalStartDateTime.plusMinutes(interval);
+    }
     public int getCurrentInterval() { return currentInterval; }
     public List<LinkedList<Passenger>> getTicketLines() { return ticketLines; }
     public List<LinkedList<Passenger>> getCheckpointLines() { return checkpointLines; }
@@ -1207,6 +1762,7 @@ public class SimulationEngine {
     public List<LinkedList<Passenger>> getCompletedCheckpointLines() { return completedCheckpointLines; }
     public List<LinkedList<Passenger>> getHoldRoomLines() { return holdRoomLines; }
     public int getTransitDelayMinutes() { return transitDelayMinutes; }
+    public double getPercentInPerson() { return percentInPerson; }
     public int getHoldDelayMinutes() { return holdDelayMinutes; }
     public List<HoldRoomConfig> getHoldRoomConfigs() { return Collections.unmodifiableList(holdRoomConfigs); }
     public List<TicketCounterConfig> getCounterConfigs() { return Collections.unmodifiableList(counterConfigs); }
@@ -1253,6 +1809,20 @@ public class SimulationEngine {
     public Map<Integer, Integer> getCheckpointQueuedByInterval() {
         return new LinkedHashMap<>(checkpointQueuedByInterval);
     }
+    /**
+     * Wait histograms of passengers who finished service, through the furthest computed interval
+     * (rewinding does not roll them back; use {@link WaitTimeStats#getStageAt} for an earlier moment).
+     * Flight histograms follow {@link #getFlights()} order.
+     */
+    public WaitTimeStats getWaitTimeStats() {
+        return waitStats;
+    }
+
+    /** Per-flight counters (flight order of {@link #getFlights()}), readable at any computed interval. */
+    public FlightOutcomeCounters getFlightOutcomes() {
+        return outcomes;
+    }
+
     public Map<Integer, Integer> getHoldRoomTotalByInterval() {
         return new LinkedHashMap<>(holdRoomTotalByInterval);
     }
@@ -0,0 +1,58 @@
+package sim.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * One completed simulation, computed once and shared by every view of it.
+ *
+ * The engine is run to the end up front, which fills its history and its per-interval
+ * snapshots, then rewound to interval 0. Views that only read history (data table, flight
+ * summary, graphs) use it as is; the animated view replays it: computeNextInterval / goToInterval
+ * on a fully computed engine just restore snapshots, so nothing is simulated twice and every
+ * window shows the same run (same random draws, same room choices).
+ *
+ * The engine's replay cursor is shared, so one animated view per run: views register with
+ * {@link #openView()} / {@link #closeView()} so a cached run is only handed out again once its
+ * previous animated window is gone. Hand a run to the EDT only after {@link #compute} returned.
+ */
+public final class SimulationRun {
+    private final SimulationEngine engine;
+    private final long elapsedNanos;
+    private final AtomicInteger openViews = new AtomicInteger();
+
+    private SimulationRun(SimulationEngine engine, long elapsedNanos) {
+        this.engine = engine;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** Runs every interval on the calling thread, then rewinds to interval 0 for replay. */
+    public static SimulationRun compute(SimulationEngine engine) {
+        return compute(engine, null);
+    }
+
+    /**
+     * Same as {@link #compute(SimulationEngine)}; {@code atEnd} sees the engine after the last
+     * interval, before the rewind (e.g. to reduce it to a RunSummary while the series are full).
+     */
+    public static SimulationRun compute(SimulationEngine engine, Consumer<SimulationEngine> atEnd) {
+        if (engine == null) throw new IllegalArgumentException("engine is null");
+        long t0 = System.nanoTime();
+        engine.runAllIntervals();
+        if (atEnd != null) atEnd.accept(engine);
+        engine.goToInterval(0);
+        return new SimulationRun(engine, System.nanoTime() - t0);
+    }
+
+    public SimulationEngine getEngine() { return engine; }
+    public int getTotalIntervals() { return engine.getTotalIntervals(); }
+    public long getElapsedMillis() { return elapsedNanos / 1_000_000L; }
+
+    /** An animated view started replaying this run. */
+    public void openView() { openViews.incrementAndGet(); }
+
+    /** That view was closed. */
+    public void closeView() { openViews.updateAndGet(n -> Math.max(0, n - 1)); }
+
+    public boolean isViewOpen() { return openViews.get() > 0; }
+}
@@ -0,0 +1,259 @@
+package sim.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Fixed-memory histogram of non-negative wait times (whole minutes in the engine), with
+ * HDR-style log-linear buckets.
+ *
+ * Values below 2^subBucketBits get one bucket each, so they are exact; above that every
+ * power-of-two range is split into 2^(subBucketBits - 1) equal buckets, so a reported
+ * percentile is within 2 / 2^subBucketBits of the true value (about 3% with the default 6 bits).
+ * Values above the trackable maximum are counted at that maximum.
+ *
+ * The bucket array grows only as far as the largest value recorded, up to its fixed bound,
+ * so one per flight stays small. Histograms with the same precision merge by adding counts,
+ * which is how lines, replications and sweep points are pooled without passenger data.
+ *
+ * Percentiles use the nearest-rank rule and report the top of the bucket they fall in,
+ * capped at the largest value seen. Not thread-safe.
+ */
+public final class WaitTimeHistogram {
+
+    public static final int DEFAULT_SUB_BUCKET_BITS = 6;
+
+    private final long maxTrackable;
+    private final int subBucketBits;
+    private final int subBucketCount;
+    private final int halfCount;
+    private final int bucketLimit;
+
+    private long[] counts = new long[0];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = -1;
+
+    /** Histogram for values 0..maxTrackable with the default precision. */
+    public WaitTimeHistogram(long maxTrackable) {
+        this(maxTrackable, DEFAULT_SUB_BUCKET_BITS);
+    }
+
+    public WaitTimeHistogram(long maxTrackable, int subBucketBits) {
+        if (maxTrackable < 1) throw new IllegalArgumentException("maxTrackable must be >= 1");
+        if (subBucketBits < 1 || subBucketBits > 16) {
+            throw new IllegalArgumentException("subBucketBits must be 1..16");
+        }
+        this.maxTrackable = maxTrackable;
+        this.subBucketBits = subBucketBits;
+        this.subBucketCount = 1 << subBucketBits;
+        this.halfCount = subBucketCount >> 1;
+        this.bucketLimit = indexOf(maxTrackable) + 1;
+    }
+
+    private WaitTimeHistogram(WaitTimeHistogram o) {
+        this(o.maxTrackable, o.subBucketBits);
+        this.counts = o.counts.clone();
+        this.totalCount = o.totalCount;
+        this.sum = o.sum;
+        this.min = o.min;
+        this.max = o.max;
+    }
+
+    // ============================
+    // Recording
+    // ============================
+
+    public void record(long value) {
+        record(value, 1);
+    }
+
+    /** Records {@code count} occurrences of {@code value} (negative values count as 0). */
+    public void record(long value, long count) {
+        if (count <= 0) return;
+        long v = Math.min(Math.max(0, value), maxTrackable);
+        int idx = indexOf(v);
+        if (idx >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.min(bucketLimit, Math.max(idx + 1, counts.length * 2)));
+        }
+        counts[idx] += count;
+        totalCount += count;
+        sum += v * count;
+        if (v < min) min = v;
+        if (v > max) max = v;
+    }
+
+    /**
+     * Adds every count of {@code other}; both must share precision and other's range must fit in
+     * this one's (bucket positions depend only on precision, so a shorter range is a prefix).
+     */
+    public void add(WaitTimeHistogram other) {
+        if (other == null || other.totalCount == 0) return;
+        if (other.maxTrackable > maxTrackable || other.subBucketBits != subBucketBits) {
+            throw new IllegalArgumentException("histogram layouts differ");
+        }
+        if (other.counts.length > counts.length) counts = Arrays.copyOf(counts, other.counts.length);
+        for (int i = 0; i < other.counts.length; i++) counts[i] += other.counts[i];
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        counts = new long[0];
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = -1;
+    }
+
+    public WaitTimeHistogram copy() {
+        return new WaitTimeHistogram(this);
+    }
+
+    // ============================
+    // Queries
+    // ============================
+
+    public long getTotalCount() { return totalCount; }
+    public long getMaxTrackable() { return maxTrackable; }
+    public int getSubBucketBits() { return subBucketBits; }
+
+    /** Largest value recorded (0 when empty). */
+    public long getMax() { return max < 0 ? 0 : max; }
+
+    /** Smallest value recorded (0 when empty). */
+    public long getMin() { return totalCount == 0 ? 0 : min; }
+
+    public double getMean() { return totalCount == 0 ? 0.0 : sum / (double) totalCount; }
+
+    /** Nearest-rank value at {@code percentile} (0..100); 0 when empty. */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+        double p = Math.max(0.0, Math.min(100.0, percentile));
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(highestEquivalent(i), max);
+        }
+        return max;
+    }
+
+    public long getP50() { return getValueAtPercentile(50); }
+    public long getP90() { return getValueAtPercentile(90); }
+    public long getP95() { return getValueAtPercentile(95); }
+    public long getP99() { return getValueAtPercentile(99); }
+
+    /** Count, p50 / p90 / p95 / p99 and max in one pass. */
+    public Percentiles percentiles() {
+        if (totalCount == 0) return Percentiles.EMPTY;
+        double[] qs = { 50, 90, 95, 99 };
+        long[] out = new long[qs.length];
+        int q = 0;
+        long seen = 0;
+        for (int i = 0; i < counts.length && q < qs.length; i++) {
+            seen += counts[i];
+            while (q < qs.length && seen >= Math.max(1, (long) Math.ceil(qs[q] / 100.0 * totalCount))) {
+                out[q++] = Math.min(highestEquivalent(i), max);
+            }
+        }
+        return new Percentiles(totalCount, out[0], out[1], out[2], out[3], getMax());
+    }
+
+    @Override
+    public String toString() {
+        return percentiles().toString();
+    }
+
+    // ============================
+    // Binary form (result cache)
+    // ============================
+
+    /** Bytes {@link #writeTo} needs. */
+    public int encodedSize() {
+        return 8 + 4 + 4 + 8 * 4 + 8 * counts.length;
+    }
+
+    /** Layout, totals and the used buckets, big-endian. */
+    public void writeTo(ByteBuffer out) {
+        out.putLong(maxTrackable);
+        out.putInt(subBucketBits);
+        out.putInt(counts.length);
+        out.putLong(totalCount);
+        out.putLong(sum);
+        out.putLong(min);
+        out.putLong(max);
+        for (long c : counts) out.putLong(c);
+    }
+
+    public static WaitTimeHistogram readFrom(ByteBuffer in) {
+        WaitTimeHistogram h = new WaitTimeHistogram(in.getLong(), in.getInt());
+        int used = in.getInt();
+        if (used < 0 || used > h.bucketLimit) throw new IllegalArgumentException("bad bucket count " + used);
+        h.totalCount = in.getLong();
+        h.sum = in.getLong();
+        h.min = in.getLong();
+        h.max = in.getLong();
+        h.counts = new long[used];
+        for (int i = 0; i < used; i++) h.counts[i] = in.getLong();
+        return h;
+    }
+
+    // ============================
+    // Bucket layout
+    // ============================
+
+    private int indexOf(long v) {
+        if (v < subBucketCount) return (int) v;
+        int msb = 63 - Long.numberOfLeadingZeros(v);
+        int shift = msb - (subBucketBits - 1);
+        int sub = (int) (v >>> shift);                       // in [halfCount, subBucketCount)
+        return subBucketCount + (shift - 1) * halfCount + (sub - halfCount);
+    }
+
+    private long highestEquivalent(int index) {
+        if (index < subBucketCount) return index;
+        int k = index - subBucketCount;
+        int shift = k / halfCount + 1;
+        long sub = halfCount + (k % halfCount);
+        return ((sub + 1) << shift) - 1;
+    }
+
+    // ============================
+    // Percentiles
+    // ============================
+
+    /** Summary read off a histogram at one moment. */
+    public static final class Percentiles {
+        public static final Percentiles EMPTY = new Percentiles(0, 0, 0, 0, 0, 0);
+
+        private final long count;
+        private final long p50, p90, p95, p99, max;
+
+        Percentiles(long count, long p50, long p90, long p95, long p99, long max) {
+            this.count = count;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        public long getCount() { return count; }
+        public long getP50() { return p50; }
+        public long getP90() { return p90; }
+        public long getP95() { return p95; }
+        public long getP99() { return p99; }
+        public long getMax() { return max; }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "n=%d p50=%d p90=%d p95=%d p99=%d max=%d",
+                    count, p50, p90, p95, p99, max);
+        }
+    }
+}
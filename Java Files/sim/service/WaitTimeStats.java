@@ -0,0 +1,156 @@
+package sim.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming wait-time statistics of one run, kept by {@link SimulationEngine} as passengers
+ * finish service. Waits are whole minutes, measured the way the engine counts them:
+ * <ul>
+ *   <li>ticket: arrival -> ticket counter completion (in-person passengers only),</li>
+ *   <li>checkpoint: checkpoint queue entry -> checkpoint completion,</li>
+ *   <li>total: ticket + checkpoint wait, recorded at checkpoint completion.</li>
+ * </ul>
+ * Each stage has a histogram, as does every ticket counter, checkpoint lane and flight (total
+ * wait), all with the same layout so any of them can be merged. Memory is fixed by the
+ * line/flight counts, not by passengers.
+ *
+ * After each interval the engine also stores the three stage {@link WaitTimeHistogram.Percentiles},
+ * so percentiles "as of" any computed interval stay available after the run (and on rewind),
+ * unless the engine has retired that interval.
+ */
+public final class WaitTimeStats {
+
+    public enum Stage { TICKET, CHECKPOINT, TOTAL }
+
+    private final long maxTrackable;
+    private final WaitTimeHistogram[] stages = new WaitTimeHistogram[Stage.values().length];
+    private final WaitTimeHistogram[] counters;
+    private final WaitTimeHistogram[] checkpoints;
+    private final WaitTimeHistogram[] flights;
+
+    // index = interval; element [stage.ordinal()]
+    private final List<WaitTimeHistogram.Percentiles[]> byInterval = new ArrayList<>();
+    private int retiredBefore;
+
+    /**
+     * @param maxTrackable longest wait tracked exactly enough to matter (e.g. the day's length)
+     */
+    public WaitTimeStats(int counterCount, int checkpointCount, int flightCount, long maxTrackable) {
+        if (counterCount < 0 || checkpointCount < 0 || flightCount < 0) {
+            throw new IllegalArgumentException("counts must be >= 0");
+        }
+        this.maxTrackable = maxTrackable;
+        for (int s = 0; s < stages.length; s++) stages[s] = new WaitTimeHistogram(maxTrackable);
+        this.counters = newHistograms(counterCount, maxTrackable);
+        this.checkpoints = newHistograms(checkpointCount, maxTrackable);
+        this.flights = newHistograms(flightCount, maxTrackable);
+    }
+
+    private static WaitTimeHistogram[] newHistograms(int n, long maxTrackable) {
+        WaitTimeHistogram[] out = new WaitTimeHistogram[n];
+        for (int i = 0; i < n; i++) out[i] = new WaitTimeHistogram(maxTrackable);
+        return out;
+    }
+
+    // ============================
+    // Recording (engine)
+    // ============================
+
+    void recordTicket(int counter, long waitMinutes) {
+        stages[Stage.TICKET.ordinal()].record(waitMinutes);
+        if (counter >= 0 && counter < counters.length) counters[counter].record(waitMinutes);
+    }
+
+    void recordCheckpoint(int lane, int flightIdx, long checkpointWaitMinutes, long totalWaitMinutes) {
+        stages[Stage.CHECKPOINT.ordinal()].record(checkpointWaitMinutes);
+        stages[Stage.TOTAL.ordinal()].record(totalWaitMinutes);
+        if (lane >= 0 && lane < checkpoints.length) checkpoints[lane].record(checkpointWaitMinutes);
+        if (flightIdx >= 0 && flightIdx < flights.length) flights[flightIdx].record(totalWaitMinutes);
+    }
+
+    /** Stores the stage percentiles as of {@code interval} (engine calls this once per interval). */
+    void markInterval(int interval) {
+        if (interval < 0) return;
+        WaitTimeHistogram.Percentiles[] row = new WaitTimeHistogram.Percentiles[stages.length];
+        for (int s = 0; s < stages.length; s++) row[s] = stages[s].percentiles();
+        while (byInterval.size() <= interval) byInterval.add(null);
+        byInterval.set(interval, row);
+    }
+
+    /** Forgets the stored percentiles before {@code interval} (engine retention window). */
+    void retireBefore(int interval) {
+        int limit = Math.min(interval, byInterval.size());
+        for (int i = retiredBefore; i < limit; i++) byInterval.set(i, null);
+        retiredBefore = Math.max(retiredBefore, limit);
+    }
+
+    void reset() {
+        for (WaitTimeHistogram h : stages) h.reset();
+        for (WaitTimeHistogram h : counters) h.reset();
+        for (WaitTimeHistogram h : checkpoints) h.reset();
+        for (WaitTimeHistogram h : flights) h.reset();
+        byInterval.clear();
+        retiredBefore = 0;
+    }
+
+    // ============================
+    // Queries
+    // ============================
+
+    public long getMaxTrackable() { return maxTrackable; }
+    public int getCounterCount() { return counters.length; }
+    public int getCheckpointCount() { return checkpoints.length; }
+    public int getFlightCount() { return flights.length; }
+
+    /** Live histograms (through the furthest computed interval); copy before keeping them. */
+    public WaitTimeHistogram getStage(Stage stage) { return stages[stage.ordinal()]; }
+    public WaitTimeHistogram getCounter(int counter) { return counters[counter]; }
+    public WaitTimeHistogram getCheckpoint(int lane) { return checkpoints[lane]; }
+    public WaitTimeHistogram getFlight(int flightIdx) { return flights[flightIdx]; }
+
+    /** Stage percentiles as of the end of {@code interval}; EMPTY before the first or past the last computed. */
+    public WaitTimeHistogram.Percentiles getStageAt(Stage stage, int interval) {
+        if (interval < 0 || interval >= byInterval.size()) return WaitTimeHistogram.Percentiles.EMPTY;
+        WaitTimeHistogram.Percentiles[] row = byInterval.get(interval);
+        return row == null ? WaitTimeHistogram.Percentiles.EMPTY : row[stage.ordinal()];
+    }
+
+    /** Sum of the ticket-counter histograms at {@code indices} (e.g. one airline's counters). */
+    public WaitTimeHistogram mergeCounters(int... indices) {
+        return mergeOf(counters, indices);
+    }
+
+    /** Sum of the checkpoint-lane histograms at {@code indices}. */
+    public WaitTimeHistogram mergeCheckpoints(int... indices) {
+        return mergeOf(checkpoints, indices);
+    }
+
+    private WaitTimeHistogram mergeOf(WaitTimeHistogram[] source, int[] indices) {
+        WaitTimeHistogram out = new WaitTimeHistogram(maxTrackable);
+        if (indices == null) return out;
+        for (int i : indices) {
+            if (i < 0 || i >= source.length) throw new IllegalArgumentException("no line " + i);
+            out.add(source[i]);
+        }
+        return out;
+    }
+
+    /**
+     * Adds every histogram of {@code other} into this one (replications or sweep points of the
+     * same layout). Per-line / per-flight histograms are merged only when the counts match;
+     * the per-interval percentiles are not merged.
+     */
+    public void add(WaitTimeStats other) {
+        if (other == null) return;
+        for (int s = 0; s < stages.length; s++) stages[s].add(other.stages[s]);
+        addAll(counters, other.counters);
+        addAll(checkpoints, other.checkpoints);
+        addAll(flights, other.flights);
+    }
+
+    private static void addAll(WaitTimeHistogram[] into, WaitTimeHistogram[] from) {
+        if (into.length != from.length) return;
+        for (int i = 0; i < into.length; i++) into[i].add(from[i]);
+    }
+}
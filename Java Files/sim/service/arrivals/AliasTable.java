@@ -0,0 +1,84 @@
+package sim.service.arrivals;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Walker/Vose alias table: O(n) to build, O(1) per draw (one int + one double from the stream).
+ *
+ * Built once per curve shape (see {@link ArrivalCurveCache#aliasTable(ArrivalCurveCache.Shape)})
+ * and shared read-only; all per-draw state lives in the caller's RandomGenerator.
+ */
+public final class AliasTable {
+    private final double[] prob;
+    private final int[] alias;
+
+    /** {@code weights} need not be normalized but must be >= 0 with a positive sum. */
+    public AliasTable(double[] weights) {
+        if (weights == null) throw new IllegalArgumentException("weights is null");
+        int n = weights.length;
+        this.prob = new double[n];
+        this.alias = new int[n];
+        if (n == 0) return;
+
+        double sum = 0;
+        for (double w : weights) {
+            if (!(w >= 0)) throw new IllegalArgumentException("weights must be >= 0");
+            sum += w;
+        }
+        if (!(sum > 0)) throw new IllegalArgumentException("weights must have a positive sum");
+
+        // scaled so the average bucket is exactly 1
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int ns = 0, nl = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / sum;
+            if (scaled[i] < 1.0) small[ns++] = i;
+            else large[nl++] = i;
+        }
+
+        while (ns > 0 && nl > 0) {
+            int s = small[--ns];
+            int l = large[--nl];
+            prob[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+            if (scaled[l] < 1.0) small[ns++] = l;
+            else large[nl++] = l;
+        }
+        // leftovers are 1 up to rounding
+        while (nl > 0) {
+            int l = large[--nl];
+            prob[l] = 1.0;
+            alias[l] = l;
+        }
+        while (ns > 0) {
+            int s = small[--ns];
+            prob[s] = 1.0;
+            alias[s] = s;
+        }
+    }
+
+    public int size() { return prob.length; }
+
+    /** One index drawn with probability proportional to its weight. */
+    public int sample(RandomGenerator rng) {
+        int i = rng.nextInt(prob.length);
+        return rng.nextDouble() < prob[i] ? i : alias[i];
+    }
+
+    /**
+     * Draws {@code count} indices and adds them into {@code histogram} (length >= size()).
+     * This is how a flight's passengers are spread over its arrival minutes.
+     */
+    public void sampleInto(RandomGenerator rng, int count, int[] histogram) {
+        if (count <= 0) return;
+        if (prob.length == 0) throw new IllegalStateException("empty alias table");
+        int n = prob.length;
+        for (int k = 0; k < count; k++) {
+            int i = rng.nextInt(n);
+            histogram[rng.nextDouble() < prob[i] ? i : alias[i]]++;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package sim.service.arrivals;
+
+import java.util.Arrays;
+
+/**
+ * Largest-remainder rounding shared by every arrival-curve path.
+ *
+ * Each minute gets floor(raw); the leftover passengers go to the minutes with the biggest
+ * fractional parts, ties to the earlier minute. This is exactly what the old List&lt;Integer&gt;
+ * sort (ArrivalGenerator, EditedSplitGaussianArrivalGenerator) and the repeated max scan
+ * (LegacyArrivalGenerator.rescaleToTotal) produced, so outputs are bit-identical.
+ *
+ * Only the {@code remainder} winners are needed, not a full order, so they are found with an
+ * O(n) quickselect over a primitive index buffer. Index and fraction buffers are per-thread
+ * scratch and reused; the only allocation is the result array (none with the *Into variants).
+ */
+public final class Apportionment {
+
+    private Apportionment() {}
+
+    private static final class Scratch {
+        int[] idx = new int[0];
+        double[] frac = new double[0];
+
+        void ensure(int n) {
+            if (idx.length < n) {
+                int cap = Math.max(n, idx.length * 2);
+                idx = new int[cap];
+                frac = new double[cap];
+            }
+        }
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    // ============================
+    // API
+    // ============================
+
+    /** Splits {@code total} over minutes proportionally to normalized {@code weights}. */
+    public static int[] apportion(double[] weights, int total) {
+        int[] out = new int[weights.length];
+        apportionInto(weights, total, out);
+        return out;
+    }
+
+    /** As {@link #apportion(double[], int)}, writing into {@code out} (length >= weights.length). */
+    public static void apportionInto(double[] weights, int total, int[] out) {
+        int n = weights.length;
+        if (out.length < n) throw new IllegalArgumentException("out is shorter than weights");
+        if (total <= 0 || n == 0) {
+            Arrays.fill(out, 0, n, 0);
+            return;
+        }
+
+        Scratch s = SCRATCH.get();
+        s.ensure(n);
+        double[] frac = s.frac;
+
+        int floorSum = 0;
+        for (int i = 0; i < n; i++) {
+            double raw = weights[i] * total;
+            out[i] = (int) Math.floor(raw);
+            floorSum += out[i];
+            frac[i] = raw - out[i];
+        }
+        distributeRemainder(out, frac, s.idx, n, total - floorSum);
+    }
+
+    /**
+     * Rescales integer counts to sum to {@code targetTotal}, keeping their shape
+     * (negative counts count as 0; all-zero input puts everything in minute 0).
+     */
+    public static int[] rescale(int[] counts, int targetTotal) {
+        int n = counts.length;
+        int[] out = new int[n];
+        if (targetTotal <= 0 || n == 0) return out;
+
+        long sum = 0;
+        for (int v : counts) sum += Math.max(0, v);
+
+        if (sum <= 0) {
+            out[0] = targetTotal;
+            return out;
+        }
+
+        double scale = targetTotal / (double) sum;
+
+        Scratch s = SCRATCH.get();
+        s.ensure(n);
+        double[] frac = s.frac;
+
+        int floorSum = 0;
+        for (int i = 0; i < n; i++) {
+            double raw = Math.max(0, counts[i]) * scale;
+            int flo = (int) Math.floor(raw);
+            out[i] = flo;
+            floorSum += flo;
+            frac[i] = raw - flo;
+        }
+        distributeRemainder(out, frac, s.idx, n, targetTotal - floorSum);
+        return out;
+    }
+
+    // ============================
+    // Kernel
+    // ============================
+
+    /** Adds 1 to the {@code remainder} entries with the largest frac (ties: lower index). */
+    private static void distributeRemainder(int[] out, double[] frac, int[] idx, int n, int remainder) {
+        if (remainder <= 0) return;
+        if (remainder >= n) {
+            for (int i = 0; i < n; i++) out[i]++;
+            return;
+        }
+
+        for (int i = 0; i < n; i++) idx[i] = i;
+        selectTop(idx, frac, n, remainder);
+        for (int k = 0; k < remainder; k++) out[idx[k]]++;
+    }
+
+    /**
+     * Rearranges idx[0..n) so that idx[0..k) hold the k best entries (any order).
+     * Iterative quickselect with median-of-three pivots, expected O(n).
+     */
+    private static void selectTop(int[] idx, double[] frac, int n, int k) {
+        int lo = 0, hi = n - 1;
+        int target = k - 1;
+
+        while (hi > lo) {
+            int mid = (lo + hi) >>> 1;
+            // median of three ends up at hi, used as pivot
+            if (better(idx[mid], idx[lo], frac)) swap(idx, mid, lo);
+            if (better(idx[hi], idx[lo], frac)) swap(idx, hi, lo);
+            if (better(idx[mid], idx[hi], frac)) swap(idx, mid, hi);
+
+            int pivot = idx[hi];
+            int store = lo;
+            for (int i = lo; i < hi; i++) {
+                if (better(idx[i], pivot, frac)) swap(idx, i, store++);
+            }
+            swap(idx, store, hi);
+
+            if (store == target) return;
+            if (store < target) lo = store + 1;
+            else hi = store - 1;
+        }
+    }
+
+    /** Strict total order: bigger fraction first, then lower index (keys are never equal). */
+    private static boolean better(int a, int b, double[] frac) {
+        int c = Double.compare(frac[a], frac[b]);
+        return c > 0 || (c == 0 && a < b);
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
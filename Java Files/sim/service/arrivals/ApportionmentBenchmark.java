@@ -0,0 +1,162 @@
+package sim.service.arrivals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Checks {@link Apportionment} against the three rounding paths it replaced and times them.
+ *
+ * <pre>
+ * ApportionmentBenchmark [--minutes 220] [--curves 2000] [--rounds 5]
+ * </pre>
+ *
+ * The reference methods below are the previous implementations, kept verbatim:
+ * the boxed List&lt;Integer&gt; sort used by ArrivalGenerator / EditedSplitGaussianArrivalGenerator
+ * and the repeated max scan of LegacyArrivalGenerator.rescaleToTotal.
+ */
+public final class ApportionmentBenchmark {
+
+    private ApportionmentBenchmark() {}
+
+    public static void main(String[] args) {
+        int minutes = 220;
+        int curves = 2000;
+        int rounds = 5;
+        for (int i = 0; i < args.length; i++) {
+            if ("--minutes".equals(args[i]) && i + 1 < args.length) minutes = Integer.parseInt(args[++i].trim());
+            else if ("--curves".equals(args[i]) && i + 1 < args.length) curves = Integer.parseInt(args[++i].trim());
+            else if ("--rounds".equals(args[i]) && i + 1 < args.length) rounds = Integer.parseInt(args[++i].trim());
+        }
+
+        // random split-Gaussian-like weights, each with its own passenger total
+        SplittableRandom rnd = new SplittableRandom(42);
+        double[][] weights = new double[curves][];
+        int[] totals = new int[curves];
+        int[][] counts = new int[curves][];
+        for (int c = 0; c < curves; c++) {
+            weights[c] = randomCurve(rnd, minutes);
+            totals[c] = 50 + rnd.nextInt(400);
+            counts[c] = Apportionment.apportion(weights[c], 50 + rnd.nextInt(400));
+        }
+
+        // correctness first: all three paths must agree bit for bit
+        int mismatches = 0;
+        for (int c = 0; c < curves; c++) {
+            if (!Arrays.equals(sortApportion(weights[c], totals[c]), Apportionment.apportion(weights[c], totals[c]))) mismatches++;
+            if (!Arrays.equals(scanRescale(counts[c], totals[c]), Apportionment.rescale(counts[c], totals[c]))) mismatches++;
+        }
+        System.out.println("mismatches: " + mismatches + " of " + (2 * curves));
+
+        long sink = 0;
+        for (int r = 1; r <= rounds; r++) {
+            long t0 = System.nanoTime();
+            for (int c = 0; c < curves; c++) sink += sortApportion(weights[c], totals[c])[0];
+            long t1 = System.nanoTime();
+            for (int c = 0; c < curves; c++) sink += Apportionment.apportion(weights[c], totals[c])[0];
+            long t2 = System.nanoTime();
+            for (int c = 0; c < curves; c++) sink += scanRescale(counts[c], totals[c])[0];
+            long t3 = System.nanoTime();
+            for (int c = 0; c < curves; c++) sink += Apportionment.rescale(counts[c], totals[c])[0];
+            long t4 = System.nanoTime();
+
+            System.out.println(String.format(Locale.ROOT,
+                    "round %d: listSort %.1f us, kernel %.1f us | maxScanRescale %.1f us, kernelRescale %.1f us (per curve)",
+                    r, perCurve(t1 - t0, curves), perCurve(t2 - t1, curves),
+                    perCurve(t3 - t2, curves), perCurve(t4 - t3, curves)));
+        }
+        if (sink == 42) System.out.println(); // keep the JIT from dropping the loops
+    }
+
+    private static double perCurve(long nanos, int curves) {
+        return nanos / 1000.0 / curves;
+    }
+
+    private static double[] randomCurve(SplittableRandom rnd, int minutes) {
+        double peak = minutes * (0.3 + 0.5 * rnd.nextDouble());
+        double left = 5 + rnd.nextInt(40);
+        double right = 5 + rnd.nextInt(30);
+        double[] w = new double[minutes];
+        double sum = 0;
+        for (int i = 0; i < minutes; i++) {
+            double z = (i + 0.5 - peak) / (i < peak ? left : right);
+            w[i] = Math.exp(-0.5 * z * z);
+            sum += w[i];
+        }
+        for (int i = 0; i < minutes; i++) w[i] /= sum;
+        return w;
+    }
+
+    // ============================
+    // Previous implementations
+    // ============================
+
+    static int[] sortApportion(double[] weights, int totalPassengers) {
+        int totalMinutes = weights.length;
+        int[] arrivals = new int[totalMinutes];
+        double[] raw = new double[totalMinutes];
+        int floorSum = 0;
+        for (int m = 0; m < totalMinutes; m++) {
+            raw[m] = weights[m] * totalPassengers;
+            arrivals[m] = (int) Math.floor(raw[m]);
+            floorSum += arrivals[m];
+        }
+        int remainder = totalPassengers - floorSum;
+        List<Integer> idx = new ArrayList<>();
+        for (int m = 0; m < totalMinutes; m++) idx.add(m);
+        idx.sort((a, b) -> Double.compare(raw[b] - arrivals[b], raw[a] - arrivals[a]));
+        for (int k = 0; k < remainder; k++) {
+            arrivals[idx.get(k)]++;
+        }
+        return arrivals;
+    }
+
+    static int[] scanRescale(int[] original, int targetTotal) {
+        int n = original.length;
+        int[] out = new int[n];
+        if (targetTotal <= 0 || n == 0) return out;
+
+        long sum = 0;
+        for (int v : original) sum += Math.max(0, v);
+
+        if (sum <= 0) {
+            out[0] = targetTotal;
+            return out;
+        }
+
+        double scale = targetTotal / (double) sum;
+
+        double[] frac = new double[n];
+        int floorSum = 0;
+
+        for (int i = 0; i < n; i++) {
+            double raw = Math.max(0, original[i]) * scale;
+            int flo = (int) Math.floor(raw);
+            out[i] = flo;
+            floorSum += flo;
+            frac[i] = raw - flo;
+        }
+
+        int remaining = targetTotal - floorSum;
+
+        while (remaining > 0) {
+            int bestIdx = 0;
+            double bestFrac = -1.0;
+
+            for (int i = 0; i < n; i++) {
+                if (frac[i] > bestFrac) {
+                    bestFrac = frac[i];
+                    bestIdx = i;
+                }
+            }
+
+            out[bestIdx] += 1;
+            frac[bestIdx] = -1.0;
+            remaining--;
+        }
+
+        return out;
+    }
+}
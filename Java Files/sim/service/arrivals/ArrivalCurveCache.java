@@ -0,0 +1,289 @@
+package sim.service.arrivals;
+
+import sim.model.ArrivalCurveConfig;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memoized arrival-curve shapes, shared by every engine, generator and preview in the JVM.
+ *
+ * A curve shape only depends on (arrival span, curve parameters), never on the flight, so the
+ * normalized minute weights are built once per {@link Shape} and the apportioned per-minute
+ * counts once per (shape, passenger total). Results are bit-identical to what the generators
+ * computed on their own: same weight arithmetic, same {@link Apportionment} rounding.
+ *
+ * Returned arrays are SHARED: callers must treat them as read-only (copy before modifying).
+ * Both tables are bounded LRU maps; lookups hold the lock only for the map access and values
+ * are computed outside it, so two threads racing on the same key just build the same array twice.
+ */
+public final class ArrivalCurveCache {
+
+    private static final ArrivalCurveCache SHARED = new ArrivalCurveCache(128, 4096);
+
+    /** Process-wide instance used by the engine, the generators and the curve editor. */
+    public static ArrivalCurveCache shared() { return SHARED; }
+
+    private final Map<Shape, double[]> weights;
+    private final Map<CountKey, int[]> counts;
+    private final Map<Shape, AliasTable> aliases;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ArrivalCurveCache(int maxShapes, int maxCountTables) {
+        if (maxShapes < 1) throw new IllegalArgumentException("maxShapes must be >= 1");
+        if (maxCountTables < 1) throw new IllegalArgumentException("maxCountTables must be >= 1");
+        this.weights = lru(maxShapes);
+        this.counts = lru(maxCountTables);
+        this.aliases = lru(maxShapes);
+    }
+
+    private static <K, V> Map<K, V> lru(int max) {
+        return new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > max;
+            }
+        };
+    }
+
+    // ============================
+    // Lookups
+    // ============================
+
+    /** Normalized weights (sum 1, or a single 1.0 for the fallback spike); shared, read-only. */
+    public double[] weights(Shape shape) {
+        if (shape == null) throw new IllegalArgumentException("shape is null");
+
+        double[] w;
+        synchronized (weights) {
+            w = weights.get(shape);
+        }
+        if (w != null) return w;
+
+        w = shape.buildWeights();
+        synchronized (weights) {
+            double[] raced = weights.putIfAbsent(shape, w);
+            return raced != null ? raced : w;
+        }
+    }
+
+    /** Per-minute counts summing to {@code totalPassengers} (all zeros if <= 0); shared, read-only. */
+    public int[] counts(Shape shape, int totalPassengers) {
+        if (shape == null) throw new IllegalArgumentException("shape is null");
+        int total = Math.max(0, totalPassengers);
+        CountKey key = new CountKey(shape, total);
+
+        int[] c;
+        synchronized (counts) {
+            c = counts.get(key);
+        }
+        if (c != null) {
+            hits.incrementAndGet();
+            return c;
+        }
+
+        misses.incrementAndGet();
+        c = Apportionment.apportion(weights(shape), total);
+        synchronized (counts) {
+            int[] raced = counts.putIfAbsent(key, c);
+            return raced != null ? raced : c;
+        }
+    }
+
+    /** Alias sampler over this shape's weights (stochastic arrivals); shared, read-only. */
+    public AliasTable aliasTable(Shape shape) {
+        if (shape == null) throw new IllegalArgumentException("shape is null");
+
+        AliasTable t;
+        synchronized (aliases) {
+            t = aliases.get(shape);
+        }
+        if (t != null) return t;
+
+        double[] w = weights(shape);
+        t = new AliasTable(w);
+        synchronized (aliases) {
+            AliasTable raced = aliases.putIfAbsent(shape, t);
+            return raced != null ? raced : t;
+        }
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+
+    public int getShapeCount() {
+        synchronized (weights) {
+            return weights.size();
+        }
+    }
+
+    public int getCountTableCount() {
+        synchronized (counts) {
+            return counts.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (weights) {
+            weights.clear();
+        }
+        synchronized (counts) {
+            counts.clear();
+        }
+        synchronized (aliases) {
+            aliases.clear();
+        }
+    }
+
+    // ============================
+    // Keys
+    // ============================
+
+    /**
+     * Everything that determines a curve's shape. Build with {@link #legacy(int)} or
+     * {@link #edited(ArrivalCurveConfig, int)}; equal shapes produce identical arrays.
+     */
+    public static final class Shape {
+        private final boolean legacy;
+        private final int span;
+        private final int close;
+        private final int peak;
+        private final int leftSigma;
+        private final int rightSigma;
+        private final int windowStart;
+        private final int lateClamp;   // -1 when the late clamp is disabled
+
+        private Shape(boolean legacy, int span, int close, int peak, int leftSigma, int rightSigma,
+                      int windowStart, int lateClamp) {
+            this.legacy = legacy;
+            this.span = span;
+            this.close = close;
+            this.peak = peak;
+            this.leftSigma = leftSigma;
+            this.rightSigma = rightSigma;
+            this.windowStart = windowStart;
+            this.lateClamp = lateClamp;
+        }
+
+        /** Legacy ArrivalGenerator curve: symmetric Gaussian over (span - 20) minutes. */
+        public static Shape legacy(int arrivalSpanMinutes) {
+            return new Shape(true, arrivalSpanMinutes, 20, 0, 0, 0, 0, -1);
+        }
+
+        /**
+         * Edited split-Gaussian curve, with the same clamping EditedSplitGaussianArrivalGenerator
+         * applies. {@code cfg} is expected to be validated already (validateAndClamp).
+         */
+        public static Shape edited(ArrivalCurveConfig cfg, int arrivalSpanMinutes) {
+            if (cfg == null) throw new IllegalArgumentException("cfg is null");
+            int close = clamp(cfg.getBoardingCloseMinutesBeforeDeparture(), 0, arrivalSpanMinutes);
+            return new Shape(false,
+                    arrivalSpanMinutes,
+                    close,
+                    clamp(cfg.getPeakMinutesBeforeDeparture(), close, arrivalSpanMinutes),
+                    Math.max(1, cfg.getLeftSigmaMinutes()),
+                    Math.max(1, cfg.getRightSigmaMinutes()),
+                    clamp(cfg.getWindowStartMinutesBeforeDeparture(), close, arrivalSpanMinutes),
+                    cfg.isLateClampEnabled()
+                            ? clamp(cfg.getLateClampMinutesBeforeDeparture(), close, arrivalSpanMinutes)
+                            : -1);
+        }
+
+        public boolean isLegacy() { return legacy; }
+        public int getArrivalSpanMinutes() { return span; }
+
+        /** Length of the per-minute arrays for this shape. */
+        public int getTotalMinutes() { return Math.max(0, span - close); }
+
+        double[] buildWeights() {
+            return legacy ? buildLegacyWeights() : buildEditedWeights();
+        }
+
+        // Same math as ArrivalGenerator's constructor.
+        private double[] buildLegacyWeights() {
+            int totalMinutes = getTotalMinutes();
+            double[] p = new double[totalMinutes];
+            double mean = totalMinutes / 2.0;
+            double sigma = totalMinutes / 6.0;
+            double sum = 0;
+            for (int m = 0; m < totalMinutes; m++) {
+                double x = (m + 0.5 - mean) / sigma;
+                double pdf = Math.exp(-0.5 * x * x);
+                p[m] = pdf;
+                sum += pdf;
+            }
+            for (int m = 0; m < totalMinutes; m++) {
+                p[m] /= sum;
+            }
+            return p;
+        }
+
+        // Same math as EditedSplitGaussianArrivalGenerator, normalized once here.
+        private double[] buildEditedWeights() {
+            double[] w = new double[getTotalMinutes()];
+            SplitGaussianBatch.editedWeightsInto(span, peak, leftSigma, rightSigma, windowStart, lateClamp, w);
+            return w;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Shape)) return false;
+            Shape s = (Shape) o;
+            return legacy == s.legacy && span == s.span && close == s.close && peak == s.peak
+                    && leftSigma == s.leftSigma && rightSigma == s.rightSigma
+                    && windowStart == s.windowStart && lateClamp == s.lateClamp;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = legacy ? 1 : 0;
+            h = 31 * h + span;
+            h = 31 * h + close;
+            h = 31 * h + peak;
+            h = 31 * h + leftSigma;
+            h = 31 * h + rightSigma;
+            h = 31 * h + windowStart;
+            h = 31 * h + lateClamp;
+            return h;
+        }
+
+        @Override
+        public String toString() {
+            return legacy
+                    ? "legacy(span=" + span + ")"
+                    : "edited(span=" + span + ", close=" + close + ", peak=" + peak + ", sigma=" + leftSigma
+                      + "/" + rightSigma + ", window=" + windowStart + ", lateClamp=" + lateClamp + ")";
+        }
+    }
+
+    private static final class CountKey {
+        private final Shape shape;
+        private final int total;
+
+        CountKey(Shape shape, int total) {
+            this.shape = shape;
+            this.total = total;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CountKey)) return false;
+            CountKey k = (CountKey) o;
+            return total == k.total && shape.equals(k.shape);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * shape.hashCode() + total;
+        }
+    }
+
+    private static int clamp(int v, int lo, int hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+}
@@ -0,0 +1,179 @@
+package sim.service.arrivals;
+
+import sim.model.ArrivalCurveConfig;
+import sim.model.Flight;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Arrival curves per flight, per flight-number prefix or per airline, on top of the engine's
+ * single default curve.
+ *
+ * Lookup order for a flight: exact flight number, then the longest matching prefix, then the
+ * airline code (leading letters of the flight number, "AA" for "AA100"). No match means the
+ * engine's default curve is used.
+ *
+ * Profiles are interned: every config with the same curve values maps to one instance and one
+ * {@link ArrivalCurveCache.Shape}, so thousands of flights sharing a handful of profiles cost a
+ * handful of curve tables. Stored configs are validated copies with the engine's fixed
+ * boarding close ({@link ArrivalCurveConfig#DEFAULT_BOARDING_CLOSE}); treat returned configs
+ * as read-only. Like setArrivalCurveConfig, configure before the engine runs.
+ */
+public class ArrivalCurveProfiles {
+    private final Map<String, ArrivalCurveConfig> byFlight = new HashMap<>();
+    private final Map<String, ArrivalCurveConfig> byPrefix = new HashMap<>();
+    private final Map<String, ArrivalCurveConfig> byAirline = new HashMap<>();
+
+    // interning: value key -> the one shared config with those values
+    private final Map<String, ArrivalCurveConfig> interned = new HashMap<>();
+    // shapes per interned config, for the span they were last asked for
+    private final Map<ArrivalCurveConfig, ArrivalCurveCache.Shape> shapes = new IdentityHashMap<>();
+    private int shapeSpan = -1;
+
+    private int longestPrefix;
+
+    // ============================
+    // Rules
+    // ============================
+
+    public ArrivalCurveProfiles setFlight(String flightNumber, ArrivalCurveConfig cfg) {
+        byFlight.put(requireKey(flightNumber, "flight number"), intern(cfg));
+        return this;
+    }
+
+    public ArrivalCurveProfiles setPrefix(String prefix, ArrivalCurveConfig cfg) {
+        String p = requireKey(prefix, "prefix");
+        byPrefix.put(p, intern(cfg));
+        longestPrefix = Math.max(longestPrefix, p.length());
+        return this;
+    }
+
+    public ArrivalCurveProfiles setAirline(String airlineCode, ArrivalCurveConfig cfg) {
+        byAirline.put(requireKey(airlineCode, "airline code").toUpperCase(), intern(cfg));
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return byFlight.isEmpty() && byPrefix.isEmpty() && byAirline.isEmpty();
+    }
+
+    /** Number of distinct curves in use (after interning). */
+    public int getDistinctProfileCount() {
+        return getDistinctProfiles().size();
+    }
+
+    /** One entry per distinct curve referenced by a rule. */
+    public List<ArrivalCurveConfig> getDistinctProfiles() {
+        Set<ArrivalCurveConfig> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<ArrivalCurveConfig> out = new ArrayList<>();
+        for (Map<String, ArrivalCurveConfig> rules : List.of(byFlight, byPrefix, byAirline)) {
+            for (ArrivalCurveConfig c : rules.values()) {
+                if (seen.add(c)) out.add(c);
+            }
+        }
+        return out;
+    }
+
+    /** Rules by kind, sorted by key (for saving). */
+    public SortedMap<String, ArrivalCurveConfig> getFlightRules() { return new TreeMap<>(byFlight); }
+    public SortedMap<String, ArrivalCurveConfig> getPrefixRules() { return new TreeMap<>(byPrefix); }
+    public SortedMap<String, ArrivalCurveConfig> getAirlineRules() { return new TreeMap<>(byAirline); }
+
+    /** Largest window start over all profiles (0 if none); the engine's arrival span must cover it. */
+    public int getMaxWindowStartMinutes() {
+        int max = 0;
+        for (ArrivalCurveConfig c : getDistinctProfiles()) {
+            int start = c.isLegacyMode()
+                    ? ArrivalCurveConfig.DEFAULT_WINDOW_START
+                    : c.getWindowStartMinutesBeforeDeparture();
+            max = Math.max(max, start);
+        }
+        return max;
+    }
+
+    // ============================
+    // Lookup
+    // ============================
+
+    /** Interned config for {@code f}, or null when the default curve applies. */
+    public ArrivalCurveConfig configFor(Flight f) {
+        if (f == null || f.getFlightNumber() == null) return null;
+        String num = f.getFlightNumber().trim();
+
+        ArrivalCurveConfig c = byFlight.get(num);
+        if (c != null) return c;
+
+        for (int len = Math.min(longestPrefix, num.length()); len > 0; len--) {
+            c = byPrefix.get(num.substring(0, len));
+            if (c != null) return c;
+        }
+
+        return byAirline.get(airlineOf(num));
+    }
+
+    /** Interned shape for {@code f} at this span, or null when the default curve applies. */
+    public synchronized ArrivalCurveCache.Shape shapeFor(Flight f, int arrivalSpanMinutes) {
+        ArrivalCurveConfig c = configFor(f);
+        if (c == null) return null;
+
+        if (shapeSpan != arrivalSpanMinutes) {
+            shapes.clear();
+            shapeSpan = arrivalSpanMinutes;
+        }
+        ArrivalCurveCache.Shape s = shapes.get(c);
+        if (s == null) {
+            s = c.isLegacyMode()
+                    ? ArrivalCurveCache.Shape.legacy(arrivalSpanMinutes)
+                    : ArrivalCurveCache.Shape.edited(c, arrivalSpanMinutes);
+            shapes.put(c, s);
+        }
+        return s;
+    }
+
+    /** Leading letters of a flight number, upper-cased ("ua1234" -> "UA"). */
+    public static String airlineOf(String flightNumber) {
+        if (flightNumber == null) return "";
+        String t = flightNumber.trim();
+        int i = 0;
+        while (i < t.length() && Character.isLetter(t.charAt(i))) i++;
+        return t.substring(0, i).toUpperCase();
+    }
+
+    // ============================
+    // Interning
+    // ============================
+
+    private synchronized ArrivalCurveConfig intern(ArrivalCurveConfig cfg) {
+        if (cfg == null) throw new IllegalArgumentException("cfg is null");
+
+        ArrivalCurveConfig c = cfg.copy();
+        c.setBoardingCloseMinutesBeforeDeparture(ArrivalCurveConfig.DEFAULT_BOARDING_CLOSE);
+        c.validateAndClamp();
+
+        return interned.computeIfAbsent(valueKey(c), k -> c);
+    }
+
+    /** The values that change the curve; legacy curves ignore the rest. */
+    private static String valueKey(ArrivalCurveConfig c) {
+        if (c.isLegacyMode()) return "legacy";
+        return c.getPeakMinutesBeforeDeparture()
+                + "/" + c.getLeftSigmaMinutes()
+                + "/" + c.getRightSigmaMinutes()
+                + "/" + (c.isLateClampEnabled() ? c.getLateClampMinutesBeforeDeparture() : -1)
+                + "/" + c.getWindowStartMinutesBeforeDeparture()
+                + "/" + c.getBoardingCloseMinutesBeforeDeparture();
+    }
+
+    private static String requireKey(String key, String what) {
+        if (key == null || key.trim().isEmpty()) throw new IllegalArgumentException(what + " is empty");
+        return key.trim();
+    }
+}
@@ -0,0 +1,101 @@
+package sim.service.arrivals;
+
+import sim.model.ArrivalCurveConfig;
+import sim.model.Flight;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Arrivals from observed show-up histograms ({@link EmpiricalArrivalProfile}) instead of a
+ * parametric curve.
+ *
+ * A flight uses the profile named after its flight number, else the one named after its
+ * airline code ({@link ArrivalCurveProfiles#airlineOf(String)}), else the "*" profile. Flights
+ * with no profile fall back to the engine's configured curve, so a partial data set still runs.
+ *
+ * Deterministic by default (largest-remainder apportionment of the expected counts, like the
+ * built-in curves). With a seed, passengers are drawn from the histogram instead, using the same
+ * per-flight streams as {@link StochasticArrivalGenerator}.
+ *
+ * Plug into an engine with {@code SimulationEngine.setArrivalCurveGenerator(...)}.
+ */
+public class EmpiricalArrivalGenerator implements ArrivalCurveGenerator {
+    public static final String FALLBACK_PROFILE = "*";
+
+    private final Map<String, EmpiricalArrivalProfile> profiles;
+    private final StochasticArrivalGenerator sampler;   // null in deterministic mode
+    private final ArrivalCurveCache cache;
+
+    public EmpiricalArrivalGenerator(Map<String, EmpiricalArrivalProfile> profiles) {
+        this(profiles, null);
+    }
+
+    public EmpiricalArrivalGenerator(Map<String, EmpiricalArrivalProfile> profiles, long seed) {
+        this(profiles, new StochasticArrivalGenerator(seed));
+    }
+
+    private EmpiricalArrivalGenerator(Map<String, EmpiricalArrivalProfile> profiles,
+                                      StochasticArrivalGenerator sampler) {
+        if (profiles == null) throw new IllegalArgumentException("profiles is null");
+        this.profiles = new LinkedHashMap<>();
+        for (Map.Entry<String, EmpiricalArrivalProfile> e : profiles.entrySet()) {
+            if (e.getValue() == null) throw new IllegalArgumentException("profile '" + e.getKey() + "' is null");
+            this.profiles.put(e.getKey().trim(), e.getValue());
+        }
+        this.sampler = sampler;
+        this.cache = ArrivalCurveCache.shared();
+    }
+
+    public boolean isStochastic() { return sampler != null; }
+
+    public Map<String, EmpiricalArrivalProfile> getProfiles() {
+        return new LinkedHashMap<>(profiles);
+    }
+
+    /** Profile used for {@code f}, or null when the configured curve applies. */
+    public EmpiricalArrivalProfile profileFor(Flight f) {
+        if (f != null && f.getFlightNumber() != null) {
+            String num = f.getFlightNumber().trim();
+            EmpiricalArrivalProfile p = profiles.get(num);
+            if (p != null) return p;
+            p = profiles.get(ArrivalCurveProfiles.airlineOf(num));
+            if (p != null) return p;
+        }
+        return profiles.get(FALLBACK_PROFILE);
+    }
+
+    @Override
+    public int[] buildArrivalsPerMinute(Flight f,
+                                        int totalPassengers,
+                                        ArrivalCurveConfig cfg,
+                                        int arrivalSpanMinutes) {
+
+        if (cfg == null) cfg = ArrivalCurveConfig.legacyDefault();
+        cfg.validateAndClamp();
+
+        EmpiricalArrivalProfile profile = profileFor(f);
+        if (profile == null) return fallback(f, totalPassengers, cfg, arrivalSpanMinutes);
+
+        int close = cfg.getBoardingCloseMinutesBeforeDeparture();
+        double[] w = profile.minuteWeights(arrivalSpanMinutes, close);
+        int[] out = new int[w.length];
+        if (w.length == 0 || totalPassengers <= 0) return out;
+
+        if (sampler != null) {
+            profile.aliasTable(arrivalSpanMinutes, close).sampleInto(sampler.streamFor(f), totalPassengers, out);
+        } else {
+            Apportionment.apportionInto(w, totalPassengers, out);
+        }
+        return out;
+    }
+
+    private int[] fallback(Flight f, int totalPassengers, ArrivalCurveConfig cfg, int arrivalSpanMinutes) {
+        if (sampler != null) return sampler.buildArrivalsPerMinute(f, totalPassengers, cfg, arrivalSpanMinutes);
+
+        ArrivalCurveCache.Shape shape = cfg.isLegacyMode()
+                ? ArrivalCurveCache.Shape.legacy(arrivalSpanMinutes)
+                : ArrivalCurveCache.Shape.edited(cfg, arrivalSpanMinutes);
+        return cache.counts(shape, totalPassengers).clone();
+    }
+}
@@ -0,0 +1,161 @@
+package sim.service.arrivals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Observed show-up histogram: weight per minute-before-departure bin, where bin {@code b}
+ * holds the passengers who arrived between b and b+1 minutes before departure.
+ *
+ * The cumulative table is built once in the constructor, so the weight of any window is O(1),
+ * a single draw is a binary search (O(log n)), and projecting the histogram onto an engine's
+ * minute axis is O(minutes). Those projections (normalized weights and the alias table for
+ * bulk draws) are memoized per (arrival span, boarding close) and shared read-only.
+ *
+ * Immutable apart from that memo; safe to share between engines and threads.
+ */
+public final class EmpiricalArrivalProfile {
+    private final String name;
+    private final double[] bins;
+    private final double[] cumulative;   // [bins + 1] cumulative[b] = weight of bins [0, b)
+
+    private final Map<Long, double[]> weightsMemo = new HashMap<>();
+    private final Map<Long, AliasTable> aliasMemo = new HashMap<>();
+
+    /** {@code weightsByMinuteBefore} must be >= 0 with a positive sum; it is copied. */
+    public EmpiricalArrivalProfile(String name, double[] weightsByMinuteBefore) {
+        if (name == null || name.trim().isEmpty()) throw new IllegalArgumentException("name is empty");
+        if (weightsByMinuteBefore == null) throw new IllegalArgumentException("weights is null");
+
+        this.name = name.trim();
+        this.bins = weightsByMinuteBefore.clone();
+        this.cumulative = new double[bins.length + 1];
+        for (int b = 0; b < bins.length; b++) {
+            if (!(bins[b] >= 0) || Double.isInfinite(bins[b])) {
+                throw new IllegalArgumentException("profile '" + this.name + "': weight at minute " + b + " must be >= 0");
+            }
+            cumulative[b + 1] = cumulative[b] + bins[b];
+        }
+        if (!(cumulative[bins.length] > 0)) {
+            throw new IllegalArgumentException("profile '" + this.name + "' has no arrivals");
+        }
+    }
+
+    public String getName() { return name; }
+
+    /** Number of bins; the earliest observed arrival is just under this many minutes before departure. */
+    public int getMaxMinutesBefore() { return bins.length; }
+
+    public double getTotalWeight() { return cumulative[bins.length]; }
+
+    public double weightAt(int minutesBefore) {
+        return (minutesBefore >= 0 && minutesBefore < bins.length) ? bins[minutesBefore] : 0.0;
+    }
+
+    /** Weight of bins [fromMinutesBefore, toMinutesBefore), clipped to the histogram. */
+    public double weightBetween(int fromMinutesBefore, int toMinutesBefore) {
+        int a = clamp(fromMinutesBefore, 0, bins.length);
+        int b = clamp(toMinutesBefore, 0, bins.length);
+        return b > a ? cumulative[b] - cumulative[a] : 0.0;
+    }
+
+    /** One arrival's bin (minutes before departure), by inverse-CDF lookup. */
+    public int sampleMinutesBefore(RandomGenerator rng) {
+        double u = rng.nextDouble() * getTotalWeight();
+        // first b with cumulative[b + 1] > u
+        int lo = 0, hi = bins.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cumulative[mid + 1] > u) hi = mid;
+            else lo = mid + 1;
+        }
+        return lo;
+    }
+
+    // ============================
+    // Engine minute axis
+    // ============================
+
+    /**
+     * Normalized weights over the engine's arrays for one flight: index i covers
+     * (span - i - 1, span - i] minutes before departure, for i in [0, span - close).
+     * Bins outside that window (earlier than the span, or after boarding close) are dropped;
+     * if nothing is left, everything lands on the minute nearest the histogram's mode.
+     * Shared, read-only.
+     */
+    public double[] minuteWeights(int arrivalSpanMinutes, int boardingCloseMinutes) {
+        int close = clamp(boardingCloseMinutes, 0, Math.max(0, arrivalSpanMinutes));
+        Long key = key(arrivalSpanMinutes, close);
+        synchronized (weightsMemo) {
+            double[] w = weightsMemo.get(key);
+            if (w != null) return w;
+        }
+
+        double[] w = buildMinuteWeights(arrivalSpanMinutes, close);
+        synchronized (weightsMemo) {
+            double[] raced = weightsMemo.putIfAbsent(key, w);
+            return raced != null ? raced : w;
+        }
+    }
+
+    /** Alias sampler over {@link #minuteWeights(int, int)}; shared, read-only. */
+    public AliasTable aliasTable(int arrivalSpanMinutes, int boardingCloseMinutes) {
+        int close = clamp(boardingCloseMinutes, 0, Math.max(0, arrivalSpanMinutes));
+        Long key = key(arrivalSpanMinutes, close);
+        synchronized (aliasMemo) {
+            AliasTable t = aliasMemo.get(key);
+            if (t != null) return t;
+        }
+
+        AliasTable t = new AliasTable(minuteWeights(arrivalSpanMinutes, close));
+        synchronized (aliasMemo) {
+            AliasTable raced = aliasMemo.putIfAbsent(key, t);
+            return raced != null ? raced : t;
+        }
+    }
+
+    private double[] buildMinuteWeights(int span, int close) {
+        int totalMinutes = Math.max(0, span - close);
+        double[] w = new double[totalMinutes];
+        if (totalMinutes == 0) return w;
+
+        double kept = weightBetween(close, span);
+        if (kept <= 0.0) {
+            w[clamp(span - 1 - modeBin(), 0, totalMinutes - 1)] = 1.0;
+            return w;
+        }
+
+        for (int i = 0; i < totalMinutes; i++) {
+            w[i] = weightAt(span - 1 - i) / kept;
+        }
+        return w;
+    }
+
+    private int modeBin() {
+        int best = 0;
+        for (int b = 1; b < bins.length; b++) {
+            if (bins[b] > bins[best]) best = b;
+        }
+        return best;
+    }
+
+    private static Long key(int span, int close) {
+        return ((long) span << 32) | (close & 0xffffffffL);
+    }
+
+    private static int clamp(int v, int lo, int hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+
+    @Override
+    public String toString() {
+        return "EmpiricalArrivalProfile(" + name + ", " + bins.length + " min, total=" + getTotalWeight() + ")";
+    }
+
+    /** Copy of the raw bins (for saving or plotting). */
+    public double[] getBins() {
+        return Arrays.copyOf(bins, bins.length);
+    }
+}
@@ -0,0 +1,121 @@
+package sim.service.arrivals;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streams empirical show-up histograms out of CSV/TSV files.
+ *
+ * <pre>
+ * profile,minutesBeforeDeparture,count
+ * AA,0,3
+ * AA,1,5
+ * AA100,30-45,120        # a range spreads its count evenly over minutes 30..44
+ * *,60,12                # "*" is the fallback for flights no other profile matches
+ * </pre>
+ *
+ * One row per bin; rows of different profiles may be interleaved and repeated bins add up.
+ * Separators can be ',', ';' or tab; blank lines, '#' comments and a header row are skipped.
+ * The file is read line by line and each profile only keeps a growable array of its bins,
+ * so memory is proportional to (profiles x minutes), not to the file size.
+ */
+public final class EmpiricalProfileLoader {
+
+    private EmpiricalProfileLoader() {}
+
+    public static Map<String, EmpiricalArrivalProfile> load(File file) throws IOException {
+        try (BufferedReader r = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return load(r, file.getName());
+        }
+    }
+
+    /** {@code source} is only used in error messages. */
+    public static Map<String, EmpiricalArrivalProfile> load(Reader reader, String source) throws IOException {
+        BufferedReader r = (reader instanceof BufferedReader) ? (BufferedReader) reader : new BufferedReader(reader);
+        Map<String, Bins> building = new LinkedHashMap<>();
+
+        String line;
+        int lineNo = 0;
+        boolean sawData = false;
+        while ((line = r.readLine()) != null) {
+            lineNo++;
+            int hash = line.indexOf('#');
+            if (hash >= 0) line = line.substring(0, hash);
+            line = line.trim();
+            if (line.isEmpty()) continue;
+
+            String[] cols = line.split("[,;\t]", -1);
+            if (cols.length < 3) throw error(source, lineNo, "expected profile, minutesBeforeDeparture, count");
+
+            String name = cols[0].trim();
+            String minutes = cols[1].trim();
+            String count = cols[2].trim();
+
+            if (!sawData && !startsNumeric(minutes)) continue; // header
+            sawData = true;
+
+            if (name.isEmpty()) throw error(source, lineNo, "profile name is empty");
+            double weight;
+            int from, to;
+            try {
+                weight = Double.parseDouble(count);
+                int dash = minutes.indexOf('-', 1);
+                if (dash > 0) {
+                    from = Integer.parseInt(minutes.substring(0, dash).trim());
+                    to = Integer.parseInt(minutes.substring(dash + 1).trim());
+                } else {
+                    from = Integer.parseInt(minutes);
+                    to = from + 1;
+                }
+            } catch (NumberFormatException e) {
+                throw error(source, lineNo, "bad number (" + e.getMessage() + ")");
+            }
+            if (from < 0 || to <= from) throw error(source, lineNo, "bad minute range '" + minutes + "'");
+            if (!(weight >= 0) || Double.isInfinite(weight)) throw error(source, lineNo, "count must be >= 0");
+
+            building.computeIfAbsent(name, k -> new Bins()).add(from, to, weight);
+        }
+
+        Map<String, EmpiricalArrivalProfile> out = new LinkedHashMap<>();
+        for (Map.Entry<String, Bins> e : building.entrySet()) {
+            try {
+                out.put(e.getKey(), new EmpiricalArrivalProfile(e.getKey(), e.getValue().toArray()));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException(source + ": " + ex.getMessage());
+            }
+        }
+        return out;
+    }
+
+    private static boolean startsNumeric(String s) {
+        return !s.isEmpty() && Character.isDigit(s.charAt(0));
+    }
+
+    private static IllegalArgumentException error(String source, int lineNo, String msg) {
+        return new IllegalArgumentException(source + " line " + lineNo + ": " + msg);
+    }
+
+    /** Growable per-profile histogram. */
+    private static final class Bins {
+        double[] w = new double[64];
+        int len;
+
+        void add(int from, int to, double weight) {
+            if (to > w.length) w = Arrays.copyOf(w, Math.max(to, w.length * 2));
+            double each = weight / (to - from);
+            for (int m = from; m < to; m++) w[m] += each;
+            len = Math.max(len, to);
+        }
+
+        double[] toArray() {
+            return Arrays.copyOf(w, len);
+        }
+    }
+}
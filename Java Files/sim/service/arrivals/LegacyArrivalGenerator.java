@@ -11,63 +11,16 @@ public class LegacyArrivalGenerator implements ArrivalCurveGenerator {
                                         ArrivalCurveConfig cfg,
                                         int arrivalSpanMinutes) {
 
-        sim.service.ArrivalGenerator legacy = new sim.service.ArrivalGenerator(arrivalSpanMinutes, 1);
-        int[] perMin = legacy.generateArrivals(f);
+        // same counts sim.service.ArrivalGenerator produces for this flight, without rebuilding its table
+        int flightTotal = (int) Math.round(f.getSeats() * f.getFillPercent());
+        int[] perMin = ArrivalCurveCache.shared().counts(ArrivalCurveCache.Shape.legacy(arrivalSpanMinutes), flightTotal);
 
-        if (perMin == null) return new int[0];
-        if (totalPassengers < 0) return perMin;
+        if (totalPassengers < 0) return perMin.clone();
 
         int sum = 0;
         for (int v : perMin) sum += Math.max(0, v);
 
-        if (sum == totalPassengers) return perMin;
-        return rescaleToTotal(perMin, totalPassengers);
-    }
-
-    private static int[] rescaleToTotal(int[] original, int targetTotal) {
-        int n = original.length;
-        int[] out = new int[n];
-        if (targetTotal <= 0 || n == 0) return out;
-
-        long sum = 0;
-        for (int v : original) sum += Math.max(0, v);
-
-        if (sum <= 0) {
-            out[0] = targetTotal;
-            return out;
-        }
-
-        double scale = targetTotal / (double) sum;
-
-        double[] frac = new double[n];
-        int floorSum = 0;
-
-        for (int i = 0; i < n; i++) {
-            double raw = Math.max(0, original[i]) * scale;
-            int flo = (int) Math.floor(raw);
-            out[i] = flo;
-            floorSum += flo;
-            frac[i] = raw - flo;
-        }
-
-        int remaining = targetTotal - floorSum;
-
-        while (remaining > 0) {
-            int bestIdx = 0;
-            double bestFrac = -1.0;
-
-            for (int i = 0; i < n; i++) {
-                if (frac[i] > bestFrac) {
-                    bestFrac = frac[i];
-                    bestIdx = i;
-                }
-            }
-
-            out[bestIdx] += 1;
-            frac[bestIdx] = -1.0;
-            remaining--;
-        }
-
-        return out;
+        if (sum == totalPassengers) return perMin.clone();
+        return Apportionment.rescale(perMin, totalPassengers);
     }
 }
@@ -0,0 +1,113 @@
+package sim.service.arrivals;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Batch curve building for whole schedules, plus the split-Gaussian weight kernel itself.
+ *
+ * The kernel turns the window/late-clamp/peak tests of the per-minute loop into three index
+ * ranges computed up front (excluded, left sigma, right sigma), so the hot loops are
+ * branch-free and run over contiguous minutes. The arithmetic and the summation order are
+ * unchanged, which keeps the weights (and therefore the apportioned counts) bit-identical.
+ *
+ * {@link #counts(ArrivalCurveCache.Shape[], int[], ArrivalCurveCache)} resolves a schedule in two
+ * passes: distinct shapes first, then one count table per flight; both fan out over the common
+ * ForkJoin pool once the schedule is large enough to pay for it.
+ */
+public final class SplitGaussianBatch {
+
+    /** Below this many flights (or distinct shapes) the batch runs on the calling thread. */
+    public static final int PARALLEL_THRESHOLD = 64;
+
+    private SplitGaussianBatch() {}
+
+    // ============================
+    // Kernel
+    // ============================
+
+    /**
+     * Normalized split-Gaussian weights over {@code w.length} minutes; index i is
+     * (span - (i + 0.5)) minutes before departure. {@code lateClamp} is -1 when disabled.
+     * Sigmas must be >= 1. If the window leaves nothing, everything lands on the peak minute.
+     */
+    public static void editedWeightsInto(int span, int peak, int leftSigma, int rightSigma,
+                                         int windowStart, int lateClamp, double[] w) {
+        int n = w.length;
+        if (n == 0) return;
+
+        // minutesBeforeDeparture <= windowStart    <=>  i >= span - windowStart
+        // minutesBeforeDeparture >= lateClamp      <=>  i <  span - lateClamp
+        // minutesBeforeDeparture >= peak (left)    <=>  i <  span - peak
+        int lo = clamp(span - windowStart, 0, n);
+        int hi = lateClamp >= 0 ? clamp(span - lateClamp, 0, n) : n;
+        int split = clamp(span - peak, lo, Math.max(lo, hi));
+
+        Arrays.fill(w, 0, Math.min(lo, n), 0.0);
+        if (hi < n) Arrays.fill(w, Math.max(hi, 0), n, 0.0);
+
+        double sumW = 0.0;
+        for (int i = lo; i < split; i++) {
+            double z = ((span - (i + 0.5)) - peak) / leftSigma;
+            double pdf = Math.exp(-0.5 * z * z);
+            w[i] = pdf;
+            sumW += pdf;
+        }
+        for (int i = split; i < hi; i++) {
+            double z = ((span - (i + 0.5)) - peak) / rightSigma;
+            double pdf = Math.exp(-0.5 * z * z);
+            w[i] = pdf;
+            sumW += pdf;
+        }
+
+        if (sumW <= 0.0) {
+            // everything clamped away: all passengers arrive at the peak minute
+            Arrays.fill(w, 0.0);
+            w[clamp(span - peak, 0, n - 1)] = 1.0;
+            return;
+        }
+
+        for (int i = lo; i < hi; i++) w[i] /= sumW;
+    }
+
+    // ============================
+    // Batch
+    // ============================
+
+    /**
+     * Per-minute counts for every flight of a schedule: {@code shapes[i]} with {@code totals[i]}
+     * passengers. Returned arrays come from {@code cache} and are shared, read-only.
+     */
+    public static int[][] counts(ArrivalCurveCache.Shape[] shapes, int[] totals, ArrivalCurveCache cache) {
+        if (shapes == null || totals == null) throw new IllegalArgumentException("shapes/totals is null");
+        if (shapes.length != totals.length) throw new IllegalArgumentException("shapes and totals differ in length");
+        if (cache == null) throw new IllegalArgumentException("cache is null");
+
+        int n = shapes.length;
+        int[][] out = new int[n][];
+        if (n == 0) return out;
+
+        // 1) distinct shapes (usually a handful even for thousands of flights)
+        Set<ArrivalCurveCache.Shape> distinct = new LinkedHashSet<>();
+        for (ArrivalCurveCache.Shape s : shapes) {
+            if (s == null) throw new IllegalArgumentException("shape is null");
+            distinct.add(s);
+        }
+        ArrivalCurveCache.Shape[] unique = distinct.toArray(new ArrivalCurveCache.Shape[0]);
+        IntStream shapeRange = IntStream.range(0, unique.length);
+        if (unique.length >= PARALLEL_THRESHOLD) shapeRange = shapeRange.parallel();
+        shapeRange.forEach(k -> cache.weights(unique[k]));
+
+        // 2) one count table per flight
+        IntStream flightRange = IntStream.range(0, n);
+        if (n >= PARALLEL_THRESHOLD) flightRange = flightRange.parallel();
+        flightRange.forEach(i -> out[i] = cache.counts(shapes[i], totals[i]));
+        return out;
+    }
+
+    private static int clamp(int v, int lo, int hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+}
@@ -0,0 +1,111 @@
+package sim.service.arrivals;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Checks the range-split kernel in {@link SplitGaussianBatch} against the per-minute loop it
+ * replaced, and times both.
+ *
+ * <pre>
+ * SplitGaussianBenchmark [--curves 20000] [--rounds 5]
+ * </pre>
+ *
+ * Parameters are drawn over the whole legal range, including windows and late clamps that
+ * exclude everything, so the fallback spike is covered too.
+ */
+public final class SplitGaussianBenchmark {
+
+    private SplitGaussianBenchmark() {}
+
+    public static void main(String[] args) {
+        int curves = 20000;
+        int rounds = 5;
+        for (int i = 0; i < args.length; i++) {
+            if ("--curves".equals(args[i]) && i + 1 < args.length) curves = Integer.parseInt(args[++i].trim());
+            else if ("--rounds".equals(args[i]) && i + 1 < args.length) rounds = Integer.parseInt(args[++i].trim());
+        }
+
+        SplittableRandom rnd = new SplittableRandom(42);
+        int[][] params = new int[curves][];
+        for (int c = 0; c < curves; c++) {
+            int span = 60 + rnd.nextInt(300);
+            int close = rnd.nextInt(Math.min(span, 60));
+            params[c] = new int[] {
+                    span,
+                    close,
+                    close + rnd.nextInt(span - close + 1),                              // peak
+                    1 + rnd.nextInt(60),                                                 // left sigma
+                    1 + rnd.nextInt(60),                                                 // right sigma
+                    close + rnd.nextInt(span - close + 1),                              // window start
+                    rnd.nextInt(3) == 0 ? -1 : close + rnd.nextInt(span - close + 1)    // late clamp
+            };
+        }
+
+        int mismatches = 0;
+        for (int[] p : params) {
+            int totalMinutes = p[0] - p[1];
+            double[] a = loopWeights(p[0], totalMinutes, p[2], p[3], p[4], p[5], p[6]);
+            double[] b = new double[totalMinutes];
+            SplitGaussianBatch.editedWeightsInto(p[0], p[2], p[3], p[4], p[5], p[6], b);
+            if (!Arrays.equals(a, b)) mismatches++;
+        }
+        System.out.println("mismatches: " + mismatches + " of " + curves);
+
+        double sink = 0;
+        for (int r = 1; r <= rounds; r++) {
+            long t0 = System.nanoTime();
+            for (int[] p : params) {
+                double[] w = loopWeights(p[0], p[0] - p[1], p[2], p[3], p[4], p[5], p[6]);
+                if (w.length > 0) sink += w[0];
+            }
+            long t1 = System.nanoTime();
+            for (int[] p : params) {
+                double[] w = new double[p[0] - p[1]];
+                SplitGaussianBatch.editedWeightsInto(p[0], p[2], p[3], p[4], p[5], p[6], w);
+                if (w.length > 0) sink += w[0];
+            }
+            long t2 = System.nanoTime();
+
+            System.out.println(String.format(Locale.ROOT,
+                    "round %d: loop %.2f us, kernel %.2f us (per curve)",
+                    r, (t1 - t0) / 1000.0 / curves, (t2 - t1) / 1000.0 / curves));
+        }
+        if (sink == 42) System.out.println(); // keep the JIT from dropping the loops
+    }
+
+    // ============================
+    // Previous implementation
+    // ============================
+
+    static double[] loopWeights(int span, int totalMinutes, int peak, int leftSigma, int rightSigma,
+                                int windowStart, int lateClamp) {
+        double[] w = new double[totalMinutes];
+        if (totalMinutes == 0) return w;
+
+        double sumW = 0.0;
+        for (int i = 0; i < totalMinutes; i++) {
+            double minutesBeforeDeparture = span - (i + 0.5);
+
+            if (minutesBeforeDeparture > windowStart) continue;
+            if (lateClamp >= 0 && minutesBeforeDeparture < lateClamp) continue;
+
+            double sigma = (minutesBeforeDeparture >= peak) ? leftSigma : rightSigma;
+            double z = (minutesBeforeDeparture - peak) / sigma;
+            double pdf = Math.exp(-0.5 * z * z);
+
+            w[i] = pdf;
+            sumW += pdf;
+        }
+
+        if (sumW <= 0.0) {
+            Arrays.fill(w, 0.0);
+            w[Math.max(0, Math.min(totalMinutes - 1, span - peak))] = 1.0;
+            return w;
+        }
+
+        for (int i = 0; i < totalMinutes; i++) w[i] /= sumW;
+        return w;
+    }
+}
@@ -0,0 +1,74 @@
+package sim.service.arrivals;
+
+import sim.model.ArrivalCurveConfig;
+import sim.model.Flight;
+
+import java.util.SplittableRandom;
+
+/**
+ * Monte Carlo arrivals: each passenger's arrival minute is drawn from the configured curve
+ * (legacy Gaussian or edited split Gaussian) instead of taking the rounded expected profile.
+ *
+ * Draws use the shape's cached {@link AliasTable}, so a flight costs O(passengers) and nothing
+ * is rebuilt per flight or per replication. Every flight gets its own stream derived from
+ * (seed, flight number, departure time), so a flight's arrivals don't change when other
+ * flights are added, removed or reordered, and the same seed always reproduces the same day.
+ *
+ * Plug into an engine with {@code SimulationEngine.setArrivalCurveGenerator(...)}.
+ */
+public class StochasticArrivalGenerator implements ArrivalCurveGenerator {
+    private final long seed;
+    private final ArrivalCurveCache cache;
+
+    public StochasticArrivalGenerator(long seed) {
+        this(seed, ArrivalCurveCache.shared());
+    }
+
+    public StochasticArrivalGenerator(long seed, ArrivalCurveCache cache) {
+        if (cache == null) throw new IllegalArgumentException("cache is null");
+        this.seed = seed;
+        this.cache = cache;
+    }
+
+    public long getSeed() { return seed; }
+
+    @Override
+    public int[] buildArrivalsPerMinute(Flight f,
+                                        int totalPassengers,
+                                        ArrivalCurveConfig cfg,
+                                        int arrivalSpanMinutes) {
+
+        if (cfg == null) cfg = ArrivalCurveConfig.legacyDefault();
+        cfg.validateAndClamp();
+
+        ArrivalCurveCache.Shape shape = cfg.isLegacyMode()
+                ? ArrivalCurveCache.Shape.legacy(arrivalSpanMinutes)
+                : ArrivalCurveCache.Shape.edited(cfg, arrivalSpanMinutes);
+
+        int n = shape.getTotalMinutes();
+        int[] out = new int[n];
+        if (n == 0 || totalPassengers <= 0) return out;
+
+        cache.aliasTable(shape).sampleInto(streamFor(f), totalPassengers, out);
+        return out;
+    }
+
+    /** Per-flight stream; depends only on the seed and the flight's identity fields. */
+    public SplittableRandom streamFor(Flight f) {
+        long key = seed;
+        if (f != null) {
+            key = mix(key ^ f.getFlightNumber().hashCode());
+            key = mix(key ^ f.getDepartureTime().toSecondOfDay());
+            // the same number on another day of a multi-day schedule draws its own passengers
+            if (f.getDepartureDate() != null) key = mix(key ^ f.getDepartureDate().toEpochDay());
+        }
+        return new SplittableRandom(mix(key));
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
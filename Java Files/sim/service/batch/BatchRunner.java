@@ -0,0 +1,215 @@
+package sim.service.batch;
+
+import sim.service.SimulationEngine;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless entry point: runs scenario files through SimulationEngine without any Swing/AWT.
+ *
+ * <pre>
+ * java -cp ... sim.service.batch.BatchRunner [--threads N] [--out DIR] scenario.properties|dir ...
+ * </pre>
+ *
+ * For every scenario it writes {@code <name>-summary.tsv} and {@code <name>-series.tsv} into
+ * the output directory, plus one {@code batch-summary.tsv} row per scenario (input order).
+ * Directories are expanded to the *.properties files they contain.
+ *
+ * Each scenario gets its own engine, so scenarios run in parallel on a fixed pool
+ * (default: one thread per core). A failing scenario is reported and skipped; the
+ * exit code is non-zero if any scenario failed.
+ */
+public final class BatchRunner {
+
+    private BatchRunner() {}
+
+    /** Outcome of one scenario file: either a summary or an error message. */
+    public static final class Result {
+        private final String source;
+        private final RunSummary summary;
+        private final String error;
+
+        Result(String source, RunSummary summary, String error) {
+            this.source = source;
+            this.summary = summary;
+            this.error = error;
+        }
+
+        public String getSource() { return source; }
+        public RunSummary getSummary() { return summary; }
+        public String getError() { return error; }
+        public boolean isOk() { return summary != null; }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Must be set before anything touches AWT.
+        System.setProperty("java.awt.headless", "true");
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        File outDir = new File("batch-out");
+        List<File> inputs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            if ("--threads".equals(a) && i + 1 < args.length) {
+                threads = Math.max(1, Integer.parseInt(args[++i].trim()));
+            } else if ("--out".equals(a) && i + 1 < args.length) {
+                outDir = new File(args[++i]);
+            } else if ("--help".equals(a) || "-h".equals(a)) {
+                usage();
+                return;
+            } else {
+                inputs.addAll(expand(new File(a)));
+            }
+        }
+
+        if (inputs.isEmpty()) {
+            usage();
+            System.exit(2);
+            return;
+        }
+
+        long t0 = System.nanoTime();
+        List<Result> results = runFiles(inputs, threads, outDir);
+        long ms = (System.nanoTime() - t0) / 1_000_000L;
+
+        writeBatchSummary(results, new File(outDir, "batch-summary.tsv"));
+
+        int failed = 0;
+        for (Result r : results) {
+            if (!r.isOk()) {
+                failed++;
+                System.err.println("FAILED " + r.getSource() + ": " + r.getError());
+            }
+        }
+        System.out.println("Ran " + results.size() + " scenario(s) on " + threads + " thread(s) in "
+                + ms + " ms; " + failed + " failed. Output: " + outDir.getAbsolutePath());
+
+        if (failed > 0) System.exit(1);
+    }
+
+    /**
+     * Loads, runs and writes each scenario file on a pool of {@code threads} workers.
+     * Results are returned in input order.
+     */
+    public static List<Result> runFiles(List<File> files, int threads, File outDir) throws InterruptedException {
+        if (files == null) throw new IllegalArgumentException("files is null");
+        if (outDir == null) throw new IllegalArgumentException("outDir is null");
+        if (!outDir.exists()) outDir.mkdirs();
+
+        ExecutorService pool = newPool(threads);
+        try {
+            List<Future<Result>> futures = new ArrayList<>(files.size());
+            for (File f : files) {
+                futures.add(pool.submit(() -> runFile(f, outDir)));
+            }
+
+            List<Result> out = new ArrayList<>(files.size());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    out.add(futures.get(i).get());
+                } catch (ExecutionException ex) {
+                    out.add(new Result(files.get(i).getPath(), null, String.valueOf(ex.getCause())));
+                }
+            }
+            return out;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Runs already-built scenarios in parallel and returns their summaries (input order). */
+    public static List<RunSummary> runAll(List<Scenario> scenarios, int threads)
+            throws InterruptedException, ExecutionException {
+        if (scenarios == null) throw new IllegalArgumentException("scenarios is null");
+
+        ExecutorService pool = newPool(threads);
+        try {
+            List<Future<RunSummary>> futures = new ArrayList<>(scenarios.size());
+            for (Scenario s : scenarios) {
+                futures.add(pool.submit(() -> run(s)));
+            }
+            List<RunSummary> out = new ArrayList<>(scenarios.size());
+            for (Future<RunSummary> f : futures) out.add(f.get());
+            return out;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Runs one scenario on the calling thread. */
+    public static RunSummary run(Scenario scenario) {
+        long t0 = System.nanoTime();
+        SimulationEngine engine = scenario.createEngine();
+        engine.runAllIntervals();
+        long ms = (System.nanoTime() - t0) / 1_000_000L;
+        return RunSummary.fromEngine(scenario.getName(), engine, ms);
+    }
+
+    private static Result runFile(File file, File outDir) {
+        try {
+            Scenario s = ScenarioIO.load(file);
+            RunSummary summary = run(s);
+
+            String base = safeFileName(s.getName());
+            summary.writeSummary(new File(outDir, base + "-summary.tsv"));
+            summary.writeTimeSeries(new File(outDir, base + "-series.tsv"));
+            return new Result(file.getPath(), summary, null);
+        } catch (Exception ex) {
+            return new Result(file.getPath(), null, ex.toString());
+        }
+    }
+
+    private static void writeBatchSummary(List<Result> results, File file) throws IOException {
+        try (PrintWriter w = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8)))) {
+            w.println("source\t" + RunSummary.tsvHeader() + "\terror");
+            for (Result r : results) {
+                if (r.isOk()) {
+                    w.println(r.getSource() + '\t' + r.getSummary().toTsvRow() + '\t');
+                } else {
+                    w.println(r.getSource() + "\t\t\t\t\t\t\t\t\t\t\t\t\t\t" + r.getError().replace('\t', ' '));
+                }
+            }
+        }
+    }
+
+    private static ExecutorService newPool(int threads) {
+        AtomicInteger seq = new AtomicInteger();
+        ThreadFactory tf = r -> {
+            Thread t = new Thread(r, "batch-runner-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        return Executors.newFixedThreadPool(Math.max(1, threads), tf);
+    }
+
+    private static List<File> expand(File f) {
+        if (f.isDirectory()) {
+            File[] files = f.listFiles((dir, name) -> name.toLowerCase().endsWith(".properties"));
+            if (files == null) return new ArrayList<>();
+            Arrays.sort(files);
+            return Arrays.asList(files);
+        }
+        List<File> one = new ArrayList<>();
+        one.add(f);
+        return one;
+    }
+
+    static String safeFileName(String name) {
+        String s = name.replaceAll("[^A-Za-z0-9._-]+", "_");
+        return s.isEmpty() ? "scenario" : s;
+    }
+
+    private static void usage() {
+        System.out.println("Usage: BatchRunner [--threads N] [--out DIR] scenario.properties|dir ...");
+        System.out.println("  --threads N   worker threads (default: available processors)");
+        System.out.println("  --out DIR     output directory (default: ./batch-out)");
+    }
+}
@@ -0,0 +1,448 @@
+package sim.service.batch;
+
+import sim.service.ArrivalsIndex;
+import sim.service.SimulationEngine;
+import sim.ui.CheckpointConfig;
+import sim.ui.TicketCounterConfig;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Deterministic fluid approximation of the ticket and checkpoint queues, for screening
+ * scenarios before paying for a full run.
+ *
+ * Passengers are treated as a continuous flow, kept per flight: each interval the ticket stage
+ * receives the in-person share of that minute's arrivals (rounded per flight, as the engine
+ * does) and serves up to the summed counter rate; what it serves reaches the checkpoint transit
+ * delay later, together with the online share, and the checkpoint serves up to the summed lane
+ * rate. At a flight's boarding close whatever is left of it in either stage is dropped as
+ * missed, like the engine's purge. The queue after every interval uses the same indexing as the
+ * engine's ticket/checkpoint queued-by-interval series; waits are read horizontally off the
+ * cumulative arrival and departure curves, and only cohorts that clear the checkpoint before
+ * their flight closes count towards the wait quantiles, matching the boarded-passenger waits
+ * {@link StaffingOptimizer} measures on a full run.
+ *
+ * Approximations: counters are pooled (flight restrictions ignored), fractional rates are not
+ * rounded per server, and a stage serves its flights in proportion to what they have queued
+ * rather than strictly first come first served. {@link Estimate#compare(SimulationEngine)}
+ * reports the gap against a full run.
+ *
+ * The arrivals are split once in the constructor; {@link #estimate(double, double)} is one pass
+ * over the intervals touching only the flights in their arrival window, thousands of times
+ * cheaper than a full run, so many staffing candidates can be screened against one estimator.
+ */
+public final class FluidQueueEstimator {
+    private final int totalIntervals;
+    private final int intervalMinutes;
+    private final int transitDelay;
+
+    // per flight, ordered by first arrival step
+    private final int[] firstStep;
+    private final int[] closeStep;
+    private final double[][] inPerson;   // per step from firstStep
+    private final double[][] online;
+
+    private final double counterRatePerMinute;
+    private final double checkpointRatePerHour;
+
+    /**
+     * Reads arrivals, the in-person split, transit delay and staffing from {@code engine}
+     * (which does not need to have run).
+     */
+    public FluidQueueEstimator(SimulationEngine engine) {
+        if (engine == null) throw new IllegalArgumentException("engine is null");
+        this.totalIntervals = engine.getTotalIntervals();
+        this.intervalMinutes = Math.max(1, engine.getInterval());
+        this.transitDelay = Math.max(0, engine.getTransitDelayMinutes());
+
+        boolean noCounters = engine.getCounterConfigs().isEmpty();
+        double pct = engine.getPercentInPerson();
+        ArrivalsIndex arrivals = engine.getArrivalsIndex();
+
+        int n = arrivals.getFlightCount();
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingInt(arrivals::getOffset));
+
+        this.firstStep = new int[n];
+        this.closeStep = new int[n];
+        this.inPerson = new double[n][];
+        this.online = new double[n][];
+        for (int j = 0; j < n; j++) {
+            int fi = order[j];
+            int[] perMin = arrivals.getPerMinute(fi);
+
+            // both relative to the engine's global start date-time, so dated schedules work across midnight
+            firstStep[j] = arrivals.getOffset(fi);
+            closeStep[j] = engine.getBoardingCloseInterval(arrivals.getFlight(fi));
+            inPerson[j] = new double[perMin.length];
+            online[j] = new double[perMin.length];
+            for (int k = 0; k < perMin.length; k++) {
+                int in = noCounters ? 0 : (int) Math.round(perMin[k] * pct);
+                inPerson[j][k] = in;
+                online[j][k] = perMin[k] - in;
+            }
+        }
+
+        this.counterRatePerMinute = sumCounterRates(engine.getCounterConfigs());
+        this.checkpointRatePerHour = sumCheckpointRates(engine.getCheckpointConfigs());
+    }
+
+    /** Estimate for the engine's own counters and checkpoints. */
+    public Estimate estimate() {
+        return estimate(counterRatePerMinute, checkpointRatePerHour);
+    }
+
+    /** Estimate for other staffing over the same arrivals. */
+    public Estimate estimate(List<TicketCounterConfig> counters, List<CheckpointConfig> checkpoints) {
+        return estimate(sumCounterRates(counters), sumCheckpointRates(checkpoints));
+    }
+
+    /**
+     * Estimate for a total counter capacity (passengers/minute, all counters) and a total
+     * checkpoint capacity (passengers/hour, all lanes).
+     */
+    public Estimate estimate(double totalCounterRatePerMinute, double totalCheckpointRatePerHour) {
+        int n = totalIntervals;
+        int flights = firstStep.length;
+        double ticketCap = Math.max(0.0, totalCounterRatePerMinute) * intervalMinutes;
+        double checkpointCap = Math.max(0.0, totalCheckpointRatePerHour) / 60.0 * intervalMinutes;
+
+        // per-flight state; transfers wait in a ring of transitDelay + 1 slots
+        int ring = transitDelay + 1;
+        double[] ticketQ = new double[flights];
+        double[] checkpointQ = new double[flights];
+        double[][] inTransit = new double[flights][ring];
+        int[] active = new int[flights];
+        int activeCount = 0;
+        int next = 0;
+
+        // cumulative curves (in = joined, out = served or dropped at close)
+        double[] ticketIn = new double[n], ticketOut = new double[n];
+        double[] cpIn = new double[n], cpOut = new double[n];
+        double[] ticketQueued = new double[n + 1];
+        double[] checkpointQueued = new double[n + 1];
+        double tIn = 0, tOut = 0, cIn = 0, cOut = 0, missed = 0;
+        double[] arrivedInPerson = new double[n];
+
+        for (int m = 0; m < n; m++) {
+            while (next < flights && firstStep[next] <= m) active[activeCount++] = next++;
+
+            // 1) arrivals, then boarding close drops what is left of the closing flights
+            double tQueued = 0, cQueued = 0;
+            int keep = 0;
+            for (int a = 0; a < activeCount; a++) {
+                int f = active[a];
+                int k = m - firstStep[f];
+                if (k < inPerson[f].length) {
+                    ticketQ[f] += inPerson[f][k];
+                    tIn += inPerson[f][k];
+                    arrivedInPerson[m] += inPerson[f][k];
+                }
+                if (m == closeStep[f]) {
+                    double pending = 0;
+                    for (double v : inTransit[f]) pending += v;
+                    missed += ticketQ[f] + checkpointQ[f] + pending;
+                    tOut += ticketQ[f];
+                    cOut += checkpointQ[f];
+                    continue;   // closed: no longer active
+                }
+                active[keep++] = f;
+                tQueued += ticketQ[f];
+            }
+            activeCount = keep;
+
+            // 2) ticket service, shared in proportion to what each flight has queued
+            double served = Math.min(ticketCap, tQueued);
+            double ticketShare = tQueued > 0 ? served / tQueued : 0.0;
+            tOut += served;
+            int slotIn = (m + transitDelay) % ring;
+            int slotOut = m % ring;
+
+            // 3) transfers + online join the checkpoint
+            for (int a = 0; a < activeCount; a++) {
+                int f = active[a];
+                double s = ticketQ[f] * ticketShare;
+                ticketQ[f] -= s;
+                inTransit[f][slotIn] += s;
+
+                int k = m - firstStep[f];
+                double joining = inTransit[f][slotOut] + (k < online[f].length ? online[f][k] : 0.0);
+                inTransit[f][slotOut] = 0.0;
+                checkpointQ[f] += joining;
+                cIn += joining;
+                cQueued += checkpointQ[f];
+            }
+
+            // 4) checkpoint service
+            double cpServed = Math.min(checkpointCap, cQueued);
+            double cpShare = cQueued > 0 ? cpServed / cQueued : 0.0;
+            cOut += cpServed;
+            double tLeft = 0, cLeft = 0;
+            for (int a = 0; a < activeCount; a++) {
+                int f = active[a];
+                checkpointQ[f] -= checkpointQ[f] * cpShare;
+                tLeft += ticketQ[f];
+                cLeft += checkpointQ[f];
+            }
+
+            ticketIn[m] = tIn;
+            ticketOut[m] = tOut;
+            cpIn[m] = cIn;
+            cpOut[m] = cOut;
+            ticketQueued[m + 1] = tLeft;
+            checkpointQueued[m + 1] = cLeft;
+        }
+
+        // checkpoint wait of the flow joining at each step (its middle unit), in steps
+        int[] cpWait = new int[n];
+        int d = 0;
+        for (int e = 0; e < n; e++) {
+            double level = cpIn[e] - 0.5 * (cpIn[e] - (e == 0 ? 0.0 : cpIn[e - 1]));
+            if (d < e) d = e;
+            while (d < n && cpOut[d] < level - EPS) d++;
+            cpWait[e] = d - e;
+        }
+
+        // ticket service step of the in-person flow arriving at each step (its middle unit)
+        int[] ticketDone = new int[n];
+        d = 0;
+        for (int m = 0; m < n; m++) {
+            double level = ticketIn[m] - 0.5 * arrivedInPerson[m];
+            if (d < m) d = m;
+            while (d < n && ticketOut[d] < level - EPS) d++;
+            ticketDone[m] = d;
+        }
+
+        // total wait per flight and arrival cohort, kept when it clears before the flight closes (in steps)
+        double[] hist = new double[n + 1];
+        double passengers = 0, boarded = 0;
+        for (int f = 0; f < flights; f++) {
+            for (int k = 0; k < inPerson[f].length; k++) {
+                int m = firstStep[f] + k;
+                if (m >= n) break;
+                passengers += online[f][k] + inPerson[f][k];
+                if (online[f][k] > 0 && m + cpWait[m] < Math.min(n, closeStep[f])) {
+                    hist[cpWait[m]] += online[f][k];
+                    boarded += online[f][k];
+                }
+                int entry = ticketDone[m] + transitDelay;
+                if (inPerson[f][k] > 0 && entry < n && entry + cpWait[entry] < Math.min(n, closeStep[f])) {
+                    hist[(ticketDone[m] - m) + cpWait[entry]] += inPerson[f][k];
+                    boarded += inPerson[f][k];
+                }
+            }
+        }
+
+        return new Estimate(intervalMinutes, ticketQueued, checkpointQueued, hist, passengers, boarded, missed);
+    }
+
+    private static final double EPS = 1e-9;
+
+    private static double sumCounterRates(List<TicketCounterConfig> counters) {
+        double sum = 0;
+        if (counters != null) for (TicketCounterConfig c : counters) sum += Math.max(0.0, c.getRate());
+        return sum;
+    }
+
+    private static double sumCheckpointRates(List<CheckpointConfig> checkpoints) {
+        double sum = 0;
+        if (checkpoints != null) for (CheckpointConfig c : checkpoints) sum += c.getRatePerHour();
+        return sum;
+    }
+
+    // ============================
+    // Result
+    // ============================
+
+    /** Fluid queue series (index 0..totalIntervals, 0 = initial state) and wait quantiles. */
+    public static final class Estimate {
+        private final int intervalMinutes;
+        private final double[] ticketQueued;
+        private final double[] checkpointQueued;
+        private final double[] waitHistogram;     // boarded passengers by wait in steps
+        private final double passengers;
+        private final double boarded;
+        private final double missed;
+
+        Estimate(int intervalMinutes, double[] ticketQueued, double[] checkpointQueued,
+                 double[] waitHistogram, double passengers, double boarded, double missed) {
+            this.intervalMinutes = intervalMinutes;
+            this.ticketQueued = ticketQueued;
+            this.checkpointQueued = checkpointQueued;
+            this.waitHistogram = waitHistogram;
+            this.passengers = passengers;
+            this.boarded = boarded;
+            this.missed = missed;
+        }
+
+        public int getTotalIntervals() { return ticketQueued.length - 1; }
+
+        public double getTicketQueuedAt(int interval) { return at(ticketQueued, interval); }
+        public double getCheckpointQueuedAt(int interval) { return at(checkpointQueued, interval); }
+
+        /** Series copies, same indexing as the engine's queued-by-interval maps. */
+        public double[] getTicketQueued() { return ticketQueued.clone(); }
+        public double[] getCheckpointQueued() { return checkpointQueued.clone(); }
+
+        public double getPeakTicketQueued() { return max(ticketQueued); }
+        public double getPeakCheckpointQueued() { return max(checkpointQueued); }
+
+        /** Passengers of the day (in-person and online). */
+        public double getPassengers() { return passengers; }
+
+        /** Passengers whose cohort clears the checkpoint before their flight closes. */
+        public double getBoarded() { return boarded; }
+
+        /** Passengers still queued (or walking to the checkpoint) when their flight closed. */
+        public double getMissed() { return missed; }
+
+        /** Ticket-line plus checkpoint-line wait of boarded passengers, weighted quantile in minutes. */
+        public int waitQuantileMinutes(double q) {
+            if (boarded <= 0) return 0;
+            double rank = q * boarded;
+            double seen = 0;
+            for (int w = 0; w < waitHistogram.length; w++) {
+                seen += waitHistogram[w];
+                if (seen >= rank - EPS) return w * intervalMinutes;
+            }
+            return (waitHistogram.length - 1) * intervalMinutes;
+        }
+
+        public int getP95WaitMinutes() { return waitQuantileMinutes(0.95); }
+
+        /** Gap between this estimate and the same scenario's full run ({@code ran} must have run). */
+        public Comparison compare(SimulationEngine ran) {
+            if (ran == null) throw new IllegalArgumentException("engine is null");
+            int n = Math.min(getTotalIntervals(), ran.getTotalIntervals());
+            double[] t = new double[n + 1], c = new double[n + 1];
+            for (int i = 1; i <= n; i++) {
+                t[i] = ran.getTicketQueuedAtInterval(i);
+                c[i] = ran.getCheckpointQueuedAtInterval(i);
+            }
+            return new Comparison(ticketQueued, t, checkpointQueued, c, n);
+        }
+
+        private static double at(double[] a, int i) {
+            return (i >= 0 && i < a.length) ? a[i] : 0.0;
+        }
+    }
+
+    /** Per-series error of an estimate against a full run: mean / max absolute and peak gap. */
+    public static final class Comparison {
+        private final double ticketMeanAbs, ticketMaxAbs, ticketPeakGap;
+        private final double checkpointMeanAbs, checkpointMaxAbs, checkpointPeakGap;
+
+        Comparison(double[] fluidTicket, double[] simTicket, double[] fluidCp, double[] simCp, int n) {
+            double[] t = errors(fluidTicket, simTicket, n);
+            double[] c = errors(fluidCp, simCp, n);
+            ticketMeanAbs = t[0];
+            ticketMaxAbs = t[1];
+            ticketPeakGap = t[2];
+            checkpointMeanAbs = c[0];
+            checkpointMaxAbs = c[1];
+            checkpointPeakGap = c[2];
+        }
+
+        public double getTicketMeanAbsError() { return ticketMeanAbs; }
+        public double getTicketMaxAbsError() { return ticketMaxAbs; }
+        /** Fluid peak minus simulated peak (positive = estimate too high). */
+        public double getTicketPeakGap() { return ticketPeakGap; }
+        public double getCheckpointMeanAbsError() { return checkpointMeanAbs; }
+        public double getCheckpointMaxAbsError() { return checkpointMaxAbs; }
+        public double getCheckpointPeakGap() { return checkpointPeakGap; }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "ticket: mean |err| %.2f, max |err| %.1f, peak gap %+.1f; "
+                            + "checkpoint: mean |err| %.2f, max |err| %.1f, peak gap %+.1f",
+                    ticketMeanAbs, ticketMaxAbs, ticketPeakGap,
+                    checkpointMeanAbs, checkpointMaxAbs, checkpointPeakGap);
+        }
+
+        private static double[] errors(double[] fluid, double[] sim, int n) {
+            double sum = 0, maxAbs = 0, fluidPeak = 0, simPeak = 0;
+            for (int i = 1; i <= n; i++) {
+                double e = Math.abs(fluid[i] - sim[i]);
+                sum += e;
+                maxAbs = Math.max(maxAbs, e);
+                fluidPeak = Math.max(fluidPeak, fluid[i]);
+                simPeak = Math.max(simPeak, sim[i]);
+            }
+            return new double[] { n == 0 ? 0.0 : sum / n, maxAbs, fluidPeak - simPeak };
+        }
+    }
+
+    private static double max(double[] a) {
+        double m = 0;
+        for (double v : a) m = Math.max(m, v);
+        return m;
+    }
+
+    // ============================
+    // CLI
+    // ============================
+
+    /**
+     * Times the estimate and reports its error against a full run of the same scenario.
+     * <pre>
+     * FluidQueueEstimator scenario.properties [--rounds 10000]
+     * </pre>
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        File file = null;
+        int rounds = 10000;
+        for (int i = 0; i < args.length; i++) {
+            if ("--rounds".equals(args[i]) && i + 1 < args.length) rounds = Integer.parseInt(args[++i].trim());
+            else file = new File(args[i]);
+        }
+        if (file == null) {
+            System.out.println("Usage: FluidQueueEstimator scenario.properties [--rounds 10000]");
+            System.exit(2);
+            return;
+        }
+
+        Scenario scenario = ScenarioIO.load(file);
+        SimulationEngine engine = scenario.createEngine();
+        FluidQueueEstimator estimator = new FluidQueueEstimator(engine);
+
+        Estimate est = estimator.estimate();
+        double sink = 0;
+        long t0 = System.nanoTime();
+        for (int r = 0; r < rounds; r++) sink += estimator.estimate().getPeakTicketQueued();
+        double usPerEstimate = (System.nanoTime() - t0) / 1000.0 / Math.max(1, rounds);
+
+        long t1 = System.nanoTime();
+        engine.runAllIntervals();
+        double msPerRun = (System.nanoTime() - t1) / 1e6;
+
+        RunSummary run = RunSummary.fromEngine(scenario.getName(), engine, (long) msPerRun);
+        System.out.println(String.format(Locale.ROOT, "estimate: %.1f us, full run: %.1f ms (%d flight(s), %d interval(s))",
+                usPerEstimate, msPerRun, scenario.getFlights().size(), engine.getTotalIntervals()));
+        System.out.println(String.format(Locale.ROOT, "peak ticket queue: fluid %.1f, engine %d",
+                est.getPeakTicketQueued(), run.getPeakTicketQueued()));
+        System.out.println(String.format(Locale.ROOT, "peak checkpoint queue: fluid %.1f, engine %d",
+                est.getPeakCheckpointQueued(), run.getPeakCheckpointQueued()));
+        System.out.println(String.format(Locale.ROOT, "missed: fluid %.1f, engine %d",
+                est.getMissed(), run.getTotalMissed()));
+        System.out.println(String.format(Locale.ROOT, "p95 wait: fluid %d min, engine %d min",
+                est.getP95WaitMinutes(), StaffingOptimizer.percentile(
+                        StaffingOptimizer.boardedWaitHistogram(engine), boardedCount(engine), 0.95)
+                        * engine.getInterval()));
+        System.out.println(est.compare(engine));
+        if (sink == 42) System.out.println(); // keep the JIT from dropping the loop
+    }
+
+    private static int boardedCount(SimulationEngine engine) {
+        int n = 0;
+        for (int v : StaffingOptimizer.boardedWaitHistogram(engine)) n += v;
+        return n;
+    }
+}
@@ -0,0 +1,257 @@
+package sim.service.batch;
+
+import sim.service.WaitTimeHistogram;
+import sim.service.WaitTimeStats;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Outcome of a {@link MultiTerminalSimulation}: one {@link RunSummary} per terminal, the
+ * airport-wide queue series on the global clock, per-flight totals across listings, and the
+ * traffic on each transfer route.
+ *
+ * Per-terminal summaries see only their own engine: a flight that departs elsewhere shows there
+ * as expected but not made (its passengers left as transfers). The airport flight rows fix that
+ * by summing every listing's expected passengers and reading "made" at the departure terminal.
+ */
+public class MultiTerminalResult {
+    private static final DateTimeFormatter HHMM = DateTimeFormatter.ofPattern("HH:mm");
+
+    /** One flight instance across all terminals that list it. */
+    public static final class FlightRow {
+        private final String key;
+        private final String departureTerminal;
+        private final int expected;
+        private final int made;
+        private final int transfersIn;
+
+        FlightRow(String key, String departureTerminal, int expected, int made, int transfersIn) {
+            this.key = key;
+            this.departureTerminal = departureTerminal;
+            this.expected = expected;
+            this.made = made;
+            this.transfersIn = transfersIn;
+        }
+
+        /** Number and departure, e.g. {@code AA100@08:30}. */
+        public String getKey() { return key; }
+        public String getDepartureTerminal() { return departureTerminal; }
+        public int getExpected() { return expected; }
+        public int getMade() { return made; }
+        public int getMissed() { return Math.max(0, expected - made); }
+        /** Passengers handed over from other terminals (made or not). */
+        public int getTransfersIn() { return transfersIn; }
+    }
+
+    /** Traffic on one terminal-to-terminal channel. */
+    public static final class Route {
+        private final String from;
+        private final String to;
+        private final int transitMinutes;
+        private final int capacity;
+        private final int transfers;
+        private final long heldBack;
+
+        Route(String from, String to, int transitMinutes, int capacity, int transfers, long heldBack) {
+            this.from = from;
+            this.to = to;
+            this.transitMinutes = transitMinutes;
+            this.capacity = capacity;
+            this.transfers = transfers;
+            this.heldBack = heldBack;
+        }
+
+        public String getFrom() { return from; }
+        public String getTo() { return to; }
+        public int getTransitMinutes() { return transitMinutes; }
+        public int getCapacity() { return capacity; }
+        public int getTransfers() { return transfers; }
+        /** Times the channel was full and the sender had to retry a minute later. */
+        public long getHeldBack() { return heldBack; }
+    }
+
+    private final LocalDateTime globalStart;
+    private final int[] offsets;
+    private final List<RunSummary> terminals;
+    private final List<FlightRow> flights;
+    private final List<Route> routes;
+    private final int[] ticketQueued;
+    private final int[] checkpointQueued;
+    private final int[] holdRoomTotal;
+    private final int[] inTransit;
+    private final long elapsedMillis;
+
+    MultiTerminalResult(LocalDateTime globalStart, int[] offsets, List<RunSummary> terminals,
+                        List<FlightRow> flights, List<Route> routes,
+                        int[] ticketQueued, int[] checkpointQueued, int[] holdRoomTotal, int[] inTransit,
+                        long elapsedMillis) {
+        this.globalStart = globalStart;
+        this.offsets = offsets.clone();
+        this.terminals = Collections.unmodifiableList(terminals);
+        this.flights = Collections.unmodifiableList(flights);
+        this.routes = Collections.unmodifiableList(routes);
+        this.ticketQueued = ticketQueued;
+        this.checkpointQueued = checkpointQueued;
+        this.holdRoomTotal = holdRoomTotal;
+        this.inTransit = inTransit;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public LocalDateTime getGlobalStart() { return globalStart; }
+    /** Global minutes simulated (the latest terminal close). */
+    public int getTotalIntervals() { return ticketQueued.length - 1; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public int getTerminalCount() { return terminals.size(); }
+    /** The terminal's own summary; its name is the scenario name. */
+    public RunSummary getTerminal(int idx) { return terminals.get(idx); }
+    /** Global minute at which the terminal's interval 0 starts. */
+    public int getTerminalOffset(int idx) { return offsets[idx]; }
+
+    public List<FlightRow> getFlights() { return flights; }
+    public List<Route> getRoutes() { return routes; }
+
+    // ============================
+    // Airport-wide aggregates
+    // ============================
+
+    public int getTotalArrivals() {
+        int s = 0;
+        for (RunSummary t : terminals) s += t.getTotalArrivals();
+        return s;
+    }
+
+    public int getTotalExpected() {
+        int s = 0;
+        for (FlightRow f : flights) s += f.getExpected();
+        return s;
+    }
+
+    public int getTotalMade() {
+        int s = 0;
+        for (FlightRow f : flights) s += f.getMade();
+        return s;
+    }
+
+    public int getTotalMissed() { return Math.max(0, getTotalExpected() - getTotalMade()); }
+
+    public int getTotalTransfers() {
+        int s = 0;
+        for (Route r : routes) s += r.getTransfers();
+        return s;
+    }
+
+    public int getPeakTicketQueued() { return ticketQueued[argMax(ticketQueued)]; }
+    public int getPeakCheckpointQueued() { return checkpointQueued[argMax(checkpointQueued)]; }
+    public int getPeakHoldRoomTotal() { return holdRoomTotal[argMax(holdRoomTotal)]; }
+    public int getPeakInTransit() { return inTransit[argMax(inTransit)]; }
+
+    /** Every terminal's waits for one stage, pooled (transfers count where they queued). */
+    public WaitTimeHistogram getWaits(WaitTimeStats.Stage stage) {
+        long range = 1;
+        for (RunSummary t : terminals) range = Math.max(range, t.getWaits(stage).getMaxTrackable());
+        WaitTimeHistogram pooled = new WaitTimeHistogram(range);
+        for (RunSummary t : terminals) pooled.add(t.getWaits(stage));
+        return pooled;
+    }
+
+    /** Airport-wide series on the global clock (copies; index i = state after minute i). */
+    public int[] getTicketQueued() { return ticketQueued.clone(); }
+    public int[] getCheckpointQueued() { return checkpointQueued.clone(); }
+    public int[] getHoldRoomTotal() { return holdRoomTotal.clone(); }
+    public int[] getInTransit() { return inTransit.clone(); }
+
+    // ============================
+    // Output
+    // ============================
+
+    /**
+     * Writes airport-summary.tsv (terminal rows, airport totals, routes, pooled waits),
+     * airport-flights.tsv, airport-series.tsv, and each terminal's own
+     * {@code <terminal>-summary.tsv} / {@code <terminal>-series.tsv}.
+     */
+    public void writeTo(File outDir) throws IOException {
+        if (outDir == null) throw new IllegalArgumentException("outDir is null");
+        if (!outDir.exists()) outDir.mkdirs();
+
+        try (PrintWriter w = open(new File(outDir, "airport-summary.tsv"))) {
+            w.println("start\t" + globalStart);
+            w.println("intervals\t" + getTotalIntervals());
+            w.println("terminals\t" + terminals.size());
+            w.println("elapsedMs\t" + elapsedMillis);
+            w.println();
+            w.println(RunSummary.tsvHeader() + "\toffset");
+            for (int i = 0; i < terminals.size(); i++) {
+                w.println(terminals.get(i).toTsvRow() + '\t' + offsets[i]);
+            }
+            w.println();
+            w.println("airport\tarrivals\texpected\tmade\tmissed\ttransfers"
+                    + "\tpeakTicketQueue\tpeakCheckpointQueue\tpeakHoldRooms\tpeakInTransit");
+            w.println("all\t" + getTotalArrivals() + '\t' + getTotalExpected() + '\t' + getTotalMade()
+                    + '\t' + getTotalMissed() + '\t' + getTotalTransfers()
+                    + '\t' + getPeakTicketQueued() + '\t' + getPeakCheckpointQueued()
+                    + '\t' + getPeakHoldRoomTotal() + '\t' + getPeakInTransit());
+            w.println();
+            w.println("from\tto\ttransitMinutes\tcapacity\ttransfers\theldBack");
+            for (Route r : routes) {
+                w.println(r.getFrom() + '\t' + r.getTo() + '\t' + r.getTransitMinutes() + '\t' + r.getCapacity()
+                        + '\t' + r.getTransfers() + '\t' + r.getHeldBack());
+            }
+            w.println();
+            w.println("waitStage\tserved\tp50\tp90\tp95\tp99\tmax");
+            for (WaitTimeStats.Stage st : WaitTimeStats.Stage.values()) {
+                WaitTimeHistogram.Percentiles p = getWaits(st).percentiles();
+                w.println(st.name().toLowerCase(Locale.ROOT) + '\t' + p.getCount() + '\t' + p.getP50()
+                        + '\t' + p.getP90() + '\t' + p.getP95() + '\t' + p.getP99() + '\t' + p.getMax());
+            }
+        }
+
+        try (PrintWriter w = open(new File(outDir, "airport-flights.tsv"))) {
+            w.println("flight\tdepartsFrom\texpected\tmade\tmissed\ttransfersIn\tmissRate");
+            for (FlightRow f : flights) {
+                double rate = f.getExpected() == 0 ? 0.0 : f.getMissed() / (double) f.getExpected();
+                w.println(f.getKey() + '\t' + f.getDepartureTerminal() + '\t' + f.getExpected() + '\t' + f.getMade()
+                        + '\t' + f.getMissed() + '\t' + f.getTransfersIn() + '\t' + String.format(Locale.ROOT, "%.4f", rate));
+            }
+        }
+
+        try (PrintWriter w = open(new File(outDir, "airport-series.tsv"))) {
+            w.println("interval\ttime\tticketQueued\tcheckpointQueued\tholdRooms\tinTransit");
+            for (int i = 1; i <= getTotalIntervals(); i++) {
+                w.println(i + "\t" + globalStart.plusMinutes(i).format(HHMM) + '\t' + ticketQueued[i]
+                        + '\t' + checkpointQueued[i] + '\t' + holdRoomTotal[i] + '\t' + inTransit[i]);
+            }
+        }
+
+        for (RunSummary t : terminals) {
+            String base = BatchRunner.safeFileName(t.getScenarioName());
+            t.writeSummary(new File(outDir, base + "-summary.tsv"));
+            t.writeTimeSeries(new File(outDir, base + "-series.tsv"));
+        }
+    }
+
+    private static int argMax(int[] a) {
+        int best = 0;
+        for (int i = 1; i < a.length; i++) if (a[i] > a[best]) best = i;
+        return best;
+    }
+
+    private static PrintWriter open(File file) throws IOException {
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public String toString() {
+        return terminals.size() + " terminal(s), " + getTotalIntervals() + " min: missed " + getTotalMissed()
+                + "/" + getTotalExpected() + ", " + getTotalTransfers() + " transfer(s), peaks ticket "
+                + getPeakTicketQueued() + " / checkpoint " + getPeakCheckpointQueued() + " / hold "
+                + getPeakHoldRoomTotal() + ", in " + elapsedMillis + " ms";
+    }
+}
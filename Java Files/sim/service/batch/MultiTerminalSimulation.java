@@ -0,0 +1,488 @@
+package sim.service.batch;
+
+import sim.model.Flight;
+import sim.model.Passenger;
+import sim.service.ArrivalsIndex;
+import sim.service.FlightOutcomeCounters;
+import sim.service.SimulationEngine;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Simulates an airport as several terminals, each its own {@link Scenario} and engine, stepped
+ * in lockstep on one thread per terminal.
+ *
+ * Terminals share a global clock (minute 0 = the earliest terminal start). Every global minute
+ * each worker takes in the passengers that reached its terminal, advances its engine one
+ * interval if it is running, and parks at a barrier; the barrier action sums the airport-wide
+ * queue totals and seals the channels for the next minute. Engines never touch each other's
+ * state, so the only cross-thread traffic is the transfer channels, and a run is reproducible
+ * whatever the thread count or timing.
+ *
+ * A flight may be listed in several terminals (passengers check in and clear security where they
+ * arrive) but departs from exactly one: its listing elsewhere sends each passenger that clears
+ * security through a bounded {@link TransferChannel} to the departure terminal, arriving after
+ * the route's transit time plus that terminal's walk to the hold room. Hold rooms are planned
+ * accordingly: the sending terminal reserves no room for the flight, and the departure terminal
+ * counts its expected inbound transfers. A flight listed in more than one terminal needs
+ * {@link #setDepartureTerminal}; listings are matched by number and departure
+ * ({@link SimulationEngine#transferKey}).
+ */
+public class MultiTerminalSimulation {
+
+    public static final int DEFAULT_TRANSIT_MINUTES = 10;
+    public static final int DEFAULT_CHANNEL_CAPACITY = 1024;
+
+    private final Map<String, Scenario> terminals = new LinkedHashMap<>();
+    private final Map<String, String> departureTerminal = new HashMap<>();     // flight number -> terminal
+    private final Map<String, Integer> transitMinutes = new HashMap<>();       // "from>to" -> minutes
+    private int channelCapacity = DEFAULT_CHANNEL_CAPACITY;
+    private Long seed;
+
+    public void addTerminal(String name, Scenario scenario) {
+        if (name == null || name.isBlank()) throw new IllegalArgumentException("terminal name is blank");
+        if (scenario == null) throw new IllegalArgumentException("scenario is null");
+        String n = name.trim();
+        if (terminals.containsKey(n)) throw new IllegalArgumentException("duplicate terminal '" + n + "'");
+        terminals.put(n, scenario);
+    }
+
+    public List<String> getTerminalNames() { return new ArrayList<>(terminals.keySet()); }
+
+    /** Terminal that {@code flightNumber} departs from (required when it is listed in several). */
+    public void setDepartureTerminal(String flightNumber, String terminal) {
+        if (flightNumber == null || flightNumber.isBlank()) throw new IllegalArgumentException("flight number is blank");
+        if (terminal == null || terminal.isBlank()) throw new IllegalArgumentException("terminal name is blank");
+        departureTerminal.put(flightNumber.trim(), terminal.trim());
+    }
+
+    /** Walking / shuttle minutes from one terminal's security to another's hold-room corridor. */
+    public void setTransitMinutes(String from, String to, int minutes) {
+        if (from == null || to == null || from.trim().equals(to.trim())) {
+            throw new IllegalArgumentException("transit needs two different terminals");
+        }
+        if (minutes < 1) throw new IllegalArgumentException("transit must be >= 1 minute");
+        transitMinutes.put(from.trim() + '>' + to.trim(), minutes);
+    }
+
+    public int getTransitMinutes(String from, String to) {
+        return transitMinutes.getOrDefault(from + '>' + to, DEFAULT_TRANSIT_MINUTES);
+    }
+
+    /** Passengers a route holds in flight before its producer has to hold them back. */
+    public void setChannelCapacity(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+        this.channelCapacity = capacity;
+    }
+
+    /** Seeds every terminal's engine (stochastic service times); unset = the engines' default streams. */
+    public void setSeed(long seed) { this.seed = seed; }
+
+    // ============================
+    // Run
+    // ============================
+
+    public MultiTerminalResult run() throws InterruptedException {
+        if (terminals.isEmpty()) throw new IllegalArgumentException("no terminals");
+        for (String t : transitKeysTerminals()) {
+            if (!terminals.containsKey(t)) throw new IllegalArgumentException("unknown terminal '" + t + "' in transit");
+        }
+
+        long t0 = System.nanoTime();
+        int n = terminals.size();
+        String[] names = terminals.keySet().toArray(new String[0]);
+        SimulationEngine[] engines = new SimulationEngine[n];
+        for (int t = 0; t < n; t++) {
+            engines[t] = terminals.get(names[t]).createEngine();
+            if (seed != null) engines[t].setSeed(seed + t);
+        }
+
+        Map<String, Integer> departs = resolveDepartures(names, engines);
+
+        // Global clock
+        LocalDateTime start = engines[0].getGlobalStartDateTime();
+        for (SimulationEngine e : engines) {
+            if (e.getGlobalStartDateTime().isBefore(start)) start = e.getGlobalStartDateTime();
+        }
+        int[] offset = new int[n];
+        int end = 0;
+        for (int t = 0; t < n; t++) {
+            offset[t] = (int) Duration.between(start, engines[t].getGlobalStartDateTime()).toMinutes();
+            end = Math.max(end, offset[t] + engines[t].getTotalIntervals());
+        }
+
+        // Workers and the routes they feed (inbound lists end up in source order, so drains are too)
+        Worker[] workers = new Worker[n];
+        for (int t = 0; t < n; t++) workers[t] = new Worker(engines[t], offset[t], n);
+        List<TransferChannel> channels = new ArrayList<>();
+        for (int t = 0; t < n; t++) {
+            Set<Flight> remote = new HashSet<>();
+            for (Flight f : engines[t].getFlights()) {
+                int d = departs.get(f.getFlightNumber());
+                if (d == t) continue;
+                remote.add(f);
+                if (workers[t].outbound[d] == null) {
+                    TransferChannel ch = new TransferChannel(names[t], names[d], getTransitMinutes(names[t], names[d]),
+                            offset[t] - offset[d], channelCapacity);
+                    workers[t].outbound[d] = ch;
+                    workers[d].inbound.add(ch);
+                    channels.add(ch);
+                }
+            }
+            Worker w = workers[t];
+            engines[t].setTransferOut(remote, (p, minute) -> w.send(p, minute, departs.get(p.getFlight().getFlightNumber())));
+        }
+
+        // Departure terminals' hold-room plans count the passengers expected from elsewhere: cleared
+        // one transit delay after arriving (queues ignored, as in the room solver), then walked over.
+        for (int t = 0; t < n; t++) {
+            ArrivalsIndex arrivals = engines[t].getArrivalsIndex();
+            for (int fi = 0; fi < arrivals.getFlightCount(); fi++) {
+                Flight f = arrivals.getFlight(fi);
+                int d = departs.get(f.getFlightNumber());
+                if (d == t) continue;
+                int at = arrivals.getOffset(fi) + offset[t] - offset[d] + engines[t].getTransitDelayMinutes()
+                        + getTransitMinutes(names[t], names[d]) - engines[d].getTransitDelayMinutes();
+                engines[d].addExpectedTransfersIn(f, arrivals.getPerMinute(fi), at);
+            }
+        }
+
+        // Lockstep
+        Clock clock = new Clock(end);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CyclicBarrier barrier = new CyclicBarrier(n, () -> {
+            int g = clock.minute;
+            clock.record(g + 1, workers, channels);
+            for (TransferChannel ch : channels) ch.seal();
+            clock.minute = (failure.get() != null) ? clock.end : g + 1;
+        });
+
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(n, r -> {
+            Thread th = new Thread(r, "terminal-" + seq.incrementAndGet());
+            th.setDaemon(true);
+            return th;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(n);
+            for (Worker w : workers) {
+                futures.add(pool.submit(() -> {
+                    while (clock.minute < clock.end) {
+                        try {
+                            if (failure.get() == null) w.step(clock.minute);
+                        } catch (Throwable ex) {
+                            failure.compareAndSet(null, ex);
+                        }
+                        try {
+                            barrier.await();
+                        } catch (InterruptedException | BrokenBarrierException stop) {
+                            failure.compareAndSet(null, stop);
+                            return;
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException ex) {
+                    failure.compareAndSet(null, ex.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("terminal run failed: " + failure.get(), failure.get());
+        }
+
+        // Anyone still walking when the last terminal closed has missed their flight.
+        for (TransferChannel ch : channels) ch.seal();
+        for (Worker w : workers) w.drainInbound();
+        for (Worker w : workers) {
+            for (Pending p : w.overflow) {
+                Worker to = workers[p.to];
+                to.engine.acceptTransfer(p.passenger, p.due - to.offset, w.offset - to.offset);
+            }
+            w.overflow.clear();
+        }
+
+        long ms = (System.nanoTime() - t0) / 1_000_000L;
+        List<RunSummary> summaries = new ArrayList<>(n);
+        for (int t = 0; t < n; t++) summaries.add(RunSummary.fromEngine(names[t], engines[t], ms));
+
+        List<String> nameList = Arrays.asList(names);
+        List<MultiTerminalResult.Route> routes = new ArrayList<>(channels.size());
+        for (TransferChannel ch : channels) {
+            int from = nameList.indexOf(ch.getFrom());
+            int to = nameList.indexOf(ch.getTo());
+            List<Flight> flights = engines[from].getFlights();
+            int sent = 0;
+            for (int fi = 0; fi < flights.size(); fi++) {
+                if (departs.get(flights.get(fi).getFlightNumber()) != to) continue;
+                sent += engines[from].getFlightOutcomes().getCurrent(fi, FlightOutcomeCounters.Counter.TRANSFERRED_OUT);
+            }
+            routes.add(new MultiTerminalResult.Route(ch.getFrom(), ch.getTo(), ch.getTransitMinutes(),
+                    ch.getCapacity(), sent, ch.getRejected()));
+        }
+        return new MultiTerminalResult(start, offset, summaries, flightRows(names, engines, departs, summaries),
+                routes, clock.ticketQueued, clock.checkpointQueued, clock.holdRoomTotal, clock.inTransit, ms);
+    }
+
+    private Set<String> transitKeysTerminals() {
+        Set<String> out = new HashSet<>();
+        for (String k : transitMinutes.keySet()) {
+            int gt = k.indexOf('>');
+            out.add(k.substring(0, gt));
+            out.add(k.substring(gt + 1));
+        }
+        return out;
+    }
+
+    /**
+     * Flight number -> index of the terminal it departs from.
+     *
+     * @throws IllegalArgumentException if a listing outside its departure terminal has no listing
+     *                                  there with the same departure (see {@link SimulationEngine#transferKey})
+     */
+    private Map<String, Integer> resolveDepartures(String[] names, SimulationEngine[] engines) {
+        Map<String, Set<Integer>> listedIn = new LinkedHashMap<>();
+        for (int t = 0; t < names.length; t++) {
+            for (Flight f : engines[t].getFlights()) {
+                listedIn.computeIfAbsent(f.getFlightNumber(), k -> new TreeSet<>()).add(t);
+            }
+        }
+        List<String> nameList = Arrays.asList(names);
+        for (Map.Entry<String, String> e : departureTerminal.entrySet()) {
+            if (!nameList.contains(e.getValue())) {
+                throw new IllegalArgumentException("flight " + e.getKey() + " departs from unknown terminal '" + e.getValue() + "'");
+            }
+        }
+
+        Map<String, Integer> out = new HashMap<>();
+        for (Map.Entry<String, Set<Integer>> e : listedIn.entrySet()) {
+            String number = e.getKey();
+            String named = departureTerminal.get(number);
+            int t;
+            if (named != null) {
+                t = nameList.indexOf(named);
+                if (!e.getValue().contains(t)) {
+                    throw new IllegalArgumentException("flight " + number + " is not listed in terminal '" + named + "'");
+                }
+            } else if (e.getValue().size() == 1) {
+                t = e.getValue().iterator().next();
+            } else {
+                throw new IllegalArgumentException("flight " + number + " is listed in several terminals;"
+                        + " set its departure terminal");
+            }
+            out.put(number, t);
+        }
+
+        // hand-over matches number, date and time: every remote listing needs its twin up front,
+        // not a failure halfway through the run
+        List<Set<String>> keys = new ArrayList<>(names.length);
+        for (SimulationEngine e : engines) {
+            Set<String> k = new HashSet<>();
+            for (Flight f : e.getFlights()) k.add(SimulationEngine.transferKey(f));
+            keys.add(k);
+        }
+        for (int t = 0; t < names.length; t++) {
+            for (Flight f : engines[t].getFlights()) {
+                int d = out.get(f.getFlightNumber());
+                if (d != t && !keys.get(d).contains(SimulationEngine.transferKey(f))) {
+                    throw new IllegalArgumentException("flight " + SimulationEngine.transferKey(f) + " in terminal '"
+                            + names[t] + "' has no listing with the same departure in terminal '" + names[d] + "'");
+                }
+            }
+        }
+        return out;
+    }
+
+    /** One row per flight instance: listings summed, outcome read at the departure terminal. */
+    private static List<MultiTerminalResult.FlightRow> flightRows(String[] names, SimulationEngine[] engines,
+                                                                  Map<String, Integer> departs,
+                                                                  List<RunSummary> summaries) {
+        Map<String, int[]> byKey = new LinkedHashMap<>();       // key -> {departs, expected, made, transfersIn}
+        for (int t = 0; t < engines.length; t++) {
+            List<Flight> flights = engines[t].getFlights();
+            for (int fi = 0; fi < flights.size(); fi++) {
+                Flight f = flights.get(fi);
+                int d = departs.get(f.getFlightNumber());
+                int[] row = byKey.computeIfAbsent(SimulationEngine.transferKey(f), k -> new int[] { d, 0, 0, 0 });
+                row[1] += summaries.get(t).getFlightExpected(fi);
+                if (t == d) {
+                    row[2] += summaries.get(t).getFlightMade(fi);
+                    row[3] += engines[t].getFlightOutcomes().getCurrent(fi, FlightOutcomeCounters.Counter.TRANSFERRED_IN);
+                }
+            }
+        }
+        List<MultiTerminalResult.FlightRow> rows = new ArrayList<>(byKey.size());
+        for (Map.Entry<String, int[]> e : byKey.entrySet()) {
+            int[] r = e.getValue();
+            rows.add(new MultiTerminalResult.FlightRow(e.getKey(), names[r[0]], r[1], r[2], r[3]));
+        }
+        return rows;
+    }
+
+    // ============================
+    // Worker / clock
+    // ============================
+
+    /** Passenger a full channel refused; retried by the producer after its interval. */
+    private static final class Pending {
+        final Passenger passenger;
+        final int due;
+        final int to;
+
+        Pending(Passenger passenger, int due, int to) {
+            this.passenger = passenger;
+            this.due = due;
+            this.to = to;
+        }
+    }
+
+    /** One terminal: its engine plus the channels it reads and feeds. Touched by its own thread only. */
+    private static final class Worker {
+        final SimulationEngine engine;
+        final int offset;
+        final TransferChannel[] outbound;
+        final List<TransferChannel> inbound = new ArrayList<>();
+        final ArrayDeque<Pending> overflow = new ArrayDeque<>();
+
+        Worker(SimulationEngine engine, int offset, int terminals) {
+            this.engine = engine;
+            this.offset = offset;
+            this.outbound = new TransferChannel[terminals];
+        }
+
+        void step(int globalMinute) {
+            drainInbound();
+            if (engine.getCurrentInterval() == globalMinute - offset
+                    && engine.getCurrentInterval() < engine.getTotalIntervals()) {
+                engine.computeNextInterval();
+            }
+            while (!overflow.isEmpty()) {
+                Pending p = overflow.peekFirst();
+                if (!outbound[p.to].offer(p.passenger, p.due)) break;
+                overflow.pollFirst();
+            }
+        }
+
+        void drainInbound() {
+            for (TransferChannel ch : inbound) {
+                int shift = ch.getMinuteShift();
+                ch.drain((p, due) -> engine.acceptTransfer(p, due - offset, shift));
+            }
+        }
+
+        /** Engine callback: {@code p} cleared security at local {@code minute} for a flight leaving from {@code to}. */
+        void send(Passenger p, int minute, int to) {
+            TransferChannel ch = outbound[to];
+            int due = minute + offset + ch.getTransitMinutes();         // global minute at the destination
+            if (!overflow.isEmpty() || !ch.offer(p, due)) overflow.addLast(new Pending(p, due, to));
+        }
+    }
+
+    /** Global minute plus the airport-wide series the barrier action fills in. */
+    static final class Clock {
+        volatile int minute;
+        final int end;
+        final int[] ticketQueued;
+        final int[] checkpointQueued;
+        final int[] holdRoomTotal;
+        final int[] inTransit;
+
+        Clock(int end) {
+            this.end = end;
+            this.ticketQueued = new int[end + 1];
+            this.checkpointQueued = new int[end + 1];
+            this.holdRoomTotal = new int[end + 1];
+            this.inTransit = new int[end + 1];
+        }
+
+        /** State after global minute {@code i - 1}; runs while every worker is parked. */
+        private void record(int i, Worker[] workers, List<TransferChannel> channels) {
+            for (Worker w : workers) {
+                int local = i - w.offset;
+                if (local < 1 || local > w.engine.getTotalIntervals()) continue;
+                ticketQueued[i] += w.engine.getTicketQueuedAtInterval(local);
+                checkpointQueued[i] += w.engine.getCheckpointQueuedAtInterval(local);
+                holdRoomTotal[i] += w.engine.getHoldRoomTotalAtInterval(local);
+            }
+            for (Worker w : workers) inTransit[i] += w.overflow.size();
+            for (TransferChannel ch : channels) inTransit[i] += ch.size();
+        }
+    }
+
+    // ============================
+    // CLI
+    // ============================
+
+    /**
+     * <pre>
+     * MultiTerminalSimulation --terminal T1=t1.properties --terminal T2=t2.properties
+     *                         [--departs AA100=T2 ...] [--transit T1:T2=12 ...]
+     *                         [--capacity N] [--seed S] [--out DIR]
+     * </pre>
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        MultiTerminalSimulation sim = new MultiTerminalSimulation();
+        File outDir = new File("terminals-out");
+
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            if ("--terminal".equals(a) && i + 1 < args.length) {
+                String[] kv = pair(args[++i], '=');
+                sim.addTerminal(kv[0], ScenarioIO.load(new File(kv[1])));
+            } else if ("--departs".equals(a) && i + 1 < args.length) {
+                String[] kv = pair(args[++i], '=');
+                sim.setDepartureTerminal(kv[0], kv[1]);
+            } else if ("--transit".equals(a) && i + 1 < args.length) {
+                String[] kv = pair(args[++i], '=');
+                String[] route = pair(kv[0], ':');
+                sim.setTransitMinutes(route[0], route[1], Integer.parseInt(kv[1].trim()));
+            } else if ("--capacity".equals(a) && i + 1 < args.length) {
+                sim.setChannelCapacity(Integer.parseInt(args[++i].trim()));
+            } else if ("--seed".equals(a) && i + 1 < args.length) {
+                sim.setSeed(Long.parseLong(args[++i].trim()));
+            } else if ("--out".equals(a) && i + 1 < args.length) {
+                outDir = new File(args[++i]);
+            } else {
+                System.out.println("Unknown argument: " + a);
+                System.exit(2);
+                return;
+            }
+        }
+
+        if (sim.terminals.isEmpty()) {
+            System.out.println("Usage: MultiTerminalSimulation --terminal NAME=scenario.properties ..."
+                    + " [--departs FLIGHT=NAME] [--transit FROM:TO=MIN] [--capacity N] [--seed S] [--out DIR]");
+            System.exit(2);
+            return;
+        }
+
+        MultiTerminalResult result = sim.run();
+        result.writeTo(outDir);
+        System.out.println(result);
+        System.out.println("Output: " + outDir.getAbsolutePath());
+    }
+
+    private static String[] pair(String s, char sep) {
+        int at = s.indexOf(sep);
+        if (at <= 0 || at == s.length() - 1) throw new IllegalArgumentException("expected a" + sep + "b, got '" + s + "'");
+        return new String[] { s.substring(0, at).trim(), s.substring(at + 1).trim() };
+    }
+}
@@ -0,0 +1,326 @@
+package sim.service.batch;
+
+import sim.model.Flight;
+import sim.service.MinuteArrivals;
+import sim.service.SimulationEngine;
+import sim.ui.CheckpointConfig;
+import sim.ui.TicketCounterConfig;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Grid sweep over staffing knobs of a base scenario:
+ * ticket counters × checkpoint rate × percent in person × transit delay.
+ *
+ * Points are addressed by index (mixed radix over the four axes), so the grid is never
+ * materialized. The index range is split recursively on a ForkJoinPool; each leaf builds an
+ * engine, runs it, reduces it to one {@link SweepTable} row and drops the engine.
+ *
+ * None of the swept knobs affects per-minute arrivals, so they are built once from the base
+ * scenario and shared read-only by every point (no rebuildMinuteArrivalsMap per engine).
+ *
+ * An axis left unset keeps the base scenario's value.
+ */
+public class ParameterSweep {
+
+    /** Streaming callback, invoked on worker threads as points complete (any order). */
+    public interface Listener {
+        void onPoint(int index, SweepTable table);
+    }
+
+    private final Scenario base;
+
+    private int[] counterCounts;
+    private double[] checkpointRatesPerHour;
+    private double[] percentInPerson;
+    private int[] transitDelays;
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    public ParameterSweep(Scenario base) {
+        if (base == null) throw new IllegalArgumentException("base scenario is null");
+        this.base = base;
+        this.counterCounts = new int[] { base.getCounters().size() };
+        this.checkpointRatesPerHour = new double[] { Double.NaN }; // NaN = keep each checkpoint's own rate
+        this.percentInPerson = new double[] { base.getPercentInPerson() };
+        this.transitDelays = new int[] { base.getTransitDelayMinutes() };
+    }
+
+    // ============================
+    // Axes
+    // ============================
+
+    public ParameterSweep setCounterCounts(int... values) {
+        for (int v : requireValues(values)) {
+            if (v < 1) throw new IllegalArgumentException("counter count must be >= 1");
+        }
+        this.counterCounts = values.clone();
+        return this;
+    }
+
+    public ParameterSweep setCheckpointRatesPerHour(double... values) {
+        for (double v : requireValues(values)) {
+            if (!(v >= 0)) throw new IllegalArgumentException("checkpoint rate must be >= 0");
+        }
+        this.checkpointRatesPerHour = values.clone();
+        return this;
+    }
+
+    public ParameterSweep setPercentInPerson(double... values) {
+        for (double v : requireValues(values)) {
+            if (v < 0 || v > 1) throw new IllegalArgumentException("Percent in person must be between 0 and 1");
+        }
+        this.percentInPerson = values.clone();
+        return this;
+    }
+
+    public ParameterSweep setTransitDelays(int... values) {
+        for (int v : requireValues(values)) {
+            if (v < 0) throw new IllegalArgumentException("transit delay must be >= 0");
+        }
+        this.transitDelays = values.clone();
+        return this;
+    }
+
+    /** Inclusive integer range helper: range(2, 10, 2) = {2, 4, 6, 8, 10}. */
+    public static int[] range(int from, int to, int step) {
+        if (step <= 0) throw new IllegalArgumentException("step must be > 0");
+        if (to < from) return new int[0];
+        int n = (to - from) / step + 1;
+        int[] out = new int[n];
+        for (int i = 0; i < n; i++) out[i] = from + i * step;
+        return out;
+    }
+
+    /** Inclusive double range helper with {@code count} evenly spaced values. */
+    public static double[] linspace(double from, double to, int count) {
+        if (count < 1) throw new IllegalArgumentException("count must be >= 1");
+        double[] out = new double[count];
+        for (int i = 0; i < count; i++) {
+            out[i] = (count == 1) ? from : from + (to - from) * i / (count - 1);
+        }
+        return out;
+    }
+
+    public int getParallelism() { return parallelism; }
+    public void setParallelism(int parallelism) { this.parallelism = Math.max(1, parallelism); }
+
+    // ============================
+    // Points
+    // ============================
+
+    public int size() {
+        long n = (long) counterCounts.length * checkpointRatesPerHour.length
+                * percentInPerson.length * transitDelays.length;
+        if (n > Integer.MAX_VALUE) throw new IllegalStateException("sweep too large: " + n + " points");
+        return (int) n;
+    }
+
+    int counterCountAt(int index) { return counterCounts[index % counterCounts.length]; }
+    double checkpointRateAt(int index) {
+        return checkpointRatesPerHour[(index / counterCounts.length) % checkpointRatesPerHour.length];
+    }
+    double percentInPersonAt(int index) {
+        return percentInPerson[(index / (counterCounts.length * checkpointRatesPerHour.length)) % percentInPerson.length];
+    }
+    int transitDelayAt(int index) {
+        return transitDelays[index / (counterCounts.length * checkpointRatesPerHour.length * percentInPerson.length)];
+    }
+
+    /** Scenario for one grid point (built on demand). */
+    public Scenario scenarioAt(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("point " + index);
+
+        double rate = checkpointRateAt(index);
+        List<CheckpointConfig> checkpoints = new ArrayList<>(base.getCheckpoints().size());
+        for (CheckpointConfig src : base.getCheckpoints()) {
+            CheckpointConfig c = new CheckpointConfig(src.getId());
+            c.setRatePerHour(Double.isNaN(rate) ? src.getRatePerHour() : rate);
+            checkpoints.add(c);
+        }
+
+        return new Scenario(
+                base.getName() + "@" + index,
+                percentInPersonAt(index),
+                base.getArrivalSpanMinutes(),
+                base.getIntervalMinutes(),
+                transitDelayAt(index),
+                base.getHoldDelayMinutes(),
+                base.getFlights(),
+                countersFor(counterCountAt(index)),
+                checkpoints,
+                base.getHoldRooms(),
+                base.getCurveConfig(),
+                base.getCurveProfiles(),
+                base.getServiceTimes()
+        );
+    }
+
+    /**
+     * First {@code n} base counters; extra counters copy the last base counter's rate and flights.
+     */
+    private List<TicketCounterConfig> countersFor(int n) {
+        List<TicketCounterConfig> src = base.getCounters();
+        List<TicketCounterConfig> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            TicketCounterConfig t = src.get(Math.min(i, src.size() - 1));
+            out.add(new TicketCounterConfig(i + 1, t.getRate(), new HashSet<Flight>(t.getAllowedFlights())));
+        }
+        return out;
+    }
+
+    // ============================
+    // Run
+    // ============================
+
+    public SweepTable run() {
+        return run(null);
+    }
+
+    public SweepTable run(Listener listener) {
+        int n = size();
+        SweepTable table = new SweepTable(n);
+
+        // Arrivals only depend on flights, effective span and curve: build once, share everywhere.
+        MinuteArrivals shared = base.createEngine().getMinuteArrivals();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new SweepTask(0, n, shared, table, listener));
+        } finally {
+            pool.shutdown();
+        }
+        return table;
+    }
+
+    private final class SweepTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int lo, hi;
+        private final MinuteArrivals shared;
+        private final SweepTable table;
+        private final Listener listener;
+
+        SweepTask(int lo, int hi, MinuteArrivals shared, SweepTable table, Listener listener) {
+            this.lo = lo;
+            this.hi = hi;
+            this.shared = shared;
+            this.table = table;
+            this.listener = listener;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= 1) {
+                if (lo < hi) runPoint(lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SweepTask(lo, mid, shared, table, listener),
+                      new SweepTask(mid, hi, shared, table, listener));
+        }
+
+        private void runPoint(int index) {
+            Scenario s = scenarioAt(index);
+
+            long t0 = System.nanoTime();
+            SimulationEngine engine = s.createEngine(shared);
+            engine.runAllIntervals();
+            long ms = (System.nanoTime() - t0) / 1_000_000L;
+
+            RunSummary summary = RunSummary.fromEngine(s.getName(), engine, ms);
+            table.record(index, counterCountAt(index), checkpointRateAt(index),
+                    percentInPersonAt(index), transitDelayAt(index), summary);
+
+            if (listener != null) listener.onPoint(index, table);
+        }
+    }
+
+    // ============================
+    // CLI
+    // ============================
+
+    /**
+     * <pre>
+     * ParameterSweep base.properties [--counters 2,4,6] [--cpRates 120,150,180]
+     *                [--inPerson 0.2,0.4] [--transit 1,2,3] [--threads N] [--out sweep.tsv]
+     * </pre>
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        File baseFile = null;
+        File out = new File("sweep.tsv");
+        String counters = null, rates = null, inPerson = null, transit = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            if ("--counters".equals(a) && i + 1 < args.length) counters = args[++i];
+            else if ("--cpRates".equals(a) && i + 1 < args.length) rates = args[++i];
+            else if ("--inPerson".equals(a) && i + 1 < args.length) inPerson = args[++i];
+            else if ("--transit".equals(a) && i + 1 < args.length) transit = args[++i];
+            else if ("--threads".equals(a) && i + 1 < args.length) threads = Integer.parseInt(args[++i].trim());
+            else if ("--out".equals(a) && i + 1 < args.length) out = new File(args[++i]);
+            else baseFile = new File(a);
+        }
+
+        if (baseFile == null) {
+            System.out.println("Usage: ParameterSweep base.properties [--counters 2,4,6] [--cpRates 120,150]"
+                    + " [--inPerson 0.2,0.4] [--transit 1,2] [--threads N] [--out sweep.tsv]");
+            System.exit(2);
+            return;
+        }
+
+        ParameterSweep sweep = new ParameterSweep(ScenarioIO.load(baseFile));
+        if (counters != null) sweep.setCounterCounts(parseInts(counters));
+        if (rates != null) sweep.setCheckpointRatesPerHour(parseDoubles(rates));
+        if (inPerson != null) sweep.setPercentInPerson(parseDoubles(inPerson));
+        if (transit != null) sweep.setTransitDelays(parseInts(transit));
+        sweep.setParallelism(threads);
+
+        int total = sweep.size();
+        long t0 = System.nanoTime();
+        SweepTable table = sweep.run((index, t) -> {
+            int done = t.getCompletedCount();
+            if (done % 50 == 0 || done == total) {
+                System.out.println(done + "/" + total + " points");
+            }
+        });
+        long ms = (System.nanoTime() - t0) / 1_000_000L;
+
+        table.writeTsv(out);
+        System.out.println(String.format(Locale.ROOT, "Swept %d point(s) on %d thread(s) in %d ms. Output: %s",
+                total, threads, ms, out.getAbsolutePath()));
+    }
+
+    private static int[] parseInts(String csv) {
+        String[] parts = csv.split(",");
+        int[] out = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) out[i] = Integer.parseInt(parts[i].trim());
+        return out;
+    }
+
+    private static double[] parseDoubles(String csv) {
+        String[] parts = csv.split(",");
+        double[] out = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) out[i] = Double.parseDouble(parts[i].trim());
+        return out;
+    }
+
+    private static int[] requireValues(int[] values) {
+        if (values == null || values.length == 0) throw new IllegalArgumentException("at least one value required");
+        return values;
+    }
+
+    private static double[] requireValues(double[] values) {
+        if (values == null || values.length == 0) throw new IllegalArgumentException("at least one value required");
+        return values;
+    }
+}
@@ -0,0 +1,233 @@
+package sim.service.batch;
+
+import sim.service.WaitTimeHistogram;
+import sim.service.WaitTimeStats;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Aggregate of N replications: means and 95% confidence intervals for the per-interval
+ * queue totals, per-flight miss rates and hold-room peaks, plus wait percentiles pooled
+ * over every replication's passengers.
+ *
+ * Confidence intervals use Student's t (two-sided, 95%) with n - 1 degrees of freedom,
+ * so they stay honest for the small replication counts typical of nightly runs.
+ */
+public class ReplicationResult {
+    private static final DateTimeFormatter HHMM = DateTimeFormatter.ofPattern("HH:mm");
+
+    // t(0.975, df) for df = 1..30; beyond that the normal quantile is close enough.
+    private static final double[] T_975 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    /** Mean / spread of one metric across replications. */
+    public static final class Stat {
+        private final int n;
+        private final double mean;
+        private final double stdDev;
+        private final double min;
+        private final double max;
+
+        Stat(int n, double mean, double stdDev, double min, double max) {
+            this.n = n;
+            this.mean = mean;
+            this.stdDev = stdDev;
+            this.min = min;
+            this.max = max;
+        }
+
+        public int getN() { return n; }
+        public double getMean() { return mean; }
+        public double getStdDev() { return stdDev; }
+        public double getMin() { return min; }
+        public double getMax() { return max; }
+
+        /** Half-width of the 95% confidence interval for the mean (0 when n < 2). */
+        public double getHalfWidth95() {
+            if (n < 2) return 0.0;
+            double t = (n - 1 <= T_975.length) ? T_975[n - 2] : 1.96;
+            return t * stdDev / Math.sqrt(n);
+        }
+
+        public double getLower95() { return mean - getHalfWidth95(); }
+        public double getUpper95() { return mean + getHalfWidth95(); }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%.3f ± %.3f", mean, getHalfWidth95());
+        }
+    }
+
+    private final String scenarioName;
+    private final long masterSeed;
+    private final List<RunSummary> runs;
+
+    ReplicationResult(String scenarioName, long masterSeed, List<RunSummary> runs) {
+        if (runs == null || runs.isEmpty()) throw new IllegalArgumentException("no replications");
+        this.scenarioName = scenarioName;
+        this.masterSeed = masterSeed;
+        this.runs = Collections.unmodifiableList(runs);
+    }
+
+    public String getScenarioName() { return scenarioName; }
+    public long getMasterSeed() { return masterSeed; }
+    public int getReplicationCount() { return runs.size(); }
+
+    /** Individual replication summaries, in replication order. */
+    public List<RunSummary> getRuns() { return runs; }
+
+    public int getTotalIntervals() { return runs.get(0).getTotalIntervals(); }
+
+    // ============================
+    // Statistics
+    // ============================
+
+    public Stat getTicketQueuedStat(int interval) {
+        return stat(r -> r.getTicketQueuedAt(interval));
+    }
+
+    public Stat getCheckpointQueuedStat(int interval) {
+        return stat(r -> r.getCheckpointQueuedAt(interval));
+    }
+
+    public Stat getHoldRoomTotalStat(int interval) {
+        return stat(r -> r.getHoldRoomTotalAt(interval));
+    }
+
+    public Stat getFlightMissRateStat(int flightIdx) {
+        return stat(r -> {
+            int expected = r.getFlightExpected(flightIdx);
+            if (expected == 0) return 0.0;
+            return Math.max(0, expected - r.getFlightMade(flightIdx)) / (double) expected;
+        });
+    }
+
+    public Stat getHoldRoomPeakStat(int roomIdx) {
+        return stat(r -> r.getHoldRoomPeak(roomIdx));
+    }
+
+    public Stat getTotalMissedStat() { return stat(RunSummary::getTotalMissed); }
+    public Stat getPeakTicketQueuedStat() { return stat(RunSummary::getPeakTicketQueued); }
+    public Stat getPeakCheckpointQueuedStat() { return stat(RunSummary::getPeakCheckpointQueued); }
+    public Stat getPeakHoldRoomTotalStat() { return stat(RunSummary::getPeakHoldRoomTotal); }
+
+    /** Spread of one replication-level wait percentile (e.g. 95) across replications. */
+    public Stat getWaitPercentileStat(WaitTimeStats.Stage stage, double percentile) {
+        return stat(r -> r.getWaits(stage).getValueAtPercentile(percentile));
+    }
+
+    /** One histogram holding every replication's waits for {@code stage}. */
+    public WaitTimeHistogram getPooledWaits(WaitTimeStats.Stage stage) {
+        WaitTimeHistogram pooled = runs.get(0).getWaits(stage);
+        for (int i = 1; i < runs.size(); i++) pooled.add(runs.get(i).getWaits(stage));
+        return pooled;
+    }
+
+    private Stat stat(ToDoubleFunction<RunSummary> metric) {
+        int n = runs.size();
+        double mean = 0.0, m2 = 0.0;
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+
+        // Welford: numerically stable single pass
+        int k = 0;
+        for (RunSummary r : runs) {
+            double x = metric.applyAsDouble(r);
+            k++;
+            double d = x - mean;
+            mean += d / k;
+            m2 += d * (x - mean);
+            if (x < min) min = x;
+            if (x > max) max = x;
+        }
+        double sd = (n > 1) ? Math.sqrt(m2 / (n - 1)) : 0.0;
+        return new Stat(n, mean, sd, min, max);
+    }
+
+    // ============================
+    // Output
+    // ============================
+
+    /**
+     * Writes replications-summary.tsv (scenario-level stats, per-flight miss rates, hold-room peaks)
+     * and replications-series.tsv (per-interval mean + 95% CI for the three queue totals).
+     */
+    public void writeTo(File outDir) throws IOException {
+        if (outDir == null) throw new IllegalArgumentException("outDir is null");
+        if (!outDir.exists()) outDir.mkdirs();
+
+        RunSummary first = runs.get(0);
+
+        try (PrintWriter w = open(new File(outDir, "replications-summary.tsv"))) {
+            w.println("scenario\t" + scenarioName);
+            w.println("masterSeed\t" + masterSeed);
+            w.println("replications\t" + runs.size());
+            w.println();
+            w.println("metric\tmean\tci95Low\tci95High\tstdDev\tmin\tmax");
+            row(w, "totalMissed", getTotalMissedStat());
+            row(w, "peakTicketQueue", getPeakTicketQueuedStat());
+            row(w, "peakCheckpointQueue", getPeakCheckpointQueuedStat());
+            row(w, "peakHoldRooms", getPeakHoldRoomTotalStat());
+            for (WaitTimeStats.Stage st : WaitTimeStats.Stage.values()) {
+                row(w, st.name().toLowerCase(Locale.ROOT) + "WaitP95", getWaitPercentileStat(st, 95));
+            }
+            w.println();
+            w.println("waitStage\tpooledServed\tp50\tp90\tp95\tp99\tmax");
+            for (WaitTimeStats.Stage st : WaitTimeStats.Stage.values()) {
+                WaitTimeHistogram.Percentiles p = getPooledWaits(st).percentiles();
+                w.println(st.name().toLowerCase(Locale.ROOT) + '\t' + p.getCount() + '\t' + p.getP50()
+                        + '\t' + p.getP90() + '\t' + p.getP95() + '\t' + p.getP99() + '\t' + p.getMax());
+            }
+            w.println();
+            w.println("flight\tmissRateMean\tci95Low\tci95High\tstdDev\tmin\tmax");
+            for (int i = 0; i < first.getFlightCount(); i++) {
+                row(w, first.getFlightNumber(i), getFlightMissRateStat(i));
+            }
+            w.println();
+            w.println("holdRoom\tpeakMean\tci95Low\tci95High\tstdDev\tmin\tmax");
+            for (int i = 0; i < first.getHoldRoomCount(); i++) {
+                row(w, Integer.toString(first.getHoldRoomId(i)), getHoldRoomPeakStat(i));
+            }
+        }
+
+        try (PrintWriter w = open(new File(outDir, "replications-series.tsv"))) {
+            w.println("interval\ttime"
+                    + "\tticketMean\tticketCiLow\tticketCiHigh"
+                    + "\tcheckpointMean\tcheckpointCiLow\tcheckpointCiHigh"
+                    + "\tholdMean\tholdCiLow\tholdCiHigh");
+            LocalTime start = first.getGlobalStart();
+            for (int i = 1; i <= getTotalIntervals(); i++) {
+                Stat t = getTicketQueuedStat(i);
+                Stat c = getCheckpointQueuedStat(i);
+                Stat h = getHoldRoomTotalStat(i);
+                w.println(i + "\t" + start.plusMinutes((long) i * first.getIntervalMinutes()).format(HHMM)
+                        + '\t' + fmt(t.getMean()) + '\t' + fmt(t.getLower95()) + '\t' + fmt(t.getUpper95())
+                        + '\t' + fmt(c.getMean()) + '\t' + fmt(c.getLower95()) + '\t' + fmt(c.getUpper95())
+                        + '\t' + fmt(h.getMean()) + '\t' + fmt(h.getLower95()) + '\t' + fmt(h.getUpper95()));
+            }
+        }
+    }
+
+    private static void row(PrintWriter w, String label, Stat s) {
+        w.println(label + '\t' + fmt(s.getMean()) + '\t' + fmt(s.getLower95()) + '\t' + fmt(s.getUpper95())
+                + '\t' + fmt(s.getStdDev()) + '\t' + fmt(s.getMin()) + '\t' + fmt(s.getMax()));
+    }
+
+    private static String fmt(double v) {
+        return String.format(Locale.ROOT, "%.4f", v);
+    }
+
+    private static PrintWriter open(File file) throws IOException {
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,184 @@
+package sim.service.batch;
+
+import sim.service.SimulationEngine;
+import sim.service.arrivals.EmpiricalArrivalGenerator;
+import sim.service.arrivals.EmpiricalArrivalProfile;
+import sim.service.arrivals.EmpiricalProfileLoader;
+import sim.service.arrivals.StochasticArrivalGenerator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Monte Carlo replications of one scenario.
+ *
+ * A master SplittableRandom built from {@code masterSeed} is split once per replication,
+ * in replication order, on the calling thread. Replication i therefore always gets the
+ * same stream no matter how many worker threads run or in which order they finish, so
+ * (scenario, masterSeed, replications) fully determines the result.
+ *
+ * Each replication runs on its own SimulationEngine and is reduced to a RunSummary
+ * right away; the aggregate is a {@link ReplicationResult}.
+ *
+ * With {@link #setStochasticArrivals(boolean)} each replication also draws its passengers'
+ * arrival minutes from the curve ({@link StochasticArrivalGenerator}), seeded from the
+ * replication's own stream, instead of replaying the same expected profile every time.
+ * {@link #setEmpiricalProfiles(Map)} swaps the curve for observed show-up histograms
+ * ({@link EmpiricalArrivalGenerator}); combined with stochastic arrivals they are sampled too.
+ */
+public class ReplicationRunner {
+    private final Scenario scenario;
+    private final int replications;
+    private final long masterSeed;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean stochasticArrivals;
+    private Map<String, EmpiricalArrivalProfile> empiricalProfiles;
+
+    public ReplicationRunner(Scenario scenario, int replications, long masterSeed) {
+        if (scenario == null) throw new IllegalArgumentException("scenario is null");
+        if (replications < 1) throw new IllegalArgumentException("replications must be >= 1");
+        this.scenario = scenario;
+        this.replications = replications;
+        this.masterSeed = masterSeed;
+    }
+
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = Math.max(1, threads); }
+
+    public boolean isStochasticArrivals() { return stochasticArrivals; }
+    public void setStochasticArrivals(boolean stochasticArrivals) { this.stochasticArrivals = stochasticArrivals; }
+
+    public Map<String, EmpiricalArrivalProfile> getEmpiricalProfiles() { return empiricalProfiles; }
+    public void setEmpiricalProfiles(Map<String, EmpiricalArrivalProfile> empiricalProfiles) {
+        this.empiricalProfiles = (empiricalProfiles == null || empiricalProfiles.isEmpty()) ? null : empiricalProfiles;
+    }
+
+    public Scenario getScenario() { return scenario; }
+    public int getReplications() { return replications; }
+    public long getMasterSeed() { return masterSeed; }
+
+    /**
+     * The stream replication {@code index} uses. Lets a single replication be re-run on its own
+     * (e.g. opened in the UI) when a regression comparison flags it.
+     */
+    public static SplittableRandom streamFor(long masterSeed, int index) {
+        if (index < 0) throw new IllegalArgumentException("index must be >= 0");
+        SplittableRandom master = new SplittableRandom(masterSeed);
+        SplittableRandom s = master.split();
+        for (int i = 0; i < index; i++) s = master.split();
+        return s;
+    }
+
+    /** Builds (but does not run) the engine for replication {@code index}. */
+    public SimulationEngine createEngine(int index) {
+        SimulationEngine engine = scenario.createEngine();
+        configure(engine, streamFor(masterSeed, index));
+        return engine;
+    }
+
+    private void configure(SimulationEngine engine, SplittableRandom stream) {
+        if (empiricalProfiles != null) {
+            engine.setArrivalCurveGenerator(stochasticArrivals
+                    ? new EmpiricalArrivalGenerator(empiricalProfiles, stream.nextLong())
+                    : new EmpiricalArrivalGenerator(empiricalProfiles));
+        } else if (stochasticArrivals) {
+            // first draw of the replication stream seeds its arrival sampling
+            engine.setArrivalCurveGenerator(new StochasticArrivalGenerator(stream.nextLong()));
+        }
+        engine.setRandomStream(stream);
+    }
+
+    public ReplicationResult run() throws InterruptedException, ExecutionException {
+        // Split sequentially up front: stream assignment must not depend on scheduling.
+        SplittableRandom master = new SplittableRandom(masterSeed);
+        List<SplittableRandom> streams = new ArrayList<>(replications);
+        for (int i = 0; i < replications; i++) streams.add(master.split());
+
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, replications), r -> {
+            Thread t = new Thread(r, "replication-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            List<Future<RunSummary>> futures = new ArrayList<>(replications);
+            for (int i = 0; i < replications; i++) {
+                SplittableRandom stream = streams.get(i);
+                String name = scenario.getName() + "#" + (i + 1);
+                futures.add(pool.submit(() -> {
+                    long t0 = System.nanoTime();
+                    SimulationEngine engine = scenario.createEngine();
+                    configure(engine, stream);
+                    engine.runAllIntervals();
+                    long ms = (System.nanoTime() - t0) / 1_000_000L;
+                    return RunSummary.fromEngine(name, engine, ms);
+                }));
+            }
+
+            List<RunSummary> runs = new ArrayList<>(replications);
+            for (Future<RunSummary> f : futures) runs.add(f.get());
+            return new ReplicationResult(scenario.getName(), masterSeed, runs);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ============================
+    // CLI
+    // ============================
+
+    /**
+     * <pre>
+     * ReplicationRunner scenario.properties [--reps N] [--seed S] [--threads T] [--stochastic]
+     *                   [--empirical profiles.csv] [--out DIR]
+     * </pre>
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        File scenarioFile = null;
+        int reps = 30;
+        long seed = 42L;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean stochastic = false;
+        File empiricalFile = null;
+        File outDir = new File("replications-out");
+
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            if ("--reps".equals(a) && i + 1 < args.length) reps = Integer.parseInt(args[++i].trim());
+            else if ("--seed".equals(a) && i + 1 < args.length) seed = Long.parseLong(args[++i].trim());
+            else if ("--threads".equals(a) && i + 1 < args.length) threads = Integer.parseInt(args[++i].trim());
+            else if ("--stochastic".equals(a)) stochastic = true;
+            else if ("--empirical".equals(a) && i + 1 < args.length) empiricalFile = new File(args[++i]);
+            else if ("--out".equals(a) && i + 1 < args.length) outDir = new File(args[++i]);
+            else scenarioFile = new File(a);
+        }
+
+        if (scenarioFile == null) {
+            System.out.println("Usage: ReplicationRunner scenario.properties [--reps N] [--seed S] [--threads T]"
+                    + " [--stochastic] [--empirical profiles.csv] [--out DIR]");
+            System.exit(2);
+            return;
+        }
+
+        ReplicationRunner runner = new ReplicationRunner(ScenarioIO.load(scenarioFile), reps, seed);
+        runner.setThreads(threads);
+        runner.setStochasticArrivals(stochastic);
+        if (empiricalFile != null) runner.setEmpiricalProfiles(EmpiricalProfileLoader.load(empiricalFile));
+
+        long t0 = System.nanoTime();
+        ReplicationResult result = runner.run();
+        long ms = (System.nanoTime() - t0) / 1_000_000L;
+
+        result.writeTo(outDir);
+        System.out.println("Ran " + reps + " replication(s) of '" + result.getScenarioName()
+                + "' (seed " + seed + ") in " + ms + " ms. Output: " + outDir.getAbsolutePath());
+    }
+}
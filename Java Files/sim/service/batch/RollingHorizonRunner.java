@@ -0,0 +1,253 @@
+package sim.service.batch;
+
+import sim.model.Flight;
+import sim.service.FlightOutcomeCounters;
+import sim.service.SimulationEngine;
+import sim.service.WaitTimeHistogram;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Runs a schedule that crosses midnight or spans several days as one continuous engine, with
+ * bounded memory, and reduces it to one {@link DaySummary} per calendar day.
+ *
+ * Flights carry dates ({@code flight.N=AA100,2024-05-02T08:30,...}), so the engine's timeline
+ * runs across days and whatever is queued, walking or waiting in a hold room at midnight simply
+ * carries on. The engine retires intervals older than the retention window
+ * ({@link SimulationEngine#setRetentionIntervals}); this runner reads each interval's queue totals
+ * as it is computed and folds them into the open day, and closes a day once the clock has moved
+ * past it (its flights have all departed, so their outcome counters are final). Memory then
+ * grows with the number of flights in the schedule, not with passengers or intervals.
+ */
+public class RollingHorizonRunner {
+
+    private final Scenario scenario;
+    private int retentionMinutes = 24 * 60;
+    private Long seed;
+
+    public RollingHorizonRunner(Scenario scenario) {
+        if (scenario == null) throw new IllegalArgumentException("scenario is null");
+        this.scenario = scenario;
+    }
+
+    public int getRetentionMinutes() { return retentionMinutes; }
+
+    /** Minutes of replayable history kept behind the clock (at least one hour). */
+    public void setRetentionMinutes(int retentionMinutes) {
+        if (retentionMinutes < 60) throw new IllegalArgumentException("retention must be >= 60 minutes");
+        this.retentionMinutes = retentionMinutes;
+    }
+
+    /** Seeds the engine (stochastic service times); unset = the engine's default stream. */
+    public void setSeed(long seed) { this.seed = seed; }
+
+    // ============================
+    // Run
+    // ============================
+
+    public List<DaySummary> run() {
+        List<DaySummary> days = new ArrayList<>();
+        run(days::add);
+        return days;
+    }
+
+    /** Streams each day to {@code sink} as soon as it is closed, in date order. */
+    public void run(Consumer<DaySummary> sink) {
+        if (sink == null) throw new IllegalArgumentException("sink is null");
+
+        SimulationEngine engine = scenario.createEngine();
+        engine.setRetentionIntervals(retentionMinutes);
+        if (seed != null) engine.setSeed(seed);
+
+        // flights by departure date
+        List<Flight> flights = engine.getFlights();
+        TreeMap<LocalDate, List<Integer>> byDate = new TreeMap<>();
+        for (int fi = 0; fi < flights.size(); fi++) {
+            LocalDate d = engine.getDateTimeAt(engine.getDepartureInterval(flights.get(fi))).toLocalDate();
+            byDate.computeIfAbsent(d, k -> new ArrayList<>()).add(fi);
+        }
+
+        DayAccumulator open = null;
+        int total = engine.getTotalIntervals();
+        while (engine.getCurrentInterval() < total) {
+            engine.computeNextInterval();
+            int i = engine.getCurrentInterval();
+            LocalDate day = engine.getDateTimeAt(i - 1).toLocalDate();      // last simulated minute
+
+            if (open != null && !open.date.equals(day)) {
+                sink.accept(open.close(engine, byDate.remove(open.date)));
+                // days without a simulated minute of their own (none in a continuous run) still report
+                while (!byDate.isEmpty() && byDate.firstKey().isBefore(day)) {
+                    LocalDate skipped = byDate.firstKey();
+                    sink.accept(new DayAccumulator(skipped).close(engine, byDate.remove(skipped)));
+                }
+                open = null;
+            }
+            if (open == null) open = new DayAccumulator(day);
+            open.add(engine, i);
+        }
+        if (open != null) sink.accept(open.close(engine, byDate.remove(open.date)));
+        for (Map.Entry<LocalDate, List<Integer>> e : byDate.entrySet()) {
+            sink.accept(new DayAccumulator(e.getKey()).close(engine, e.getValue()));
+        }
+    }
+
+    /** Running maxima of one calendar day's intervals. */
+    private static final class DayAccumulator {
+        final LocalDate date;
+        int intervals;
+        long arrivals;
+        int peakTicket, peakCheckpoint, peakHold;
+
+        DayAccumulator(LocalDate date) { this.date = date; }
+
+        void add(SimulationEngine engine, int interval) {
+            intervals++;
+            arrivals += engine.getTotalArrivalsAtInterval(interval);
+            peakTicket = Math.max(peakTicket, engine.getTicketQueuedAtInterval(interval));
+            peakCheckpoint = Math.max(peakCheckpoint, engine.getCheckpointQueuedAtInterval(interval));
+            peakHold = Math.max(peakHold, engine.getHoldRoomTotalAtInterval(interval));
+        }
+
+        DaySummary close(SimulationEngine engine, List<Integer> flightIdx) {
+            List<Integer> fis = (flightIdx == null) ? Collections.emptyList() : flightIdx;
+            FlightOutcomeCounters outcomes = engine.getFlightOutcomes();
+            WaitTimeHistogram waits = new WaitTimeHistogram(engine.getWaitTimeStats().getMaxTrackable());
+            int expected = 0, boarded = 0;
+            for (int fi : fis) {
+                Flight f = engine.getFlights().get(fi);
+                expected += (int) Math.round(f.getSeats() * f.getFillPercent());
+                boarded += outcomes.getCurrent(fi, FlightOutcomeCounters.Counter.BOARDED);
+                waits.add(engine.getWaitTimeStats().getFlight(fi));
+            }
+            return new DaySummary(date, fis.size(), expected, boarded, intervals, arrivals,
+                    peakTicket, peakCheckpoint, peakHold, waits.percentiles());
+        }
+    }
+
+    // ============================
+    // Day summary
+    // ============================
+
+    /** One calendar day of a rolling run: that day's departures, and the queues seen that day. */
+    public static final class DaySummary {
+        private final LocalDate date;
+        private final int flights;
+        private final int expected;
+        private final int boarded;
+        private final int intervals;
+        private final long arrivals;
+        private final int peakTicketQueue;
+        private final int peakCheckpointQueue;
+        private final int peakHoldRooms;
+        private final WaitTimeHistogram.Percentiles totalWait;
+
+        DaySummary(LocalDate date, int flights, int expected, int boarded, int intervals, long arrivals,
+                   int peakTicketQueue, int peakCheckpointQueue, int peakHoldRooms,
+                   WaitTimeHistogram.Percentiles totalWait) {
+            this.date = date;
+            this.flights = flights;
+            this.expected = expected;
+            this.boarded = boarded;
+            this.intervals = intervals;
+            this.arrivals = arrivals;
+            this.peakTicketQueue = peakTicketQueue;
+            this.peakCheckpointQueue = peakCheckpointQueue;
+            this.peakHoldRooms = peakHoldRooms;
+            this.totalWait = totalWait;
+        }
+
+        public LocalDate getDate() { return date; }
+        public int getFlights() { return flights; }
+        public int getExpected() { return expected; }
+        public int getBoarded() { return boarded; }
+        public int getMissed() { return Math.max(0, expected - boarded); }
+        /** Simulated minutes that fell on this date. */
+        public int getIntervals() { return intervals; }
+        public long getArrivals() { return arrivals; }
+        public int getPeakTicketQueue() { return peakTicketQueue; }
+        public int getPeakCheckpointQueue() { return peakCheckpointQueue; }
+        public int getPeakHoldRooms() { return peakHoldRooms; }
+        /** Ticket + checkpoint wait of passengers on this day's flights. */
+        public WaitTimeHistogram.Percentiles getTotalWait() { return totalWait; }
+
+        static String tsvHeader() {
+            return "date\tflights\texpected\tboarded\tmissed\tminutes\tarrivals"
+                    + "\tpeakTicketQueue\tpeakCheckpointQueue\tpeakHoldRooms\tp50TotalWait\tp95TotalWait\tmaxTotalWait";
+        }
+
+        String toTsv() {
+            return date + "\t" + flights + '\t' + expected + '\t' + boarded + '\t' + getMissed()
+                    + '\t' + intervals + '\t' + arrivals
+                    + '\t' + peakTicketQueue + '\t' + peakCheckpointQueue + '\t' + peakHoldRooms
+                    + '\t' + totalWait.getP50() + '\t' + totalWait.getP95() + '\t' + totalWait.getMax();
+        }
+
+        @Override
+        public String toString() {
+            return date + ": " + flights + " flights, missed " + getMissed() + "/" + expected
+                    + ", peaks ticket " + peakTicketQueue + " / checkpoint " + peakCheckpointQueue
+                    + " / hold " + peakHoldRooms + ", total wait " + totalWait;
+        }
+    }
+
+    // ============================
+    // CLI
+    // ============================
+
+    /**
+     * <pre>
+     * RollingHorizonRunner schedule.properties [--retainHours H] [--seed S] [--out days.tsv]
+     * </pre>
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        File scenarioFile = null;
+        int retainHours = 24;
+        Long seed = null;
+        File out = new File("rolling-days.tsv");
+
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            if ("--retainHours".equals(a) && i + 1 < args.length) retainHours = Integer.parseInt(args[++i].trim());
+            else if ("--seed".equals(a) && i + 1 < args.length) seed = Long.parseLong(args[++i].trim());
+            else if ("--out".equals(a) && i + 1 < args.length) out = new File(args[++i]);
+            else scenarioFile = new File(a);
+        }
+
+        if (scenarioFile == null) {
+            System.out.println("Usage: RollingHorizonRunner schedule.properties [--retainHours H] [--seed S]"
+                    + " [--out days.tsv]");
+            System.exit(2);
+            return;
+        }
+
+        RollingHorizonRunner runner = new RollingHorizonRunner(ScenarioIO.load(scenarioFile));
+        runner.setRetentionMinutes(retainHours * 60);
+        if (seed != null) runner.setSeed(seed);
+
+        File parent = out.getParentFile();
+        if (parent != null && !parent.exists()) parent.mkdirs();
+
+        long t0 = System.nanoTime();
+        int[] days = new int[1];
+        try (PrintWriter w = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(out), StandardCharsets.UTF_8)))) {
+            w.println(DaySummary.tsvHeader());
+            runner.run(d -> {
+                w.println(d.toTsv());
+                w.flush();
+                days[0]++;
+                Runtime rt = Runtime.getRuntime();
+                System.out.println(d + "  [heap " + (rt.totalMemory() - rt.freeMemory()) / (1024 * 1024) + " MB]");
+            });
+        }
+        long ms = (System.nanoTime() - t0) / 1_000_000L;
+        System.out.println("Simulated " + days[0] + " day(s) in " + ms + " ms. Output: " + out.getAbsolutePath());
+    }
+}
@@ -0,0 +1,389 @@
+package sim.service.batch;
+
+import sim.model.Flight;
+import sim.model.Passenger;
+import sim.service.FlightOutcomeCounters;
+import sim.service.SimulationEngine;
+import sim.service.WaitTimeHistogram;
+import sim.service.WaitTimeStats;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compact result of one completed run: per-interval totals plus per-flight outcome.
+ *
+ * Only primitive arrays are kept, so the engine (and its passenger history) can be
+ * discarded as soon as the summary is built. That keeps memory flat when hundreds of
+ * scenarios run back to back.
+ *
+ * Arrays are indexed by interval 1..totalIntervals (index 0 = initial state, always 0).
+ * Waits are kept as the engine's three stage histograms (a few KB), which merge across runs.
+ */
+public class RunSummary {
+    private static final DateTimeFormatter HHMM = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final String scenarioName;
+    private final LocalTime globalStart;
+    private final int intervalMinutes;
+    private final int totalIntervals;
+
+    private final int[] arrivals;
+    private final int[] ticketQueued;
+    private final int[] checkpointQueued;
+    private final int[] holdRoomTotal;
+    private final int[] holdUps;
+
+    private final String[] flightNumbers;
+    private final int[] flightExpected;
+    private final int[] flightMade;
+
+    private final int[] holdRoomIds;
+    private final int[] holdRoomPeaks;
+
+    private final WaitTimeHistogram[] stageWaits;   // by WaitTimeStats.Stage ordinal
+
+    private final long elapsedMillis;
+
+    RunSummary(String scenarioName,
+               LocalTime globalStart,
+               int intervalMinutes,
+               int totalIntervals,
+               int[] arrivals,
+               int[] ticketQueued,
+               int[] checkpointQueued,
+               int[] holdRoomTotal,
+               int[] holdUps,
+               String[] flightNumbers,
+               int[] flightExpected,
+               int[] flightMade,
+               int[] holdRoomIds,
+               int[] holdRoomPeaks,
+               WaitTimeHistogram[] stageWaits,
+               long elapsedMillis) {
+        this.scenarioName = scenarioName;
+        this.globalStart = globalStart;
+        this.intervalMinutes = intervalMinutes;
+        this.totalIntervals = totalIntervals;
+        this.arrivals = arrivals;
+        this.ticketQueued = ticketQueued;
+        this.checkpointQueued = checkpointQueued;
+        this.holdRoomTotal = holdRoomTotal;
+        this.holdUps = holdUps;
+        this.flightNumbers = flightNumbers;
+        this.flightExpected = flightExpected;
+        this.flightMade = flightMade;
+        this.holdRoomIds = holdRoomIds;
+        this.holdRoomPeaks = holdRoomPeaks;
+        this.stageWaits = stageWaits;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Reads everything we report from an engine that has finished runAllIntervals().
+     * Per-flight "made" uses the same rule as FlightsSummaryFrame: passengers in any
+     * hold room at the boarding-close history step, read off the engine's flight counters.
+     */
+    public static RunSummary fromEngine(String scenarioName, SimulationEngine engine, long elapsedMillis) {
+        if (engine == null) throw new IllegalArgumentException("engine is null");
+
+        int n = engine.getTotalIntervals();
+        int[] arrivals = new int[n + 1];
+        int[] ticketQ = new int[n + 1];
+        int[] checkpointQ = new int[n + 1];
+        int[] hold = new int[n + 1];
+        int[] holdUps = new int[n + 1];
+
+        for (int i = 1; i <= n; i++) {
+            arrivals[i] = engine.getTotalArrivalsAtInterval(i);
+            ticketQ[i] = engine.getTicketQueuedAtInterval(i);
+            checkpointQ[i] = engine.getCheckpointQueuedAtInterval(i);
+            hold[i] = engine.getHoldRoomTotalAtInterval(i);
+        }
+        engine.getHoldUpsByInterval().forEach((k, v) -> {
+            if (k != null && v != null && k >= 0 && k <= n) holdUps[k] = v;
+        });
+
+        List<Flight> flights = engine.getFlights();
+        String[] numbers = new String[flights.size()];
+        int[] expected = new int[flights.size()];
+        int[] made = new int[flights.size()];
+
+        List<List<List<Passenger>>> holdHistory = engine.getHistoryHoldRooms();
+        FlightOutcomeCounters outcomes = engine.getFlightOutcomes();
+        LocalTime start = engine.getGlobalStart();
+
+        for (int fi = 0; fi < flights.size(); fi++) {
+            Flight f = flights.get(fi);
+            numbers[fi] = f.getFlightNumber();
+            expected[fi] = (int) Math.round(f.getSeats() * f.getFillPercent());
+
+            int closeStep = engine.getBoardingCloseInterval(f);
+            int step = Math.max(0, Math.min(closeStep - 1, holdHistory.size() - 1));
+            if (step >= holdHistory.size()) continue;
+
+            made[fi] = outcomes.get(fi, step + 1, FlightOutcomeCounters.Counter.IN_HOLD_ROOM);
+        }
+
+        int rooms = engine.getHoldRoomConfigs().size();
+        int[] roomIds = new int[rooms];
+        int[] roomPeaks = new int[rooms];
+        for (int r = 0; r < rooms; r++) roomIds[r] = engine.getHoldRoomConfigs().get(r).getId();
+        for (List<List<Passenger>> atStep : holdHistory) {
+            for (int r = 0; r < rooms && r < atStep.size(); r++) {
+                List<Passenger> room = atStep.get(r);
+                if (room != null && room.size() > roomPeaks[r]) roomPeaks[r] = room.size();
+            }
+        }
+
+        WaitTimeStats.Stage[] stages = WaitTimeStats.Stage.values();
+        WaitTimeHistogram[] waits = new WaitTimeHistogram[stages.length];
+        for (WaitTimeStats.Stage st : stages) waits[st.ordinal()] = engine.getWaitTimeStats().getStage(st).copy();
+
+        return new RunSummary(scenarioName, start, engine.getInterval(), n,
+                arrivals, ticketQ, checkpointQ, hold, holdUps,
+                numbers, expected, made, roomIds, roomPeaks, waits, elapsedMillis);
+    }
+
+    // ============================
+    // Aggregates
+    // ============================
+
+    public String getScenarioName() { return scenarioName; }
+    public LocalTime getGlobalStart() { return globalStart; }
+    public int getIntervalMinutes() { return intervalMinutes; }
+    public int getTotalIntervals() { return totalIntervals; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public int getPeakTicketQueued() { return ticketQueued[argMax(ticketQueued)]; }
+    public int getPeakTicketQueuedInterval() { return argMax(ticketQueued); }
+    public int getPeakCheckpointQueued() { return checkpointQueued[argMax(checkpointQueued)]; }
+    public int getPeakCheckpointQueuedInterval() { return argMax(checkpointQueued); }
+    public int getPeakHoldRoomTotal() { return holdRoomTotal[argMax(holdRoomTotal)]; }
+    public int getPeakHoldRoomTotalInterval() { return argMax(holdRoomTotal); }
+
+    public int getTotalArrivals() { return sum(arrivals); }
+    public int getTotalExpected() { return sum(flightExpected); }
+    public int getTotalMade() { return sum(flightMade); }
+    public int getTotalMissed() { return Math.max(0, getTotalExpected() - getTotalMade()); }
+
+    public int getFlightCount() { return flightNumbers.length; }
+    public String getFlightNumber(int idx) { return flightNumbers[idx]; }
+    public int getFlightExpected(int idx) { return flightExpected[idx]; }
+    public int getFlightMade(int idx) { return flightMade[idx]; }
+
+    public int getHoldRoomCount() { return holdRoomIds.length; }
+    public int getHoldRoomId(int idx) { return holdRoomIds[idx]; }
+    public int getHoldRoomPeak(int idx) { return holdRoomPeaks[idx]; }
+
+    /** Wait histogram of one stage (a copy, safe to merge into). */
+    public WaitTimeHistogram getWaits(WaitTimeStats.Stage stage) { return stageWaits[stage.ordinal()].copy(); }
+
+    /** Single interval lookups (0 outside 1..totalIntervals), no copying. */
+    public int getTicketQueuedAt(int interval) { return at(ticketQueued, interval); }
+    public int getCheckpointQueuedAt(int interval) { return at(checkpointQueued, interval); }
+    public int getHoldRoomTotalAt(int interval) { return at(holdRoomTotal, interval); }
+
+    /** Per-interval series (copies). */
+    public int[] getArrivals() { return arrivals.clone(); }
+    public int[] getTicketQueued() { return ticketQueued.clone(); }
+    public int[] getCheckpointQueued() { return checkpointQueued.clone(); }
+    public int[] getHoldRoomTotal() { return holdRoomTotal.clone(); }
+    public int[] getHoldUps() { return holdUps.clone(); }
+
+    // ============================
+    // Output
+    // ============================
+
+    /** Header for {@link #toTsvRow()} (one row per scenario in the batch summary). */
+    public static String tsvHeader() {
+        return "scenario\tintervals\tarrivals\texpected\tmade\tmissed"
+                + "\tpeakTicketQueue\tpeakTicketTime"
+                + "\tpeakCheckpointQueue\tpeakCheckpointTime"
+                + "\tpeakHoldRooms\tpeakHoldTime\telapsedMs";
+    }
+
+    public String toTsvRow() {
+        return scenarioName
+                + '\t' + totalIntervals
+                + '\t' + getTotalArrivals()
+                + '\t' + getTotalExpected()
+                + '\t' + getTotalMade()
+                + '\t' + getTotalMissed()
+                + '\t' + getPeakTicketQueued() + '\t' + clock(getPeakTicketQueuedInterval())
+                + '\t' + getPeakCheckpointQueued() + '\t' + clock(getPeakCheckpointQueuedInterval())
+                + '\t' + getPeakHoldRoomTotal() + '\t' + clock(getPeakHoldRoomTotalInterval())
+                + '\t' + elapsedMillis;
+    }
+
+    /** Scenario totals followed by a per-flight table. */
+    public void writeSummary(File file) throws IOException {
+        try (PrintWriter w = open(file)) {
+            w.println("scenario\t" + scenarioName);
+            w.println("intervals\t" + totalIntervals);
+            w.println("start\t" + globalStart.format(HHMM));
+            w.println("arrivals\t" + getTotalArrivals());
+            w.println("expected\t" + getTotalExpected());
+            w.println("made\t" + getTotalMade());
+            w.println("missed\t" + getTotalMissed());
+            w.println("peakTicketQueue\t" + getPeakTicketQueued() + "\t" + clock(getPeakTicketQueuedInterval()));
+            w.println("peakCheckpointQueue\t" + getPeakCheckpointQueued() + "\t" + clock(getPeakCheckpointQueuedInterval()));
+            w.println("peakHoldRooms\t" + getPeakHoldRoomTotal() + "\t" + clock(getPeakHoldRoomTotalInterval()));
+            w.println("elapsedMs\t" + elapsedMillis);
+            w.println();
+            w.println("holdRoom\tpeak");
+            for (int i = 0; i < holdRoomIds.length; i++) {
+                w.println(holdRoomIds[i] + "\t" + holdRoomPeaks[i]);
+            }
+            w.println();
+            w.println("waitStage\tserved\tp50\tp90\tp95\tp99\tmax\tmean");
+            for (WaitTimeStats.Stage st : WaitTimeStats.Stage.values()) {
+                WaitTimeHistogram h = stageWaits[st.ordinal()];
+                WaitTimeHistogram.Percentiles p = h.percentiles();
+                w.println(st.name().toLowerCase(Locale.ROOT) + '\t' + p.getCount() + '\t' + p.getP50()
+                        + '\t' + p.getP90() + '\t' + p.getP95() + '\t' + p.getP99() + '\t' + p.getMax()
+                        + '\t' + String.format(Locale.ROOT, "%.2f", h.getMean()));
+            }
+            w.println();
+            w.println("flight\texpected\tmade\tmissed\tmissRate");
+            for (int i = 0; i < flightNumbers.length; i++) {
+                int missed = Math.max(0, flightExpected[i] - flightMade[i]);
+                double rate = flightExpected[i] == 0 ? 0.0 : missed / (double) flightExpected[i];
+                w.println(flightNumbers[i] + '\t' + flightExpected[i] + '\t' + flightMade[i]
+                        + '\t' + missed + '\t' + String.format(Locale.ROOT, "%.4f", rate));
+            }
+        }
+    }
+
+    /** One row per interval: clock time, arrivals and the three queue totals. */
+    public void writeTimeSeries(File file) throws IOException {
+        try (PrintWriter w = open(file)) {
+            w.println("interval\ttime\tarrivals\tticketQueued\tcheckpointQueued\tholdRooms\tholdUps");
+            for (int i = 1; i <= totalIntervals; i++) {
+                w.println(i + "\t" + clock(i) + '\t' + arrivals[i] + '\t' + ticketQueued[i]
+                        + '\t' + checkpointQueued[i] + '\t' + holdRoomTotal[i] + '\t' + holdUps[i]);
+            }
+        }
+    }
+
+    // ============================
+    // Binary form (ScenarioResultCache)
+    // ============================
+
+    /** Bytes {@link #writeTo(ByteBuffer)} needs. */
+    int encodedSize() {
+        int size = 3 * 4 + 8 + 8;                    // start, interval, intervals, elapsed, reserved
+        size += utf8(scenarioName).length + 4;
+        for (int[] a : new int[][] { arrivals, ticketQueued, checkpointQueued, holdRoomTotal, holdUps,
+                flightExpected, flightMade, holdRoomIds, holdRoomPeaks }) {
+            size += 4 + 4 * a.length;
+        }
+        size += 4;
+        for (String n : flightNumbers) size += 4 + utf8(n).length;
+        size += 4;
+        for (WaitTimeHistogram h : stageWaits) size += h.encodedSize();
+        return size;
+    }
+
+    void writeTo(ByteBuffer out) {
+        putString(out, scenarioName);
+        out.putInt(globalStart.toSecondOfDay());
+        out.putInt(intervalMinutes);
+        out.putInt(totalIntervals);
+        out.putLong(elapsedMillis);
+        for (int[] a : new int[][] { arrivals, ticketQueued, checkpointQueued, holdRoomTotal, holdUps }) putInts(out, a);
+        out.putInt(flightNumbers.length);
+        for (String n : flightNumbers) putString(out, n);
+        putInts(out, flightExpected);
+        putInts(out, flightMade);
+        putInts(out, holdRoomIds);
+        putInts(out, holdRoomPeaks);
+        out.putInt(stageWaits.length);
+        for (WaitTimeHistogram h : stageWaits) h.writeTo(out);
+        out.putLong(0L);    // reserved
+    }
+
+    static RunSummary readFrom(ByteBuffer in) {
+        String name = getString(in);
+        LocalTime start = LocalTime.ofSecondOfDay(in.getInt());
+        int intervalMinutes = in.getInt();
+        int totalIntervals = in.getInt();
+        long elapsed = in.getLong();
+        int[] arrivals = getInts(in), ticketQ = getInts(in), checkpointQ = getInts(in),
+                hold = getInts(in), holdUps = getInts(in);
+        String[] numbers = new String[in.getInt()];
+        for (int i = 0; i < numbers.length; i++) numbers[i] = getString(in);
+        int[] expected = getInts(in), made = getInts(in), roomIds = getInts(in), roomPeaks = getInts(in);
+        WaitTimeHistogram[] waits = new WaitTimeHistogram[in.getInt()];
+        if (waits.length != WaitTimeStats.Stage.values().length) throw new IllegalArgumentException("bad stage count");
+        for (int i = 0; i < waits.length; i++) waits[i] = WaitTimeHistogram.readFrom(in);
+        in.getLong();
+        return new RunSummary(name, start, intervalMinutes, totalIntervals, arrivals, ticketQ, checkpointQ,
+                hold, holdUps, numbers, expected, made, roomIds, roomPeaks, waits, elapsed);
+    }
+
+    private static byte[] utf8(String s) {
+        return (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putString(ByteBuffer out, String s) {
+        byte[] b = utf8(s);
+        out.putInt(b.length);
+        out.put(b);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] b = new byte[in.getInt()];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static void putInts(ByteBuffer out, int[] a) {
+        out.putInt(a.length);
+        for (int v : a) out.putInt(v);
+    }
+
+    private static int[] getInts(ByteBuffer in) {
+        int n = in.getInt();
+        if (n < 0 || n > in.remaining() / 4) throw new IllegalArgumentException("bad array length " + n);
+        int[] a = new int[n];
+        in.asIntBuffer().get(a);
+        in.position(in.position() + 4 * n);
+        return a;
+    }
+
+    private String clock(int interval) {
+        return globalStart.plusMinutes((long) interval * intervalMinutes).format(HHMM);
+    }
+
+    private static PrintWriter open(File file) throws IOException {
+        if (file == null) throw new IllegalArgumentException("file is null");
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) parent.mkdirs();
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8)));
+    }
+
+    private static int at(int[] a, int i) {
+        return (i >= 0 && i < a.length) ? a[i] : 0;
+    }
+
+    private static int argMax(int[] a) {
+        int best = 0;
+        for (int i = 1; i < a.length; i++) {
+            if (a[i] > a[best]) best = i;
+        }
+        return best;
+    }
+
+    private static int sum(int[] a) {
+        int s = 0;
+        for (int v : a) s += v;
+        return s;
+    }
+}
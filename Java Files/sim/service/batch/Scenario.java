@@ -0,0 +1,194 @@
+package sim.service.batch;
+
+import sim.model.ArrivalCurveConfig;
+import sim.model.Flight;
+import sim.service.MinuteArrivals;
+import sim.service.ServiceTimes;
+import sim.service.SimulationEngine;
+import sim.service.arrivals.ArrivalCurveProfiles;
+import sim.ui.CheckpointConfig;
+import sim.ui.HoldRoomConfig;
+import sim.ui.TicketCounterConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything needed to build and run one SimulationEngine without the Swing setup tabs:
+ * global inputs, flights, ticket counters, checkpoints, hold rooms, the arrival curve and
+ * optional per-flight curve profiles.
+ *
+ * Mirrors what MainFrame.onStartSimulation() collects from the UI, including the
+ * "effective arrival span = max(base span, curve window start)" rule.
+ */
+public class Scenario {
+    private final String name;
+
+    private final double percentInPerson;
+    private final int arrivalSpanMinutes;
+    private final int intervalMinutes;
+    private final int transitDelayMinutes;
+    private final int holdDelayMinutes;
+
+    private final List<Flight> flights;
+    private final List<TicketCounterConfig> counters;
+    private final List<CheckpointConfig> checkpoints;
+    private final List<HoldRoomConfig> holdRooms;
+    private final ArrivalCurveConfig curveConfig;
+    private final ArrivalCurveProfiles curveProfiles;   // null = one curve for every flight
+    private final ServiceTimes serviceTimes;            // DETERMINISTIC = fractional lane rates
+
+    public Scenario(String name,
+                    double percentInPerson,
+                    int arrivalSpanMinutes,
+                    int intervalMinutes,
+                    int transitDelayMinutes,
+                    int holdDelayMinutes,
+                    List<Flight> flights,
+                    List<TicketCounterConfig> counters,
+                    List<CheckpointConfig> checkpoints,
+                    List<HoldRoomConfig> holdRooms,
+                    ArrivalCurveConfig curveConfig) {
+        this(name, percentInPerson, arrivalSpanMinutes, intervalMinutes, transitDelayMinutes, holdDelayMinutes,
+                flights, counters, checkpoints, holdRooms, curveConfig, null);
+    }
+
+    public Scenario(String name,
+                    double percentInPerson,
+                    int arrivalSpanMinutes,
+                    int intervalMinutes,
+                    int transitDelayMinutes,
+                    int holdDelayMinutes,
+                    List<Flight> flights,
+                    List<TicketCounterConfig> counters,
+                    List<CheckpointConfig> checkpoints,
+                    List<HoldRoomConfig> holdRooms,
+                    ArrivalCurveConfig curveConfig,
+                    ArrivalCurveProfiles curveProfiles) {
+        this(name, percentInPerson, arrivalSpanMinutes, intervalMinutes, transitDelayMinutes, holdDelayMinutes,
+                flights, counters, checkpoints, holdRooms, curveConfig, curveProfiles, null);
+    }
+
+    public Scenario(String name,
+                    double percentInPerson,
+                    int arrivalSpanMinutes,
+                    int intervalMinutes,
+                    int transitDelayMinutes,
+                    int holdDelayMinutes,
+                    List<Flight> flights,
+                    List<TicketCounterConfig> counters,
+                    List<CheckpointConfig> checkpoints,
+                    List<HoldRoomConfig> holdRooms,
+                    ArrivalCurveConfig curveConfig,
+                    ArrivalCurveProfiles curveProfiles,
+                    ServiceTimes serviceTimes) {
+        if (percentInPerson < 0 || percentInPerson > 1) {
+            throw new IllegalArgumentException("Percent in person must be between 0 and 1");
+        }
+        if (flights == null || flights.isEmpty()) {
+            throw new IllegalArgumentException("Scenario needs at least one flight");
+        }
+        if (counters == null || counters.isEmpty()) {
+            throw new IllegalArgumentException("Scenario needs at least one ticket counter");
+        }
+        if (checkpoints == null || checkpoints.isEmpty()) {
+            throw new IllegalArgumentException("Scenario needs at least one checkpoint");
+        }
+
+        this.name = (name == null || name.isBlank()) ? "scenario" : name.trim();
+        this.percentInPerson = percentInPerson;
+        this.arrivalSpanMinutes = arrivalSpanMinutes;
+        this.intervalMinutes = intervalMinutes;
+        this.transitDelayMinutes = transitDelayMinutes;
+        this.holdDelayMinutes = holdDelayMinutes;
+        this.flights = Collections.unmodifiableList(new ArrayList<>(flights));
+        this.counters = Collections.unmodifiableList(new ArrayList<>(counters));
+        this.checkpoints = Collections.unmodifiableList(new ArrayList<>(checkpoints));
+        this.holdRooms = (holdRooms == null)
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(holdRooms));
+
+        // clamp a private copy: sweeps and the optimizer build scenarios from one shared config on many threads
+        ArrivalCurveConfig cfg = (curveConfig == null) ? ArrivalCurveConfig.legacyDefault() : curveConfig.copy();
+        cfg.validateAndClamp();
+        this.curveConfig = cfg;
+        this.curveProfiles = (curveProfiles == null || curveProfiles.isEmpty()) ? null : curveProfiles;
+        this.serviceTimes = (serviceTimes == null) ? ServiceTimes.DETERMINISTIC : serviceTimes;
+    }
+
+    // ============================
+    // Engine construction
+    // ============================
+
+    /** Same rule as MainFrame: the curve window (or any profile's window) may extend the base arrival span. */
+    public int getEffectiveArrivalSpanMinutes() {
+        int curveStart = curveConfig.isLegacyMode()
+                ? ArrivalCurveConfig.DEFAULT_WINDOW_START
+                : curveConfig.getWindowStartMinutesBeforeDeparture();
+        if (curveProfiles != null) curveStart = Math.max(curveStart, curveProfiles.getMaxWindowStartMinutes());
+        return Math.max(arrivalSpanMinutes, curveStart);
+    }
+
+    /**
+     * Builds a fresh engine with the curve applied (not yet run).
+     * Each call returns an independent engine, so scenarios can run on different threads.
+     */
+    public SimulationEngine createEngine() {
+        return createEngine(null);
+    }
+
+    /**
+     * Same as {@link #createEngine()}, reusing {@code shared} arrivals when they match this
+     * scenario's flights, effective span and curve (see {@link MinuteArrivals}).
+     */
+    public SimulationEngine createEngine(MinuteArrivals shared) {
+        SimulationEngine engine = new SimulationEngine(
+                percentInPerson,
+                new ArrayList<>(counters),
+                new ArrayList<>(checkpoints),
+                getEffectiveArrivalSpanMinutes(),
+                intervalMinutes,
+                transitDelayMinutes,
+                holdDelayMinutes,
+                new ArrayList<>(flights),
+                holdRooms.isEmpty() ? null : new ArrayList<>(holdRooms)
+        );
+        engine.setArrivalCurveProfiles(curveProfiles);
+        engine.setArrivalCurveConfig(curveConfig, shared);
+        engine.setServiceTimes(serviceTimes);
+        return engine;
+    }
+
+    // ============================
+    // Getters
+    // ============================
+
+    public String getName() { return name; }
+    public double getPercentInPerson() { return percentInPerson; }
+    public int getArrivalSpanMinutes() { return arrivalSpanMinutes; }
+    public int getIntervalMinutes() { return intervalMinutes; }
+    public int getTransitDelayMinutes() { return transitDelayMinutes; }
+    public int getHoldDelayMinutes() { return holdDelayMinutes; }
+    public List<Flight> getFlights() { return flights; }
+    public List<TicketCounterConfig> getCounters() { return counters; }
+    public List<CheckpointConfig> getCheckpoints() { return checkpoints; }
+    public List<HoldRoomConfig> getHoldRooms() { return holdRooms; }
+
+    /** Returns the curve config (engine copies it on setArrivalCurveConfig). */
+    public ArrivalCurveConfig getCurveConfig() { return curveConfig; }
+
+    /** Per-flight / prefix / airline curves, or null when every flight uses the curve config. */
+    public ArrivalCurveProfiles getCurveProfiles() { return curveProfiles; }
+
+    /** Lane service-time distributions; DETERMINISTIC unless the scenario sets any. */
+    public ServiceTimes getServiceTimes() { return serviceTimes; }
+
+    @Override
+    public String toString() {
+        return "Scenario{" + name + ", flights=" + flights.size()
+                + ", counters=" + counters.size()
+                + ", checkpoints=" + checkpoints.size()
+                + ", holdRooms=" + holdRooms.size() + '}';
+    }
+}
@@ -0,0 +1,466 @@
+package sim.service.batch;
+
+import sim.model.ArrivalCurveConfig;
+import sim.model.Flight;
+import sim.service.ServiceTimeDistribution;
+import sim.service.ServiceTimes;
+import sim.service.SimulationEngine;
+import sim.service.arrivals.ArrivalCurveProfiles;
+import sim.ui.CheckpointConfig;
+import sim.ui.HoldRoomConfig;
+import sim.ui.TicketCounterConfig;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Plain-text scenario files for headless runs (.properties, UTF-8).
+ *
+ * <pre>
+ * name=Morning peak
+ * percentInPerson=0.4
+ * arrivalSpanMinutes=120
+ * intervalMinutes=1
+ * transitDelayMinutes=2
+ * holdDelayMinutes=5
+ *
+ * curve.legacyMode=false
+ * curve.peakMinutesBeforeDeparture=70
+ * curve.leftSigmaMinutes=18
+ * curve.rightSigmaMinutes=14
+ * curve.lateClampEnabled=false
+ * curve.lateClampMinutesBeforeDeparture=30
+ * curve.windowStartMinutesBeforeDeparture=180
+ *
+ * # optional curve overrides: flight:NUM, prefix:TEXT or airline:CODE (+ the curve.* fields)
+ * profile.1.match=airline:BA
+ * profile.1.peakMinutesBeforeDeparture=150
+ * profile.1.windowStartMinutesBeforeDeparture=240
+ *
+ * # number, departure HH:mm, seats, fill (0..1), shape
+ * flight.1=AA100,08:30,180,0.85,CIRCLE
+ * # multi-day schedules date the departure; a number may then repeat on other dates
+ * flight.2=AA100,2024-05-02T08:30,180,0.85,CIRCLE
+ *
+ * counter.1.rate=1.0                 # passengers / minute
+ * counter.1.flights=AA100            # optional, empty = all flights
+ * checkpoint.1.ratePerHour=120
+ * holdRoom.1.walkSeconds=90
+ * holdRoom.1.capacity=120            # optional seats, 0 / absent = not set
+ * holdRoom.1.flights=AA100           # optional, empty = all flights
+ *
+ * # optional stochastic service times (rates still set the means):
+ * # exponential, lognormal:CV, empirical:t1,t2,... or deterministic
+ * serviceTimes.counters=exponential
+ * serviceTimes.checkpoints=lognormal:0.6
+ * checkpoint.2.serviceTimes=deterministic
+ * </pre>
+ *
+ * Indexed entries are read from 1 upwards until the first missing index.
+ */
+public final class ScenarioIO {
+
+    private static final DateTimeFormatter HHMM = DateTimeFormatter.ofPattern("HH:mm");
+
+    private ScenarioIO() {}
+
+    // ============================
+    // Load
+    // ============================
+
+    public static Scenario load(File file) throws IOException {
+        if (file == null) throw new IllegalArgumentException("file is null");
+        if (!file.exists()) throw new FileNotFoundException(file.getAbsolutePath());
+
+        Properties p = new Properties();
+        try (Reader r = new InputStreamReader(new BufferedInputStream(new FileInputStream(file)),
+                StandardCharsets.UTF_8)) {
+            p.load(r);
+        }
+
+        String defaultName = file.getName().replaceFirst("\\.[^.]*$", "");
+        try {
+            return fromProperties(p, defaultName);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException(file.getName() + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    public static Scenario fromProperties(Properties p, String defaultName) {
+        if (p == null) throw new IllegalArgumentException("properties is null");
+
+        String name = p.getProperty("name", defaultName);
+        double percentInPerson = parseDouble(p, "percentInPerson", 0.4);
+        int span = parseInt(p, "arrivalSpanMinutes", ArrivalCurveConfig.DEFAULT_WINDOW_START);
+        int interval = parseInt(p, "intervalMinutes", 1);
+        int transit = parseInt(p, "transitDelayMinutes", 2);
+        int holdDelay = parseInt(p, "holdDelayMinutes", 5);
+
+        // flights
+        List<Flight> flights = new ArrayList<>();
+        Map<String, List<Flight>> byNumber = new LinkedHashMap<>();
+        for (int i = 1; p.getProperty("flight." + i) != null; i++) {
+            Flight f = parseFlight(p.getProperty("flight." + i), "flight." + i);
+            List<Flight> same = byNumber.computeIfAbsent(f.getFlightNumber(), k -> new ArrayList<>());
+            for (Flight o : same) {
+                if (f.getDepartureDate() == null || o.getDepartureDate() == null
+                        || f.getDepartureDate().equals(o.getDepartureDate())) {
+                    throw new IllegalArgumentException("duplicate flight number " + f.getFlightNumber());
+                }
+            }
+            same.add(f);
+            flights.add(f);
+        }
+
+        // ticket counters
+        List<TicketCounterConfig> counters = new ArrayList<>();
+        for (int i = 1; p.getProperty("counter." + i + ".rate") != null; i++) {
+            double rate = parseDouble(p, "counter." + i + ".rate", 1.0);
+            Set<Flight> allowed = new HashSet<>();
+            for (String num : splitList(p.getProperty("counter." + i + ".flights"))) {
+                List<Flight> f = byNumber.get(num);
+                if (f == null) {
+                    throw new IllegalArgumentException("counter." + i + " references unknown flight " + num);
+                }
+                allowed.addAll(f);      // every dated instance of the number
+            }
+            counters.add(new TicketCounterConfig(i, rate, allowed));
+        }
+
+        // checkpoints
+        List<CheckpointConfig> checkpoints = new ArrayList<>();
+        for (int i = 1; p.getProperty("checkpoint." + i + ".ratePerHour") != null; i++) {
+            CheckpointConfig c = new CheckpointConfig(i);
+            c.setRatePerHour(parseDouble(p, "checkpoint." + i + ".ratePerHour", 120.0));
+            checkpoints.add(c);
+        }
+
+        // hold rooms
+        List<HoldRoomConfig> holdRooms = new ArrayList<>();
+        for (int i = 1; p.getProperty("holdRoom." + i + ".walkSeconds") != null; i++) {
+            HoldRoomConfig h = new HoldRoomConfig(i, parseInt(p, "holdRoom." + i + ".walkSeconds", 0));
+            h.setCapacity(parseInt(p, "holdRoom." + i + ".capacity", 0));
+            List<String> nums = splitList(p.getProperty("holdRoom." + i + ".flights"));
+            for (String num : nums) {
+                if (!byNumber.containsKey(num)) {
+                    throw new IllegalArgumentException("holdRoom." + i + " references unknown flight " + num);
+                }
+            }
+            h.setAllowedFlightNumbers(nums);
+            holdRooms.add(h);
+        }
+
+        // arrival curve
+        ArrivalCurveConfig curve = parseCurve(p, "curve.", true);
+
+        // per-flight / prefix / airline curve profiles
+        ArrivalCurveProfiles profiles = new ArrivalCurveProfiles();
+        for (int i = 1; p.getProperty("profile." + i + ".match") != null; i++) {
+            String key = "profile." + i + ".match";
+            String match = p.getProperty(key).trim();
+            int colon = match.indexOf(':');
+            if (colon <= 0 || colon == match.length() - 1) {
+                throw new IllegalArgumentException(key + " must be flight:NUM, prefix:TEXT or airline:CODE");
+            }
+            String kind = match.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String target = match.substring(colon + 1).trim();
+            ArrivalCurveConfig cfg = parseCurve(p, "profile." + i + ".", false);
+
+            if ("flight".equals(kind)) profiles.setFlight(target, cfg);
+            else if ("prefix".equals(kind)) profiles.setPrefix(target, cfg);
+            else if ("airline".equals(kind)) profiles.setAirline(target, cfg);
+            else throw new IllegalArgumentException(key + " has unknown kind '" + kind + "'");
+        }
+
+        // service times
+        ServiceTimes times = ServiceTimes.DETERMINISTIC
+                .withCounterDefault(parseServiceTime(p, "serviceTimes.counters"))
+                .withCheckpointDefault(parseServiceTime(p, "serviceTimes.checkpoints"));
+        for (int i = 1; i <= counters.size(); i++) {
+            String key = "counter." + i + ".serviceTimes";
+            if (p.getProperty(key) != null) times = times.withCounter(i - 1, parseServiceTime(p, key));
+        }
+        for (int i = 1; i <= checkpoints.size(); i++) {
+            String key = "checkpoint." + i + ".serviceTimes";
+            if (p.getProperty(key) != null) times = times.withCheckpoint(i - 1, parseServiceTime(p, key));
+        }
+
+        return new Scenario(name, percentInPerson, span, interval, transit, holdDelay,
+                flights, counters, checkpoints, holdRooms, curve, profiles, times);
+    }
+
+    /** Distribution at {@code key}; null when absent or "deterministic". */
+    private static ServiceTimeDistribution parseServiceTime(Properties p, String key) {
+        String v = p.getProperty(key);
+        if (v == null || v.isBlank() || "deterministic".equalsIgnoreCase(v.trim())) return null;
+        try {
+            return ServiceTimeDistribution.parse(v);
+        } catch (IllegalArgumentException bad) {
+            throw new IllegalArgumentException(key + ": " + bad.getMessage());
+        }
+    }
+
+    /** Curve fields under {@code prefix} ("curve." or "profile.N."); missing fields keep the defaults. */
+    private static ArrivalCurveConfig parseCurve(Properties p, String prefix, boolean defaultLegacy) {
+        ArrivalCurveConfig curve = ArrivalCurveConfig.legacyDefault();
+        curve.setLegacyMode(Boolean.parseBoolean(
+                p.getProperty(prefix + "legacyMode", Boolean.toString(defaultLegacy)).trim()));
+        curve.setPeakMinutesBeforeDeparture(parseInt(p, prefix + "peakMinutesBeforeDeparture",
+                curve.getPeakMinutesBeforeDeparture()));
+        curve.setLeftSigmaMinutes(parseInt(p, prefix + "leftSigmaMinutes", curve.getLeftSigmaMinutes()));
+        curve.setRightSigmaMinutes(parseInt(p, prefix + "rightSigmaMinutes", curve.getRightSigmaMinutes()));
+        curve.setLateClampEnabled(Boolean.parseBoolean(p.getProperty(prefix + "lateClampEnabled", "false").trim()));
+        curve.setLateClampMinutesBeforeDeparture(parseInt(p, prefix + "lateClampMinutesBeforeDeparture",
+                curve.getLateClampMinutesBeforeDeparture()));
+        curve.setWindowStartMinutesBeforeDeparture(parseInt(p, prefix + "windowStartMinutesBeforeDeparture",
+                curve.getWindowStartMinutesBeforeDeparture()));
+        curve.validateAndClamp();
+        return curve;
+    }
+
+    // ============================
+    // Save
+    // ============================
+
+    public static void save(Scenario s, File file) throws IOException {
+        if (s == null) throw new IllegalArgumentException("scenario is null");
+        if (file == null) throw new IllegalArgumentException("file is null");
+
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) parent.mkdirs();
+
+        try (Writer w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
+                StandardCharsets.UTF_8))) {
+            w.write(toText(s));
+        }
+    }
+
+    /**
+     * SHA-256 (hex) of the scenario's inputs: the {@link #toText} form without the name line,
+     * plus the counter / checkpoint / hold-room ids (labels the views show) and the engine's
+     * {@link SimulationEngine#MODEL_VERSION}. Two scenarios with the same hash produce the same
+     * run, whatever they are called.
+     */
+    public static String canonicalHash(Scenario s) {
+        String text = toText(s);
+        int nl = text.indexOf('\n');
+        if (text.startsWith("name=") && nl >= 0) text = text.substring(nl + 1);
+
+        StringBuilder ids = new StringBuilder(text).append("\nids=");
+        for (TicketCounterConfig tc : s.getCounters()) ids.append('c').append(tc.getId()).append(',');
+        for (CheckpointConfig cp : s.getCheckpoints()) ids.append('k').append(cp.getId()).append(',');
+        for (HoldRoomConfig h : s.getHoldRooms()) ids.append('h').append(h.getId()).append(',');
+        ids.append("\nmodel=").append(SimulationEngine.MODEL_VERSION);
+
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] digest = md.digest(ids.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) sb.append(String.format("%02x", b & 0xff));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    /** Stable, human-readable key order (Properties.store() would shuffle it). */
+    public static String toText(Scenario s) {
+        StringBuilder sb = new StringBuilder();
+        line(sb, "name", s.getName());
+        line(sb, "percentInPerson", Double.toString(s.getPercentInPerson()));
+        line(sb, "arrivalSpanMinutes", Integer.toString(s.getArrivalSpanMinutes()));
+        line(sb, "intervalMinutes", Integer.toString(s.getIntervalMinutes()));
+        line(sb, "transitDelayMinutes", Integer.toString(s.getTransitDelayMinutes()));
+        line(sb, "holdDelayMinutes", Integer.toString(s.getHoldDelayMinutes()));
+        sb.append('\n');
+
+        writeCurve(sb, "curve.", s.getCurveConfig());
+        sb.append('\n');
+
+        ArrivalCurveProfiles profiles = s.getCurveProfiles();
+        if (profiles != null) {
+            int n = 1;
+            n = writeProfiles(sb, n, "flight", profiles.getFlightRules());
+            n = writeProfiles(sb, n, "prefix", profiles.getPrefixRules());
+            writeProfiles(sb, n, "airline", profiles.getAirlineRules());
+            sb.append('\n');
+        }
+
+        int i = 1;
+        for (Flight f : s.getFlights()) {
+            line(sb, "flight." + (i++), f.getFlightNumber() + ","
+                    + (f.getDepartureDate() == null ? "" : f.getDepartureDate() + "T")
+                    + f.getDepartureTime().format(HHMM) + ","
+                    + f.getSeats() + ","
+                    + f.getFillPercent() + ","
+                    + (f.getShape() == null ? Flight.ShapeType.CIRCLE : f.getShape()).name());
+        }
+        sb.append('\n');
+
+        ServiceTimes times = s.getServiceTimes();
+        if (times.getCounterDefault() != null) {
+            line(sb, "serviceTimes.counters", serviceTimeText(times.getCounterDefault()));
+        }
+        if (times.getCheckpointDefault() != null) {
+            line(sb, "serviceTimes.checkpoints", serviceTimeText(times.getCheckpointDefault()));
+        }
+
+        i = 1;
+        for (TicketCounterConfig tc : s.getCounters()) {
+            line(sb, "counter." + i + ".rate", Double.toString(tc.getRate()));
+            if (times.getCounterOverrides().containsKey(i - 1)) {
+                line(sb, "counter." + i + ".serviceTimes", serviceTimeText(times.getCounterOverrides().get(i - 1)));
+            }
+            if (!tc.isAllFlights()) {
+                Set<String> nums = new TreeSet<>();       // dated instances share a number
+                for (Flight f : tc.getAllowedFlights()) nums.add(f.getFlightNumber());
+                line(sb, "counter." + i + ".flights", String.join(",", nums));
+            }
+            i++;
+        }
+
+        i = 1;
+        for (CheckpointConfig cp : s.getCheckpoints()) {
+            line(sb, "checkpoint." + i + ".ratePerHour", Double.toString(cp.getRatePerHour()));
+            if (times.getCheckpointOverrides().containsKey(i - 1)) {
+                line(sb, "checkpoint." + i + ".serviceTimes", serviceTimeText(times.getCheckpointOverrides().get(i - 1)));
+            }
+            i++;
+        }
+
+        i = 1;
+        for (HoldRoomConfig h : s.getHoldRooms()) {
+            line(sb, "holdRoom." + i + ".walkSeconds", Integer.toString(h.getWalkSecondsFromCheckpoint()));
+            if (h.getCapacity() > 0) line(sb, "holdRoom." + i + ".capacity", Integer.toString(h.getCapacity()));
+            if (!h.getAllowedFlightNumbers().isEmpty()) {
+                line(sb, "holdRoom." + i + ".flights", String.join(",", new TreeSet<>(h.getAllowedFlightNumbers())));
+            }
+            i++;
+        }
+        return sb.toString();
+    }
+
+    private static String serviceTimeText(ServiceTimeDistribution d) {
+        return d == null ? "deterministic" : d.toString();
+    }
+
+    private static int writeProfiles(StringBuilder sb, int n, String kind, Map<String, ArrivalCurveConfig> rules) {
+        for (Map.Entry<String, ArrivalCurveConfig> e : rules.entrySet()) {
+            line(sb, "profile." + n + ".match", kind + ":" + e.getKey());
+            writeCurve(sb, "profile." + n + ".", e.getValue());
+            n++;
+        }
+        return n;
+    }
+
+    private static void writeCurve(StringBuilder sb, String prefix, ArrivalCurveConfig c) {
+        line(sb, prefix + "legacyMode", Boolean.toString(c.isLegacyMode()));
+        line(sb, prefix + "peakMinutesBeforeDeparture", Integer.toString(c.getPeakMinutesBeforeDeparture()));
+        line(sb, prefix + "leftSigmaMinutes", Integer.toString(c.getLeftSigmaMinutes()));
+        line(sb, prefix + "rightSigmaMinutes", Integer.toString(c.getRightSigmaMinutes()));
+        line(sb, prefix + "lateClampEnabled", Boolean.toString(c.isLateClampEnabled()));
+        line(sb, prefix + "lateClampMinutesBeforeDeparture", Integer.toString(c.getLateClampMinutesBeforeDeparture()));
+        line(sb, prefix + "windowStartMinutesBeforeDeparture", Integer.toString(c.getWindowStartMinutesBeforeDeparture()));
+    }
+
+    // ============================
+    // Helpers
+    // ============================
+
+    private static void line(StringBuilder sb, String key, String value) {
+        sb.append(key).append('=').append(escape(value)).append('\n');
+    }
+
+    private static String escape(String v) {
+        if (v == null) return "";
+        StringBuilder sb = new StringBuilder(v.length());
+        for (char ch : v.toCharArray()) {
+            if (ch == '\\') sb.append('\\');
+            if (ch == '\n') { sb.append("\\n"); continue; }
+            sb.append(ch);
+        }
+        return sb.toString();
+    }
+
+    private static Flight parseFlight(String value, String key) {
+        String[] parts = value.split(",", -1);
+        if (parts.length < 4) {
+            throw new IllegalArgumentException(key + " must be number,HH:mm,seats,fill[,shape]");
+        }
+        String number = parts[0].trim();
+        if (number.isEmpty()) throw new IllegalArgumentException(key + " has an empty flight number");
+
+        LocalTime dep;
+        LocalDate date = null;
+        try {
+            String t = parts[1].trim();
+            int sep = t.indexOf('T');
+            if (sep > 0) {
+                date = LocalDate.parse(t.substring(0, sep));
+                t = t.substring(sep + 1);
+            }
+            dep = LocalTime.parse(t, HHMM);
+        } catch (Exception ex) {
+            throw new IllegalArgumentException(key + " has invalid departure time '" + parts[1].trim() + "'");
+        }
+
+        int seats;
+        double fill;
+        try {
+            seats = Integer.parseInt(parts[2].trim());
+            fill = Double.parseDouble(parts[3].trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(key + " has invalid seats/fill");
+        }
+        if (seats < 0) throw new IllegalArgumentException(key + " seats must be >= 0");
+        if (fill < 0 || fill > 1) throw new IllegalArgumentException(key + " fill must be between 0 and 1");
+
+        Flight.ShapeType shape = Flight.ShapeType.CIRCLE;
+        if (parts.length > 4 && !parts[4].isBlank()) {
+            try {
+                shape = Flight.ShapeType.valueOf(parts[4].trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException(key + " has unknown shape '" + parts[4].trim() + "'");
+            }
+        }
+        Flight f = new Flight(number, dep, seats, fill, shape);
+        f.setDepartureDate(date);
+        return f;
+    }
+
+    private static List<String> splitList(String s) {
+        List<String> out = new ArrayList<>();
+        if (s == null || s.isBlank()) return out;
+        for (String part : s.split(",")) {
+            String t = part.trim();
+            if (!t.isEmpty()) out.add(t);
+        }
+        return out;
+    }
+
+    private static int parseInt(Properties p, String key, int def) {
+        String v = p.getProperty(key);
+        if (v == null || v.isBlank()) return def;
+        try {
+            return Integer.parseInt(v.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(key + " must be an integer, got '" + v.trim() + "'");
+        }
+    }
+
+    private static double parseDouble(Properties p, String key, double def) {
+        String v = p.getProperty(key);
+        if (v == null || v.isBlank()) return def;
+        try {
+            return Double.parseDouble(v.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(key + " must be a number, got '" + v.trim() + "'");
+        }
+    }
+}
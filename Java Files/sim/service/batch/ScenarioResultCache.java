@@ -0,0 +1,286 @@
+package sim.service.batch;
+
+import sim.service.SimulationEngine;
+import sim.service.SimulationRun;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Two-tier result cache keyed by {@link ScenarioIO#canonicalHash(Scenario)}, which includes
+ * {@link SimulationEngine#MODEL_VERSION}; spill files also record it and are dropped on mismatch.
+ *
+ * <ul>
+ *   <li>Memory: LRU of {@link RunSummary} per hash; the newest {@code maxRuns} entries also keep
+ *       their full {@link SimulationRun} (passenger history), so the UI can reopen them instantly.</li>
+ *   <li>Disk: summaries pushed out of memory are written to {@code <dir>/<hash>.run} (written
+ *       through a memory-mapped temp file, then moved into place) and read back with a read-only
+ *       mapping on the next request. The directory keeps the {@code maxDiskEntries} most recently
+ *       used files; older ones are deleted.</li>
+ * </ul>
+ *
+ * Full runs are never written to disk (they hold live engine objects); a disk hit returns the
+ * summary only. Disk errors are treated as misses. All methods are synchronized.
+ */
+public final class ScenarioResultCache {
+
+    private static final int MAGIC = 0x41535243;          // "ASRC"
+    private static final int VERSION = 2;              // file layout
+    private static final String SUFFIX = ".run";
+
+    private final Path dir;
+    private final int maxEntries;
+    private final int maxRuns;
+    private final int maxDiskEntries;
+
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long memoryHits;
+    private long diskHits;
+    private long misses;
+
+    private static ScenarioResultCache shared;
+
+    /**
+     * @param dir            spill directory, or null for memory only
+     * @param maxEntries     summaries kept in memory
+     * @param maxRuns        of those, how many keep their full run
+     * @param maxDiskEntries summary files kept in {@code dir}
+     */
+    public ScenarioResultCache(Path dir, int maxEntries, int maxRuns, int maxDiskEntries) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be >= 1");
+        if (maxRuns < 0 || maxRuns > maxEntries) throw new IllegalArgumentException("maxRuns must be 0..maxEntries");
+        if (maxDiskEntries < 0) throw new IllegalArgumentException("maxDiskEntries must be >= 0");
+        this.dir = dir;
+        this.maxEntries = maxEntries;
+        this.maxRuns = maxRuns;
+        this.maxDiskEntries = maxDiskEntries;
+        if (dir != null) {
+            try {
+                Files.createDirectories(dir);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("cannot create cache dir " + dir + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Process-wide cache used by the UI: directory from {@code -Dsim.cacheDir}
+     * (default {@code <java.io.tmpdir>/airport-sim-cache}), 64 summaries, 2 full runs, 512 on disk.
+     */
+    public static synchronized ScenarioResultCache shared() {
+        if (shared == null) {
+            String d = System.getProperty("sim.cacheDir");
+            Path p = (d == null || d.isBlank())
+                    ? new File(System.getProperty("java.io.tmpdir"), "airport-sim-cache").toPath()
+                    : new File(d.trim()).toPath();
+            ScenarioResultCache c;
+            try {
+                c = new ScenarioResultCache(p, 64, 2, 512);
+            } catch (IllegalArgumentException noDir) {
+                c = new ScenarioResultCache(null, 64, 2, 0);
+            }
+            shared = c;
+        }
+        return shared;
+    }
+
+    // ============================
+    // Lookup / insert
+    // ============================
+
+    /** Full run for {@code hash} if it is still held in memory, else null. */
+    public synchronized SimulationRun getRun(String hash) {
+        Entry e = memory.get(hash);
+        if (e == null || e.run == null) return null;
+        memoryHits++;
+        return e.run;
+    }
+
+    /** Summary for {@code hash} from memory or disk (promoted back to memory), else null. */
+    public synchronized RunSummary getSummary(String hash) {
+        Entry e = memory.get(hash);
+        if (e != null) {
+            memoryHits++;
+            return e.summary;
+        }
+        RunSummary s = readDisk(hash);
+        if (s == null) {
+            misses++;
+            return null;
+        }
+        diskHits++;
+        Entry promoted = new Entry(s, null);
+        promoted.onDisk = true;
+        insert(hash, promoted);
+        return s;
+    }
+
+    /** Stores a finished run; {@code run} may be null when only the summary is worth keeping. */
+    public synchronized void put(String hash, RunSummary summary, SimulationRun run) {
+        if (hash == null || summary == null) throw new IllegalArgumentException("hash and summary are required");
+        insert(hash, new Entry(summary, run));
+    }
+
+    /** Writes every in-memory summary that is not on disk yet (e.g. at shutdown). */
+    public synchronized void flush() {
+        for (Map.Entry<String, Entry> e : memory.entrySet()) spill(e.getKey(), e.getValue());
+        trimDisk();
+    }
+
+    public synchronized int getMemoryEntries() { return memory.size(); }
+    public synchronized long getMemoryHits() { return memoryHits; }
+    public synchronized long getDiskHits() { return diskHits; }
+    public synchronized long getMisses() { return misses; }
+
+    public synchronized int getDiskEntries() {
+        return diskFiles().size();
+    }
+
+    private void insert(String hash, Entry entry) {
+        memory.put(hash, entry);
+
+        // Only the newest maxRuns entries keep their passenger history.
+        int runs = 0;
+        List<Entry> order = new ArrayList<>(memory.values());    // values() keeps the access order intact
+        for (int i = order.size() - 1; i >= 0; i--) {
+            Entry e = order.get(i);
+            if (e.run == null) continue;
+            if (++runs > maxRuns) e.run = null;
+        }
+
+        boolean spilled = false;
+        Iterator<Map.Entry<String, Entry>> it = memory.entrySet().iterator();
+        while (memory.size() > maxEntries && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            spill(eldest.getKey(), eldest.getValue());
+            it.remove();
+            spilled = true;
+        }
+        if (spilled) trimDisk();
+    }
+
+    // ============================
+    // Disk tier
+    // ============================
+
+    private Path fileFor(String hash) {
+        return dir.resolve(hash + SUFFIX);
+    }
+
+    private void spill(String hash, Entry e) {
+        if (dir == null || maxDiskEntries == 0 || e.onDisk) return;
+        Path target = fileFor(hash);
+        if (Files.exists(target)) {
+            e.onDisk = true;
+            return;
+        }
+        Path tmp = dir.resolve(hash + SUFFIX + ".tmp");
+        int size = 4 + 4 + 4 + 4 + e.summary.encodedSize();
+        try {
+            try (RandomAccessFile raf = new RandomAccessFile(tmp.toFile(), "rw");
+                 FileChannel ch = raf.getChannel()) {
+                raf.setLength(size);
+                MappedByteBuffer out = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                out.putInt(MAGIC);
+                out.putInt(VERSION);
+                out.putInt(SimulationEngine.MODEL_VERSION);
+                out.putInt(size);
+                e.summary.writeTo(out);
+                out.force();
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            e.onDisk = true;
+        } catch (IOException | RuntimeException ex) {
+            try { Files.deleteIfExists(tmp); } catch (IOException ignored) { }
+        }
+    }
+
+    private RunSummary readDisk(String hash) {
+        if (dir == null || maxDiskEntries == 0) return null;
+        Path f = fileFor(hash);
+        if (!Files.isRegularFile(f)) return null;
+        try (FileChannel ch = FileChannel.open(f, StandardOpenOption.READ)) {
+            long len = ch.size();
+            if (len < 16 || len > Integer.MAX_VALUE) throw new IOException("bad size");
+            ByteBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, 0, len);
+            if (in.getInt() != MAGIC || in.getInt() != VERSION
+                    || in.getInt() != SimulationEngine.MODEL_VERSION || in.getInt() != len) {
+                throw new IOException("bad header");
+            }
+            RunSummary s = RunSummary.readFrom(in);
+            Files.setLastModifiedTime(f, FileTime.fromMillis(System.currentTimeMillis()));
+            return s;
+        } catch (IOException | RuntimeException corrupt) {
+            try { Files.deleteIfExists(f); } catch (IOException ignored) { }
+            return null;
+        }
+    }
+
+    /** Deletes the least recently used files beyond maxDiskEntries. */
+    private void trimDisk() {
+        if (dir == null) return;
+        List<Path> files = diskFiles();
+        if (files.size() <= maxDiskEntries) return;
+        files.sort(Comparator.comparingLong(ScenarioResultCache::lastModified));
+        for (int i = 0; i < files.size() - maxDiskEntries; i++) {
+            try { Files.deleteIfExists(files.get(i)); } catch (IOException ignored) { }
+        }
+    }
+
+    private List<Path> diskFiles() {
+        List<Path> out = new ArrayList<>();
+        if (dir == null) return out;
+        try (Stream<Path> s = Files.list(dir)) {
+            s.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).forEach(out::add);
+        } catch (IOException ignored) {
+        }
+        return out;
+    }
+
+    private static long lastModified(Path p) {
+        try {
+            return Files.getLastModifiedTime(p).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    // ============================
+    // Entry
+    // ============================
+
+    private static final class Entry {
+        final RunSummary summary;
+        SimulationRun run;
+        boolean onDisk;
+
+        Entry(RunSummary summary, SimulationRun run) {
+            this.summary = summary;
+            this.run = run;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ScenarioResultCache{memory=" + memory.size() + "/" + maxEntries
+                + ", disk=" + (dir == null ? "off" : dir.toString())
+                + ", hits=" + memoryHits + "+" + diskHits + ", misses=" + misses + "}";
+    }
+}
@@ -0,0 +1,339 @@
+package sim.service.batch;
+
+import sim.model.Flight;
+import sim.service.MinuteArrivals;
+import sim.service.SimulationEngine;
+import sim.service.WaitTimeStats;
+import sim.service.arrivals.StochasticArrivalGenerator;
+import sim.ui.CheckpointConfig;
+import sim.ui.HoldRoomConfig;
+import sim.ui.TicketCounterConfig;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One-at-a-time sensitivity of the key outputs to each input, with common random numbers.
+ *
+ * Every parameter is nudged up by a relative step (integer minutes by at least one) and the day
+ * rerun; the change in each output is paired with the unperturbed run of the same replication.
+ * With stochastic arrivals, replication r draws its seed from {@link ReplicationRunner#streamFor}
+ * and the base and every perturbed run use that seed, so all of them see the same passengers at
+ * the same minutes (arrivals are sampled per flight, see {@link StochasticArrivalGenerator}) and
+ * the paired differences carry only the effect of the parameter. Stochastic service times are
+ * paired the same way: the engine seeds each lane's sample pool from that seed by (stage, lane),
+ * so a lane draws the same normalised service times in every run of the replication and a rate
+ * change only rescales them. With neither, the day is deterministic and one replication is enough.
+ *
+ * None of the perturbed inputs changes arrivals, so each replication samples its arrivals once and
+ * hands the same {@link MinuteArrivals} to all of its runs: the cost is one run per parameter plus
+ * the base, all submitted at once to a fixed pool. (Every input acts from the first minute, so
+ * there is no unperturbed prefix to fork from an engine snapshot.)
+ *
+ * The engine splits in-person / online per flight-minute with rounding, so on a deterministic day
+ * a small percent-in-person step can leave every count unchanged; use a larger step there.
+ */
+public class SensitivityAnalyzer {
+
+    /** Inputs that can be perturbed. */
+    public enum Parameter {
+        PERCENT_IN_PERSON("percentInPerson"),
+        TRANSIT_DELAY("transitDelayMinutes"),
+        COUNTER_RATE("counterRate"),
+        CHECKPOINT_RATE("checkpointRate"),
+        WALK_TIME("walkTime");
+
+        private final String label;
+
+        Parameter(String label) { this.label = label; }
+
+        public String getLabel() { return label; }
+    }
+
+    /** Outputs elasticities are reported for. */
+    public enum Output {
+        MISSED("missed"),
+        PEAK_TICKET_QUEUE("peakTicketQueue"),
+        PEAK_CHECKPOINT_QUEUE("peakCheckpointQueue"),
+        PEAK_HOLD_ROOMS("peakHoldRooms"),
+        P95_TOTAL_WAIT("p95WaitMin"),
+        MEAN_TOTAL_WAIT("meanWaitMin");
+
+        private final String label;
+
+        Output(String label) { this.label = label; }
+
+        public String getLabel() { return label; }
+
+        double of(RunSummary s) {
+            switch (this) {
+                case MISSED: return s.getTotalMissed();
+                case PEAK_TICKET_QUEUE: return s.getPeakTicketQueued();
+                case PEAK_CHECKPOINT_QUEUE: return s.getPeakCheckpointQueued();
+                case PEAK_HOLD_ROOMS: return s.getPeakHoldRoomTotal();
+                case P95_TOTAL_WAIT: return s.getWaits(WaitTimeStats.Stage.TOTAL).getP95();
+                case MEAN_TOTAL_WAIT: return s.getWaits(WaitTimeStats.Stage.TOTAL).getMean();
+                default: throw new IllegalStateException(name());
+            }
+        }
+    }
+
+    private final Scenario base;
+    private double relativeStep = 0.10;
+    private Set<Parameter> parameters = EnumSet.allOf(Parameter.class);
+    private boolean stochasticArrivals;
+    private int replications = 1;
+    private long masterSeed = 42L;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    public SensitivityAnalyzer(Scenario base) {
+        if (base == null) throw new IllegalArgumentException("base scenario is null");
+        this.base = base;
+    }
+
+    public double getRelativeStep() { return relativeStep; }
+    public void setRelativeStep(double relativeStep) {
+        if (!(relativeStep > 0 && relativeStep <= 1)) throw new IllegalArgumentException("step must be in (0, 1]");
+        this.relativeStep = relativeStep;
+    }
+
+    public Set<Parameter> getParameters() { return EnumSet.copyOf(parameters); }
+    public void setParameters(Set<Parameter> parameters) {
+        if (parameters == null || parameters.isEmpty()) throw new IllegalArgumentException("at least one parameter required");
+        this.parameters = EnumSet.copyOf(parameters);
+    }
+
+    public boolean isStochasticArrivals() { return stochasticArrivals; }
+    public void setStochasticArrivals(boolean stochasticArrivals) { this.stochasticArrivals = stochasticArrivals; }
+
+    public int getReplications() { return replications; }
+    public void setReplications(int replications) {
+        if (replications < 1) throw new IllegalArgumentException("replications must be >= 1");
+        this.replications = replications;
+    }
+
+    public long getMasterSeed() { return masterSeed; }
+    public void setMasterSeed(long masterSeed) { this.masterSeed = masterSeed; }
+
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = Math.max(1, threads); }
+
+    // ============================
+    // Perturbations
+    // ============================
+
+    /** The parameter's value in {@code s} (mean over counters / lanes / rooms for the per-item ones). */
+    static double valueOf(Parameter p, Scenario s) {
+        switch (p) {
+            case PERCENT_IN_PERSON: return s.getPercentInPerson();
+            case TRANSIT_DELAY: return s.getTransitDelayMinutes();
+            case COUNTER_RATE: return s.getCounters().stream().mapToDouble(TicketCounterConfig::getRate).average().orElse(0);
+            case CHECKPOINT_RATE: return s.getCheckpoints().stream().mapToDouble(CheckpointConfig::getRatePerHour).average().orElse(0);
+            case WALK_TIME: return s.getHoldRooms().stream().mapToInt(HoldRoomConfig::getWalkSecondsFromCheckpoint).average().orElse(0);
+            default: throw new IllegalStateException(p.name());
+        }
+    }
+
+    /** {@code base} with {@code p} nudged up by {@code step} (relative; at least one unit for integers). */
+    Scenario perturbed(Parameter p, double step) {
+        double pip = base.getPercentInPerson();
+        int transit = base.getTransitDelayMinutes();
+        List<TicketCounterConfig> counters = base.getCounters();
+        List<CheckpointConfig> checkpoints = base.getCheckpoints();
+        List<HoldRoomConfig> rooms = base.getHoldRooms();
+
+        switch (p) {
+            case PERCENT_IN_PERSON:
+                pip = Math.min(1.0, pip > 0 ? pip * (1 + step) : step);
+                break;
+            case TRANSIT_DELAY:
+                transit += Math.max(1, (int) Math.round(transit * step));
+                break;
+            case COUNTER_RATE:
+                counters = new ArrayList<>(counters.size());
+                for (TicketCounterConfig t : base.getCounters()) {
+                    counters.add(new TicketCounterConfig(t.getId(), t.getRate() * (1 + step),
+                            new HashSet<Flight>(t.getAllowedFlights())));
+                }
+                break;
+            case CHECKPOINT_RATE:
+                checkpoints = new ArrayList<>(checkpoints.size());
+                for (CheckpointConfig src : base.getCheckpoints()) {
+                    CheckpointConfig c = new CheckpointConfig(src.getId());
+                    c.setRatePerHour(src.getRatePerHour() * (1 + step));
+                    checkpoints.add(c);
+                }
+                break;
+            case WALK_TIME:
+                rooms = new ArrayList<>(rooms.size());
+                for (HoldRoomConfig src : base.getHoldRooms()) {
+                    int secs = src.getWalkSecondsFromCheckpoint();
+                    HoldRoomConfig r = new HoldRoomConfig(src.getId(), secs + Math.max(1, (int) Math.round(secs * step)));
+                    r.setAllowedFlightNumbers(src.getAllowedFlightNumbers());
+                    r.setCapacity(src.getCapacity());
+                    rooms.add(r);
+                }
+                break;
+            default:
+                throw new IllegalStateException(p.name());
+        }
+
+        return new Scenario(base.getName() + "+" + p.getLabel(), pip,
+                base.getArrivalSpanMinutes(), base.getIntervalMinutes(), transit, base.getHoldDelayMinutes(),
+                base.getFlights(), counters, checkpoints, rooms, base.getCurveConfig(), base.getCurveProfiles(),
+                base.getServiceTimes());
+    }
+
+    // ============================
+    // Run
+    // ============================
+
+    public SensitivityResult run() {
+        List<Parameter> params = new ArrayList<>(parameters);
+        int reps = (stochasticArrivals || !base.getServiceTimes().isDeterministic()) ? replications : 1;
+
+        List<Scenario> scenarios = new ArrayList<>(params.size() + 1);
+        scenarios.add(base);
+        double[] relChange = new double[params.size()];
+        for (int k = 0; k < params.size(); k++) {
+            Scenario s = perturbed(params.get(k), relativeStep);
+            scenarios.add(s);
+            double x0 = valueOf(params.get(k), base);
+            relChange[k] = x0 == 0 ? Double.NaN : (valueOf(params.get(k), s) - x0) / x0;
+        }
+
+        // seeds fixed up front, in replication order, like ReplicationRunner
+        long[] seeds = new long[reps];
+        for (int r = 0; r < reps; r++) seeds[r] = ReplicationRunner.streamFor(masterSeed, r).nextLong();
+
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, reps * scenarios.size()), r -> {
+            Thread t = new Thread(r, "sensitivity-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        long t0 = System.nanoTime();
+        try {
+            List<List<CompletableFuture<RunSummary>>> futures = new ArrayList<>(reps);
+            for (int r = 0; r < reps; r++) {
+                long seed = seeds[r];
+                CompletableFuture<MinuteArrivals> arrivals = CompletableFuture.supplyAsync(() -> arrivalsFor(seed), pool);
+                List<CompletableFuture<RunSummary>> row = new ArrayList<>(scenarios.size());
+                for (Scenario s : scenarios) {
+                    row.add(arrivals.thenApplyAsync(shared -> runOne(s, shared, seed), pool));
+                }
+                futures.add(row);
+            }
+
+            RunSummary[][] runs = new RunSummary[reps][scenarios.size()];
+            for (int r = 0; r < reps; r++) {
+                for (int k = 0; k < scenarios.size(); k++) runs[r][k] = futures.get(r).get(k).join();
+            }
+            long ms = (System.nanoTime() - t0) / 1_000_000L;
+            return new SensitivityResult(base.getName(), relativeStep, params, relChange, runs, ms);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Arrivals of one replication, shared by its base and perturbed runs. */
+    private MinuteArrivals arrivalsFor(long seed) {
+        SimulationEngine engine = base.createEngine();
+        if (stochasticArrivals) engine.setArrivalCurveGenerator(new StochasticArrivalGenerator(seed));
+        return engine.getMinuteArrivals();
+    }
+
+    private RunSummary runOne(Scenario s, MinuteArrivals shared, long seed) {
+        long t0 = System.nanoTime();
+        SimulationEngine engine = s.createEngine(shared);
+        // per-flight curve profiles don't take shared arrivals; the same seed redraws the same passengers
+        if (stochasticArrivals && s.getCurveProfiles() != null && !s.getCurveProfiles().isEmpty()) {
+            engine.setArrivalCurveGenerator(new StochasticArrivalGenerator(seed));
+        }
+        engine.setRandomStream(new SplittableRandom(seed));
+        engine.runAllIntervals();
+        long ms = (System.nanoTime() - t0) / 1_000_000L;
+        return RunSummary.fromEngine(s.getName(), engine, ms);
+    }
+
+    // ============================
+    // CLI
+    // ============================
+
+    /**
+     * <pre>
+     * SensitivityAnalyzer scenario.properties [--step 0.1] [--params percentInPerson,walkTime]
+     *                     [--stochastic] [--reps N] [--seed S] [--threads N] [--out sensitivity.tsv]
+     * </pre>
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        File scenarioFile = null;
+        File out = new File("sensitivity.tsv");
+        double step = 0.10;
+        String params = null;
+        boolean stochastic = false;
+        int reps = 10;
+        long seed = 42L;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            if ("--step".equals(a) && i + 1 < args.length) step = Double.parseDouble(args[++i].trim());
+            else if ("--params".equals(a) && i + 1 < args.length) params = args[++i];
+            else if ("--stochastic".equals(a)) stochastic = true;
+            else if ("--reps".equals(a) && i + 1 < args.length) reps = Integer.parseInt(args[++i].trim());
+            else if ("--seed".equals(a) && i + 1 < args.length) seed = Long.parseLong(args[++i].trim());
+            else if ("--threads".equals(a) && i + 1 < args.length) threads = Integer.parseInt(args[++i].trim());
+            else if ("--out".equals(a) && i + 1 < args.length) out = new File(args[++i]);
+            else scenarioFile = new File(a);
+        }
+
+        if (scenarioFile == null) {
+            System.out.println("Usage: SensitivityAnalyzer scenario.properties [--step 0.1] [--params a,b]"
+                    + " [--stochastic] [--reps N] [--seed S] [--threads N] [--out sensitivity.tsv]");
+            System.exit(2);
+            return;
+        }
+
+        SensitivityAnalyzer analyzer = new SensitivityAnalyzer(ScenarioIO.load(scenarioFile));
+        analyzer.setRelativeStep(step);
+        if (params != null) analyzer.setParameters(parseParameters(params));
+        analyzer.setStochasticArrivals(stochastic);
+        analyzer.setReplications(reps);
+        analyzer.setMasterSeed(seed);
+        analyzer.setThreads(threads);
+
+        SensitivityResult result = analyzer.run();
+        result.writeTsv(out);
+        System.out.print(result);
+        System.out.println(String.format(Locale.ROOT, "%d run(s) in %d ms. Output: %s",
+                result.getRunCount(), result.getElapsedMillis(), out.getAbsolutePath()));
+    }
+
+    private static Set<Parameter> parseParameters(String csv) {
+        Set<Parameter> out = EnumSet.noneOf(Parameter.class);
+        for (String part : csv.split(",")) {
+            String name = part.trim();
+            Parameter match = null;
+            for (Parameter p : Parameter.values()) {
+                if (p.getLabel().equalsIgnoreCase(name) || p.name().equalsIgnoreCase(name)) match = p;
+            }
+            if (match == null) throw new IllegalArgumentException("unknown parameter: " + name);
+            out.add(match);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,162 @@
+package sim.service.batch;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Result of a {@link SensitivityAnalyzer} run: for every perturbed parameter and output, the
+ * paired change against the base run (mean and 95% CI over replications) and the elasticity
+ * (relative change of the output per relative change of the input).
+ *
+ * Elasticity is NaN when the base output or the base input is 0 (no relative change to speak
+ * of); the absolute change is still reported.
+ */
+public class SensitivityResult {
+
+    private final String scenarioName;
+    private final double relativeStep;
+    private final List<SensitivityAnalyzer.Parameter> parameters;
+    private final double[] inputChange;            // actual relative input change per parameter
+    private final RunSummary[][] runs;             // [replication][0 = base, 1.. = parameters]
+    private final long elapsedMillis;
+
+    SensitivityResult(String scenarioName, double relativeStep, List<SensitivityAnalyzer.Parameter> parameters,
+                      double[] inputChange, RunSummary[][] runs, long elapsedMillis) {
+        this.scenarioName = scenarioName;
+        this.relativeStep = relativeStep;
+        this.parameters = Collections.unmodifiableList(new ArrayList<>(parameters));
+        this.inputChange = inputChange;
+        this.runs = runs;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getScenarioName() { return scenarioName; }
+    public double getRelativeStep() { return relativeStep; }
+    public List<SensitivityAnalyzer.Parameter> getParameters() { return parameters; }
+    public int getReplicationCount() { return runs.length; }
+    public int getRunCount() { return runs.length * (parameters.size() + 1); }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    /** Relative change actually applied to the parameter (integer inputs step by whole units). */
+    public double getInputChange(SensitivityAnalyzer.Parameter p) {
+        return inputChange[indexOf(p)];
+    }
+
+    /** Output of the unperturbed runs. */
+    public ReplicationResult.Stat getBase(SensitivityAnalyzer.Output out) {
+        return stat(out, -1);
+    }
+
+    /** Perturbed minus base, paired per replication. */
+    public ReplicationResult.Stat getDelta(SensitivityAnalyzer.Parameter p, SensitivityAnalyzer.Output out) {
+        return stat(out, indexOf(p));
+    }
+
+    /** (mean delta / mean base) / relative input change. */
+    public double getElasticity(SensitivityAnalyzer.Parameter p, SensitivityAnalyzer.Output out) {
+        return elasticity(getDelta(p, out).getMean(), p, out);
+    }
+
+    /** 95% half-width of {@link #getElasticity} (from the paired deltas). */
+    public double getElasticityHalfWidth95(SensitivityAnalyzer.Parameter p, SensitivityAnalyzer.Output out) {
+        return Math.abs(elasticity(getDelta(p, out).getHalfWidth95(), p, out));
+    }
+
+    /** Parameters ordered by |elasticity| on {@code out}, largest first (NaN last). */
+    public List<SensitivityAnalyzer.Parameter> rank(SensitivityAnalyzer.Output out) {
+        List<SensitivityAnalyzer.Parameter> order = new ArrayList<>(parameters);
+        order.sort((a, b) -> {
+            double ea = Math.abs(getElasticity(a, out)), eb = Math.abs(getElasticity(b, out));
+            if (Double.isNaN(ea)) ea = -1;
+            if (Double.isNaN(eb)) eb = -1;
+            return Double.compare(eb, ea);
+        });
+        return order;
+    }
+
+    private double elasticity(double delta, SensitivityAnalyzer.Parameter p, SensitivityAnalyzer.Output out) {
+        double y0 = getBase(out).getMean();
+        double dx = getInputChange(p);
+        if (y0 == 0 || Double.isNaN(dx) || dx == 0) return Double.NaN;
+        return (delta / y0) / dx;
+    }
+
+    private int indexOf(SensitivityAnalyzer.Parameter p) {
+        int i = parameters.indexOf(p);
+        if (i < 0) throw new IllegalArgumentException("parameter not analysed: " + p);
+        return i;
+    }
+
+    /** {@code param} = -1 for the base values, else the paired differences for that parameter. */
+    private ReplicationResult.Stat stat(SensitivityAnalyzer.Output out, int param) {
+        int n = runs.length;
+        double mean = 0.0, m2 = 0.0;
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        for (int r = 0; r < n; r++) {
+            double y0 = out.of(runs[r][0]);
+            double x = (param < 0) ? y0 : out.of(runs[r][param + 1]) - y0;
+            double d = x - mean;
+            mean += d / (r + 1);
+            m2 += d * (x - mean);
+            if (x < min) min = x;
+            if (x > max) max = x;
+        }
+        double sd = (n > 1) ? Math.sqrt(m2 / (n - 1)) : 0.0;
+        return new ReplicationResult.Stat(n, mean, sd, min, max);
+    }
+
+    // ============================
+    // Output
+    // ============================
+
+    /** One row per (parameter, output). */
+    public void writeTsv(File file) throws IOException {
+        if (file == null) throw new IllegalArgumentException("file is null");
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) parent.mkdirs();
+
+        try (PrintWriter w = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8)))) {
+            w.println("parameter\tinputChange\toutput\tbaseMean\tdeltaMean\tdeltaCi95Low\tdeltaCi95High"
+                    + "\telasticity\telasticityHalfWidth95\treplications");
+            for (SensitivityAnalyzer.Parameter p : parameters) {
+                for (SensitivityAnalyzer.Output out : SensitivityAnalyzer.Output.values()) {
+                    ReplicationResult.Stat d = getDelta(p, out);
+                    w.println(p.getLabel() + '\t' + fmt(getInputChange(p)) + '\t' + out.getLabel()
+                            + '\t' + fmt(getBase(out).getMean())
+                            + '\t' + fmt(d.getMean()) + '\t' + fmt(d.getLower95()) + '\t' + fmt(d.getUpper95())
+                            + '\t' + fmt(getElasticity(p, out)) + '\t' + fmt(getElasticityHalfWidth95(p, out))
+                            + '\t' + runs.length);
+                }
+            }
+        }
+    }
+
+    /** Elasticity table, outputs as rows, parameters as columns. */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-20s", "elasticity"));
+        for (SensitivityAnalyzer.Parameter p : parameters) sb.append(String.format(Locale.ROOT, "%20s", p.getLabel()));
+        sb.append('\n');
+        for (SensitivityAnalyzer.Output out : SensitivityAnalyzer.Output.values()) {
+            sb.append(String.format(Locale.ROOT, "%-20s", out.getLabel()));
+            for (SensitivityAnalyzer.Parameter p : parameters) {
+                double e = getElasticity(p, out);
+                sb.append(Double.isNaN(e)
+                        ? String.format(Locale.ROOT, "%20s", "-")
+                        : String.format(Locale.ROOT, "%20.3f", e));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String fmt(double v) {
+        return Double.isNaN(v) ? "NaN" : String.format(Locale.ROOT, "%.4f", v);
+    }
+}
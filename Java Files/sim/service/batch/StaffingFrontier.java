@@ -0,0 +1,75 @@
+package sim.service.batch;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Result of a {@link StaffingOptimizer} run: the Pareto frontier of feasible plans (no plan on
+ * it can drop a counter or a lane and still meet the SLA) plus every candidate that was run.
+ */
+public final class StaffingFrontier {
+    private final List<StaffingPlan> frontier;
+    private final List<StaffingPlan> evaluated;
+    private final long elapsedMillis;
+
+    StaffingFrontier(List<StaffingPlan> frontier, List<StaffingPlan> evaluated, long elapsedMillis) {
+        this.frontier = Collections.unmodifiableList(new ArrayList<>(frontier));
+        List<StaffingPlan> all = new ArrayList<>(evaluated);
+        all.sort(ORDER);
+        this.evaluated = Collections.unmodifiableList(all);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /** Rates first, then counters ascending (lanes descending along each staircase). */
+    static final Comparator<StaffingPlan> ORDER = Comparator
+            .comparingDouble(StaffingPlan::getCounterRatePerMinute)
+            .thenComparingDouble(StaffingPlan::getCheckpointRatePerHour)
+            .thenComparingInt(StaffingPlan::getCounters)
+            .thenComparingInt(StaffingPlan::getCheckpoints);
+
+    public List<StaffingPlan> getFrontier() { return frontier; }
+    public List<StaffingPlan> getEvaluated() { return evaluated; }
+    public int getEvaluationCount() { return evaluated.size(); }
+
+    /** Candidates that needed a full run (the rest were rejected by fluid screening). */
+    public int getSimulatedCount() {
+        int n = 0;
+        for (StaffingPlan p : evaluated) if (p.isSimulated()) n++;
+        return n;
+    }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public boolean isEmpty() { return frontier.isEmpty(); }
+
+    /** Frontier plan with the lowest {@link StaffingPlan#cost}, or null when nothing met the SLA. */
+    public StaffingPlan cheapest(double counterCost, double checkpointCost) {
+        StaffingPlan best = null;
+        for (StaffingPlan p : frontier) {
+            if (best == null || p.cost(counterCost, checkpointCost) < best.cost(counterCost, checkpointCost)) best = p;
+        }
+        return best;
+    }
+
+    public void writeTsv(File file) throws IOException {
+        write(file, frontier);
+    }
+
+    public void writeEvaluatedTsv(File file) throws IOException {
+        write(file, evaluated);
+    }
+
+    private static void write(File file, List<StaffingPlan> plans) throws IOException {
+        if (file == null) throw new IllegalArgumentException("file is null");
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) parent.mkdirs();
+
+        try (PrintWriter w = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8)))) {
+            w.println(StaffingPlan.tsvHeader());
+            for (StaffingPlan p : plans) w.println(p.toTsvRow());
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package sim.service.batch;
+
+import sim.model.Flight;
+import sim.model.Passenger;
+import sim.service.MinuteArrivals;
+import sim.service.SimulationEngine;
+import sim.ui.CheckpointConfig;
+import sim.ui.TicketCounterConfig;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+
+/**
+ * Fewest ticket counters and checkpoint lanes that keep the 95th-percentile wait under a limit
+ * with (at most) a given number of missed passengers.
+ *
+ * The search leans on monotonicity: adding a counter or a lane never makes the day worse, so
+ * the feasible plans form a staircase. For each rate option one bisection per resource bounds
+ * it (fewest counters with every lane open, fewest lanes with every counter open), then a
+ * coordinate walk follows it: counters go up one by one, and for each count the fewest lanes
+ * are found by bisection between the lower bound and the previous step's lanes (which are
+ * known to suffice). Only counts that save a lane make it onto the frontier.
+ *
+ * Each bisection round probes up to {@code parallelism} lane counts at once, and the rate
+ * options run side by side, all on one ForkJoinPool. None of the staffing knobs affects
+ * per-minute arrivals, so they are built once and shared by every candidate (as in
+ * {@link ParameterSweep}), and a candidate is never run twice.
+ *
+ * With {@link #setScreening(boolean)} (off by default) each candidate is first run through a
+ * {@link FluidQueueEstimator}. The fluid model is not a proven bound (its missed count runs a few
+ * percent either side of a full run, and its p95 can overshoot by tens of minutes when flights
+ * are missed), so only candidates it puts clearly past the SLA are rejected without a full run:
+ * more than {@code 1.1 x maxMissed} plus 1% of the day's passengers (at least 25) missed, or a
+ * p95 above {@code 1.5 x limit + 10} minutes. Everything closer is simulated.
+ *
+ * Every plan on the frontier was simulated and met the SLA; only its minimality relies on
+ * monotonicity, which queue-joining ties can occasionally bend by a minute.
+ */
+public class StaffingOptimizer {
+
+    private final Scenario base;
+    private final double maxP95WaitMinutes;
+    private int maxMissed = 0;
+
+    private int minCounters = 1;
+    private int maxCounters;
+    private int minCheckpoints = 1;
+    private int maxCheckpoints;
+
+    private double[] counterRatesPerMinute = { Double.NaN };     // NaN = keep base rates
+    private double[] checkpointRatesPerHour = { Double.NaN };
+
+    // fluid screen margins (see class comment)
+    static final double SCREEN_MISSED_FACTOR = 1.1;
+    static final double SCREEN_MISSED_SHARE = 0.01;
+    static final int SCREEN_MISSED_SLACK = 25;
+    static final double SCREEN_WAIT_FACTOR = 1.5;
+    static final int SCREEN_WAIT_SLACK_MINUTES = 10;
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private boolean screening;
+
+    private final Map<String, StaffingPlan> evaluated = new ConcurrentHashMap<>();
+    private volatile FluidQueueEstimator screen;     // set per run when screening
+
+    public StaffingOptimizer(Scenario base, double maxP95WaitMinutes) {
+        if (base == null) throw new IllegalArgumentException("base scenario is null");
+        if (!(maxP95WaitMinutes >= 0)) throw new IllegalArgumentException("wait limit must be >= 0");
+        this.base = base;
+        this.maxP95WaitMinutes = maxP95WaitMinutes;
+        this.maxCounters = Math.max(8, 2 * base.getCounters().size());
+        this.maxCheckpoints = Math.max(8, 2 * base.getCheckpoints().size());
+    }
+
+    // ============================
+    // Search space
+    // ============================
+
+    public StaffingOptimizer setMaxMissed(int maxMissed) {
+        if (maxMissed < 0) throw new IllegalArgumentException("max missed must be >= 0");
+        this.maxMissed = maxMissed;
+        return this;
+    }
+
+    public StaffingOptimizer setCounterRange(int min, int max) {
+        if (min < 1 || max < min) throw new IllegalArgumentException("counter range must satisfy 1 <= min <= max");
+        this.minCounters = min;
+        this.maxCounters = max;
+        return this;
+    }
+
+    public StaffingOptimizer setCheckpointRange(int min, int max) {
+        if (min < 1 || max < min) throw new IllegalArgumentException("checkpoint range must satisfy 1 <= min <= max");
+        this.minCheckpoints = min;
+        this.maxCheckpoints = max;
+        return this;
+    }
+
+    /** Counter service rates (passengers/minute) to try; each gets its own staircase. */
+    public StaffingOptimizer setCounterRatesPerMinute(double... values) {
+        for (double v : requireValues(values)) {
+            if (!(v > 0)) throw new IllegalArgumentException("counter rate must be > 0");
+        }
+        this.counterRatesPerMinute = values.clone();
+        return this;
+    }
+
+    /** Checkpoint lane rates (passengers/hour) to try; each gets its own staircase. */
+    public StaffingOptimizer setCheckpointRatesPerHour(double... values) {
+        for (double v : requireValues(values)) {
+            if (!(v > 0)) throw new IllegalArgumentException("checkpoint rate must be > 0");
+        }
+        this.checkpointRatesPerHour = values.clone();
+        return this;
+    }
+
+    public boolean isScreening() { return screening; }
+    public void setScreening(boolean screening) { this.screening = screening; }
+
+    public int getParallelism() { return parallelism; }
+    public void setParallelism(int parallelism) { this.parallelism = Math.max(1, parallelism); }
+
+    public double getMaxP95WaitMinutes() { return maxP95WaitMinutes; }
+    public int getMaxMissed() { return maxMissed; }
+
+    // ============================
+    // Run
+    // ============================
+
+    public StaffingFrontier run() {
+        long t0 = System.nanoTime();
+        evaluated.clear();
+
+        // Arrivals only depend on flights, effective span and curve: build once, share everywhere.
+        MinuteArrivals shared = base.createEngine().getMinuteArrivals();
+        screen = screening ? new FluidQueueEstimator(base.createEngine(shared)) : null;
+
+        List<ForkJoinTask<List<StaffingPlan>>> walks = new ArrayList<>();
+        for (double cr : counterRatesPerMinute) {
+            for (double kr : checkpointRatesPerHour) {
+                walks.add(ForkJoinTask.adapt(() -> staircase(cr, kr, shared)));
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(walks)));
+        } finally {
+            pool.shutdown();
+        }
+
+        List<StaffingPlan> frontier = new ArrayList<>();
+        for (ForkJoinTask<List<StaffingPlan>> w : walks) frontier.addAll(w.join());
+        frontier.sort(StaffingFrontier.ORDER);
+
+        long ms = (System.nanoTime() - t0) / 1_000_000L;
+        return new StaffingFrontier(frontier, new ArrayList<>(evaluated.values()), ms);
+    }
+
+    /**
+     * Pareto staircase for one rate option, counters ascending. Two bisections bound the box
+     * first: the fewest counters that work with every lane open, and the fewest lanes that work
+     * with every counter open. The walk then starts at the first and stops at the second.
+     */
+    private List<StaffingPlan> staircase(double counterRate, double checkpointRate, MinuteArrivals shared) {
+        List<StaffingPlan> out = new ArrayList<>();
+
+        StaffingPlan corner = evaluate(maxCounters, counterRate, maxCheckpoints, checkpointRate, shared);
+        if (!corner.isFeasible()) return out;      // nothing in range meets the SLA
+
+        StaffingPlan fewestCounters = smallestFeasible(minCounters, maxCounters - 1,
+                c -> evaluate(c, counterRate, maxCheckpoints, checkpointRate, shared));
+        StaffingPlan fewestLanes = smallestFeasible(minCheckpoints, maxCheckpoints - 1,
+                k -> evaluate(maxCounters, counterRate, k, checkpointRate, shared));
+        int cLo = fewestCounters == null ? maxCounters : fewestCounters.getCounters();
+        int kLo = fewestLanes == null ? maxCheckpoints : fewestLanes.getCheckpoints();
+
+        int upper = maxCheckpoints;     // lanes known to suffice for the current counter count
+        for (int c = cLo; c <= maxCounters && upper > kLo; c++) {
+            int counters = c;
+            StaffingPlan best = smallestFeasible(kLo, upper - 1,
+                    k -> evaluate(counters, counterRate, k, checkpointRate, shared));
+            if (best == null) {
+                // no lane saved; the first column still belongs on the frontier with every lane open
+                if (c == cLo) out.add(evaluate(c, counterRate, upper, checkpointRate, shared));
+                continue;
+            }
+            out.add(best);
+            upper = best.getCheckpoints();
+        }
+        if (out.isEmpty()) out.add(corner);
+        return out;
+    }
+
+    /**
+     * Feasible plan with the smallest value in [lo, hi] along one resource, or null. Each round
+     * probes up to {@code parallelism} values in parallel and keeps the gap between the last
+     * infeasible and the first feasible probe.
+     */
+    private StaffingPlan smallestFeasible(int lo, int hi, IntFunction<StaffingPlan> candidate) {
+        StaffingPlan best = null;
+        while (lo <= hi) {
+            TreeSet<Integer> probes = new TreeSet<>();
+            int width = hi - lo + 1;
+            if (width <= parallelism) {
+                for (int v = lo; v <= hi; v++) probes.add(v);
+            } else {
+                for (int j = 1; j <= parallelism; j++) probes.add(lo + (int) ((long) j * width / (parallelism + 1)));
+            }
+
+            List<Integer> values = new ArrayList<>(probes);
+            List<ForkJoinTask<StaffingPlan>> tasks = new ArrayList<>(values.size());
+            for (int v : values) tasks.add(ForkJoinTask.adapt(() -> candidate.apply(v)));
+            ForkJoinTask.invokeAll(tasks);
+
+            int lastInfeasible = lo - 1;
+            int firstFeasible = -1;
+            for (int i = 0; i < tasks.size(); i++) {
+                StaffingPlan p = tasks.get(i).join();
+                if (p.isFeasible()) {
+                    best = p;
+                    firstFeasible = values.get(i);
+                    break;
+                }
+                lastInfeasible = values.get(i);
+            }
+
+            lo = lastInfeasible + 1;
+            if (firstFeasible >= 0) hi = firstFeasible - 1;
+        }
+        return best;
+    }
+
+    // ============================
+    // Candidates
+    // ============================
+
+    /** Runs one candidate, or returns it from the memo when another walk already did. */
+    StaffingPlan evaluate(int counters, double counterRate, int checkpoints, double checkpointRate,
+                          MinuteArrivals shared) {
+        String key = counters + "|" + counterRate + "|" + checkpoints + "|" + checkpointRate;
+        StaffingPlan known = evaluated.get(key);
+        if (known != null) return known;
+
+        Scenario s = scenarioFor(counters, counterRate, checkpoints, checkpointRate);
+
+        FluidQueueEstimator fluid = screen;
+        if (fluid != null) {
+            long t0 = System.nanoTime();
+            FluidQueueEstimator.Estimate est = fluid.estimate(s.getCounters(), s.getCheckpoints());
+            if (clearlyInfeasible(est)) {
+                long ms = (System.nanoTime() - t0) / 1_000_000L;
+                StaffingPlan plan = new StaffingPlan(counters, counterRate, checkpoints, checkpointRate,
+                        (int) Math.round(est.getPassengers() - est.getMissed()), (int) Math.round(est.getMissed()),
+                        est.getP95WaitMinutes(), est.waitQuantileMinutes(1.0), false, false, ms);
+                StaffingPlan raced = evaluated.putIfAbsent(key, plan);
+                return raced != null ? raced : plan;
+            }
+        }
+
+        long t0 = System.nanoTime();
+        SimulationEngine engine = s.createEngine(shared);
+        engine.runAllIntervals();
+        int[] waits = boardedWaitHistogram(engine);
+        int missed = RunSummary.fromEngine(s.getName(), engine, 0).getTotalMissed();
+        long ms = (System.nanoTime() - t0) / 1_000_000L;
+
+        int boarded = 0;
+        for (int v : waits) boarded += v;
+        int p95 = percentile(waits, boarded, 0.95) * s.getIntervalMinutes();
+        int max = percentile(waits, boarded, 1.0) * s.getIntervalMinutes();
+        boolean feasible = missed <= maxMissed && p95 <= maxP95WaitMinutes;
+
+        StaffingPlan plan = new StaffingPlan(counters, counterRate, checkpoints, checkpointRate,
+                boarded, missed, p95, max, feasible, true, ms);
+        StaffingPlan raced = evaluated.putIfAbsent(key, plan);
+        return raced != null ? raced : plan;
+    }
+
+    /** True when the fluid estimate is far enough past the SLA that a full run cannot rescue it. */
+    boolean clearlyInfeasible(FluidQueueEstimator.Estimate est) {
+        double missedSlack = Math.max(SCREEN_MISSED_SLACK, SCREEN_MISSED_SHARE * est.getPassengers());
+        if (est.getMissed() > SCREEN_MISSED_FACTOR * maxMissed + missedSlack) return true;
+        return est.getP95WaitMinutes() > SCREEN_WAIT_FACTOR * maxP95WaitMinutes + SCREEN_WAIT_SLACK_MINUTES;
+    }
+
+    /**
+     * Base scenario with {@code counters} counters and {@code checkpoints} lanes. Counters beyond
+     * the base list copy the last base counter's rate and flights; lanes copy the last base lane.
+     */
+    Scenario scenarioFor(int counters, double counterRate, int checkpoints, double checkpointRate) {
+        List<TicketCounterConfig> srcCounters = base.getCounters();
+        List<TicketCounterConfig> counterList = new ArrayList<>(counters);
+        for (int i = 0; i < counters; i++) {
+            TicketCounterConfig t = srcCounters.get(Math.min(i, srcCounters.size() - 1));
+            double rate = Double.isNaN(counterRate) ? t.getRate() : counterRate;
+            counterList.add(new TicketCounterConfig(i + 1, rate, new HashSet<Flight>(t.getAllowedFlights())));
+        }
+
+        List<CheckpointConfig> srcLanes = base.getCheckpoints();
+        List<CheckpointConfig> laneList = new ArrayList<>(checkpoints);
+        for (int i = 0; i < checkpoints; i++) {
+            CheckpointConfig src = srcLanes.get(Math.min(i, srcLanes.size() - 1));
+            CheckpointConfig c = new CheckpointConfig(i + 1);
+            c.setRatePerHour(Double.isNaN(checkpointRate) ? src.getRatePerHour() : checkpointRate);
+            laneList.add(c);
+        }
+
+        return new Scenario(
+                base.getName() + "@" + counters + "c" + checkpoints + "k",
+                base.getPercentInPerson(),
+                base.getArrivalSpanMinutes(),
+                base.getIntervalMinutes(),
+                base.getTransitDelayMinutes(),
+                base.getHoldDelayMinutes(),
+                base.getFlights(),
+                counterList,
+                laneList,
+                base.getHoldRooms(),
+                base.getCurveConfig(),
+                base.getCurveProfiles(),
+                base.getServiceTimes()
+        );
+    }
+
+    /**
+     * Histogram (in intervals) of ticket-line plus checkpoint-line time for every passenger that
+     * reached a hold room, read at the same boarding-close step {@link RunSummary} counts "made" at.
+     * The walk to the checkpoint is not a wait and is left out.
+     */
+    static int[] boardedWaitHistogram(SimulationEngine engine) {
+        List<List<List<Passenger>>> holdHistory = engine.getHistoryHoldRooms();
+        int[] hist = new int[engine.getTotalIntervals() + 2];
+        if (holdHistory.isEmpty()) return hist;
+
+        Map<Flight, Integer> stepOf = new IdentityHashMap<>();
+        TreeSet<Integer> steps = new TreeSet<>();
+        for (Flight f : engine.getFlights()) {
+            int closeStep = engine.getBoardingCloseInterval(f);      // dated: may be days after the start
+            int step = Math.max(0, Math.min(closeStep - 1, holdHistory.size() - 1));
+            stepOf.put(f, step);
+            steps.add(step);
+        }
+
+        // one pass over the rooms per distinct close step, however many flights share it
+        for (int step : steps) {
+            for (List<Passenger> room : holdHistory.get(step)) {
+                if (room == null) continue;
+                for (Passenger p : room) {
+                    if (p == null) continue;
+                    Integer s = stepOf.get(p.getFlight());
+                    if (s == null || s != step) continue;
+
+                    int w = p.getCheckpointCompletionMinute() - p.getCheckpointEntryMinute();
+                    if (p.isInPerson()) w += p.getTicketCompletionMinute() - p.getArrivalMinute();
+                    hist[Math.max(0, Math.min(hist.length - 1, w))]++;
+                }
+            }
+        }
+        return hist;
+    }
+
+    /** Nearest-rank percentile of a histogram holding {@code n} values (0 when empty). */
+    static int percentile(int[] hist, int n, double q) {
+        if (n <= 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int v = 0; v < hist.length; v++) {
+            seen += hist[v];
+            if (seen >= rank) return v;
+        }
+        return hist.length - 1;
+    }
+
+    // ============================
+    // CLI
+    // ============================
+
+    /**
+     * <pre>
+     * StaffingOptimizer base.properties --sla 15 [--missed 0] [--counters 1-12] [--lanes 1-8]
+     *                   [--counterRates 1.0,1.5] [--cpRates 150,180] [--screen] [--threads N] [--out frontier.tsv]
+     * </pre>
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        File baseFile = null;
+        File out = new File("frontier.tsv");
+        double sla = Double.NaN;
+        int missed = 0;
+        String counters = null, lanes = null, counterRates = null, cpRates = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean screen = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            if ("--sla".equals(a) && i + 1 < args.length) sla = Double.parseDouble(args[++i].trim());
+            else if ("--missed".equals(a) && i + 1 < args.length) missed = Integer.parseInt(args[++i].trim());
+            else if ("--counters".equals(a) && i + 1 < args.length) counters = args[++i];
+            else if ("--lanes".equals(a) && i + 1 < args.length) lanes = args[++i];
+            else if ("--counterRates".equals(a) && i + 1 < args.length) counterRates = args[++i];
+            else if ("--cpRates".equals(a) && i + 1 < args.length) cpRates = args[++i];
+            else if ("--threads".equals(a) && i + 1 < args.length) threads = Integer.parseInt(args[++i].trim());
+            else if ("--screen".equals(a)) screen = true;
+            else if ("--out".equals(a) && i + 1 < args.length) out = new File(args[++i]);
+            else baseFile = new File(a);
+        }
+
+        if (baseFile == null || Double.isNaN(sla)) {
+            System.out.println("Usage: StaffingOptimizer base.properties --sla MINUTES [--missed 0] [--counters 1-12]"
+                    + " [--lanes 1-8] [--counterRates 1.0,1.5] [--cpRates 150,180] [--screen] [--threads N] [--out frontier.tsv]");
+            System.out.println("  --screen   skip full runs of candidates a fluid estimate puts clearly past the SLA"
+                    + " (off by default; a heuristic, not a proven bound)");
+            System.exit(2);
+            return;
+        }
+
+        StaffingOptimizer opt = new StaffingOptimizer(ScenarioIO.load(baseFile), sla);
+        opt.setMaxMissed(missed);
+        if (counters != null) {
+            int[] r = parseRange(counters);
+            opt.setCounterRange(r[0], r[1]);
+        }
+        if (lanes != null) {
+            int[] r = parseRange(lanes);
+            opt.setCheckpointRange(r[0], r[1]);
+        }
+        if (counterRates != null) opt.setCounterRatesPerMinute(parseDoubles(counterRates));
+        if (cpRates != null) opt.setCheckpointRatesPerHour(parseDoubles(cpRates));
+        opt.setParallelism(threads);
+        opt.setScreening(screen);
+
+        StaffingFrontier result = opt.run();
+        result.writeTsv(out);
+
+        System.out.println(StaffingPlan.tsvHeader());
+        for (StaffingPlan p : result.getFrontier()) System.out.println(p.toTsvRow());
+        StaffingPlan cheapest = result.cheapest(1.0, 1.0);
+        System.out.println(String.format(Locale.ROOT,
+                "%d plan(s) on the frontier from %d candidate(s) (%d simulated) in %d ms; fewest staff: %s. Output: %s",
+                result.getFrontier().size(), result.getEvaluationCount(), result.getSimulatedCount(),
+                result.getElapsedMillis(),
+                cheapest == null ? "none meets the SLA" : cheapest.toString(), out.getAbsolutePath()));
+    }
+
+    /** "4" or "2-10". */
+    private static int[] parseRange(String s) {
+        String t = s.trim();
+        int dash = t.indexOf('-', 1);
+        if (dash < 0) {
+            int v = Integer.parseInt(t);
+            return new int[] { v, v };
+        }
+        return new int[] { Integer.parseInt(t.substring(0, dash).trim()), Integer.parseInt(t.substring(dash + 1).trim()) };
+    }
+
+    private static double[] parseDoubles(String csv) {
+        String[] parts = csv.split(",");
+        double[] out = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) out[i] = Double.parseDouble(parts[i].trim());
+        return out;
+    }
+
+    private static double[] requireValues(double[] values) {
+        if (values == null || values.length == 0) throw new IllegalArgumentException("at least one value required");
+        return values;
+    }
+}
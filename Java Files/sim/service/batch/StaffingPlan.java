@@ -0,0 +1,96 @@
+package sim.service.batch;
+
+import java.util.Locale;
+
+/**
+ * One evaluated staffing candidate: how many ticket counters and checkpoint lanes (at which
+ * rates), and what a full run of the day gave for it.
+ *
+ * Rates are NaN when the base scenario's own per-counter / per-lane rates were kept. Plans
+ * rejected by fluid screening were never simulated; their figures are the estimate's.
+ */
+public final class StaffingPlan {
+    private final int counters;
+    private final double counterRatePerMinute;
+    private final int checkpoints;
+    private final double checkpointRatePerHour;
+
+    private final int boarded;
+    private final int missed;
+    private final int p95WaitMinutes;
+    private final int maxWaitMinutes;
+    private final boolean feasible;
+    private final boolean simulated;
+    private final long elapsedMillis;
+
+    StaffingPlan(int counters, double counterRatePerMinute, int checkpoints, double checkpointRatePerHour,
+                 int boarded, int missed, int p95WaitMinutes, int maxWaitMinutes, boolean feasible,
+                 boolean simulated, long elapsedMillis) {
+        this.counters = counters;
+        this.counterRatePerMinute = counterRatePerMinute;
+        this.checkpoints = checkpoints;
+        this.checkpointRatePerHour = checkpointRatePerHour;
+        this.boarded = boarded;
+        this.missed = missed;
+        this.p95WaitMinutes = p95WaitMinutes;
+        this.maxWaitMinutes = maxWaitMinutes;
+        this.feasible = feasible;
+        this.simulated = simulated;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getCounters() { return counters; }
+    public double getCounterRatePerMinute() { return counterRatePerMinute; }
+    public int getCheckpoints() { return checkpoints; }
+    public double getCheckpointRatePerHour() { return checkpointRatePerHour; }
+
+    /** Passengers that reached a hold room before their flight closed. */
+    public int getBoarded() { return boarded; }
+    public int getMissed() { return missed; }
+
+    /** 95th percentile of ticket-line plus checkpoint-line time over boarded passengers. */
+    public int getP95WaitMinutes() { return p95WaitMinutes; }
+    public int getMaxWaitMinutes() { return maxWaitMinutes; }
+
+    /** Met the SLA the optimizer was run with. */
+    public boolean isFeasible() { return feasible; }
+
+    /** False when fluid screening rejected the plan without a full run. */
+    public boolean isSimulated() { return simulated; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    /** Weighted head count, e.g. cost(1, 1) = counters + lanes. */
+    public double cost(double counterCost, double checkpointCost) {
+        return counters * counterCost + checkpoints * checkpointCost;
+    }
+
+    public static String tsvHeader() {
+        return "counters\tcounterRatePerMinute\tcheckpoints\tcheckpointRatePerHour"
+                + "\tboarded\tmissed\tp95WaitMin\tmaxWaitMin\tfeasible\tsimulated\telapsedMs";
+    }
+
+    public String toTsvRow() {
+        return counters
+                + "\t" + fmt(counterRatePerMinute)
+                + "\t" + checkpoints
+                + "\t" + fmt(checkpointRatePerHour)
+                + "\t" + boarded
+                + "\t" + missed
+                + "\t" + p95WaitMinutes
+                + "\t" + maxWaitMinutes
+                + "\t" + feasible
+                + "\t" + simulated
+                + "\t" + elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "StaffingPlan{" + counters + " counter(s), " + checkpoints + " lane(s), p95="
+                + p95WaitMinutes + " min, missed=" + missed + (feasible ? "" : ", infeasible")
+                + (simulated ? "" : ", screened") + '}';
+    }
+
+    private static String fmt(double v) {
+        return Double.isNaN(v) ? "base" : String.format(Locale.ROOT, "%.4f", v);
+    }
+}
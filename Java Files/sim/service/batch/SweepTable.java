@@ -0,0 +1,117 @@
+package sim.service.batch;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Column-oriented results of a parameter sweep: one row per grid point, primitives only.
+ *
+ * Rows are filled in by index as points finish; each index is written by exactly one
+ * worker, so no locking is needed on the columns. A 500-point sweep costs a few KB here,
+ * whatever the scenario size, because per-interval series are never kept.
+ */
+public class SweepTable {
+    private final int size;
+
+    // inputs
+    private final int[] counters;
+    private final double[] checkpointRatePerHour;   // NaN = base rates kept
+    private final double[] percentInPerson;
+    private final int[] transitDelay;
+
+    // aggregates
+    private final int[] expected;
+    private final int[] missed;
+    private final int[] peakTicketQueue;
+    private final int[] peakCheckpointQueue;
+    private final int[] peakHoldRooms;
+    private final long[] elapsedMillis;
+    private final boolean[] done;
+
+    private final AtomicInteger completed = new AtomicInteger();
+
+    SweepTable(int size) {
+        this.size = size;
+        this.counters = new int[size];
+        this.checkpointRatePerHour = new double[size];
+        this.percentInPerson = new double[size];
+        this.transitDelay = new int[size];
+        this.expected = new int[size];
+        this.missed = new int[size];
+        this.peakTicketQueue = new int[size];
+        this.peakCheckpointQueue = new int[size];
+        this.peakHoldRooms = new int[size];
+        this.elapsedMillis = new long[size];
+        this.done = new boolean[size];
+    }
+
+    void record(int index, int counterCount, double cpRate, double inPerson, int transit, RunSummary s) {
+        counters[index] = counterCount;
+        checkpointRatePerHour[index] = cpRate;
+        percentInPerson[index] = inPerson;
+        transitDelay[index] = transit;
+        expected[index] = s.getTotalExpected();
+        missed[index] = s.getTotalMissed();
+        peakTicketQueue[index] = s.getPeakTicketQueued();
+        peakCheckpointQueue[index] = s.getPeakCheckpointQueued();
+        peakHoldRooms[index] = s.getPeakHoldRoomTotal();
+        elapsedMillis[index] = s.getElapsedMillis();
+        done[index] = true;
+        completed.incrementAndGet();
+    }
+
+    public int size() { return size; }
+    public int getCompletedCount() { return completed.get(); }
+    public boolean isDone(int i) { return done[i]; }
+
+    public int getCounters(int i) { return counters[i]; }
+    public double getCheckpointRatePerHour(int i) { return checkpointRatePerHour[i]; }
+    public double getPercentInPerson(int i) { return percentInPerson[i]; }
+    public int getTransitDelay(int i) { return transitDelay[i]; }
+    public int getExpected(int i) { return expected[i]; }
+    public int getMissed(int i) { return missed[i]; }
+    public int getPeakTicketQueue(int i) { return peakTicketQueue[i]; }
+    public int getPeakCheckpointQueue(int i) { return peakCheckpointQueue[i]; }
+    public int getPeakHoldRooms(int i) { return peakHoldRooms[i]; }
+    public long getElapsedMillis(int i) { return elapsedMillis[i]; }
+
+    public static String tsvHeader() {
+        return "point\tcounters\tcheckpointRatePerHour\tpercentInPerson\ttransitDelay"
+                + "\texpected\tmissed\tpeakTicketQueue\tpeakCheckpointQueue\tpeakHoldRooms\telapsedMs";
+    }
+
+    public String toTsvRow(int i) {
+        return i
+                + "\t" + counters[i]
+                + "\t" + (Double.isNaN(checkpointRatePerHour[i]) ? "base" : fmt(checkpointRatePerHour[i]))
+                + "\t" + fmt(percentInPerson[i])
+                + "\t" + transitDelay[i]
+                + "\t" + expected[i]
+                + "\t" + missed[i]
+                + "\t" + peakTicketQueue[i]
+                + "\t" + peakCheckpointQueue[i]
+                + "\t" + peakHoldRooms[i]
+                + "\t" + elapsedMillis[i];
+    }
+
+    /** Completed rows in point order. */
+    public void writeTsv(File file) throws IOException {
+        if (file == null) throw new IllegalArgumentException("file is null");
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) parent.mkdirs();
+
+        try (PrintWriter w = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8)))) {
+            w.println(tsvHeader());
+            for (int i = 0; i < size; i++) {
+                if (done[i]) w.println(toTsvRow(i));
+            }
+        }
+    }
+
+    private static String fmt(double v) {
+        return String.format(Locale.ROOT, "%.4f", v);
+    }
+}
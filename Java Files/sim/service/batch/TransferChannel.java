@@ -0,0 +1,111 @@
+package sim.service.batch;
+
+import sim.model.Passenger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded single-producer / single-consumer ring of passengers walking from one terminal to
+ * another, each tagged with the global minute it reaches the destination.
+ *
+ * Only the source terminal's thread offers and only the destination's thread drains, so the
+ * ring needs no locks: each side publishes its index with a release store and reads the other's
+ * with a volatile load. A full ring rejects the offer; the producer keeps the passenger and
+ * retries after the next interval (see {@link MultiTerminalSimulation}).
+ *
+ * The coordinator {@link #seal()}s every channel while both sides are parked at the interval
+ * barrier: the consumer only drains up to that point, and the producer only refills the slots
+ * drained before it. Passengers offered during an interval are therefore delivered in the next
+ * one, and whether an offer fits never depends on how far the other thread has got, which keeps
+ * multi-threaded runs reproducible.
+ */
+final class TransferChannel {
+
+    /** Receives drained passengers in the order they were offered. */
+    interface Sink {
+        void accept(Passenger p, int dueMinute);
+    }
+
+    private final String from;
+    private final String to;
+    private final int transitMinutes;
+    private final int minuteShift;
+
+    private final Passenger[] passengers;
+    private final int[] due;
+    private final int mask;
+
+    private final AtomicLong head = new AtomicLong();    // next slot to drain (consumer)
+    private final AtomicLong tail = new AtomicLong();    // next slot to fill (producer)
+    private long offerLimit;                             // producer: head at the last seal + capacity
+    private long sealed;                                 // consumer: tail at the last seal
+
+    private long rejected;                               // producer thread only
+
+    /**
+     * @param minuteShift source engine minute + shift = destination engine minute
+     * @param capacity    rounded up to a power of two
+     */
+    TransferChannel(String from, String to, int transitMinutes, int minuteShift, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+        int cap = 1;
+        while (cap < capacity) cap <<= 1;
+        this.from = from;
+        this.to = to;
+        this.transitMinutes = transitMinutes;
+        this.minuteShift = minuteShift;
+        this.passengers = new Passenger[cap];
+        this.due = new int[cap];
+        this.mask = cap - 1;
+        this.offerLimit = cap;
+    }
+
+    String getFrom() { return from; }
+    String getTo() { return to; }
+    int getTransitMinutes() { return transitMinutes; }
+    int getMinuteShift() { return minuteShift; }
+    int getCapacity() { return passengers.length; }
+
+    /** Producer side: false (and nothing stored) when the ring is full. */
+    boolean offer(Passenger p, int dueMinute) {
+        long t = tail.get();
+        if (t >= offerLimit) {
+            rejected++;
+            return false;
+        }
+        int slot = (int) (t & mask);
+        passengers[slot] = p;
+        due[slot] = dueMinute;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /** Fixes both sides' limits for the next interval; call only while both sides are parked. */
+    void seal() {
+        sealed = tail.get();
+        offerLimit = head.get() + passengers.length;
+    }
+
+    /** Consumer side: hands every passenger queued before the last seal to {@code sink}; returns how many. */
+    int drain(Sink sink) {
+        long h = head.get();
+        long t = sealed;
+        if (h >= t) return 0;
+        for (long i = h; i < t; i++) {
+            int slot = (int) (i & mask);
+            Passenger p = passengers[slot];
+            passengers[slot] = null;
+            sink.accept(p, due[slot]);
+        }
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+
+    /** Queued, not yet drained (exact only while both sides are parked). */
+    int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /** Offers refused because the ring was full (read once both sides are parked). */
+    long getRejected() { return rejected; }
+}
@@ -0,0 +1,231 @@
+package sim.service.http;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reader/writer for the local scenario service (no external dependencies).
+ *
+ * Parses into Map (LinkedHashMap, key order kept), List, String, Double, Boolean or null.
+ * Only what the service needs; not a general-purpose library.
+ */
+public final class Json {
+
+    private Json() {}
+
+    // ============================
+    // Parse
+    // ============================
+
+    public static Object parse(String text) {
+        if (text == null) throw new IllegalArgumentException("json is null");
+        Parser p = new Parser(text);
+        p.skipWs();
+        Object v = p.value();
+        p.skipWs();
+        if (p.pos != text.length()) throw p.error("trailing characters");
+        return v;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(String text) {
+        Object v = parse(text);
+        if (!(v instanceof Map)) throw new IllegalArgumentException("expected a JSON object");
+        return (Map<String, Object>) v;
+    }
+
+    private static final class Parser {
+        private final String s;
+        private int pos;
+
+        Parser(String s) { this.s = s; }
+
+        Object value() {
+            if (pos >= s.length()) throw error("unexpected end of input");
+            char c = s.charAt(pos);
+            switch (c) {
+                case '{': return object();
+                case '[': return array();
+                case '"': return string();
+                case 't': literal("true"); return Boolean.TRUE;
+                case 'f': literal("false"); return Boolean.FALSE;
+                case 'n': literal("null"); return null;
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) return number();
+                    throw error("unexpected character '" + c + "'");
+            }
+        }
+
+        Map<String, Object> object() {
+            Map<String, Object> out = new LinkedHashMap<>();
+            pos++; // {
+            skipWs();
+            if (peek() == '}') { pos++; return out; }
+            while (true) {
+                skipWs();
+                if (peek() != '"') throw error("expected object key");
+                String key = string();
+                skipWs();
+                expect(':');
+                skipWs();
+                out.put(key, value());
+                skipWs();
+                char c = next();
+                if (c == '}') return out;
+                if (c != ',') throw error("expected ',' or '}'");
+            }
+        }
+
+        List<Object> array() {
+            List<Object> out = new ArrayList<>();
+            pos++; // [
+            skipWs();
+            if (peek() == ']') { pos++; return out; }
+            while (true) {
+                skipWs();
+                out.add(value());
+                skipWs();
+                char c = next();
+                if (c == ']') return out;
+                if (c != ',') throw error("expected ',' or ']'");
+            }
+        }
+
+        String string() {
+            pos++; // opening quote
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                if (pos >= s.length()) throw error("unterminated string");
+                char c = s.charAt(pos++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') { sb.append(c); continue; }
+
+                if (pos >= s.length()) throw error("bad escape");
+                char e = s.charAt(pos++);
+                switch (e) {
+                    case '"': sb.append('"'); break;
+                    case '\\': sb.append('\\'); break;
+                    case '/': sb.append('/'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'u':
+                        if (pos + 4 > s.length()) throw error("bad unicode escape");
+                        sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: throw error("bad escape '\\" + e + "'");
+                }
+            }
+        }
+
+        Double number() {
+            int start = pos;
+            if (peek() == '-') pos++;
+            while (pos < s.length()) {
+                char c = s.charAt(pos);
+                if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') pos++;
+                else break;
+            }
+            try {
+                return Double.valueOf(s.substring(start, pos));
+            } catch (NumberFormatException ex) {
+                throw error("bad number");
+            }
+        }
+
+        void literal(String word) {
+            if (!s.startsWith(word, pos)) throw error("expected " + word);
+            pos += word.length();
+        }
+
+        void skipWs() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+
+        char peek() { return pos < s.length() ? s.charAt(pos) : '\0'; }
+
+        char next() {
+            if (pos >= s.length()) throw error("unexpected end of input");
+            return s.charAt(pos++);
+        }
+
+        void expect(char c) {
+            if (next() != c) throw error("expected '" + c + "'");
+        }
+
+        IllegalArgumentException error(String msg) {
+            return new IllegalArgumentException("JSON " + msg + " at offset " + pos);
+        }
+    }
+
+    // ============================
+    // Write
+    // ============================
+
+    /** Serializes Map / Iterable / String / Number / Boolean / null. */
+    public static String write(Object v) {
+        StringBuilder sb = new StringBuilder();
+        write(sb, v);
+        return sb.toString();
+    }
+
+    private static void write(StringBuilder sb, Object v) {
+        if (v == null) {
+            sb.append("null");
+        } else if (v instanceof String) {
+            quote(sb, (String) v);
+        } else if (v instanceof Double || v instanceof Float) {
+            double d = ((Number) v).doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) sb.append("null");
+            else if (d == Math.rint(d) && Math.abs(d) < 1e15) sb.append((long) d);
+            else sb.append(d);
+        } else if (v instanceof Number || v instanceof Boolean) {
+            sb.append(v);
+        } else if (v instanceof Map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) v).entrySet()) {
+                if (!first) sb.append(',');
+                first = false;
+                quote(sb, String.valueOf(e.getKey()));
+                sb.append(':');
+                write(sb, e.getValue());
+            }
+            sb.append('}');
+        } else if (v instanceof Iterable) {
+            sb.append('[');
+            boolean first = true;
+            for (Object o : (Iterable<?>) v) {
+                if (!first) sb.append(',');
+                first = false;
+                write(sb, o);
+            }
+            sb.append(']');
+        } else {
+            quote(sb, v.toString());
+        }
+    }
+
+    private static void quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+}
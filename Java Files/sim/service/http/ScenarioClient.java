@@ -0,0 +1,91 @@
+package sim.service.http;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Small client for {@link ScenarioService}: posts a scenario and hands each NDJSON line
+ * to a callback as it arrives, so long runs can be shown while they are still computing.
+ */
+public class ScenarioClient {
+    private final URI base;
+    private final HttpClient http;
+
+    public ScenarioClient(String baseUrl) {
+        if (baseUrl == null || baseUrl.isBlank()) throw new IllegalArgumentException("baseUrl is empty");
+        this.base = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Posts {@code scenarioText} (JSON or .properties) to /run and passes each decoded line
+     * to {@code onLine}. Returns the final "summary" object, or throws on an error status.
+     */
+    public Map<String, Object> run(String scenarioText, Consumer<Map<String, Object>> onLine)
+            throws IOException, InterruptedException {
+        HttpRequest req = HttpRequest.newBuilder(base.resolve("run"))
+                .POST(HttpRequest.BodyPublishers.ofString(scenarioText, StandardCharsets.UTF_8))
+                .build();
+
+        HttpResponse<java.io.InputStream> resp = http.send(req, HttpResponse.BodyHandlers.ofInputStream());
+        Map<String, Object> summary = null;
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(resp.body(), StandardCharsets.UTF_8))) {
+            if (resp.statusCode() != 200) {
+                StringBuilder sb = new StringBuilder();
+                for (String line; (line = r.readLine()) != null; ) sb.append(line);
+                throw new IOException("HTTP " + resp.statusCode() + ": " + sb);
+            }
+            for (String line; (line = r.readLine()) != null; ) {
+                if (line.isBlank()) continue;
+                Map<String, Object> obj = Json.parseObject(line);
+                if (onLine != null) onLine.accept(obj);
+                if ("summary".equals(obj.get("type"))) summary = obj;
+            }
+        }
+        if (summary == null) throw new IOException("stream ended without a summary");
+        return summary;
+    }
+
+    public Map<String, Object> health() throws IOException, InterruptedException {
+        HttpRequest req = HttpRequest.newBuilder(base.resolve("health")).GET().build();
+        HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        if (resp.statusCode() != 200) throw new IOException("HTTP " + resp.statusCode() + ": " + resp.body());
+        return Json.parseObject(resp.body());
+    }
+
+    // ============================
+    // CLI
+    // ============================
+
+    /** {@code ScenarioClient [--url http://127.0.0.1:8765] scenario.(json|properties)} */
+    public static void main(String[] args) throws Exception {
+        String url = "http://127.0.0.1:8765";
+        File file = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--url".equals(args[i]) && i + 1 < args.length) url = args[++i];
+            else file = new File(args[i]);
+        }
+
+        ScenarioClient client = new ScenarioClient(url);
+        if (file == null) {
+            System.out.println(Json.write(client.health()));
+            return;
+        }
+
+        String text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        client.run(text, line -> System.out.println(Json.write(line)));
+    }
+}
@@ -0,0 +1,165 @@
+package sim.service.http;
+
+import sim.service.batch.Scenario;
+import sim.service.batch.ScenarioIO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * JSON form of a scenario for the HTTP service, mapped onto the same keys ScenarioIO uses.
+ *
+ * <pre>
+ * {
+ *   "name": "Morning peak",
+ *   "percentInPerson": 0.4, "arrivalSpanMinutes": 120, "intervalMinutes": 1,
+ *   "transitDelayMinutes": 2, "holdDelayMinutes": 5,
+ *   "curve": { "legacyMode": false, "peakMinutesBeforeDeparture": 70, ... },
+ *   "flights": [ "AA100,08:30,180,0.85,CIRCLE" ],
+ *   "counters": [ { "rate": 1.0, "flights": ["AA100"] } ],
+ *   "checkpoints": [ { "ratePerHour": 120 } ],
+ *   "holdRooms": [ { "walkSeconds": 90, "capacity": 120, "flights": [] } ],
+ *   "profiles": [ { "match": "airline:BA", "curve": { "peakMinutesBeforeDeparture": 150 } } ]
+ * }
+ * </pre>
+ *
+ * Requests may also send the .properties text directly; {@link #parse(String)} accepts both.
+ */
+public final class ScenarioJson {
+
+    private ScenarioJson() {}
+
+    /** JSON object (first non-blank char '{') or ScenarioIO .properties text. */
+    public static Scenario parse(String body) {
+        if (body == null || body.isBlank()) throw new IllegalArgumentException("empty scenario");
+        String t = body.trim();
+        Properties p = t.startsWith("{") ? toProperties(Json.parseObject(t)) : loadProperties(t);
+        return ScenarioIO.fromProperties(p, "scenario");
+    }
+
+    /** {@link ScenarioIO#canonicalHash}: requests that differ only in name or key order share one entry. */
+    public static String canonicalHash(Scenario s) {
+        return ScenarioIO.canonicalHash(s);
+    }
+
+    // ============================
+    // Mapping
+    // ============================
+
+    private static Properties toProperties(Map<String, Object> json) {
+        Properties p = new Properties();
+
+        for (String key : new String[] { "name", "percentInPerson", "arrivalSpanMinutes", "intervalMinutes",
+                "transitDelayMinutes", "holdDelayMinutes" }) {
+            Object v = json.get(key);
+            if (v != null) p.setProperty(key, scalar(v));
+        }
+
+        Object curve = json.get("curve");
+        if (curve instanceof Map) {
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) curve).entrySet()) {
+                if (e.getValue() != null) p.setProperty("curve." + e.getKey(), scalar(e.getValue()));
+            }
+        }
+
+        int i = 1;
+        for (Object f : list(json, "flights")) {
+            p.setProperty("flight." + (i++), flightText(f));
+        }
+
+        i = 1;
+        for (Object c : list(json, "counters")) {
+            Map<?, ?> m = map(c, "counters");
+            p.setProperty("counter." + i + ".rate", scalar(m.get("rate") == null ? 1.0 : m.get("rate")));
+            if (m.get("flights") != null) p.setProperty("counter." + i + ".flights", joined(m.get("flights")));
+            i++;
+        }
+
+        i = 1;
+        for (Object c : list(json, "checkpoints")) {
+            Map<?, ?> m = map(c, "checkpoints");
+            p.setProperty("checkpoint." + (i++) + ".ratePerHour",
+                    scalar(m.get("ratePerHour") == null ? 120.0 : m.get("ratePerHour")));
+        }
+
+        i = 1;
+        for (Object pr : list(json, "profiles")) {
+            Map<?, ?> m = map(pr, "profiles");
+            p.setProperty("profile." + i + ".match", str(m.get("match")));
+            Object pc = m.get("curve");
+            if (pc instanceof Map) {
+                for (Map.Entry<?, ?> e : ((Map<?, ?>) pc).entrySet()) {
+                    if (e.getValue() != null) p.setProperty("profile." + i + "." + e.getKey(), scalar(e.getValue()));
+                }
+            }
+            i++;
+        }
+
+        i = 1;
+        for (Object h : list(json, "holdRooms")) {
+            Map<?, ?> m = map(h, "holdRooms");
+            p.setProperty("holdRoom." + i + ".walkSeconds",
+                    scalar(m.get("walkSeconds") == null ? 0.0 : m.get("walkSeconds")));
+            if (m.get("capacity") != null) p.setProperty("holdRoom." + i + ".capacity", scalar(m.get("capacity")));
+            if (m.get("flights") != null) p.setProperty("holdRoom." + i + ".flights", joined(m.get("flights")));
+            i++;
+        }
+        return p;
+    }
+
+    /** Flights may be "AA100,08:30,180,0.85,CIRCLE" strings or objects with the same fields. */
+    private static String flightText(Object f) {
+        if (f instanceof String) return (String) f;
+        Map<?, ?> m = map(f, "flights");
+        return str(m.get("number")) + "," + str(m.get("departure")) + "," + scalar(m.get("seats"))
+                + "," + scalar(m.get("fill")) + "," + (m.get("shape") == null ? "CIRCLE" : str(m.get("shape")));
+    }
+
+    private static List<?> list(Map<String, Object> json, String key) {
+        Object v = json.get(key);
+        if (v == null) return List.of();
+        if (!(v instanceof List)) throw new IllegalArgumentException("'" + key + "' must be an array");
+        return (List<?>) v;
+    }
+
+    private static Map<?, ?> map(Object v, String key) {
+        if (!(v instanceof Map)) throw new IllegalArgumentException("'" + key + "' entries must be objects");
+        return (Map<?, ?>) v;
+    }
+
+    private static String joined(Object v) {
+        if (v instanceof List) {
+            StringBuilder sb = new StringBuilder();
+            for (Object o : (List<?>) v) {
+                if (sb.length() > 0) sb.append(',');
+                sb.append(str(o));
+            }
+            return sb.toString();
+        }
+        return str(v);
+    }
+
+    /** Integral doubles print without ".0" so integer keys parse with Integer.parseInt. */
+    private static String scalar(Object v) {
+        if (v instanceof Double) {
+            double d = (Double) v;
+            if (d == Math.rint(d) && Math.abs(d) < 1e15) return Long.toString((long) d);
+        }
+        return str(v);
+    }
+
+    private static String str(Object v) {
+        return v == null ? "" : v.toString();
+    }
+
+    private static Properties loadProperties(String text) {
+        Properties p = new Properties();
+        try {
+            p.load(new java.io.StringReader(text));
+        } catch (java.io.IOException ex) {
+            throw new IllegalArgumentException("bad properties: " + ex.getMessage(), ex);
+        }
+        return p;
+    }
+}
@@ -0,0 +1,382 @@
+package sim.service.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import sim.service.SimulationEngine;
+import sim.service.batch.RunSummary;
+import sim.service.batch.Scenario;
+import sim.service.batch.ScenarioResultCache;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional localhost HTTP/JSON front end for SimulationEngine (JDK built-in HttpServer, no deps).
+ *
+ * <pre>
+ * POST /run      body: scenario JSON (see ScenarioJson) or ScenarioIO .properties text
+ *                reply: application/x-ndjson, one JSON object per line:
+ *                  {"type":"start","hash":...,"cached":false,"intervals":N}
+ *                  {"type":"interval","interval":1,"time":"05:31","arrivals":..,"ticketQueued":..,...}
+ *                  ...
+ *                  {"type":"summary","missed":..,"peakTicketQueue":..,...,"flights":[...]}
+ * GET  /health   {"status":"ok", running, permits, cache stats}
+ * </pre>
+ *
+ * Intervals are streamed while the engine computes them. Finished runs are cached by
+ * {@link ScenarioJson#canonicalHash(Scenario)} in a {@link ScenarioResultCache} (optionally
+ * spilling to disk, so results survive restarts); an identical request replays the cached
+ * summary immediately, and a duplicate of a run still in flight waits for that run instead
+ * of starting a second one.
+ *
+ * Requests are handled on virtual threads when the JDK has them (Java 21+), otherwise on a
+ * bounded platform-thread pool. Actual engine runs are gated by a semaphore sized from
+ * available cores and max heap, so a burst of requests cannot exhaust memory.
+ * The server only binds to the loopback address.
+ */
+public class ScenarioService {
+    private static final DateTimeFormatter HHMM = DateTimeFormatter.ofPattern("HH:mm");
+
+    // Rough upper bound for one engine with full passenger history; used to size the run limit.
+    private static final long BYTES_PER_RUN_ESTIMATE = 64L * 1024 * 1024;
+
+    private final int port;
+    private final int maxConcurrentRuns;
+    private final Semaphore runPermits;
+
+    private final ScenarioResultCache cache;
+    private final ConcurrentHashMap<String, CompletableFuture<RunSummary>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ScenarioService(int port) {
+        this(port, defaultRunLimit(), 256);
+    }
+
+    public ScenarioService(int port, int maxConcurrentRuns, int cacheEntries) {
+        this(port, maxConcurrentRuns, cacheEntries, null);
+    }
+
+    /** @param cacheDir where summaries evicted from memory are kept, or null for memory only */
+    public ScenarioService(int port, int maxConcurrentRuns, int cacheEntries, File cacheDir) {
+        if (maxConcurrentRuns < 1) throw new IllegalArgumentException("maxConcurrentRuns must be >= 1");
+        if (cacheEntries < 1) throw new IllegalArgumentException("cacheEntries must be >= 1");
+        this.port = port;
+        this.maxConcurrentRuns = maxConcurrentRuns;
+        this.runPermits = new Semaphore(maxConcurrentRuns, true);
+        this.cache = cacheDir == null
+                ? new ScenarioResultCache(null, cacheEntries, 0, 0)
+                : new ScenarioResultCache(cacheDir.toPath(), cacheEntries, 0, cacheEntries * 16);
+    }
+
+    /** min(cores, maxHeap / estimate), at least 1. */
+    public static int defaultRunLimit() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        long byMemory = Runtime.getRuntime().maxMemory() / BYTES_PER_RUN_ESTIMATE;
+        return (int) Math.max(1, Math.min(cores, byMemory));
+    }
+
+    // ============================
+    // Lifecycle
+    // ============================
+
+    public synchronized void start() throws IOException {
+        if (server != null) throw new IllegalStateException("already started");
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = newRequestExecutor(maxConcurrentRuns);
+        server.setExecutor(executor);
+        server.createContext("/run", this::handleRun);
+        server.createContext("/health", this::handleHealth);
+        server.start();
+    }
+
+    public synchronized void stop() {
+        if (server == null) return;
+        server.stop(0);
+        executor.shutdownNow();
+        cache.flush();
+        server = null;
+        executor = null;
+    }
+
+    /** Bound port (useful when started with port 0). */
+    public int getPort() {
+        return server == null ? port : server.getAddress().getPort();
+    }
+
+    public int getMaxConcurrentRuns() { return maxConcurrentRuns; }
+
+    /**
+     * Virtual thread per request when available (Java 21+); looked up reflectively so the code
+     * still compiles and runs on Java 17, where a bounded platform pool is used instead.
+     */
+    static ExecutorService newRequestExecutor(int runLimit) {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (Exception ignored) {
+            AtomicInteger seq = new AtomicInteger();
+            // requests mostly wait on the run semaphore or the socket, so allow more than runLimit
+            return Executors.newFixedThreadPool(Math.max(4, runLimit * 4), r -> {
+                Thread t = new Thread(r, "scenario-http-" + seq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // ============================
+    // Handlers
+    // ============================
+
+    private void handleHealth(HttpExchange ex) throws IOException {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("status", "ok");
+        out.put("running", running.get());
+        out.put("maxConcurrentRuns", maxConcurrentRuns);
+        out.put("availablePermits", runPermits.availablePermits());
+        out.put("cacheEntries", cache.getMemoryEntries());
+        out.put("cacheDiskEntries", cache.getDiskEntries());
+        out.put("cacheHits", cacheHits.get());
+        out.put("cacheMisses", cacheMisses.get());
+        out.put("cacheDiskHits", cache.getDiskHits());
+        sendJson(ex, 200, out);
+    }
+
+    private void handleRun(HttpExchange ex) throws IOException {
+        if (!"POST".equalsIgnoreCase(ex.getRequestMethod())) {
+            sendJson(ex, 405, error("use POST"));
+            return;
+        }
+
+        Scenario scenario;
+        try {
+            scenario = ScenarioJson.parse(readBody(ex));
+        } catch (IllegalArgumentException bad) {
+            sendJson(ex, 400, error(bad.getMessage()));
+            return;
+        }
+
+        String hash = ScenarioJson.canonicalHash(scenario);
+
+        RunSummary cached = cache.getSummary(hash);
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            replay(ex, hash, cached, true);
+            return;
+        }
+
+        // Coalesce identical in-flight requests: the first one runs, the rest wait for it.
+        CompletableFuture<RunSummary> mine = new CompletableFuture<>();
+        CompletableFuture<RunSummary> existing = inFlight.putIfAbsent(hash, mine);
+        if (existing != null) {
+            try {
+                RunSummary s = existing.get();
+                cacheHits.incrementAndGet();
+                replay(ex, hash, s, true);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                sendJson(ex, 503, error("interrupted"));
+            } catch (ExecutionException ee) {
+                sendJson(ex, 500, error(String.valueOf(ee.getCause())));
+            }
+            return;
+        }
+
+        cacheMisses.incrementAndGet();
+        try {
+            if (!runPermits.tryAcquire(30, TimeUnit.SECONDS)) {
+                mine.completeExceptionally(new IllegalStateException("busy"));
+                sendJson(ex, 503, error("too many concurrent runs, try again later"));
+                return;
+            }
+            try {
+                running.incrementAndGet();
+                RunSummary s = runStreaming(ex, hash, scenario);
+                cache.put(hash, s, null);
+                mine.complete(s);
+            } finally {
+                running.decrementAndGet();
+                runPermits.release();
+            }
+        } catch (InterruptedException ie) {
+            // only the permit wait throws this, so nothing has been sent yet
+            Thread.currentThread().interrupt();
+            mine.completeExceptionally(ie);
+            sendJson(ex, 503, error("interrupted"));
+        } catch (IOException | RuntimeException failure) {
+            mine.completeExceptionally(failure);
+            throw failure;
+        } finally {
+            inFlight.remove(hash, mine);
+        }
+    }
+
+    /** Steps a fresh engine interval by interval, writing one NDJSON line per interval. */
+    private RunSummary runStreaming(HttpExchange ex, String hash, Scenario scenario) throws IOException {
+        long t0 = System.nanoTime();
+        SimulationEngine engine = scenario.createEngine();
+
+        ex.getResponseHeaders().set("Content-Type", "application/x-ndjson; charset=utf-8");
+        ex.sendResponseHeaders(200, 0); // chunked
+        try (Writer w = new BufferedWriter(new OutputStreamWriter(ex.getResponseBody(), StandardCharsets.UTF_8))) {
+            writeLine(w, startLine(hash, false, engine.getTotalIntervals()));
+            w.flush();
+
+            LocalTime start = engine.getGlobalStart();
+            while (engine.getCurrentInterval() < engine.getTotalIntervals()) {
+                engine.computeNextInterval();
+                int i = engine.getCurrentInterval();
+                writeLine(w, intervalLine(i, start.plusMinutes((long) i * engine.getInterval()),
+                        engine.getTotalArrivalsAtInterval(i),
+                        engine.getTicketQueuedAtInterval(i),
+                        engine.getCheckpointQueuedAtInterval(i),
+                        engine.getHoldRoomTotalAtInterval(i)));
+                if (i % 30 == 0) w.flush();
+            }
+
+            long ms = (System.nanoTime() - t0) / 1_000_000L;
+            RunSummary s = RunSummary.fromEngine(scenario.getName(), engine, ms);
+            writeLine(w, summaryLine(s));
+            return s;
+        }
+    }
+
+    /** Same stream shape as a live run, rebuilt from the cached summary. */
+    private void replay(HttpExchange ex, String hash, RunSummary s, boolean cached) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", "application/x-ndjson; charset=utf-8");
+        ex.sendResponseHeaders(200, 0);
+        try (Writer w = new BufferedWriter(new OutputStreamWriter(ex.getResponseBody(), StandardCharsets.UTF_8))) {
+            writeLine(w, startLine(hash, cached, s.getTotalIntervals()));
+            int[] arrivals = s.getArrivals();
+            for (int i = 1; i <= s.getTotalIntervals(); i++) {
+                writeLine(w, intervalLine(i, s.getGlobalStart().plusMinutes((long) i * s.getIntervalMinutes()),
+                        arrivals[i], s.getTicketQueuedAt(i), s.getCheckpointQueuedAt(i), s.getHoldRoomTotalAt(i)));
+            }
+            writeLine(w, summaryLine(s));
+        }
+    }
+
+    // ============================
+    // Lines
+    // ============================
+
+    private static Map<String, Object> startLine(String hash, boolean cached, int intervals) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("type", "start");
+        m.put("hash", hash);
+        m.put("cached", cached);
+        m.put("intervals", intervals);
+        return m;
+    }
+
+    private static Map<String, Object> intervalLine(int i, LocalTime time, int arrivals,
+                                                    int ticketQueued, int checkpointQueued, int holdRooms) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("type", "interval");
+        m.put("interval", i);
+        m.put("time", time.format(HHMM));
+        m.put("arrivals", arrivals);
+        m.put("ticketQueued", ticketQueued);
+        m.put("checkpointQueued", checkpointQueued);
+        m.put("holdRooms", holdRooms);
+        return m;
+    }
+
+    private static Map<String, Object> summaryLine(RunSummary s) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("type", "summary");
+        m.put("scenario", s.getScenarioName());
+        m.put("expected", s.getTotalExpected());
+        m.put("made", s.getTotalMade());
+        m.put("missed", s.getTotalMissed());
+        m.put("peakTicketQueue", s.getPeakTicketQueued());
+        m.put("peakCheckpointQueue", s.getPeakCheckpointQueued());
+        m.put("peakHoldRooms", s.getPeakHoldRoomTotal());
+        m.put("elapsedMs", s.getElapsedMillis());
+
+        List<Object> flights = new ArrayList<>();
+        for (int i = 0; i < s.getFlightCount(); i++) {
+            Map<String, Object> f = new LinkedHashMap<>();
+            f.put("flight", s.getFlightNumber(i));
+            f.put("expected", s.getFlightExpected(i));
+            f.put("made", s.getFlightMade(i));
+            flights.add(f);
+        }
+        m.put("flights", flights);
+        return m;
+    }
+
+    private static void writeLine(Writer w, Map<String, Object> obj) throws IOException {
+        w.write(Json.write(obj));
+        w.write('\n');
+    }
+
+    // ============================
+    // Helpers
+    // ============================
+
+    private static Map<String, Object> error(String msg) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("type", "error");
+        m.put("message", msg);
+        return m;
+    }
+
+    private static String readBody(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void sendJson(HttpExchange ex, int status, Map<String, Object> body) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    // ============================
+    // CLI
+    // ============================
+
+    /** {@code ScenarioService [--port 8765] [--runs N] [--cache N] [--cacheDir dir]} */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        int port = 8765;
+        int runs = defaultRunLimit();
+        int cacheEntries = 256;
+        File cacheDir = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--port".equals(args[i]) && i + 1 < args.length) port = Integer.parseInt(args[++i].trim());
+            else if ("--runs".equals(args[i]) && i + 1 < args.length) runs = Integer.parseInt(args[++i].trim());
+            else if ("--cache".equals(args[i]) && i + 1 < args.length) cacheEntries = Integer.parseInt(args[++i].trim());
+            else if ("--cacheDir".equals(args[i]) && i + 1 < args.length) cacheDir = new File(args[++i].trim());
+        }
+
+        ScenarioService svc = new ScenarioService(port, runs, cacheEntries, cacheDir);
+        svc.start();
+        System.out.println("Scenario service on http://127.0.0.1:" + svc.getPort()
+                + " (max " + runs + " concurrent run(s), cache " + cacheEntries
+                + (cacheDir == null ? "" : " + disk " + cacheDir) + ")");
+        Runtime.getRuntime().addShutdownHook(new Thread(svc::stop));
+    }
+}
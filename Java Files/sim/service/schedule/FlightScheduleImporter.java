@@ -0,0 +1,365 @@
+package sim.service.schedule;
+
+import sim.model.Flight;
+import sim.service.batch.Scenario;
+import sim.service.batch.ScenarioIO;
+import sim.ui.CheckpointConfig;
+import sim.ui.HoldRoomConfig;
+import sim.ui.TicketCounterConfig;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Streaming CSV/TSV import of flight schedules.
+ *
+ * <pre>
+ * flight,departure,seats,fill,shape,counters,holdRooms
+ * AA100,08:30,180,0.85,CIRCLE,1|2,1
+ * BA7,9.05,220,82%,,,
+ * </pre>
+ *
+ * Columns are found by header name (case-insensitive; "flightNumber", "dep", "time", "loadFactor",
+ * "gates"... are accepted too). Without a header row the order above is assumed. The delimiter is
+ * taken from the first line (tab, ';' or ','); fields may be double-quoted.
+ * <ul>
+ *   <li>departure: HH:mm[:ss] or the flight table's H.mm</li>
+ *   <li>fill: 0.85, 85 or 85%</li>
+ *   <li>shape: optional, defaults to CIRCLE</li>
+ *   <li>counters / holdRooms: optional ids separated by '|' or spaces; empty = no restriction</li>
+ * </ul>
+ *
+ * The file is read line by line and each row becomes a Flight right away, so memory is the
+ * result itself. Bad rows are skipped and reported with their line number; so are repeated flight
+ * numbers (hold rooms refer to flights by number), the first row wins.
+ */
+public final class FlightScheduleImporter {
+
+    /** Errors kept verbatim in the result; the rest are only counted. */
+    public static final int MAX_REPORTED_ERRORS = 200;
+
+    private static final int COL_FLIGHT = 0, COL_DEPARTURE = 1, COL_SEATS = 2, COL_FILL = 3,
+            COL_SHAPE = 4, COL_COUNTERS = 5, COL_HOLD_ROOMS = 6, COLUMN_COUNT = 7;
+
+    private static final Map<String, Integer> HEADER_NAMES = new HashMap<>();
+    static {
+        for (String s : new String[] {"flight", "flightnumber", "flightno", "flight#", "number"}) HEADER_NAMES.put(s, COL_FLIGHT);
+        for (String s : new String[] {"departure", "dep", "deptime", "departuretime", "time", "std"}) HEADER_NAMES.put(s, COL_DEPARTURE);
+        for (String s : new String[] {"seats", "capacity"}) HEADER_NAMES.put(s, COL_SEATS);
+        for (String s : new String[] {"fill", "fillpercent", "fill%", "loadfactor", "lf"}) HEADER_NAMES.put(s, COL_FILL);
+        for (String s : new String[] {"shape"}) HEADER_NAMES.put(s, COL_SHAPE);
+        for (String s : new String[] {"counters", "counter", "ticketcounters"}) HEADER_NAMES.put(s, COL_COUNTERS);
+        for (String s : new String[] {"holdrooms", "holdroom", "gates", "gate"}) HEADER_NAMES.put(s, COL_HOLD_ROOMS);
+    }
+
+    private FlightScheduleImporter() {}
+
+    public static ScheduleImportResult importFile(File file) throws IOException {
+        try (BufferedReader r = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return importFrom(r);
+        }
+    }
+
+    public static ScheduleImportResult importFrom(Reader reader) throws IOException {
+        long t0 = System.nanoTime();
+        BufferedReader r = (reader instanceof BufferedReader)
+                ? (BufferedReader) reader
+                : new BufferedReader(reader, 1 << 16);
+
+        List<Flight> flights = new ArrayList<>();
+        Set<String> numbers = new HashSet<>();
+        Map<Integer, Set<Flight>> counterFlights = new TreeMap<>();
+        Map<Integer, Set<String>> holdRoomFlights = new TreeMap<>();
+        List<String> errors = new ArrayList<>();
+        int errorCount = 0;
+        long rows = 0;
+
+        int[] columns = null;   // column index in the file for each COL_*, -1 if absent
+        char delimiter = 0;
+        List<String> fields = new ArrayList<>(COLUMN_COUNT);
+
+        String line;
+        int lineNo = 0;
+        while ((line = r.readLine()) != null) {
+            lineNo++;
+            if (line.isEmpty() || line.trim().isEmpty() || line.trim().startsWith("#")) continue;
+
+            if (delimiter == 0) delimiter = detectDelimiter(line);
+            split(line, delimiter, fields);
+
+            if (columns == null) {
+                columns = headerColumns(fields);
+                if (columns != null) continue;  // header row
+                columns = new int[] {0, 1, 2, 3, 4, 5, 6};
+            }
+
+            rows++;
+            try {
+                Flight f = parseRow(fields, columns);
+                if (!numbers.add(f.getFlightNumber())) {
+                    throw new IllegalArgumentException("duplicate flight number " + f.getFlightNumber());
+                }
+                flights.add(f);
+
+                for (int id : parseIds(field(fields, columns[COL_COUNTERS]), "counter")) {
+                    counterFlights.computeIfAbsent(id, k -> new HashSet<>()).add(f);
+                }
+                for (int id : parseIds(field(fields, columns[COL_HOLD_ROOMS]), "hold room")) {
+                    holdRoomFlights.computeIfAbsent(id, k -> new LinkedHashSet<>()).add(f.getFlightNumber());
+                }
+            } catch (IllegalArgumentException ex) {
+                errorCount++;
+                if (errors.size() < MAX_REPORTED_ERRORS) errors.add("line " + lineNo + ": " + ex.getMessage());
+            }
+        }
+
+        List<TicketCounterConfig> counters = new ArrayList<>(counterFlights.size());
+        for (Map.Entry<Integer, Set<Flight>> e : counterFlights.entrySet()) {
+            counters.add(new TicketCounterConfig(e.getKey(), 1.0, e.getValue()));
+        }
+        List<HoldRoomConfig> holdRooms = new ArrayList<>(holdRoomFlights.size());
+        for (Map.Entry<Integer, Set<String>> e : holdRoomFlights.entrySet()) {
+            HoldRoomConfig h = new HoldRoomConfig(e.getKey());
+            h.setAllowedFlightNumbers(e.getValue());
+            holdRooms.add(h);
+        }
+
+        return new ScheduleImportResult(flights, counters, holdRooms, errors, errorCount, rows,
+                System.nanoTime() - t0);
+    }
+
+    // ============================
+    // Rows
+    // ============================
+
+    private static Flight parseRow(List<String> fields, int[] columns) {
+        String number = field(fields, columns[COL_FLIGHT]);
+        if (number.isEmpty()) throw new IllegalArgumentException("flight number is empty");
+
+        LocalTime dep = parseTime(field(fields, columns[COL_DEPARTURE]));
+
+        int seats;
+        try {
+            seats = Integer.parseInt(field(fields, columns[COL_SEATS]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad seats '" + field(fields, columns[COL_SEATS]) + "'");
+        }
+        if (seats < 0) throw new IllegalArgumentException("seats must be >= 0");
+
+        double fill = parseFill(field(fields, columns[COL_FILL]));
+
+        Flight.ShapeType shape = Flight.ShapeType.CIRCLE;
+        String s = field(fields, columns[COL_SHAPE]);
+        if (!s.isEmpty()) {
+            try {
+                shape = Flight.ShapeType.valueOf(s.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown shape '" + s + "'");
+            }
+        }
+        return new Flight(number, dep, seats, fill, shape);
+    }
+
+    /** HH:mm, HH:mm:ss or H.mm (the flight table's display format). */
+    static LocalTime parseTime(String s) {
+        int sep = s.indexOf(':');
+        if (sep < 0) sep = s.indexOf('.');
+        try {
+            if (sep > 0) {
+                int h = Integer.parseInt(s.substring(0, sep));
+                int rest = s.indexOf(':', sep + 1);
+                int m = Integer.parseInt(rest < 0 ? s.substring(sep + 1) : s.substring(sep + 1, rest));
+                int sec = rest < 0 ? 0 : Integer.parseInt(s.substring(rest + 1));
+                return LocalTime.of(h, m, sec);
+            }
+        } catch (RuntimeException e) {
+            // fall through to the message below
+        }
+        throw new IllegalArgumentException("bad departure time '" + s + "'");
+    }
+
+    /** 0.85, 85 or 85%; result in [0, 1]. */
+    static double parseFill(String s) {
+        boolean percent = s.endsWith("%");
+        double v;
+        try {
+            v = Double.parseDouble(percent ? s.substring(0, s.length() - 1).trim() : s);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad fill '" + s + "'");
+        }
+        if (percent || v > 1.0) v /= 100.0;
+        if (!(v >= 0.0 && v <= 1.0)) throw new IllegalArgumentException("fill must be between 0 and 1");
+        return v;
+    }
+
+    private static List<Integer> parseIds(String s, String what) {
+        if (s.isEmpty()) return List.of();
+        List<Integer> ids = new ArrayList<>(2);
+        for (String part : s.split("[|\\s]+")) {
+            if (part.isEmpty()) continue;
+            try {
+                int id = Integer.parseInt(part);
+                if (id < 1) throw new NumberFormatException();
+                ids.add(id);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("bad " + what + " id '" + part + "'");
+            }
+        }
+        return ids;
+    }
+
+    // ============================
+    // Tokenizing
+    // ============================
+
+    private static char detectDelimiter(String line) {
+        if (line.indexOf('\t') >= 0) return '\t';
+        if (line.indexOf(';') >= 0 && line.indexOf(',') < 0) return ';';
+        return ',';
+    }
+
+    /** Splits into {@code out} (cleared), trimming fields and honoring "double quotes". */
+    static void split(String line, char delimiter, List<String> out) {
+        out.clear();
+        StringBuilder sb = null;
+        int i = 0, n = line.length();
+        while (i <= n) {
+            if (i < n && line.charAt(i) == '"') {
+                // quoted field: "" is an escaped quote
+                if (sb == null) sb = new StringBuilder();
+                sb.setLength(0);
+                i++;
+                while (i < n) {
+                    char c = line.charAt(i++);
+                    if (c == '"') {
+                        if (i < n && line.charAt(i) == '"') { sb.append('"'); i++; }
+                        else break;
+                    } else {
+                        sb.append(c);
+                    }
+                }
+                while (i < n && line.charAt(i) != delimiter) i++;
+                out.add(sb.toString().trim());
+                i++;
+            } else {
+                int end = line.indexOf(delimiter, i);
+                if (end < 0) end = n;
+                out.add(line.substring(i, end).trim());
+                i = end + 1;
+            }
+        }
+    }
+
+    private static String field(List<String> fields, int column) {
+        return (column >= 0 && column < fields.size()) ? fields.get(column) : "";
+    }
+
+    /** Column positions if {@code fields} is a header row, else null. */
+    private static int[] headerColumns(List<String> fields) {
+        int[] cols = new int[COLUMN_COUNT];
+        Arrays.fill(cols, -1);
+        boolean any = false;
+        for (int i = 0; i < fields.size(); i++) {
+            String key = fields.get(i).toLowerCase(Locale.ROOT).replace(" ", "").replace("_", "");
+            Integer c = HEADER_NAMES.get(key);
+            if (c != null && cols[c] < 0) {
+                cols[c] = i;
+                any = true;
+            }
+        }
+        if (!any) return null;
+        for (int required : new int[] {COL_FLIGHT, COL_DEPARTURE, COL_SEATS, COL_FILL}) {
+            if (cols[required] < 0) {
+                throw new IllegalArgumentException("header is missing a column for "
+                        + new String[] {"flight", "departure", "seats", "fill"}[required]);
+            }
+        }
+        return cols;
+    }
+
+    // ============================
+    // CLI
+    // ============================
+
+    /**
+     * <pre>
+     * FlightScheduleImporter schedule.csv [--base scenario.properties] [--out scenario.properties]
+     * </pre>
+     * Prints the import report. With --out, writes a scenario: the base scenario's settings (or
+     * defaults) with the imported flights, counters and hold rooms.
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        File in = null, base = null, out = null;
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            if ("--base".equals(a) && i + 1 < args.length) base = new File(args[++i]);
+            else if ("--out".equals(a) && i + 1 < args.length) out = new File(args[++i]);
+            else in = new File(a);
+        }
+        if (in == null) {
+            System.out.println("Usage: FlightScheduleImporter schedule.csv [--base scenario.properties]"
+                    + " [--out scenario.properties]");
+            System.exit(2);
+            return;
+        }
+
+        ScheduleImportResult result = (in.getName().equals("-"))
+                ? importFrom(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : importFile(in);
+        System.out.println(result.summary());
+        for (String e : result.getErrors()) System.out.println("  " + e);
+        if (result.getErrorCount() > result.getErrors().size()) {
+            System.out.println("  ... " + (result.getErrorCount() - result.getErrors().size()) + " more");
+        }
+
+        if (out != null) {
+            Scenario b = (base != null) ? ScenarioIO.load(base) : null;
+
+            // a scenario needs at least one counter and checkpoint; unrestricted defaults otherwise
+            List<TicketCounterConfig> counters = result.getCounters().isEmpty()
+                    ? List.of(new TicketCounterConfig(1))
+                    : result.getCounters();
+            List<CheckpointConfig> checkpoints = (b != null) ? b.getCheckpoints() : new ArrayList<>();
+            if (checkpoints.isEmpty()) {
+                CheckpointConfig c = new CheckpointConfig(1);
+                c.setRatePerHour(120.0);
+                checkpoints = List.of(c);
+            }
+
+            Scenario s = new Scenario(
+                    b != null ? b.getName() : in.getName(),
+                    b != null ? b.getPercentInPerson() : 0.4,
+                    b != null ? b.getArrivalSpanMinutes() : 120,
+                    b != null ? b.getIntervalMinutes() : 1,
+                    b != null ? b.getTransitDelayMinutes() : 2,
+                    b != null ? b.getHoldDelayMinutes() : 5,
+                    result.getFlights(),
+                    counters,
+                    checkpoints,
+                    result.getHoldRooms(),
+                    b != null ? b.getCurveConfig() : null,
+                    b != null ? b.getCurveProfiles() : null,
+                    b != null ? b.getServiceTimes() : null);
+            ScenarioIO.save(s, out);
+            System.out.println("Wrote " + out.getAbsolutePath());
+        }
+    }
+}
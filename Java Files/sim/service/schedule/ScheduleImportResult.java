@@ -0,0 +1,62 @@
+package sim.service.schedule;
+
+import sim.model.Flight;
+import sim.ui.HoldRoomConfig;
+import sim.ui.TicketCounterConfig;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Outcome of one {@link FlightScheduleImporter} run: the flights that parsed, the counter and
+ * hold-room eligibility they referenced, and a row-level error report.
+ *
+ * Counters and hold rooms only exist here when the file assigned flights to them; ids are the
+ * ones used in the file, rates and walk times are defaults for the caller to adjust.
+ */
+public final class ScheduleImportResult {
+    private final List<Flight> flights;
+    private final List<TicketCounterConfig> counters;
+    private final List<HoldRoomConfig> holdRooms;
+    private final List<String> errors;
+    private final int errorCount;
+    private final long rows;
+    private final long elapsedNanos;
+
+    ScheduleImportResult(List<Flight> flights, List<TicketCounterConfig> counters, List<HoldRoomConfig> holdRooms,
+                         List<String> errors, int errorCount, long rows, long elapsedNanos) {
+        this.flights = Collections.unmodifiableList(flights);
+        this.counters = Collections.unmodifiableList(counters);
+        this.holdRooms = Collections.unmodifiableList(holdRooms);
+        this.errors = Collections.unmodifiableList(errors);
+        this.errorCount = errorCount;
+        this.rows = rows;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public List<Flight> getFlights() { return flights; }
+    public List<TicketCounterConfig> getCounters() { return counters; }
+    public List<HoldRoomConfig> getHoldRooms() { return holdRooms; }
+
+    /** First errors, "line N: message" (capped; see {@link #getErrorCount()}). */
+    public List<String> getErrors() { return errors; }
+    public int getErrorCount() { return errorCount; }
+    public boolean hasErrors() { return errorCount > 0; }
+
+    /** Data rows read (header, blank and comment lines excluded). */
+    public long getRows() { return rows; }
+    public long getElapsedMillis() { return elapsedNanos / 1_000_000L; }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos <= 0 ? 0.0 : rows * 1e9 / elapsedNanos;
+    }
+
+    /** One-line report, e.g. for a status bar or the CLI. */
+    public String summary() {
+        return String.format(Locale.ROOT,
+                "%d row(s), %d flight(s), %d error(s), %d counter(s), %d hold room(s) in %d ms (%.0f rows/s)",
+                rows, flights.size(), errorCount, counters.size(), holdRooms.size(), getElapsedMillis(),
+                getRowsPerSecond());
+    }
+}
@@ -3,6 +3,7 @@ package sim.ui;
 import sim.model.ArrivalCurveConfig;
 import sim.model.Flight;
 import sim.service.SimulationEngine;
+import sim.service.SimulationRun;
 
 import javax.swing.*;
 import java.awt.*;
@@ -26,7 +27,7 @@ public class AirportSetupPanel extends JPanel {
 
     // optional hook so AppFrame can react (enable analytics, etc.)
     public interface SimulationStartListener {
-        void onSimulationStarted(SimulationEngine tableEngine, SimulationEngine simEngine);
+        void onSimulationStarted(SimulationRun run);
     }
     private SimulationStartListener startListener;
 
@@ -48,6 +49,7 @@ public class AirportSetupPanel extends JPanel {
         holdRoomSetupPanel = new HoldRoomSetupPanel(flightTablePanel.getFlights());
 
         arrivalCurvePanel  = new ArrivalCurveEditorPanel(ArrivalCurveConfig.legacyDefault());
+        arrivalCurvePanel.setPreviewSchedule(flightTablePanel.getFlights());
 
         startSimulationButton = new JButton("Start Simulation");
         startSimulationButton.setForeground(Color.WHITE);
@@ -127,39 +129,62 @@ public class AirportSetupPanel extends JPanel {
 
             int effectiveArrivalSpan = Math.max(baseArrivalSpan, curveStart);
 
-            SimulationEngine tableEngine = createEngine(
+            SimulationEngine engine = createEngine(
                     percentInPerson, counters, checkpoints,
                     effectiveArrivalSpan, interval, transitDelay, holdDelay,
                     flights, holdRooms
             );
-            tableEngine.setArrivalCurveConfig(curveCfg);
-            tableEngine.runAllIntervals();
+            engine.setArrivalCurveConfig(curveCfg);
 
-            SimulationEngine simEngine = createEngine(
-                    percentInPerson, counters, checkpoints,
-                    effectiveArrivalSpan, interval, transitDelay, holdDelay,
-                    flights, holdRooms
-            );
-            simEngine.setArrivalCurveConfig(curveCfg);
-
-            if (startListener != null) startListener.onSimulationStarted(tableEngine, simEngine);
-
-            new DataTableFrame(tableEngine).setVisible(true);
-            new SimulationFrame(simEngine).setVisible(true);
+            runInBackground(engine);
 
         } catch (Exception ex) {
-            ex.printStackTrace();
-            StringWriter sw = new StringWriter();
-            ex.printStackTrace(new PrintWriter(sw));
-            JTextArea area = new JTextArea(sw.toString(), 20, 60);
-            area.setEditable(false);
-            JOptionPane.showMessageDialog(this,
-                    new JScrollPane(area),
-                    "Simulation Error",
-                    JOptionPane.ERROR_MESSAGE);
+            showSimulationError(ex);
         }
     }
 
+    /**
+     * Computes the run once, off the EDT; the data table and the animated view then share it
+     * (the animation replays the run's snapshots instead of simulating again).
+     */
+    private void runInBackground(SimulationEngine engine) {
+        startSimulationButton.setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+        new SwingWorker<SimulationRun, Void>() {
+            @Override
+            protected SimulationRun doInBackground() {
+                return SimulationRun.compute(engine);
+            }
+
+            @Override
+            protected void done() {
+                startSimulationButton.setEnabled(true);
+                setCursor(Cursor.getDefaultCursor());
+                try {
+                    SimulationRun run = get();
+                    if (startListener != null) startListener.onSimulationStarted(run);
+                    new DataTableFrame(run).setVisible(true);
+                    new SimulationFrame(run).setVisible(true);
+                } catch (Exception ex) {
+                    showSimulationError(ex.getCause() != null ? ex.getCause() : ex);
+                }
+            }
+        }.execute();
+    }
+
+    private void showSimulationError(Throwable ex) {
+        ex.printStackTrace();
+        StringWriter sw = new StringWriter();
+        ex.printStackTrace(new PrintWriter(sw));
+        JTextArea area = new JTextArea(sw.toString(), 20, 60);
+        area.setEditable(false);
+        JOptionPane.showMessageDialog(this,
+                new JScrollPane(area),
+                "Simulation Error",
+                JOptionPane.ERROR_MESSAGE);
+    }
+
     private int resolveHoldDelayMinutes() {
         Integer fromPanel = tryInvokeInt(holdRoomSetupPanel,
                 "getHoldDelayMinutes",
@@ -48,7 +48,7 @@ public class AppFrame extends JFrame {
         tabs.setEnabledAt(2, false);
 
         // When simulation starts, enable Analytics
-        setupPanel.setSimulationStartListener((tableEngine, simEngine) -> {
+        setupPanel.setSimulationStartListener(run -> {
             tabs.setEnabledAt(2, true);
             analyticsStatus.setText("<html><div style='text-align:center;'>Analytics enabled.<br/>" +
                     "For now, analytics are still shown inside the Simulation window & Data Table window.<br/>" +
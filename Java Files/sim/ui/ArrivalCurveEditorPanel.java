@@ -1,13 +1,18 @@
 package sim.ui;
 
 import sim.model.ArrivalCurveConfig;
-import sim.service.ArrivalGenerator;
+import sim.model.Flight;
+import sim.service.arrivals.ArrivalCurveCache;
 import sim.service.arrivals.EditedSplitGaussianArrivalGenerator;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.HierarchyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Arrival curve editor panel (preview + drag handles).
@@ -22,6 +27,15 @@ import java.awt.event.MouseEvent;
  *  - config.markEdited()
  *  - preview uses EditedSplitGaussianArrivalGenerator over arrivalSpan=240, with windowStart controlling
  *    whether earlier minutes (240->120) can get mass.
+ *
+ * Preview pipeline:
+ *  - edits only update the config and repaint the handles; the curve itself is recomputed after a
+ *    short debounce, on a SwingWorker, from a config snapshot (rapid drags coalesce into one run)
+ *  - each run gets a generation number and only the newest one is published, so a slow run can
+ *    never overwrite a newer curve
+ *  - with {@link #setPreviewSchedule(List)} a second strip shows the whole schedule's total arrivals
+ *    per minute. Flights are grouped by (departure minute, passengers) once per schedule change and
+ *    each group adds one cached ArrivalCurveCache table, so a curve edit costs O(groups x minutes).
  */
 public class ArrivalCurveEditorPanel extends JPanel {
 
@@ -42,11 +56,23 @@ public class ArrivalCurveEditorPanel extends JPanel {
     private enum Handle { NONE, PEAK, LEFT_SIGMA, RIGHT_SIGMA, CLAMP }
     private Handle activeHandle = Handle.NONE;
 
-    private final EditedSplitGaussianArrivalGenerator editedGen = new EditedSplitGaussianArrivalGenerator();
+    private static final EditedSplitGaussianArrivalGenerator EDITED_GEN = new EditedSplitGaussianArrivalGenerator();
 
     // Preview passengers (just to scale the curve)
     private static final int PREVIEW_TOTAL_PAX = 1000;
 
+    // Preview pipeline
+    private static final int PREVIEW_DEBOUNCE_MS = 40;
+    private static final int SCHEDULE_STRIP_H = 130;
+
+    private final javax.swing.Timer previewTimer;
+    private SwingWorker<Preview, Void> previewWorker;
+    private long previewGeneration;
+    private Preview preview;                  // latest published result (EDT only)
+
+    private List<Flight> scheduleFlights;     // live flight table list, only read on the EDT
+    private ScheduleGroups scheduleGroups;    // grouped snapshot, rebuilt when the schedule changes
+
     public ArrivalCurveEditorPanel() {
         this(ArrivalCurveConfig.legacyDefault());
     }
@@ -57,6 +83,9 @@ public class ArrivalCurveEditorPanel extends JPanel {
         setPreferredSize(new Dimension(800, 260));
         setBackground(Color.WHITE);
 
+        previewTimer = new javax.swing.Timer(PREVIEW_DEBOUNCE_MS, e -> startPreviewWorker());
+        previewTimer.setRepeats(false);
+
         MouseAdapter ma = new MouseAdapter() {
             @Override
             public void mousePressed(MouseEvent e) {
@@ -89,11 +118,19 @@ public class ArrivalCurveEditorPanel extends JPanel {
                 // Keep values sensible again after auto-expand
                 config.validateAndClamp();
 
+                requestPreview();
                 repaint();
             }
         };
         addMouseListener(ma);
         addMouseMotionListener(ma);
+
+        // the flight table may have changed while another tab was showing
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing()) requestPreview();
+        });
+
+        requestPreview();
     }
 
     /**
@@ -120,9 +157,169 @@ public class ArrivalCurveEditorPanel extends JPanel {
     public void setConfig(ArrivalCurveConfig cfg) {
         this.config = (cfg == null) ? ArrivalCurveConfig.legacyDefault() : cfg;
         ensureSaneDefaults();
+        requestPreview();
         repaint();
     }
 
+    /**
+     * Shows the schedule's total arrivals under the curve. {@code flights} is the live flight
+     * table list; it is re-read (on the EDT) whenever a preview is computed. Null hides the strip.
+     */
+    public void setPreviewSchedule(List<Flight> flights) {
+        this.scheduleFlights = flights;
+        this.scheduleGroups = null;
+        setPreferredSize(new Dimension(800, flights == null ? 260 : 260 + SCHEDULE_STRIP_H));
+        revalidate();
+        requestPreview();
+    }
+
+    // ============================
+    // Preview pipeline
+    // ============================
+
+    /** Restarts the debounce; the worker runs once edits pause for PREVIEW_DEBOUNCE_MS. */
+    private void requestPreview() {
+        previewTimer.restart();
+    }
+
+    private void startPreviewWorker() {
+        // snapshots are taken here, on the EDT; the worker never touches panel state
+        ArrivalCurveConfig cfg = getConfigCopy();
+        ScheduleGroups groups = currentScheduleGroups();
+        long generation = ++previewGeneration;
+
+        if (previewWorker != null) previewWorker.cancel(false);
+        previewWorker = new SwingWorker<>() {
+            @Override
+            protected Preview doInBackground() {
+                return computePreview(cfg, groups);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || generation != previewGeneration) return;
+                try {
+                    preview = get();
+                    repaint();
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+            }
+        };
+        previewWorker.execute();
+    }
+
+    private ScheduleGroups currentScheduleGroups() {
+        if (scheduleFlights == null || scheduleFlights.isEmpty()) return null;
+
+        long signature = ScheduleGroups.signature(scheduleFlights);
+        if (scheduleGroups == null || scheduleGroups.signature != signature) {
+            scheduleGroups = new ScheduleGroups(scheduleFlights, signature);
+        }
+        return scheduleGroups;
+    }
+
+    private static Preview computePreview(ArrivalCurveConfig cfg, ScheduleGroups groups) {
+        Preview p = new Preview();
+        p.curve = buildPreviewCounts(cfg);
+        if (groups != null) {
+            p.flightCount = groups.flightCount;
+            buildScheduleCounts(cfg, groups, p);
+        }
+        return p;
+    }
+
+    /**
+     * Sum of every flight's arrivals on the clock, with the run's span rule
+     * (max(default window, curve window start)).
+     */
+    private static void buildScheduleCounts(ArrivalCurveConfig cfg, ScheduleGroups groups, Preview p) {
+        int curveStart = cfg.isLegacyMode()
+                ? ArrivalCurveConfig.DEFAULT_WINDOW_START
+                : cfg.getWindowStartMinutesBeforeDeparture();
+        int span = Math.max(ArrivalCurveConfig.DEFAULT_WINDOW_START, curveStart);
+
+        ArrivalCurveCache.Shape shape = cfg.isLegacyMode()
+                ? ArrivalCurveCache.Shape.legacy(span)
+                : ArrivalCurveCache.Shape.edited(cfg, span);
+        int len = shape.getTotalMinutes();
+
+        int start = groups.firstDeparture - span;
+        int[] out = new int[Math.max(0, groups.lastDeparture - span + len - start)];
+        for (int g = 0; g < groups.totals.length; g++) {
+            int[] c = ArrivalCurveCache.shared().counts(shape, groups.totals[g]);
+            int off = groups.departures[g] - span - start;
+            int mult = groups.multiplicity[g];
+            for (int k = 0; k < c.length; k++) out[off + k] += mult * c[k];
+        }
+        p.schedule = out;
+        p.scheduleStartMinute = start;
+    }
+
+    /** One published preview; immutable once handed to the EDT. */
+    private static final class Preview {
+        int[] curve = new int[0];
+        int[] schedule = new int[0];
+        int scheduleStartMinute;
+        int flightCount;
+    }
+
+    /** Flights grouped by (departure minute of day, passengers); only sizes matter for arrivals. */
+    private static final class ScheduleGroups {
+        final long signature;
+        final int flightCount;
+        final int[] departures;
+        final int[] totals;
+        final int[] multiplicity;
+        final int firstDeparture;
+        final int lastDeparture;
+
+        ScheduleGroups(List<Flight> flights, long signature) {
+            this.signature = signature;
+            this.flightCount = flights.size();
+
+            Map<Long, Integer> counts = new HashMap<>();
+            int first = Integer.MAX_VALUE, last = Integer.MIN_VALUE;
+            for (Flight f : flights) {
+                int dep = departureMinute(f);
+                first = Math.min(first, dep);
+                last = Math.max(last, dep);
+                counts.merge(((long) dep << 32) | (passengers(f) & 0xffffffffL), 1, Integer::sum);
+            }
+
+            int n = counts.size();
+            this.departures = new int[n];
+            this.totals = new int[n];
+            this.multiplicity = new int[n];
+            int i = 0;
+            for (Map.Entry<Long, Integer> e : counts.entrySet()) {
+                departures[i] = (int) (e.getKey() >> 32);
+                totals[i] = (int) (long) e.getKey();
+                multiplicity[i] = e.getValue();
+                i++;
+            }
+            this.firstDeparture = first;
+            this.lastDeparture = last;
+        }
+
+        static long signature(List<Flight> flights) {
+            long h = flights.size();
+            for (Flight f : flights) {
+                h = 31 * h + departureMinute(f);
+                h = 31 * h + passengers(f);
+            }
+            return h;
+        }
+
+        private static int departureMinute(Flight f) {
+            return f.getDepartureTime().getHour() * 60 + f.getDepartureTime().getMinute();
+        }
+
+        private static int passengers(Flight f) {
+            return (int) Math.round(f.getSeats() * f.getFillPercent());
+        }
+    }
+
     private void ensureSaneDefaults() {
         // If fields were never initialized in config, set reasonable edited defaults.
         if (config.getBoardingCloseMinutesBeforeDeparture() <= 0) {
@@ -219,7 +416,7 @@ public class ArrivalCurveEditorPanel extends JPanel {
 
         // Only count as "hit" if mouse is in plot area height
         int plotTop = PAD_T;
-        int plotBot = h - PAD_B;
+        int plotBot = h - PAD_B - scheduleStripHeight();
         if (my < plotTop || my > plotBot) return Handle.NONE;
 
         int dPeak = Math.abs(mx - peakX);
@@ -250,7 +447,7 @@ public class ArrivalCurveEditorPanel extends JPanel {
         int plotL = PAD_L;
         int plotR = w - PAD_R;
         int plotT = PAD_T;
-        int plotB = h - PAD_B;
+        int plotB = h - PAD_B - scheduleStripHeight();
 
         // Axis
         g2.setColor(new Color(220, 220, 220));
@@ -262,8 +459,8 @@ public class ArrivalCurveEditorPanel extends JPanel {
         g2.drawString("Arrival Curve Editor (" + mode + ") — drag lines: peak / σ / clamp",
                 plotL, 14);
 
-        // Build preview curve
-        int[] counts = buildPreviewCounts();
+        // Latest published preview curve (empty until the first worker finishes)
+        int[] counts = (preview == null) ? new int[0] : preview.curve;
 
         // Find max for scaling
         int max = 1;
@@ -310,6 +507,10 @@ public class ArrivalCurveEditorPanel extends JPanel {
         g2.setColor(Color.DARK_GRAY);
         drawXTicks(g2, plotL, plotR, plotB);
 
+        if (scheduleStripHeight() > 0) {
+            drawScheduleStrip(g2, plotL, plotR, h - SCHEDULE_STRIP_H + 16, h - 34);
+        }
+
         // Bottom config summary
         g2.setColor(Color.DARK_GRAY);
         g2.drawString(summaryText(), plotL, h - 10);
@@ -317,6 +518,44 @@ public class ArrivalCurveEditorPanel extends JPanel {
         g2.dispose();
     }
 
+    private int scheduleStripHeight() {
+        return (preview != null && preview.schedule.length > 0) ? SCHEDULE_STRIP_H : 0;
+    }
+
+    private void drawScheduleStrip(Graphics2D g2, int plotL, int plotR, int top, int bottom) {
+        int[] s = preview.schedule;
+        int max = 1;
+        for (int v : s) max = Math.max(max, v);
+
+        g2.setColor(new Color(220, 220, 220));
+        g2.drawRect(plotL, top, plotR - plotL, bottom - top);
+
+        g2.setColor(Color.DARK_GRAY);
+        g2.drawString("Schedule total arrivals / min (" + preview.flightCount + " flights, peak " + max + ")",
+                plotL, top - 4);
+
+        g2.setColor(new Color(230, 140, 40));
+        int prevX = -1, prevY = -1;
+        for (int i = 0; i < s.length; i++) {
+            int x = plotL + (int) Math.round(i * (plotR - plotL) / (double) Math.max(1, s.length - 1));
+            int y = bottom - (int) Math.round(s[i] / (double) max * (bottom - top));
+            if (prevX >= 0) g2.drawLine(prevX, prevY, x, y);
+            prevX = x;
+            prevY = y;
+        }
+
+        g2.setColor(Color.DARK_GRAY);
+        int startMin = preview.scheduleStartMinute;
+        g2.drawString(clock(startMin), plotL, bottom + 14);
+        String end = clock(startMin + s.length);
+        g2.drawString(end, plotR - g2.getFontMetrics().stringWidth(end), bottom + 14);
+    }
+
+    private static String clock(int minuteOfDay) {
+        int m = Math.floorMod(minuteOfDay, 24 * 60);
+        return String.format("%02d:%02d", m / 60, m % 60);
+    }
+
     private String summaryText() {
         return "peak=" + config.getPeakMinutesBeforeDeparture()
                 + "  Lσ=" + config.getLeftSigmaMinutes()
@@ -349,22 +588,12 @@ public class ArrivalCurveEditorPanel extends JPanel {
      * - If legacyMode: show zeros for 240->120 then legacy curve for 120->20
      * - If edited: show edited curve over 240->20, with windowStart controlling early zeros
      */
-    private int[] buildPreviewCounts() {
+    private static int[] buildPreviewCounts(ArrivalCurveConfig config) {
         int totalMinutes = PREVIEW_ARRIVAL_SPAN - PREVIEW_CLOSE; // 220
         int[] out = new int[totalMinutes];
 
         if (config.isLegacyMode()) {
             // Legacy generator is defined for arrivalSpan=120, close=20 => length 100
-            ArrivalGenerator legacy = new ArrivalGenerator(120, 1);
-            // We need a Flight to call it, but the shape is independent of flight in your code
-            // (it uses seats/fillPercent). We'll fake pax by creating a temporary Flight is not possible here.
-            // So instead we compute the legacy shape by calling edited preview with config still legacy?
-            //
-            // BETTER: use the exact legacy math as probabilities (rebuild with totalPassengers=PREVIEW_TOTAL_PAX)
-            // by reusing the same ArrivalGenerator distribution indirectly:
-            //
-            // Because ArrivalGenerator needs a Flight to compute passenger count,
-            // we approximate by constructing a "counts shape" from its known PDF formula (same as your file).
             int[] legacyCounts = legacyShapeCounts(PREVIEW_TOTAL_PAX);
 
             // Place legacy 100-minute curve into the last 100 bins (i from 120..219)
@@ -376,7 +605,7 @@ public class ArrivalCurveEditorPanel extends JPanel {
         }
 
         // Edited mode: use the edited generator directly (windowStart will decide early zeros)
-        int[] edited = editedGen.buildArrivalsPerMinute(null, PREVIEW_TOTAL_PAX, config, PREVIEW_ARRIVAL_SPAN);
+        int[] edited = EDITED_GEN.buildArrivalsPerMinute(null, PREVIEW_TOTAL_PAX, config, PREVIEW_ARRIVAL_SPAN);
         if (edited == null) return out;
 
         // edited length should be 220; if not, copy what fits.
@@ -386,57 +615,11 @@ public class ArrivalCurveEditorPanel extends JPanel {
     }
 
     /**
-     * Rebuild the same legacy curve shape your ArrivalGenerator produces for (arrivalSpan=120, close=20),
-     * but without needing a Flight instance.
-     *
-     * This mirrors your ArrivalGenerator constructor math:
-     * totalMinutes = 120 - 20 = 100
-     * mean = totalMinutes/2
-     * sigma = totalMinutes/6
-     * probability[m] proportional to exp(-0.5 * x^2), x=(m+0.5-mean)/sigma
+     * The same legacy curve shape ArrivalGenerator produces for (arrivalSpan=120, close=20),
+     * without needing a Flight instance. Shared with the engines via ArrivalCurveCache (read-only).
      */
-    private int[] legacyShapeCounts(int totalPassengers) {
-        int totalMinutes = 120 - 20; // 100
-        double[] prob = new double[totalMinutes];
-
-        double mean = totalMinutes / 2.0;
-        double sigma = totalMinutes / 6.0;
-
-        double sum = 0.0;
-        for (int m = 0; m < totalMinutes; m++) {
-            double x = (m + 0.5 - mean) / sigma;
-            double pdf = Math.exp(-0.5 * x * x);
-            prob[m] = pdf;
-            sum += pdf;
-        }
-        for (int m = 0; m < totalMinutes; m++) prob[m] /= sum;
-
-        int[] out = new int[totalMinutes];
-        double[] raw = new double[totalMinutes];
-        int floorSum = 0;
-
-        for (int m = 0; m < totalMinutes; m++) {
-            raw[m] = prob[m] * totalPassengers;
-            out[m] = (int) Math.floor(raw[m]);
-            floorSum += out[m];
-        }
-
-        int remainder = totalPassengers - floorSum;
-        while (remainder > 0) {
-            int bestIdx = 0;
-            double bestFrac = -1.0;
-            for (int i = 0; i < totalMinutes; i++) {
-                double frac = raw[i] - out[i];
-                if (frac > bestFrac) {
-                    bestFrac = frac;
-                    bestIdx = i;
-                }
-            }
-            out[bestIdx]++;
-            remainder--;
-        }
-
-        return out;
+    private static int[] legacyShapeCounts(int totalPassengers) {
+        return ArrivalCurveCache.shared().counts(ArrivalCurveCache.Shape.legacy(120), totalPassengers);
     }
 
     // Coordinate transforms
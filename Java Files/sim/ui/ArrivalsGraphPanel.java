@@ -1,5 +1,6 @@
 package sim.ui;
 
+import sim.service.ArrivalsIndex;
 import sim.service.SimulationEngine;
 
 import javax.swing.*;
@@ -64,18 +65,18 @@ public class ArrivalsGraphPanel extends JPanel {
 
         int n = Math.max(1, maxComputed + 1);
 
+        // O(1) per point (prefix index built once per arrivals rebuild)
+        ArrivalsIndex arrivals = engine.getArrivalsIndex();
+
         // y max
-        int yMax = 1;
-        for (int i = 0; i <= maxComputed; i++) {
-            yMax = Math.max(yMax, engine.getTotalArrivalsAtInterval(i));
-        }
+        int yMax = Math.max(1, arrivals.maxTotalThroughInterval(maxComputed));
 
         // polyline
         g2.setColor(new Color(40, 120, 200));
         int prevX = -1, prevY = -1;
 
         for (int i = 0; i <= maxComputed; i++) {
-            int v = engine.getTotalArrivalsAtInterval(i);
+            int v = arrivals.totalAtInterval(i);
 
             double tx = (n <= 1) ? 0.0 : (i / (double) (n - 1));
             int x = plotL + (int) Math.round(tx * (plotR - plotL));
@@ -2,6 +2,7 @@ package sim.ui;
 
 import sim.model.Flight;
 import sim.model.Passenger;
+import sim.service.EngineView;
 import sim.service.SimulationEngine;
 
 import javax.swing.*;
@@ -20,23 +21,37 @@ public class CheckpointLinesPanel extends JPanel {
     private final List<Passenger> clickablePassengers;
     private final List<Rectangle> counterAreas;
     private final Flight filterFlight;
+    private final int viewInterval;   // -1 = follow engine.getCurrentInterval()
 
     public CheckpointLinesPanel(SimulationEngine engine,
                                 List<Rectangle> clickableAreas,
                                 List<Passenger> clickablePassengers,
                                 Flight filterFlight) {
+        this(engine, clickableAreas, clickablePassengers, filterFlight, -1);
+    }
+
+    /**
+     * Pinned constructor: always renders the given interval instead of following the engine.
+     * @param viewInterval interval to show (history step viewInterval - 1), or -1 to follow the engine
+     */
+    public CheckpointLinesPanel(SimulationEngine engine,
+                                List<Rectangle> clickableAreas,
+                                List<Passenger> clickablePassengers,
+                                Flight filterFlight,
+                                int viewInterval) {
         this.engine = engine;
         this.clickableAreas = clickableAreas;
         this.clickablePassengers = clickablePassengers;
         this.counterAreas = new ArrayList<>();            // << new list for counters
         this.filterFlight = filterFlight;
+        this.viewInterval = viewInterval;
         this.checkpointQueuedOffsets = new int[engine.getCheckpointLines().size()];
         this.checkpointServedOffsets = new int[engine.getCheckpointLines().size()];
         setFocusable(true);
 
         // install shared scroll handler
         ScrollMouseHandler handler = new ScrollMouseHandler.CheckpointScrollHandler(
-            engine, clickableAreas, clickablePassengers,
+            engine, this::currentView, clickableAreas, clickablePassengers,
             checkpointQueuedOffsets, checkpointServedOffsets,
             filterFlight,
             counterAreas
@@ -52,7 +67,7 @@ public class CheckpointLinesPanel extends JPanel {
         GridRenderer.renderCheckpointLines(
             this,
             g,
-            engine,
+            currentView(),
             checkpointQueuedOffsets,
             checkpointServedOffsets,
             clickableAreas,
@@ -62,19 +77,17 @@ public class CheckpointLinesPanel extends JPanel {
         );
     }
 
+    /** Snapshot of the interval this panel shows; safe to read while the engine advances. */
+    public EngineView currentView() {
+        return viewInterval >= 0 ? engine.viewAt(viewInterval) : engine.currentView();
+    }
+
     /**
      * @return the maximum size that checkpoint line #lineIdx ever reached
-     *         across all history intervals.
+     *         across all retained history intervals.
      */
     public int getMaxQueuedForLine(int lineIdx) {
-        int max = 0;
-        for (List<List<Passenger>> interval : engine.getHistoryQueuedCheckpoint()) {
-            int sz = interval.get(lineIdx).size();
-            if (sz > max) {
-                max = sz;
-            }
-        }
-        return max;
+        return engine.getPeakQueuedCheckpointLine(lineIdx)[0];
     }
 
     /**
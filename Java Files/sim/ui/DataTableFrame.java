@@ -2,7 +2,9 @@ package sim.ui;
 
 import sim.model.Flight;
 import sim.model.Passenger;
+import sim.service.ArrivalsIndex;
 import sim.service.SimulationEngine;
+import sim.service.SimulationRun;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
@@ -13,17 +15,21 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
 
 public class DataTableFrame extends JFrame {
     private final JTabbedPane tabbedPane;
 
+    /** Runs {@code engine} to the end first (prefer the SimulationRun constructor to share a run). */
     public DataTableFrame(SimulationEngine engine) {
+        this(SimulationRun.compute(engine));
+    }
+
+    /** Tables for an already computed run; nothing is re-simulated. */
+    public DataTableFrame(SimulationRun run) {
         super("Interval Data");
         setDefaultCloseOperation(DISPOSE_ON_CLOSE);
 
-        // Run full simulation to populate history and arrivals
-        engine.runAllIntervals();
+        SimulationEngine engine = run.getEngine();
 
         // Prepare time headers
         List<Flight> flights = engine.getFlights();
@@ -209,31 +215,25 @@ public class DataTableFrame extends JFrame {
             LocalTime startTime,
             DateTimeFormatter fmt
         ) {
-            List<Flight> flights = engine.getFlights();
-            int totalMinutes = Math.max(engine.getArrivalSpan() - 20, 0);
+            // one column per minute since startTime, across every flight's arrival window
+            ArrivalsIndex arrivals = engine.getArrivalsIndex();
+            int nFlights = arrivals.getFlightCount();
+            int totalMinutes = arrivals.getHorizonMinutes();
             columnNames = new String[totalMinutes + 1];
             columnNames[0] = "Time";
             for (int m = 0; m < totalMinutes; m++) {
                 columnNames[m + 1] = startTime.plusMinutes(m + 1).format(fmt);
             }
-            data = new Object[flights.size() + 1][totalMinutes + 1];
-            Map<Flight, int[]> perMin = engine.getMinuteArrivalsMap();
-            int row = 0;
-            for (Flight f : flights) {
-                data[row][0] = "Arrivals - " + f.getFlightNumber();
-                int[] arr = perMin.getOrDefault(f, new int[totalMinutes]);
+            data = new Object[nFlights + 1][totalMinutes + 1];
+            for (int row = 0; row < nFlights; row++) {
+                data[row][0] = "Arrivals - " + arrivals.getFlight(row).getFlightNumber();
                 for (int m = 0; m < totalMinutes; m++) {
-                    data[row][m + 1] = arr[m];
+                    data[row][m + 1] = arrivals.flightAtMinute(row, m);
                 }
-                row++;
             }
-            data[row][0] = "Total Arrivals";
+            data[nFlights][0] = "Total Arrivals";
             for (int m = 0; m < totalMinutes; m++) {
-                int sum = 0;
-                for (Flight f : flights) {
-                    sum += perMin.getOrDefault(f, new int[totalMinutes])[m];
-                }
-                data[row][m + 1] = sum;
+                data[nFlights][m + 1] = arrivals.totalAtMinute(m);
             }
         }
 
@@ -2,6 +2,7 @@ package sim.ui;
 
 
 import sim.model.Flight;
+import sim.service.ArrivalsIndex;
 import sim.service.SimulationEngine;
 
 
@@ -10,7 +11,6 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Collections;
-import java.util.Map;
 
 
 
@@ -43,7 +43,8 @@ public class DataTableModel extends AbstractTableModel {
             .min(LocalTime::compareTo)
             .orElse(LocalTime.MIDNIGHT);
         int arrivalSpan = engine.getArrivalSpan();          // e.g. 120 minutes
-        int totalMinutes = arrivalSpan - 20;                // as per ArrivalGenerator
+        ArrivalsIndex arrivals = engine.getArrivalsIndex(); // global per-minute totals
+        int totalMinutes = arrivals.getHorizonMinutes();    // up to 20 min before the last departure
 
 
         // Build column headers: one for each minute
@@ -61,17 +62,12 @@ public class DataTableModel extends AbstractTableModel {
         data = new Object[nRows][totalMinutes + 1];
 
 
-        // Fetch per‑minute arrivals map
-        Map<Flight,int[]> perMinMap = engine.getMinuteArrivalsMap();
-
-
         // Fill flight rows
         int row = 0;
         for (Flight f : flights) {
             data[row][0] = "Arrivals - " + f.getFlightNumber();
-            int[] arr = perMinMap.getOrDefault(f, new int[totalMinutes]);
             for (int m = 0; m < totalMinutes; m++) {
-                data[row][m + 1] = arr[m];
+                data[row][m + 1] = arrivals.flightAtMinute(f, m);
             }
             row++;
         }
@@ -80,11 +76,7 @@ public class DataTableModel extends AbstractTableModel {
         // Fill total row
         data[row][0] = "Total Arrivals";
         for (int m = 0; m < totalMinutes; m++) {
-            int sum = 0;
-            for (Flight f : flights) {
-                sum += perMinMap.getOrDefault(f, new int[totalMinutes])[m];
-            }
-            data[row][m + 1] = sum;
+            data[row][m + 1] = arrivals.totalAtMinute(m);
         }
     }
 
@@ -6,16 +6,12 @@ import sim.service.SimulationEngine;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.WindowAdapter;
-import java.awt.event.WindowEvent;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 
 public class FlightSnapshotFrame extends JFrame {
     private final SimulationEngine engine;
     private final int step;
-    private final int originalInterval;
 
     /**
      * Legacy constructor: shows snapshot at the most recently closed interval.
@@ -34,41 +30,12 @@ public class FlightSnapshotFrame extends JFrame {
         super("Snapshot — Flight " + flight.getFlightNumber());
         this.engine = engine;
         this.step   = Math.max(0, step);
-        this.originalInterval = engine.getCurrentInterval();
-
-        // Bump engine.currentInterval so that the panels pick up the correct history step.
-        // (Panels typically render step = engine.getCurrentInterval() - 1)
-        try {
-            Field curr = SimulationEngine.class.getDeclaredField("currentInterval");
-            curr.setAccessible(true);
-            curr.setInt(engine, this.step + 1);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        // IMPORTANT: restore the engine interval when this window closes
-        addWindowListener(new WindowAdapter() {
-            @Override
-            public void windowClosed(WindowEvent e) {
-                restoreInterval();
-            }
-            @Override
-            public void windowClosing(WindowEvent e) {
-                restoreInterval();
-            }
-        });
 
+        // Panels are pinned to interval step + 1 and read it through EngineView,
+        // so the engine's own currentInterval is never touched from here.
         initUI(flight);
     }
 
-    private void restoreInterval() {
-        try {
-            Field curr = SimulationEngine.class.getDeclaredField("currentInterval");
-            curr.setAccessible(true);
-            curr.setInt(engine, originalInterval);
-        } catch (Exception ignored) { }
-    }
-
     private void initUI(Flight flight) {
         setDefaultCloseOperation(DISPOSE_ON_CLOSE);
         setLayout(new BorderLayout(5, 5));
@@ -85,7 +52,7 @@ public class FlightSnapshotFrame extends JFrame {
         // --- Ticket panel ---
         List<Rectangle> areas1 = new ArrayList<>();
         List<Passenger> pass1  = new ArrayList<>();
-        TicketLinesPanel ticketPanel = new TicketLinesPanel(engine, areas1, pass1, flight);
+        TicketLinesPanel ticketPanel = new TicketLinesPanel(engine, areas1, pass1, flight, step + 1);
         ticketPanel.setPreferredSize(
                 new Dimension(panelWidth, ticketPanel.getPreferredSize().height)
         );
@@ -98,7 +65,7 @@ public class FlightSnapshotFrame extends JFrame {
         // --- Checkpoint panel ---
         List<Rectangle> areas2 = new ArrayList<>();
         List<Passenger> pass2  = new ArrayList<>();
-        CheckpointLinesPanel checkpointPanel = new CheckpointLinesPanel(engine, areas2, pass2, flight);
+        CheckpointLinesPanel checkpointPanel = new CheckpointLinesPanel(engine, areas2, pass2, flight, step + 1);
         checkpointPanel.setPreferredSize(
                 new Dimension(panelWidth, checkpointPanel.getPreferredSize().height)
         );
@@ -109,7 +76,7 @@ public class FlightSnapshotFrame extends JFrame {
         );
 
         // --- Hold-rooms panel ---
-        HoldRoomsPanel holdPanel = new HoldRoomsPanel(engine, flight);
+        HoldRoomsPanel holdPanel = new HoldRoomsPanel(engine, flight, step + 1);
         JScrollPane holdScroll = new JScrollPane(
                 holdPanel,
                 JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
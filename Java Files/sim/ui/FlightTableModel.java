@@ -10,6 +10,7 @@ import sim.model.Flight;
 import javax.swing.table.AbstractTableModel;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 
@@ -92,6 +93,15 @@ public class FlightTableModel extends AbstractTableModel {
     }
 
 
+    /** Appends many flights with a single table event (bulk import). */
+    public void addFlights(Collection<Flight> newFlights) {
+        if (newFlights == null || newFlights.isEmpty()) return;
+        int first = flights.size();
+        flights.addAll(newFlights);
+        fireTableRowsInserted(first, flights.size()-1);
+    }
+
+
     public void removeFlight(int idx) {
         flights.remove(idx);
         fireTableRowsDeleted(idx, idx);
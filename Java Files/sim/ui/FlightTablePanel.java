@@ -5,9 +5,12 @@ package sim.ui;
 
 
 import sim.model.Flight;
+import sim.service.schedule.FlightScheduleImporter;
+import sim.service.schedule.ScheduleImportResult;
 import javax.swing.*;
 import javax.swing.table.TableColumn;
 import java.awt.*;
+import java.io.File;
 import java.time.LocalTime;
 import java.util.List;
 
@@ -48,12 +51,58 @@ addBtn.addActionListener(e -> model.addFlight(
             int sel = table.getSelectedRow();
             if (sel >= 0) model.removeFlight(sel);
         });
+        JButton importBtn = new JButton("Import Schedule...");
+        importBtn.addActionListener(e -> importSchedule(importBtn));
         JPanel btnPanel = new JPanel();
         btnPanel.add(addBtn);
         btnPanel.add(removeBtn);
+        btnPanel.add(importBtn);
         add(btnPanel, BorderLayout.SOUTH);
     }
 
 
+    /** CSV/TSV schedule import; parsing runs off the EDT, rows are added in one table event. */
+    private void importSchedule(JButton importBtn) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import flight schedule (CSV / TSV)");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File file = chooser.getSelectedFile();
+
+        importBtn.setEnabled(false);
+        new SwingWorker<ScheduleImportResult, Void>() {
+            @Override
+            protected ScheduleImportResult doInBackground() throws Exception {
+                return FlightScheduleImporter.importFile(file);
+            }
+
+            @Override
+            protected void done() {
+                importBtn.setEnabled(true);
+                try {
+                    ScheduleImportResult result = get();
+                    model.addFlights(result.getFlights());
+
+                    StringBuilder msg = new StringBuilder(result.summary());
+                    if (!result.getCounters().isEmpty() || !result.getHoldRooms().isEmpty()) {
+                        msg.append("\n\nCounter / hold-room columns were read but are not applied here;"
+                                + " assign them in their tabs.");
+                    }
+                    int shown = Math.min(10, result.getErrors().size());
+                    if (shown > 0) {
+                        msg.append("\n\nFirst errors:");
+                        for (int i = 0; i < shown; i++) msg.append("\n").append(result.getErrors().get(i));
+                    }
+                    JOptionPane.showMessageDialog(FlightTablePanel.this, msg.toString(), "Schedule import",
+                            result.hasErrors() ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception ex) {
+                    Throwable cause = (ex.getCause() != null) ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(FlightTablePanel.this, "Import failed: " + cause.getMessage(),
+                            "Schedule import", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+
     public List<Flight> getFlights() { return model.getFlights(); }
 }
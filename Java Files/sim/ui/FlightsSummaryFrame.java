@@ -1,12 +1,12 @@
 package sim.ui;
 
 import sim.model.Flight;
-import sim.model.Passenger;
+import sim.service.FlightOutcomeCounters;
 import sim.service.SimulationEngine;
+import sim.service.SimulationRun;
 
 import javax.swing.*;
 import java.awt.*;
-import java.time.Duration;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -14,6 +14,10 @@ import java.util.List;
 public class FlightsSummaryFrame extends JFrame {
     private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm");
 
+    public FlightsSummaryFrame(SimulationRun run) {
+        this(run.getEngine());
+    }
+
     public FlightsSummaryFrame(SimulationEngine engine) {
         super("All Flights Summary");
         setDefaultCloseOperation(DISPOSE_ON_CLOSE);
@@ -21,23 +25,19 @@ public class FlightsSummaryFrame extends JFrame {
 
         List<Flight> flights = engine.getFlights();
 
-        // Recompute global simulation start time (same logic as other UIs)
-        LocalTime firstDep = flights.stream()
-                .map(Flight::getDepartureTime)
-                .min(LocalTime::compareTo)
-                .orElse(LocalTime.MIDNIGHT);
-        LocalTime globalStart = firstDep.minusMinutes(engine.getArrivalSpan());
-
         int cols = Math.min(4, flights.size()); // up to 4 per row
         JPanel grid = new JPanel(new GridLayout(0, cols, 10, 10));
 
         int maxHistoryStep = getMaxHistoryStep(engine);
+        FlightOutcomeCounters outcomes = engine.getFlightOutcomes();
 
-        for (Flight f : flights) {
+        for (int fi = 0; fi < flights.size(); fi++) {
+            Flight f = flights.get(fi);
             LocalTime closeTime = f.getDepartureTime().minusMinutes(20);
 
-            // closeStep is the minute index used by the UI clock label
-            int closeStep = (int) Duration.between(globalStart, closeTime).toMinutes();
+            // closeStep is the minute index used by the UI clock label (from the engine, so dated
+            // schedules that cross midnight count from the global start date-time)
+            int closeStep = engine.getBoardingCloseInterval(f);
 
             // IMPORTANT FIX:
             // history index for "state at closeTime" is closeStep - 1 (because history[0] == time 1)
@@ -48,29 +48,9 @@ public class FlightsSummaryFrame extends JFrame {
             String madeText = "";
             try {
                 int total = (int) Math.round(f.getSeats() * f.getFillPercent());
-                int made = 0;
-
-                // Count across ALL physical rooms at that history step
-                if (engine.getHistoryHoldRooms() != null
-                        && step < engine.getHistoryHoldRooms().size()
-                        && step >= 0) {
-
-                    List<List<Passenger>> holdAtStep = engine.getHistoryHoldRooms().get(step);
-                    for (List<Passenger> room : holdAtStep) {
-                        if (room == null) continue;
-                        for (Passenger p : room) {
-                            if (p != null && p.getFlight() == f) made++;
-                        }
-                    }
-                } else {
-                    // fallback: current state, across all physical rooms
-                    for (List<Passenger> room : engine.getHoldRoomLines()) {
-                        if (room == null) continue;
-                        for (Passenger p : room) {
-                            if (p != null && p.getFlight() == f) made++;
-                        }
-                    }
-                }
+
+                // in any physical room at that history step (= interval step + 1)
+                int made = outcomes.get(fi, step + 1, FlightOutcomeCounters.Counter.IN_HOLD_ROOM);
 
                 madeText = String.format("  (%d/%d)", made, total);
             } catch (Exception ignored) { }
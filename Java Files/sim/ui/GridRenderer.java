@@ -2,13 +2,12 @@ package sim.ui;
 
 import sim.model.Flight;
 import sim.model.Passenger;
-import sim.service.SimulationEngine;
+import sim.service.EngineView;
 
 import javax.swing.JComponent;
 import javax.swing.JViewport;
 import java.awt.*;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class GridRenderer {
     private static final int ROWS = 3;
@@ -24,10 +23,11 @@ public class GridRenderer {
     /**
      * Draws both the queued and served ticket‐counter grids,
      * including scrollbars and click‐to‐inspect hit rectangles.
+     * Renders only from the immutable {@link EngineView}, so any interval can be drawn.
      */
     public static void renderTicketLines(JComponent panel,
                                          Graphics g,
-                                         SimulationEngine engine,
+                                         EngineView view,
                                          int[] queuedOffsets,
                                          int[] servedOffsets,
                                          List<Rectangle> clickableAreas,
@@ -49,10 +49,9 @@ public class GridRenderer {
         int gridWidth = COLS * cellW;
         int trackH = cellW / 2;
 
-        int step = engine.getCurrentInterval() - 1;
-        if (step < 0) return;
+        if (view == null || view.isEmpty()) return;
 
-        int lines = engine.getTicketLines().size();
+        int lines = view.getTicketLineCount();
         int rawSpace = lines > 1 ? (bottom - top) / (lines - 1) : 0;
         int space = Math.max(rawSpace, MIN_LINE_SPACING);
 
@@ -63,17 +62,14 @@ public class GridRenderer {
             g.setColor(Color.BLACK);
             g.drawRect(boxX, boxY, boxSize, boxSize);
             counterAreas.add(new Rectangle(boxX, boxY, boxSize, boxSize));
-            String label = String.valueOf(engine.getCounterConfigs().get(i).getId());
+            String label = String.valueOf(view.getCounterConfigs().get(i).getId());
             FontMetrics fm = g.getFontMetrics();
             int tw = fm.stringWidth(label), th = fm.getAscent();
             int tx = boxX + (boxSize - tw) / 2, ty = boxY + (boxSize + th) / 2;
             g.drawString(label, tx, ty);
 
             g.setColor(Color.YELLOW);
-            List<Passenger> fullQ = engine.getHistoryQueuedTicket().get(step).get(i);
-            List<Passenger> queued = filterFlight == null
-                    ? fullQ
-                    : fullQ.stream().filter(p -> p.getFlight() == filterFlight).collect(Collectors.toList());
+            List<Passenger> queued = EngineView.filter(view.getQueuedTicketLine(i), filterFlight);
             int startXq = boxX - cellW;
 
             int fullColsQ = (queued.size() + ROWS - 1) / ROWS;
@@ -94,16 +90,7 @@ public class GridRenderer {
             }
 
             g.setColor(Color.GREEN);
-            List<Passenger> fullS;
-            if (filterFlight == null) {
-                fullS = engine.getVisibleCompletedTicketLine(i);
-            } else {
-                int delay = engine.getTransitDelayMinutes();
-                fullS = engine.getHistoryServedTicket().get(step).get(i).stream()
-                        .filter(p -> p.getFlight() == filterFlight)
-                        .filter(p -> p.getTicketCompletionMinute() + delay > step)
-                        .collect(Collectors.toList());
-            }
+            List<Passenger> fullS = view.getVisibleServedTicketLine(i, filterFlight);
             int startXs = boxX + boxSize + (COLS - 1) * cellW;
 
             int fullColsS = (fullS.size() + ROWS - 1) / ROWS;
@@ -131,7 +118,7 @@ public class GridRenderer {
      */
     public static void renderCheckpointLines(JComponent panel,
                                              Graphics g,
-                                             SimulationEngine engine,
+                                             EngineView view,
                                              int[] queuedOffsets,
                                              int[] servedOffsets,
                                              List<Rectangle> clickableAreas,
@@ -153,10 +140,9 @@ public class GridRenderer {
         int gridW = COLS * cellW;
         int trackH = cellW / 2;
 
-        int step = engine.getCurrentInterval() - 1;
-        if (step < 0) return;
+        if (view == null || view.isEmpty()) return;
 
-        int lines = engine.getCheckpointLines().size();
+        int lines = view.getCheckpointLineCount();
         int rawSpace = lines > 1 ? (bottom - top) / (lines - 1) : 0;
         int space = Math.max(rawSpace, MIN_LINE_SPACING);
 
@@ -176,10 +162,7 @@ public class GridRenderer {
             g.drawString(lbl, x2, y2);
 
             g.setColor(Color.YELLOW);
-            List<Passenger> fullQC = engine.getHistoryQueuedCheckpoint().get(step).get(i);
-            List<Passenger> queuedC = filterFlight == null
-                    ? fullQC
-                    : fullQC.stream().filter(p -> p.getFlight() == filterFlight).collect(Collectors.toList());
+            List<Passenger> queuedC = EngineView.filter(view.getQueuedCheckpointLine(i), filterFlight);
             int startXc = boxX - cellW;
             drawGridPartial(g, queuedC, startXc,
                     boxY + (boxSize - gridH) / 2,
@@ -202,10 +185,7 @@ public class GridRenderer {
             }
 
             g.setColor(Color.GREEN);
-            List<Passenger> fullSC = engine.getHistoryServedCheckpoint().get(step).get(i);
-            List<Passenger> servedC = filterFlight == null
-                    ? fullSC
-                    : fullSC.stream().filter(p -> p.getFlight() == filterFlight).collect(Collectors.toList());
+            List<Passenger> servedC = EngineView.filter(view.getServedCheckpointLine(i), filterFlight);
             int startXsc = boxX + boxSize + (COLS - 1) * cellW;
             drawGridPartial(g, servedC, startXsc,
                     boxY + (boxSize - gridH) / 2,
@@ -278,19 +258,17 @@ public class GridRenderer {
      */
     public static void renderHoldRooms(JComponent panel,
                                        Graphics g,
-                                       SimulationEngine engine,
+                                       EngineView view,
                                        List<Rectangle> clickableAreas,
                                        List<Passenger> clickablePassengers,
                                        Flight filterFlight) {
         clickableAreas.clear();
         clickablePassengers.clear();
 
-        int step = engine.getCurrentInterval() - 1;
-        if (step < 0) return;
-        if (engine.getHistoryHoldRooms() == null || step >= engine.getHistoryHoldRooms().size()) return;
+        if (view == null || view.isEmpty()) return;
 
-        List<List<Passenger>> snapshot = engine.getHistoryHoldRooms().get(step);
-        List<HoldRoomConfig> configs = engine.getHoldRoomConfigs();
+        List<List<Passenger>> snapshot = view.getHoldRooms();
+        List<HoldRoomConfig> configs = view.getHoldRoomConfigs();
 
         int roomCount = Math.min(snapshot.size(), configs.size());
         if (roomCount <= 0) return;
@@ -331,9 +309,7 @@ public class GridRenderer {
             List<Passenger> full = snapshot.get(i);
             if (full == null) full = List.of();
 
-            List<Passenger> visible = (filterFlight == null)
-                    ? full
-                    : full.stream().filter(p -> p.getFlight() == filterFlight).collect(Collectors.toList());
+            List<Passenger> visible = EngineView.filter(full, filterFlight);
 
             int n = visible.size();
             if (n <= 0) continue;
@@ -16,6 +16,7 @@ import java.util.Set;
  *  - Each hold room has its own checkpoint->hold walking time (stored as total seconds).
  *  - The UI may allow selecting multiple flights per hold room.
  *  - If no flights are selected, this hold room is considered to accept ALL flights.
+ *  - An optional seat capacity lets the engine spread flights so rooms don't overcrowd.
  *
  * Note: We store allowed flights by flight number (String) so the config remains stable
  * across copies/snapshots and doesn't depend on object identity.
@@ -31,6 +32,9 @@ public class HoldRoomConfig implements Serializable {
     // Total seconds from checkpoint to this hold room
     private int walkSecondsFromCheckpoint;
 
+    // Seats; 0 => not set (never treated as full)
+    private int capacity;
+
     public HoldRoomConfig(int id) {
         this(id, 0);
     }
@@ -135,6 +139,19 @@ public class HoldRoomConfig implements Serializable {
         this.walkSecondsFromCheckpoint = m * 60 + s;
     }
 
+    /* ---------------------------
+     * Capacity
+     * --------------------------- */
+
+    /** Seats in the room; 0 means not set, and the room is never treated as overcrowded. */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int seats) {
+        this.capacity = Math.max(0, seats);
+    }
+
     /* ---------------------------
      * Utility
      * --------------------------- */
@@ -145,6 +162,7 @@ public class HoldRoomConfig implements Serializable {
                 "id=" + id +
                 ", allowedFlightNumbers=" + allowedFlightNumbers +
                 ", walkSecondsFromCheckpoint=" + walkSecondsFromCheckpoint +
+                ", capacity=" + capacity +
                 '}';
     }
 
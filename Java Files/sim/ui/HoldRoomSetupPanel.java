@@ -25,8 +25,8 @@ public class HoldRoomSetupPanel extends JPanel {
         model = new HoldRoomTableModel(flights);
         table = new JTable(model);
 
-        // Column 3 (Available Flights) uses your existing checkbox dialog editor
-        table.getColumnModel().getColumn(3)
+        // Column 4 (Available Flights) uses your existing checkbox dialog editor
+        table.getColumnModel().getColumn(4)
                 .setCellEditor(new AvailableFlightsCellEditor(flights));
 
         add(new JScrollPane(table), BorderLayout.CENTER);
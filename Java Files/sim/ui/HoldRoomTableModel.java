@@ -9,13 +9,13 @@ import java.util.Set;
 
 /**
  * Table model for configuring PHYSICAL hold rooms:
- * Columns: [Room #, Walk Min, Walk Sec, Available Flights]
+ * Columns: [Room #, Walk Min, Walk Sec, Capacity, Available Flights]
  *
  * Note: HoldRoomConfig stores allowed flights as flightNumber Strings.
  * The editor returns Set<Flight>, so we convert via cfg.setAllowedFlights(...).
  */
 public class HoldRoomTableModel extends AbstractTableModel {
-    private final String[] columns = { "Room #", "Walk Min", "Walk Sec", "Available Flights" };
+    private final String[] columns = { "Room #", "Walk Min", "Walk Sec", "Capacity", "Available Flights" };
 
     private final List<HoldRoomConfig> rooms = new ArrayList<>();
     private final List<Flight> flights;
@@ -45,7 +45,8 @@ public class HoldRoomTableModel extends AbstractTableModel {
             case 0: return Integer.class; // id
             case 1: return Integer.class; // walk min
             case 2: return Integer.class; // walk sec
-            case 3: return String.class;  // display string (editor returns Set<Flight>)
+            case 3: return Integer.class; // capacity (0 = not set)
+            case 4: return String.class;  // display string (editor returns Set<Flight>)
             default: return Object.class;
         }
     }
@@ -57,7 +58,8 @@ public class HoldRoomTableModel extends AbstractTableModel {
             case 0: return cfg.getId();
             case 1: return cfg.getWalkMinutes();
             case 2: return cfg.getWalkSecondsPart();
-            case 3:
+            case 3: return cfg.getCapacity();
+            case 4:
                 // show "All" when no restrictions
                 if (cfg.getAllowedFlightNumbers().isEmpty()) return "All";
                 return String.join(", ", cfg.getAllowedFlightNumbers());
@@ -68,8 +70,8 @@ public class HoldRoomTableModel extends AbstractTableModel {
 
     @Override
     public boolean isCellEditable(int row, int col) {
-        // walk min/sec and flight selection are editable
-        return col == 1 || col == 2 || col == 3;
+        // walk min/sec, capacity and flight selection are editable
+        return col >= 1 && col <= 4;
     }
 
     @Override
@@ -91,7 +93,11 @@ public class HoldRoomTableModel extends AbstractTableModel {
                 cfg.setWalkTime(m, s);
                 break;
             }
-            case 3: { // flights from editor
+            case 3: { // seats
+                cfg.setCapacity(toNonNegInt(val));
+                break;
+            }
+            case 4: { // flights from editor
                 if (val instanceof Set) {
                     Set<Flight> selected = (Set<Flight>) val;
 
@@ -132,6 +138,7 @@ public class HoldRoomTableModel extends AbstractTableModel {
         for (int i = 0; i < rooms.size(); i++) {
             HoldRoomConfig old = rooms.get(i);
             HoldRoomConfig cfg = new HoldRoomConfig(i + 1, old.getWalkSecondsFromCheckpoint());
+            cfg.setCapacity(old.getCapacity());
             cfg.setAllowedFlightNumbers(old.getAllowedFlightNumbers());
             rebuilt.add(cfg);
         }
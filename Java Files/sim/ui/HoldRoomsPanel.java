@@ -2,6 +2,7 @@ package sim.ui;
 
 import sim.model.Flight;
 import sim.model.Passenger;
+import sim.service.EngineView;
 import sim.service.SimulationEngine;
 
 import javax.swing.*;
@@ -22,15 +23,29 @@ public class HoldRoomsPanel extends JPanel {
     private final Flight           filterFlight;
     private final List<Rectangle>  clickableAreas;
     private final List<Passenger>  clickablePassengers;
+    private final int              viewInterval;   // -1 = follow engine.getCurrentInterval()
 
     public HoldRoomsPanel(SimulationEngine engine,
                           List<Rectangle> clickableAreas,
                           List<Passenger> clickablePassengers,
                           Flight filterFlight) {
+        this(engine, clickableAreas, clickablePassengers, filterFlight, -1);
+    }
+
+    /**
+     * Pinned constructor: always renders the given interval instead of following the engine.
+     * @param viewInterval interval to show (history step viewInterval - 1), or -1 to follow the engine
+     */
+    public HoldRoomsPanel(SimulationEngine engine,
+                          List<Rectangle> clickableAreas,
+                          List<Passenger> clickablePassengers,
+                          Flight filterFlight,
+                          int viewInterval) {
         this.engine              = engine;
         this.filterFlight        = filterFlight;
         this.clickableAreas      = clickableAreas;
         this.clickablePassengers = clickablePassengers;
+        this.viewInterval        = viewInterval;
 
         // Preferred size that matches the renderer’s "wrap into columns" behavior.
         // We pick a stable default wrap height of 3 rooms per column; scrollpane can adjust as needed.
@@ -64,11 +79,20 @@ public class HoldRoomsPanel extends JPanel {
         this(engine, new ArrayList<>(), new ArrayList<>(), filterFlight);
     }
 
+    public HoldRoomsPanel(SimulationEngine engine, Flight filterFlight, int viewInterval) {
+        this(engine, new ArrayList<>(), new ArrayList<>(), filterFlight, viewInterval);
+    }
+
+    /** Snapshot of the interval this panel shows; safe to read while the engine advances. */
+    public EngineView currentView() {
+        return viewInterval >= 0 ? engine.viewAt(viewInterval) : engine.currentView();
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
         GridRenderer.renderHoldRooms(
-                this, g, engine,
+                this, g, currentView(),
                 clickableAreas, clickablePassengers,
                 filterFlight
         );
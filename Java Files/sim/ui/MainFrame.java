@@ -4,6 +4,11 @@ import sim.floorplan.ui.FloorplanEditorPanel;   // ✅ NEW
 import sim.model.ArrivalCurveConfig;
 import sim.model.Flight;
 import sim.service.SimulationEngine;
+import sim.service.SimulationRun;
+import sim.service.batch.RunSummary;
+import sim.service.batch.Scenario;
+import sim.service.batch.ScenarioIO;
+import sim.service.batch.ScenarioResultCache;
 
 import javax.swing.*;
 import java.awt.*;
@@ -54,6 +59,7 @@ public class MainFrame extends JFrame {
 
         // ✅ NEW (Step 6)
         arrivalCurvePanel  = new ArrivalCurveEditorPanel(ArrivalCurveConfig.legacyDefault());
+        arrivalCurvePanel.setPreviewSchedule(flightTablePanel.getFlights());
 
         // ✅ NEW (Milestone 4)
         floorplanEditorPanel = new FloorplanEditorPanel();
@@ -181,8 +187,8 @@ public class MainFrame extends JFrame {
 
             int effectiveArrivalSpan = Math.max(baseArrivalSpan, curveStart);
 
-            // build the pre-run engine for the data table (populate its history)
-            SimulationEngine tableEngine = createEngine(
+            // one engine, run once, shared by the data table and the animated view
+            SimulationEngine engine = createEngine(
                     percentInPerson,
                     counters,
                     checkpoints,
@@ -195,41 +201,88 @@ public class MainFrame extends JFrame {
             );
 
             // ✅ NEW (Step 6): apply curve config BEFORE running
-            tableEngine.setArrivalCurveConfig(curveCfg);
-            tableEngine.runAllIntervals();
+            engine.setArrivalCurveConfig(curveCfg);
+
+            // identical inputs reopen the cached run instead of simulating again
+            String hash = scenarioHash(percentInPerson, effectiveArrivalSpan, interval, transitDelay, holdDelay,
+                    flights, counters, checkpoints, holdRooms, curveCfg);
+            SimulationRun cached = hash == null ? null : ScenarioResultCache.shared().getRun(hash);
+            if (cached != null && !cached.isViewOpen()) {
+                cached.getEngine().goToInterval(0);
+                new DataTableFrame(cached).setVisible(true);
+                new SimulationFrame(cached).setVisible(true);
+                return;
+            }
 
-            // build the fresh engine for live animation
-            SimulationEngine simEngine = createEngine(
-                    percentInPerson,
-                    counters,
-                    checkpoints,
-                    effectiveArrivalSpan,
-                    interval,
-                    transitDelay,
-                    holdDelay,
-                    flights,
-                    holdRooms
-            );
+            runInBackground(engine, hash);
 
-            // ✅ NEW (Step 6): apply curve config BEFORE showing UI
-            simEngine.setArrivalCurveConfig(curveCfg);
+        } catch (Exception ex) {
+            showSimulationError(ex);
+        }
+    }
 
-            new DataTableFrame(tableEngine).setVisible(true);
-            new SimulationFrame(simEngine).setVisible(true);
+    /**
+     * Computes the run once, off the EDT; the data table and the animated view then share it
+     * (the animation replays the run's snapshots instead of simulating again).
+     */
+    private void runInBackground(SimulationEngine engine, String hash) {
+        startSimulationButton.setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+        new SwingWorker<SimulationRun, Void>() {
+            @Override
+            protected SimulationRun doInBackground() {
+                if (hash == null) return SimulationRun.compute(engine);
+
+                // the summary is taken before the rewind, while the queue series are complete
+                long t0 = System.nanoTime();
+                RunSummary[] summary = new RunSummary[1];
+                SimulationRun run = SimulationRun.compute(engine, e ->
+                        summary[0] = RunSummary.fromEngine("ui", e, (System.nanoTime() - t0) / 1_000_000L));
+                ScenarioResultCache.shared().put(hash, summary[0], run);
+                return run;
+            }
 
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            StringWriter sw = new StringWriter();
-            ex.printStackTrace(new PrintWriter(sw));
-            JTextArea area = new JTextArea(sw.toString(), 20, 60);
-            area.setEditable(false);
-            JOptionPane.showMessageDialog(this,
-                    new JScrollPane(area),
-                    "Simulation Error",
-                    JOptionPane.ERROR_MESSAGE);
+            @Override
+            protected void done() {
+                startSimulationButton.setEnabled(true);
+                setCursor(Cursor.getDefaultCursor());
+                try {
+                    SimulationRun run = get();
+                    new DataTableFrame(run).setVisible(true);
+                    new SimulationFrame(run).setVisible(true);
+                } catch (Exception ex) {
+                    showSimulationError(ex.getCause() != null ? ex.getCause() : ex);
+                }
+            }
+        }.execute();
+    }
+
+    /** Canonical hash of the current inputs, or null when they do not form a valid Scenario. */
+    private static String scenarioHash(double percentInPerson, int arrivalSpan, int interval, int transitDelay,
+                                       int holdDelay, List<Flight> flights, List<TicketCounterConfig> counters,
+                                       List<CheckpointConfig> checkpoints, List<HoldRoomConfig> holdRooms,
+                                       ArrivalCurveConfig curveCfg) {
+        try {
+            return ScenarioIO.canonicalHash(new Scenario("ui", percentInPerson, arrivalSpan, interval,
+                    transitDelay, holdDelay, flights, counters, checkpoints, holdRooms, curveCfg));
+        } catch (RuntimeException notCacheable) {
+            return null;
         }
     }
 
+    private void showSimulationError(Throwable ex) {
+        ex.printStackTrace();
+        StringWriter sw = new StringWriter();
+        ex.printStackTrace(new PrintWriter(sw));
+        JTextArea area = new JTextArea(sw.toString(), 20, 60);
+        area.setEditable(false);
+        JOptionPane.showMessageDialog(this,
+                new JScrollPane(area),
+                "Simulation Error",
+                JOptionPane.ERROR_MESSAGE);
+    }
+
     /**
      * Try to get hold-room delay from the Hold Rooms tab/panel, without hard-coding
      * a specific method name (so you don’t break if you renamed it).
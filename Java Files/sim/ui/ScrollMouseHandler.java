@@ -2,6 +2,7 @@ package sim.ui;
 
 import sim.model.Flight;
 import sim.model.Passenger;
+import sim.service.EngineView;
 import sim.service.SimulationEngine;
 
 import javax.swing.*;
@@ -9,10 +10,9 @@ import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.time.LocalTime;
-import java.time.Duration;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 /**
  * Handles mouse interactions for scrolling queued and served passenger grids,
@@ -23,6 +23,7 @@ public abstract class ScrollMouseHandler extends MouseAdapter {
     protected static final int COLS = 15;
 
     protected final SimulationEngine engine;
+    protected final Supplier<EngineView> views;   // interval the owning panel is showing
     protected final List<Rectangle> clickableAreas;
     protected final List<Passenger> clickablePassengers;
     protected final int[] queuedOffsets;
@@ -44,7 +45,24 @@ public abstract class ScrollMouseHandler extends MouseAdapter {
                               int[] servedOffsets,
                               Flight filterFlight,
                               List<Rectangle> counterAreas) {  // ← added param
+        this(engine, engine::currentView, clickableAreas, clickablePassengers,
+             queuedOffsets, servedOffsets, filterFlight, counterAreas);
+    }
+
+    /**
+     * @param views supplies the {@link EngineView} the panel is rendering, so hit-testing
+     *              and dialogs read the same interval as the paint pass.
+     */
+    public ScrollMouseHandler(SimulationEngine engine,
+                              Supplier<EngineView> views,
+                              List<Rectangle> clickableAreas,
+                              List<Passenger> clickablePassengers,
+                              int[] queuedOffsets,
+                              int[] servedOffsets,
+                              Flight filterFlight,
+                              List<Rectangle> counterAreas) {
         this.engine = engine;
+        this.views = views;
         this.clickableAreas = clickableAreas;
         this.clickablePassengers = clickablePassengers;
         this.queuedOffsets = queuedOffsets;
@@ -124,6 +142,19 @@ public abstract class ScrollMouseHandler extends MouseAdapter {
                   filterFlight, counterAreas);
         }
 
+        public TicketScrollHandler(SimulationEngine engine,
+                                   Supplier<EngineView> views,
+                                   List<Rectangle> clickableAreas,
+                                   List<Passenger> clickablePassengers,
+                                   int[] queuedOffsets,
+                                   int[] servedOffsets,
+                                   Flight filterFlight,
+                                   List<Rectangle> counterAreas) {
+            super(engine, views, clickableAreas, clickablePassengers,
+                  queuedOffsets, servedOffsets,
+                  filterFlight, counterAreas);
+        }
+
         @Override
         protected void handlePress(MouseEvent e) {
             Component c = e.getComponent();
@@ -137,20 +168,15 @@ public abstract class ScrollMouseHandler extends MouseAdapter {
             int gridWidth = COLS * cellW;
             int gridHeight = ROWS * cellW;
             int trackH = cellW / 2;
-            int lines = engine.getTicketLines().size();
+            EngineView view = views.get();
+            if (view.isEmpty()) return;
+            int lines = view.getTicketLineCount();
             int rawSpace = lines > 1 ? (bottom - top) / (lines - 1) : 0;
             int space = Math.max(rawSpace, GridRenderer.MIN_LINE_SPACING);
 
             // queued scroll zone
             for (int i = 0; i < lines; i++) {
-                List<Passenger> fullQ = engine.getHistoryQueuedTicket()
-                                              .get(engine.getCurrentInterval() - 1)
-                                              .get(i);
-                List<Passenger> q = filterFlight == null
-                    ? fullQ
-                    : fullQ.stream()
-                           .filter(p -> p.getFlight() == filterFlight)
-                           .collect(Collectors.toList());
+                List<Passenger> q = EngineView.filter(view.getQueuedTicketLine(i), filterFlight);
                 int fullCols = (q.size() + ROWS - 1) / ROWS;
                 if (fullCols <= COLS) continue;
 
@@ -175,22 +201,8 @@ public abstract class ScrollMouseHandler extends MouseAdapter {
 
             // served scroll zone (snapshot & live)
             for (int i = 0; i < lines; i++) {
-                List<Passenger> fullS;
-                if (filterFlight == null) {
-                    // live mode
-                    fullS = engine.getVisibleCompletedTicketLine(i);
-                } else {
-                    // snapshot mode: only those still within transit window
-                    int step  = engine.getCurrentInterval() - 1;
-                    int delay = engine.getTransitDelayMinutes();
-                    fullS = engine.getHistoryServedTicket()
-                                .get(step)
-                                .get(i)
-                                .stream()
-                                .filter(p -> p.getFlight() == filterFlight)
-                                .filter(p -> p.getTicketCompletionMinute() + delay > step)
-                                .collect(Collectors.toList());
-                }
+                // only those still within the transit window
+                List<Passenger> fullS = view.getVisibleServedTicketLine(i, filterFlight);
                 int fullCols = (fullS.size() + ROWS - 1) / ROWS;
                 if (fullCols <= COLS) continue;
 
@@ -220,34 +232,16 @@ public abstract class ScrollMouseHandler extends MouseAdapter {
             int dx = e.getX() - initialMouseX;
             int cellW = 60 / ROWS;
 
+            EngineView view = views.get();
+
             if (draggingQueued) {
-                List<Passenger> fullQ = engine.getHistoryQueuedTicket()
-                                              .get(engine.getCurrentInterval() - 1)
-                                              .get(dragLine);
-                List<Passenger> q = filterFlight == null
-                    ? fullQ
-                    : fullQ.stream()
-                           .filter(p -> p.getFlight() == filterFlight)
-                           .collect(Collectors.toList());
+                List<Passenger> q = EngineView.filter(view.getQueuedTicketLine(dragLine), filterFlight);
                 int fullCols = (q.size() + ROWS - 1) / ROWS;
 
                 int off = initialOffset + dx / cellW;
                 queuedOffsets[dragLine] = Math.max(0, Math.min(off, fullCols - COLS));
             } else {
-                List<Passenger> fullS;
-                if (filterFlight == null) {
-                    fullS = engine.getVisibleCompletedTicketLine(dragLine);
-                } else {
-                    int step  = engine.getCurrentInterval() - 1;
-                    int delay = engine.getTransitDelayMinutes();
-                    fullS = engine.getHistoryServedTicket()
-                                .get(step)
-                                .get(dragLine)
-                                .stream()
-                                .filter(p -> p.getFlight() == filterFlight)
-                                .filter(p -> p.getTicketCompletionMinute() + delay > step)
-                                .collect(Collectors.toList());
-                }
+                List<Passenger> fullS = view.getVisibleServedTicketLine(dragLine, filterFlight);
                 int fullCols = (fullS.size() + ROWS - 1) / ROWS;
                 int off = initialOffset + dx / cellW;
                 servedOffsets[dragLine] = Math.max(0, Math.min(off, fullCols - COLS));
@@ -262,24 +256,10 @@ public abstract class ScrollMouseHandler extends MouseAdapter {
             Point pt = e.getPoint();
             for (int i = 0; i < counterAreas.size(); i++) {
                 if (counterAreas.get(i).contains(pt)) {
-                    int waiting, completed;
-                    if (filterFlight == null) {
-                        waiting = engine.getTicketLines().get(i).size();
-                        completed = engine.getCompletedTicketLines().get(i).size();
-                    } else {
-                        int step = engine.getCurrentInterval() - 1;
-                        waiting = (int) engine.getHistoryQueuedTicket()
-                                            .get(step).get(i)
-                                            .stream()
-                                            .filter(p -> p.getFlight() == filterFlight)
-                                            .count();
-                        completed = (int) engine.getHistoryServedTicket()
-                                             .get(step).get(i)
-                                             .stream()
-                                             .filter(p -> p.getFlight() == filterFlight)
-                                             .count();
-                    }
-                    int id = engine.getCounterConfigs().get(i).getId();
+                    EngineView view = views.get();
+                    int waiting   = EngineView.filter(view.getQueuedTicketLine(i), filterFlight).size();
+                    int completed = EngineView.filter(view.getServedTicketLine(i), filterFlight).size();
+                    int id = view.getCounterConfigs().get(i).getId();
                     // build the base message
                     StringBuilder msg = new StringBuilder()
                         .append("Counter #: ").append(id)
@@ -287,7 +267,7 @@ public abstract class ScrollMouseHandler extends MouseAdapter {
                         .append("\nCompleted: ").append(completed);
 
                     // ——— compute max queue & when ———
-                    var hist     = engine.getHistoryQueuedTicket();
+                    int[] peak   = engine.getPeakQueuedTicketLine(i);
                     int interval = engine.getInterval();
                     LocalTime firstDep = engine.getFlights().stream()
                         .map(Flight::getDepartureTime)
@@ -296,14 +276,7 @@ public abstract class ScrollMouseHandler extends MouseAdapter {
                     LocalTime startTime = firstDep.minusMinutes(engine.getArrivalSpan());
                     DateTimeFormatter fmt = DateTimeFormatter.ofPattern("HH:mm");
 
-                    int maxSize = 0, maxIdx = 0;
-                    for (int j = 0; j < hist.size(); j++) {
-                        int sz = hist.get(j).get(i).size();
-                        if (sz > maxSize) {
-                            maxSize = sz;
-                            maxIdx  = j;
-                        }
-                    }
+                    int maxSize = peak[0], maxIdx = peak[1];
                     LocalTime maxTime = startTime.plusMinutes((long)(maxIdx + 1) * interval);
 
                     msg.append("\nMax # in line: ").append(maxSize)
@@ -337,6 +310,19 @@ public abstract class ScrollMouseHandler extends MouseAdapter {
                   filterFlight, counterAreas);
         }
 
+        public CheckpointScrollHandler(SimulationEngine engine,
+                                       Supplier<EngineView> views,
+                                       List<Rectangle> clickableAreas,
+                                       List<Passenger> clickablePassengers,
+                                       int[] queuedOffsets,
+                                       int[] servedOffsets,
+                                       Flight filterFlight,
+                                       List<Rectangle> counterAreas) {
+            super(engine, views, clickableAreas, clickablePassengers,
+                  queuedOffsets, servedOffsets,
+                  filterFlight, counterAreas);
+        }
+
         @Override
         protected void handlePress(MouseEvent e) {
             Component c = e.getComponent();
@@ -350,20 +336,15 @@ public abstract class ScrollMouseHandler extends MouseAdapter {
             int gridWidth = COLS * cellW;
             int gridHeight = ROWS * cellW;
             int trackH = cellW / 2;
-            int lines = engine.getCheckpointLines().size();
+            EngineView view = views.get();
+            if (view.isEmpty()) return;
+            int lines = view.getCheckpointLineCount();
             int rawSpace = lines > 1 ? (bottom - top) / (lines - 1) : 0;
             int space = Math.max(rawSpace, GridRenderer.MIN_LINE_SPACING);
 
             // queued scroll zone
             for (int i = 0; i < lines; i++) {
-                List<Passenger> fullQ = engine.getHistoryQueuedCheckpoint()
-                                              .get(engine.getCurrentInterval() - 1)
-                                              .get(i);
-                List<Passenger> q = filterFlight == null
-                    ? fullQ
-                    : fullQ.stream()
-                           .filter(p -> p.getFlight() == filterFlight)
-                           .collect(Collectors.toList());
+                List<Passenger> q = EngineView.filter(view.getQueuedCheckpointLine(i), filterFlight);
                 int fullCols = (q.size() + ROWS - 1) / ROWS;
                 if (fullCols <= COLS) continue;
 
@@ -388,14 +369,7 @@ public abstract class ScrollMouseHandler extends MouseAdapter {
 
             // served scroll zone
             for (int i = 0; i < lines; i++) {
-                List<Passenger> fullS = engine.getHistoryServedCheckpoint()
-                                              .get(engine.getCurrentInterval() - 1)
-                                              .get(i);
-                List<Passenger> s = filterFlight == null
-                    ? fullS
-                    : fullS.stream()
-                           .filter(p -> p.getFlight() == filterFlight)
-                           .collect(Collectors.toList());
+                List<Passenger> s = EngineView.filter(view.getServedCheckpointLine(i), filterFlight);
                 int fullCols = (s.size() + ROWS - 1) / ROWS;
                 if (fullCols <= COLS) continue;
 
@@ -425,27 +399,15 @@ public abstract class ScrollMouseHandler extends MouseAdapter {
             int dx = e.getX() - initialMouseX;
             int cellW = 60 / ROWS;
 
+            EngineView view = views.get();
+
             if (draggingQueued) {
-                List<Passenger> fullQ = engine.getHistoryQueuedCheckpoint()
-                                              .get(engine.getCurrentInterval() - 1)
-                                              .get(dragLine);
-                List<Passenger> q = filterFlight == null
-                    ? fullQ
-                    : fullQ.stream()
-                           .filter(p -> p.getFlight() == filterFlight)
-                           .collect(Collectors.toList());
+                List<Passenger> q = EngineView.filter(view.getQueuedCheckpointLine(dragLine), filterFlight);
                 int fullCols = (q.size() + ROWS - 1) / ROWS;
                 int off = initialOffset + dx / cellW;
                 queuedOffsets[dragLine] = Math.max(0, Math.min(off, fullCols - COLS));
             } else {
-                List<Passenger> fullS = engine.getHistoryServedCheckpoint()
-                                              .get(engine.getCurrentInterval() - 1)
-                                              .get(dragLine);
-                List<Passenger> s = filterFlight == null
-                    ? fullS
-                    : fullS.stream()
-                           .filter(p -> p.getFlight() == filterFlight)
-                           .collect(Collectors.toList());
+                List<Passenger> s = EngineView.filter(view.getServedCheckpointLine(dragLine), filterFlight);
                 int fullCols = (s.size() + ROWS - 1) / ROWS;
                 int off = initialOffset + dx / cellW;
                 servedOffsets[dragLine] = Math.max(0, Math.min(off, fullCols - COLS));
@@ -459,23 +421,9 @@ public abstract class ScrollMouseHandler extends MouseAdapter {
             Point pt = e.getPoint();
             for (int i = 0; i < counterAreas.size(); i++) {
                 if (counterAreas.get(i).contains(pt)) {
-                    int waiting, completed;
-                    if (filterFlight == null) {
-                        waiting = engine.getCheckpointLines().get(i).size();
-                        completed = engine.getCompletedCheckpointLines().get(i).size();
-                    } else {
-                        int step = engine.getCurrentInterval() - 1;
-                        waiting = (int) engine.getHistoryQueuedCheckpoint()
-                                             .get(step).get(i)
-                                             .stream()
-                                             .filter(p -> p.getFlight() == filterFlight)
-                                             .count();
-                        completed = (int) engine.getHistoryServedCheckpoint()
-                                               .get(step).get(i)
-                                               .stream()
-                                               .filter(p -> p.getFlight() == filterFlight)
-                                               .count();
-                    }
+                    EngineView view = views.get();
+                    int waiting   = EngineView.filter(view.getQueuedCheckpointLine(i), filterFlight).size();
+                    int completed = EngineView.filter(view.getServedCheckpointLine(i), filterFlight).size();
                     int id = i + 1;
             // build the base message with StringBuilder
             StringBuilder msg = new StringBuilder()
@@ -484,7 +432,7 @@ public abstract class ScrollMouseHandler extends MouseAdapter {
                 .append("\nCompleted: ").append(completed);
 
             // ——— compute max queue & when ———
-            var hist     = engine.getHistoryQueuedCheckpoint();
+            int[] peak   = engine.getPeakQueuedCheckpointLine(i);
             int interval = engine.getInterval();
             // reconstruct sim start time
             LocalTime firstDep = engine.getFlights().stream()
@@ -494,14 +442,7 @@ public abstract class ScrollMouseHandler extends MouseAdapter {
             LocalTime startTime = firstDep.minusMinutes(engine.getArrivalSpan());
             DateTimeFormatter fmt = DateTimeFormatter.ofPattern("HH:mm");
 
-            int maxSize = 0, maxIdx = 0;
-            for (int j = 0; j < hist.size(); j++) {
-                int sz = hist.get(j).get(i).size();
-                if (sz > maxSize) {
-                    maxSize = sz;
-                    maxIdx  = j;
-                }
-            }
+            int maxSize = peak[0], maxIdx = peak[1];
             LocalTime maxTime = startTime.plusMinutes((long)(maxIdx + 1) * interval);
 
             msg.append("\nMax # in line: ").append(maxSize)
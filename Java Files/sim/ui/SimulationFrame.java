@@ -1,8 +1,9 @@
 package sim.ui;
 
 import sim.model.Flight;
-import sim.model.Passenger;
+import sim.service.FlightOutcomeCounters;
 import sim.service.SimulationEngine;
+import sim.service.SimulationRun;
 
 import javax.swing.*;
 import javax.swing.event.ChangeEvent;
@@ -258,6 +259,24 @@ public class SimulationFrame extends JFrame {
         }
     }
 
+    /**
+     * Replays a computed run: stepping and scrubbing restore the run's snapshots instead of
+     * simulating again, and the summary is available right away.
+     */
+    public SimulationFrame(SimulationRun run) {
+        this(run.getEngine());
+        simulationCompleted = true;
+        summaryBtn.setEnabled(true);
+
+        run.openView();
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                run.closeView();
+            }
+        });
+    }
+
     // ==========================================================
     // EXISTING constructor (simulation view)
     // ==========================================================
@@ -535,12 +554,8 @@ public class SimulationFrame extends JFrame {
             for (Flight f : newlyClosed) {
                 int total = (int)Math.round(f.getSeats() * f.getFillPercent());
 
-                int made = 0;
-                for (java.util.LinkedList<Passenger> room : engine.getHoldRoomLines()) {
-                    for (Passenger p : room) {
-                        if (p != null && p.getFlight() == f) made++;
-                    }
-                }
+                int made = engine.getFlightOutcomes().getCurrent(
+                        engine.getFlightIndex(f), FlightOutcomeCounters.Counter.IN_HOLD_ROOM);
 
                 JOptionPane.showMessageDialog(
                         SimulationFrame.this,